@@ -163,6 +163,34 @@ CREATE TABLE failed_login_attempt
   user_agent NVARCHAR(512) NULL,
   CONSTRAINT PK_id_attempt_failed_login_attempt PRIMARY KEY CLUSTERED (id_attempt)
 );
+-- Índices compuestos alineados con las consultas de FailedLoginAttemptRepository:
+-- los conteos por rango (countBy...AttemptTimeBetween) se resuelven solo con la
+-- clave del índice, findByEmail/findByNickname aprovechan el orden por attempt_time
+-- y las eliminaciones por lotes DELETE TOP (n) localizan las filas con un seek
+CREATE INDEX idx_email_attempt_time_failed_login_attempt ON failed_login_attempt(email, attempt_time);
+CREATE INDEX idx_nickname_attempt_time_failed_login_attempt ON failed_login_attempt(nickname, attempt_time);
+CREATE INDEX idx_ip_address_attempt_time_failed_login_attempt ON failed_login_attempt(ip_address, attempt_time);
+CREATE INDEX idx_attempt_time_failed_login_attempt ON failed_login_attempt(attempt_time);
+
+-- ===============================================================
+-- Description: Contadores por hora de los intentos de sesión fallidos
+-- por correo ('EMAIL'), nickname ('NICKNAME') y dirección IP ('IP').
+-- Se mantiene mediante el trigger trg_failed_login_attempt_hourly y
+-- permite responder los conteos del administrador en O(horas) en vez
+-- de recorrer failed_login_attempt
+-- ===============================================================
+CREATE TABLE failed_login_attempt_hourly
+(
+  -- Dimensión del contador: 'EMAIL', 'NICKNAME' o 'IP'
+  dimension NVARCHAR(10) NOT NULL,
+  -- Valor de la dimensión (correo, nickname o dirección IP)
+  dimension_value NVARCHAR(254) NOT NULL,
+  -- Inicio de la hora (UTC) a la que corresponde el contador
+  hour_bucket DATETIME2(0) NOT NULL,
+  -- Número de intentos registrados en la hora
+  attempt_count INT NOT NULL,
+  CONSTRAINT PK_failed_login_attempt_hourly PRIMARY KEY CLUSTERED (dimension, dimension_value, hour_bucket)
+);
 
 -- ===============================================================
 -- Author: Mario Martínez Lanuza
@@ -186,9 +214,25 @@ CREATE TABLE user_login_activity
   CONSTRAINT PK_id_session_user_login_activity PRIMARY KEY CLUSTERED (id_session),
   CONSTRAINT FK_id_user_user_login_activity FOREIGN KEY (id_user) REFERENCES user_mva(id)
 );
--- Índices adicionales para mejorar el rendimiento de las consultas
-CREATE INDEX idx_id_user_user_login_activity ON user_login_activity(id_user);
-CREATE INDEX idx_session_status_user_login_activity ON user_login_activity(session_status);
+-- Índices compuestos alineados con las consultas de UserLoginActivityRepository.
+-- Los INCLUDE cubren las columnas que se mapean al DTO para evitar el key lookup
+-- sobre el índice clúster
+-- findByUserIdAndSessionStatus, countBy... y deleteChunkBy... UserIdAndSessionStatus
+CREATE INDEX idx_id_user_session_status_user_login_activity
+  ON user_login_activity(id_user, session_status)
+  INCLUDE (session_time, ip_address, user_agent);
+-- findByUserId (ordenado por session_time) y findByUserIdAndSessionTimeBetween
+CREATE INDEX idx_id_user_session_time_user_login_activity
+  ON user_login_activity(id_user, session_time)
+  INCLUDE (ip_address, user_agent, session_status);
+-- findByIpAddressAndSessionTimeBetween y findByIpAddressAndSessionStatus
+CREATE INDEX idx_ip_address_session_time_user_login_activity
+  ON user_login_activity(ip_address, session_time)
+  INCLUDE (id_user, user_agent, session_status);
+-- findByUserAgentAndSessionTimeBetween
+CREATE INDEX idx_user_agent_session_time_user_login_activity
+  ON user_login_activity(user_agent, session_time)
+  INCLUDE (id_user, ip_address, session_status);
 
  GO
 
@@ -213,6 +257,11 @@ CREATE TABLE refresh_token
   -- Clave foránea que hace referencia a la tabla user_mva
   CONSTRAINT FK_user_id_refresh_token FOREIGN KEY (id_user) REFERENCES user_mva(id) ON DELETE CASCADE
 );
+-- La rotación (RefreshTokenRepository.rotateToken) localiza la fila por el valor
+-- del token en un UPDATE condicionado; el índice único evita recorrer la tabla
+CREATE UNIQUE INDEX idx_token_refresh_token ON refresh_token(token);
+-- findByUserId y deleteByUser
+CREATE INDEX idx_id_user_refresh_token ON refresh_token(id_user);
 
 
 
@@ -387,6 +436,68 @@ BEGIN
 END;
 
 
+GO
+
+-- ===============================================================
+-- Description: Trigger que mantiene los contadores por hora de
+-- failed_login_attempt_hourly. Suma las filas insertadas y resta las
+-- eliminadas (incluidas las depuraciones DELETE TOP (n)), de modo que
+-- los contadores coinciden siempre con la tabla de intentos
+-- ===============================================================
+IF EXISTS (SELECT 1
+FROM sys.triggers
+WHERE object_id = OBJECT_ID(N'[dbo].[trg_failed_login_attempt_hourly]'))
+BEGIN
+  DROP TRIGGER [dbo].[trg_failed_login_attempt_hourly];
+END
+GO
+
+CREATE TRIGGER trg_failed_login_attempt_hourly
+ON failed_login_attempt
+AFTER INSERT, UPDATE, DELETE
+AS
+BEGIN
+  SET NOCOUNT ON;
+
+  -- Variación neta por dimensión y hora: +1 por fila insertada, -1 por fila eliminada
+  WITH changes AS
+  (
+    SELECT attempt_time, email, nickname, ip_address, 1 AS delta FROM inserted
+    UNION ALL
+    SELECT attempt_time, email, nickname, ip_address, -1 AS delta FROM deleted
+  ),
+  dimensions AS
+  (
+    SELECT N'EMAIL' AS dimension, email AS dimension_value, attempt_time, delta
+    FROM changes WHERE email IS NOT NULL
+    UNION ALL
+    SELECT N'NICKNAME', nickname, attempt_time, delta
+    FROM changes WHERE nickname IS NOT NULL
+    UNION ALL
+    SELECT N'IP', ip_address, attempt_time, delta
+    FROM changes
+  )
+  MERGE failed_login_attempt_hourly WITH (HOLDLOCK) AS target
+  USING
+  (
+    SELECT dimension, dimension_value,
+      CAST(DATEADD(HOUR, DATEDIFF(HOUR, 0, attempt_time), 0) AS DATETIME2(0)) AS hour_bucket,
+      SUM(delta) AS delta
+    FROM dimensions
+    GROUP BY dimension, dimension_value, DATEADD(HOUR, DATEDIFF(HOUR, 0, attempt_time), 0)
+  ) AS source
+  ON target.dimension = source.dimension
+    AND target.dimension_value = source.dimension_value
+    AND target.hour_bucket = source.hour_bucket
+  WHEN MATCHED AND target.attempt_count + source.delta <= 0 THEN
+    DELETE
+  WHEN MATCHED AND source.delta <> 0 THEN
+    UPDATE SET target.attempt_count = target.attempt_count + source.delta
+  WHEN NOT MATCHED BY TARGET AND source.delta > 0 THEN
+    INSERT (dimension, dimension_value, hour_bucket, attempt_count)
+    VALUES (source.dimension, source.dimension_value, source.hour_bucket, source.delta);
+END;
+
 GO
 
 -- ===============================================================
@@ -463,6 +574,13 @@ BEGIN
     WHERE id = @id_user;
 
     COMMIT TRANSACTION
+
+    -- Devuelve el usuario actualizado con su rol: la aplicación no lo vuelve a cargar
+    SELECT u.id, u.first_name, u.last_name, u.second_last_name, u.email, u.nickname,
+      u.language_key, u.status, u.activated, ua.authority_name
+    FROM user_mva u
+      LEFT JOIN user_authority ua ON ua.user_id = u.id
+    WHERE u.id = @id_user;
   END TRY
   BEGIN CATCH
     ROLLBACK TRANSACTION;
@@ -604,7 +722,18 @@ BEGIN
         WHERE user_id = @id_user;
   END
 
+    -- El refresh token del rol anterior deja de ser válido: el usuario debe iniciar sesión de nuevo
+    DELETE FROM refresh_token
+      WHERE id_user = @id_user;
+
     COMMIT TRANSACTION
+
+    -- Devuelve el usuario actualizado con su rol: la aplicación no lo vuelve a cargar
+    SELECT u.id, u.first_name, u.last_name, u.second_last_name, u.email, u.nickname,
+      u.language_key, u.status, u.activated, ua.authority_name
+    FROM user_mva u
+      LEFT JOIN user_authority ua ON ua.user_id = u.id
+    WHERE u.id = @id_user;
   END
   TRY
   BEGIN CATCH
@@ -696,6 +825,13 @@ BEGIN
         WHERE id = @id_user;
 
         COMMIT TRANSACTION
+
+    -- Devuelve el usuario actualizado con su rol: la aplicación no lo vuelve a cargar
+    SELECT u.id, u.first_name, u.last_name, u.second_last_name, u.email, u.nickname,
+      u.language_key, u.status, u.activated, ua.authority_name
+    FROM user_mva u
+      LEFT JOIN user_authority ua ON ua.user_id = u.id
+    WHERE u.id = @id_user;
     END TRY
     BEGIN CATCH
         ROLLBACK TRANSACTION;
@@ -770,6 +906,13 @@ BEGIN
     WHERE id = @id_user;
 
     COMMIT TRANSACTION
+
+    -- Devuelve el usuario actualizado con su rol: la aplicación no lo vuelve a cargar
+    SELECT u.id, u.first_name, u.last_name, u.second_last_name, u.email, u.nickname,
+      u.language_key, u.status, u.activated, ua.authority_name
+    FROM user_mva u
+      LEFT JOIN user_authority ua ON ua.user_id = u.id
+    WHERE u.id = @id_user;
   END TRY
   BEGIN CATCH
     ROLLBACK TRANSACTION;
@@ -843,6 +986,13 @@ BEGIN
     WHERE id = @id_user;
 
     COMMIT TRANSACTION
+
+    -- Devuelve el usuario actualizado con su rol: la aplicación no lo vuelve a cargar
+    SELECT u.id, u.first_name, u.last_name, u.second_last_name, u.email, u.nickname,
+      u.language_key, u.status, u.activated, ua.authority_name
+    FROM user_mva u
+      LEFT JOIN user_authority ua ON ua.user_id = u.id
+    WHERE u.id = @id_user;
   END TRY
   BEGIN CATCH
     ROLLBACK TRANSACTION;
@@ -1291,6 +1441,141 @@ BEGIN
 END;
 GO
 
+-- ===============================================================
+-- Description: Procedimiento para el registro masivo de usuarios por el
+-- administrador. Recibe un lote en JSON, una fila por usuario con la
+-- contraseña ya cifrada y la clave de activación, e inserta los usuarios
+-- y sus claves con una sola sentencia por tabla. Las filas cuyo correo o
+-- nickname ya existen no se insertan y se devuelven con el código del
+-- error (106 o 105); las demás se devuelven con el id del usuario y el id
+-- de la clave de activación.
+-- ===============================================================
+IF EXISTS (SELECT *
+FROM sys.objects
+WHERE object_id = OBJECT_ID(N'[dbo].[sp_create_users_and_keys]') AND type IN (N'P', N'PC'))
+BEGIN
+  DROP PROCEDURE [dbo].[sp_create_users_and_keys];
+END;
+GO
+
+CREATE PROCEDURE sp_create_users_and_keys
+  -- [{"row": 2, "firstName": "", "lastName": "", "secondLastName": null, "email": "",
+  --   "nickname": "", "passwordHash": "", "languageKey": "es", "keyValue": ""}]
+  @users NVARCHAR(MAX),
+  @created_at DATETIME2
+AS
+BEGIN
+  SET NOCOUNT ON;
+
+  DECLARE @rows TABLE
+  (
+    row_index INT NOT NULL PRIMARY KEY,
+    first_name NVARCHAR(50) NOT NULL,
+    last_name NVARCHAR(50) NOT NULL,
+    second_last_name NVARCHAR(50) NULL,
+    email NVARCHAR(254) NOT NULL,
+    nickname NVARCHAR(50) NOT NULL,
+    password_hash NVARCHAR(60) NOT NULL,
+    language_key NVARCHAR(2) NOT NULL,
+    key_value NVARCHAR(36) NOT NULL,
+    error_code INT NULL,
+    id_user BIGINT NULL,
+    id_user_key BIGINT NULL
+  );
+
+  INSERT INTO @rows
+    (row_index, first_name, last_name, second_last_name, email, nickname,
+    password_hash, language_key, key_value)
+  SELECT row_index, first_name, last_name, second_last_name, email, nickname,
+    password_hash, language_key, key_value
+  FROM OPENJSON(@users)
+  WITH (
+    row_index INT '$.row',
+    first_name NVARCHAR(50) '$.firstName',
+    last_name NVARCHAR(50) '$.lastName',
+    second_last_name NVARCHAR(50) '$.secondLastName',
+    email NVARCHAR(254) '$.email',
+    nickname NVARCHAR(50) '$.nickname',
+    password_hash NVARCHAR(60) '$.passwordHash',
+    language_key NVARCHAR(2) '$.languageKey',
+    key_value NVARCHAR(36) '$.keyValue'
+  );
+
+  DECLARE @created TABLE (id_user BIGINT NOT NULL, email NVARCHAR(254) NOT NULL);
+  DECLARE @keys TABLE (id_user_key BIGINT NOT NULL, id_user BIGINT NOT NULL);
+
+  BEGIN TRY
+    BEGIN TRANSACTION;
+
+    -- ===============================================================
+    -- Correos y nicknames existentes. UPDLOCK y HOLDLOCK bloquean los
+    -- rangos consultados hasta confirmar el lote, de modo que otro
+    -- registro no puede insertar el mismo valor entre la verificación
+    -- y la inserción
+    -- ===============================================================
+    UPDATE r
+      SET error_code = 106
+      FROM @rows r
+      WHERE EXISTS (SELECT 1
+    FROM user_mva u WITH (UPDLOCK, HOLDLOCK)
+    WHERE u.email = r.email);
+
+    UPDATE r
+      SET error_code = 105
+      FROM @rows r
+      WHERE r.error_code IS NULL
+      AND EXISTS (SELECT 1
+      FROM user_mva u WITH (UPDLOCK, HOLDLOCK)
+      WHERE u.nickname = r.nickname);
+
+    -- ===============================================================
+    -- Insertar los usuarios y sus claves de activación; OUTPUT INTO
+    -- recupera los id generados sin consultar de nuevo las tablas
+    -- ===============================================================
+    INSERT INTO user_mva
+      (first_name, last_name, second_last_name, email, nickname, password_hash, language_key)
+    OUTPUT inserted.id, inserted.email INTO @created (id_user, email)
+    SELECT first_name, last_name, second_last_name, email, nickname, password_hash, language_key
+    FROM @rows
+    WHERE error_code IS NULL;
+
+    UPDATE r
+      SET id_user = c.id_user
+      FROM @rows r
+      JOIN @created c ON c.email = r.email;
+
+    INSERT INTO user_key
+      (id_user, key_value, created_at, key_purpose)
+    OUTPUT inserted.id, inserted.id_user INTO @keys (id_user_key, id_user)
+    SELECT id_user, key_value, @created_at, 'ACCOUNT_ACTIVATION'
+    FROM @rows
+    WHERE id_user IS NOT NULL;
+
+    UPDATE r
+      SET id_user_key = k.id_user_key
+      FROM @rows r
+      JOIN @keys k ON k.id_user = r.id_user;
+
+    COMMIT TRANSACTION;
+  END TRY
+  BEGIN CATCH
+    -- Si ocurre un error, realizar un rollback de todo el lote
+    IF @@TRANCOUNT > 0
+      ROLLBACK TRANSACTION;
+
+    -- Capturar y lanzar el mensaje de error
+    DECLARE @ErrorMessage NVARCHAR(4000) = ERROR_MESSAGE();
+    RAISERROR(@ErrorMessage, 16, 1);
+    RETURN;
+  END CATCH
+
+  -- Resultado por fila del lote
+  SELECT row_index, error_code, id_user, id_user_key
+  FROM @rows
+  ORDER BY row_index;
+END;
+GO
+
 -- ===============================================================
 -- Author: Mario Martínez Lanuza
 -- Create date: 2024-09-23
@@ -0,0 +1,88 @@
+-- ===============================================================
+-- Description: Migración V2 de la base customer. Reemplaza los índices
+-- de una sola columna de user_login_activity por índices compuestos
+-- de cobertura y agrega los índices de failed_login_attempt utilizados
+-- por las consultas de auditoría del administrador.
+-- V1 corresponde al script base customer.sql. El script es idempotente:
+-- puede ejecutarse sobre una base que ya tenga aplicada la migración.
+-- ===============================================================
+USE customer;
+GO
+
+-- ---------------------------------------------------------------
+-- user_login_activity
+-- ---------------------------------------------------------------
+IF EXISTS (SELECT 1 FROM sys.indexes
+  WHERE name = 'idx_id_user_user_login_activity'
+  AND object_id = OBJECT_ID('dbo.user_login_activity'))
+  DROP INDEX idx_id_user_user_login_activity ON dbo.user_login_activity;
+GO
+
+IF EXISTS (SELECT 1 FROM sys.indexes
+  WHERE name = 'idx_session_status_user_login_activity'
+  AND object_id = OBJECT_ID('dbo.user_login_activity'))
+  DROP INDEX idx_session_status_user_login_activity ON dbo.user_login_activity;
+GO
+
+IF NOT EXISTS (SELECT 1 FROM sys.indexes
+  WHERE name = 'idx_id_user_session_status_user_login_activity'
+  AND object_id = OBJECT_ID('dbo.user_login_activity'))
+  CREATE INDEX idx_id_user_session_status_user_login_activity
+    ON dbo.user_login_activity(id_user, session_status)
+    INCLUDE (session_time, ip_address, user_agent);
+GO
+
+IF NOT EXISTS (SELECT 1 FROM sys.indexes
+  WHERE name = 'idx_id_user_session_time_user_login_activity'
+  AND object_id = OBJECT_ID('dbo.user_login_activity'))
+  CREATE INDEX idx_id_user_session_time_user_login_activity
+    ON dbo.user_login_activity(id_user, session_time)
+    INCLUDE (ip_address, user_agent, session_status);
+GO
+
+IF NOT EXISTS (SELECT 1 FROM sys.indexes
+  WHERE name = 'idx_ip_address_session_time_user_login_activity'
+  AND object_id = OBJECT_ID('dbo.user_login_activity'))
+  CREATE INDEX idx_ip_address_session_time_user_login_activity
+    ON dbo.user_login_activity(ip_address, session_time)
+    INCLUDE (id_user, user_agent, session_status);
+GO
+
+IF NOT EXISTS (SELECT 1 FROM sys.indexes
+  WHERE name = 'idx_user_agent_session_time_user_login_activity'
+  AND object_id = OBJECT_ID('dbo.user_login_activity'))
+  CREATE INDEX idx_user_agent_session_time_user_login_activity
+    ON dbo.user_login_activity(user_agent, session_time)
+    INCLUDE (id_user, ip_address, session_status);
+GO
+
+-- ---------------------------------------------------------------
+-- failed_login_attempt
+-- ---------------------------------------------------------------
+IF NOT EXISTS (SELECT 1 FROM sys.indexes
+  WHERE name = 'idx_email_attempt_time_failed_login_attempt'
+  AND object_id = OBJECT_ID('dbo.failed_login_attempt'))
+  CREATE INDEX idx_email_attempt_time_failed_login_attempt
+    ON dbo.failed_login_attempt(email, attempt_time);
+GO
+
+IF NOT EXISTS (SELECT 1 FROM sys.indexes
+  WHERE name = 'idx_nickname_attempt_time_failed_login_attempt'
+  AND object_id = OBJECT_ID('dbo.failed_login_attempt'))
+  CREATE INDEX idx_nickname_attempt_time_failed_login_attempt
+    ON dbo.failed_login_attempt(nickname, attempt_time);
+GO
+
+IF NOT EXISTS (SELECT 1 FROM sys.indexes
+  WHERE name = 'idx_ip_address_attempt_time_failed_login_attempt'
+  AND object_id = OBJECT_ID('dbo.failed_login_attempt'))
+  CREATE INDEX idx_ip_address_attempt_time_failed_login_attempt
+    ON dbo.failed_login_attempt(ip_address, attempt_time);
+GO
+
+IF NOT EXISTS (SELECT 1 FROM sys.indexes
+  WHERE name = 'idx_attempt_time_failed_login_attempt'
+  AND object_id = OBJECT_ID('dbo.failed_login_attempt'))
+  CREATE INDEX idx_attempt_time_failed_login_attempt
+    ON dbo.failed_login_attempt(attempt_time);
+GO
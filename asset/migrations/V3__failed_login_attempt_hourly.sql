@@ -0,0 +1,111 @@
+-- ===============================================================
+-- Description: Migración V3 de la base customer. Crea los contadores
+-- por hora de los intentos de sesión fallidos, el trigger que los
+-- mantiene y los recalcula a partir de los intentos existentes.
+-- El script es idempotente.
+-- ===============================================================
+USE customer;
+GO
+
+IF OBJECT_ID(N'dbo.failed_login_attempt_hourly', N'U') IS NULL
+BEGIN
+  CREATE TABLE failed_login_attempt_hourly
+  (
+    -- Dimensión del contador: 'EMAIL', 'NICKNAME' o 'IP'
+    dimension NVARCHAR(10) NOT NULL,
+    -- Valor de la dimensión (correo, nickname o dirección IP)
+    dimension_value NVARCHAR(254) NOT NULL,
+    -- Inicio de la hora (UTC) a la que corresponde el contador
+    hour_bucket DATETIME2(0) NOT NULL,
+    -- Número de intentos registrados en la hora
+    attempt_count INT NOT NULL,
+    CONSTRAINT PK_failed_login_attempt_hourly PRIMARY KEY CLUSTERED (dimension, dimension_value, hour_bucket)
+  );
+END
+GO
+
+IF EXISTS (SELECT 1
+FROM sys.triggers
+WHERE object_id = OBJECT_ID(N'[dbo].[trg_failed_login_attempt_hourly]'))
+BEGIN
+  DROP TRIGGER [dbo].[trg_failed_login_attempt_hourly];
+END
+GO
+
+CREATE TRIGGER trg_failed_login_attempt_hourly
+ON failed_login_attempt
+AFTER INSERT, UPDATE, DELETE
+AS
+BEGIN
+  SET NOCOUNT ON;
+
+  -- Variación neta por dimensión y hora: +1 por fila insertada, -1 por fila eliminada
+  WITH changes AS
+  (
+    SELECT attempt_time, email, nickname, ip_address, 1 AS delta FROM inserted
+    UNION ALL
+    SELECT attempt_time, email, nickname, ip_address, -1 AS delta FROM deleted
+  ),
+  dimensions AS
+  (
+    SELECT N'EMAIL' AS dimension, email AS dimension_value, attempt_time, delta
+    FROM changes WHERE email IS NOT NULL
+    UNION ALL
+    SELECT N'NICKNAME', nickname, attempt_time, delta
+    FROM changes WHERE nickname IS NOT NULL
+    UNION ALL
+    SELECT N'IP', ip_address, attempt_time, delta
+    FROM changes
+  )
+  MERGE failed_login_attempt_hourly WITH (HOLDLOCK) AS target
+  USING
+  (
+    SELECT dimension, dimension_value,
+      CAST(DATEADD(HOUR, DATEDIFF(HOUR, 0, attempt_time), 0) AS DATETIME2(0)) AS hour_bucket,
+      SUM(delta) AS delta
+    FROM dimensions
+    GROUP BY dimension, dimension_value, DATEADD(HOUR, DATEDIFF(HOUR, 0, attempt_time), 0)
+  ) AS source
+  ON target.dimension = source.dimension
+    AND target.dimension_value = source.dimension_value
+    AND target.hour_bucket = source.hour_bucket
+  WHEN MATCHED AND target.attempt_count + source.delta <= 0 THEN
+    DELETE
+  WHEN MATCHED AND source.delta <> 0 THEN
+    UPDATE SET target.attempt_count = target.attempt_count + source.delta
+  WHEN NOT MATCHED BY TARGET AND source.delta > 0 THEN
+    INSERT (dimension, dimension_value, hour_bucket, attempt_count)
+    VALUES (source.dimension, source.dimension_value, source.hour_bucket, source.delta);
+END;
+
+GO
+
+-- ===============================================================
+-- Recalcula los contadores a partir de failed_login_attempt. Se
+-- bloquea la tabla de intentos para que ningún insert concurrente
+-- quede fuera del recálculo
+-- ===============================================================
+BEGIN TRANSACTION;
+
+DELETE FROM failed_login_attempt_hourly;
+
+WITH dimensions AS
+(
+  SELECT N'EMAIL' AS dimension, email AS dimension_value, attempt_time
+  FROM failed_login_attempt WITH (TABLOCKX, HOLDLOCK) WHERE email IS NOT NULL
+  UNION ALL
+  SELECT N'NICKNAME', nickname, attempt_time
+  FROM failed_login_attempt WHERE nickname IS NOT NULL
+  UNION ALL
+  SELECT N'IP', ip_address, attempt_time
+  FROM failed_login_attempt
+)
+INSERT INTO failed_login_attempt_hourly (dimension, dimension_value, hour_bucket, attempt_count)
+SELECT dimension, dimension_value,
+  CAST(DATEADD(HOUR, DATEDIFF(HOUR, 0, attempt_time), 0) AS DATETIME2(0)),
+  COUNT(*)
+FROM dimensions
+GROUP BY dimension, dimension_value, DATEADD(HOUR, DATEDIFF(HOUR, 0, attempt_time), 0);
+
+COMMIT TRANSACTION;
+GO
@@ -0,0 +1,21 @@
+-- ===============================================================
+-- Description: Migración V4 de la base customer. Agrega el índice
+-- único por token que utiliza la rotación del refresh token
+-- (UPDATE condicionado por el valor del token) y el índice por
+-- id_user de las búsquedas y eliminaciones por usuario.
+-- El script es idempotente.
+-- ===============================================================
+USE customer;
+GO
+
+IF NOT EXISTS (SELECT 1 FROM sys.indexes
+  WHERE name = 'idx_token_refresh_token'
+  AND object_id = OBJECT_ID('dbo.refresh_token'))
+  CREATE UNIQUE INDEX idx_token_refresh_token ON dbo.refresh_token(token);
+GO
+
+IF NOT EXISTS (SELECT 1 FROM sys.indexes
+  WHERE name = 'idx_id_user_refresh_token'
+  AND object_id = OBJECT_ID('dbo.refresh_token'))
+  CREATE INDEX idx_id_user_refresh_token ON dbo.refresh_token(id_user);
+GO
@@ -0,0 +1,458 @@
+-- ===============================================================
+-- Description: Migración V5 de la base customer. Los procedimientos
+-- que modifican el perfil, el estado o el rol de un usuario
+-- devuelven al confirmar la transacción el usuario actualizado con
+-- su rol, de modo que la aplicación no lo vuelve a cargar.
+-- sp_user_authority_update además elimina el refresh token del
+-- usuario en la misma transacción.
+-- El script es idempotente.
+-- ===============================================================
+USE customer;
+GO
+
+IF EXISTS (SELECT *
+FROM sys.objects
+WHERE object_id = OBJECT_ID(N'[dbo].[sp_update_user_by_role_admin]') AND type in (N'P', N'PC'))
+BEGIN
+  DROP PROCEDURE [dbo].[sp_update_user_by_role_admin]
+END
+GO
+
+CREATE PROCEDURE sp_update_user_by_role_admin
+  @id_user BIGINT,
+  @activated BIT = NULL,
+  @status BIT = NULL
+AS
+BEGIN
+  SET NOCOUNT ON;
+
+  -- Verificar si al menos uno de los parámetros tiene un valor no nulo
+  IF @activated IS NULL AND @status IS NULL
+  BEGIN
+    RAISERROR('100, Al menos una variable no debe ser nula', 16, 1);
+    RETURN;
+  END
+
+  -- Verificar si el id_user existe en la tabla user_mva
+  IF NOT EXISTS (SELECT 1
+  FROM user_mva
+  WHERE id = @id_user)
+  BEGIN
+    RAISERROR('102, El usuario no existe', 16, 1);
+    RETURN;
+  END
+
+  -- Carga de los valores previos
+  DECLARE @current_activated BIT, @current_status BIT;
+  SELECT @current_activated = activated, @current_status = status
+  FROM user_mva
+  WHERE id = @id_user;
+
+  -- Verificar si los parámetros proporcionados son iguales a los valores existentes
+  IF ((@activated = @current_activated AND @status = @current_status) OR
+    (@activated = @current_activated) AND (@status IS NULL) OR
+    (@activated IS NULL AND @status = @current_status))
+  BEGIN
+    RAISERROR('103, El nuevo valor no puede ser igual al valor actual', 16, 1);
+    RETURN;
+  END
+
+  BEGIN TRY
+    BEGIN TRANSACTION
+
+    -- Actualizar configuraciones críticas de usuario controladas por administradores
+    UPDATE user_mva
+    SET activated = COALESCE(@activated, activated),
+        status = COALESCE(@status, status)
+    WHERE id = @id_user;
+
+    COMMIT TRANSACTION
+
+    -- Devuelve el usuario actualizado con su rol: la aplicación no lo vuelve a cargar
+    SELECT u.id, u.first_name, u.last_name, u.second_last_name, u.email, u.nickname,
+      u.language_key, u.status, u.activated, ua.authority_name
+    FROM user_mva u
+      LEFT JOIN user_authority ua ON ua.user_id = u.id
+    WHERE u.id = @id_user;
+  END TRY
+  BEGIN CATCH
+    ROLLBACK TRANSACTION;
+    DECLARE @ErrorMessage NVARCHAR(4000) = ERROR_MESSAGE();
+    RAISERROR(@ErrorMessage, 16, 1);
+  END CATCH
+END;
+
+
+GO
+
+IF EXISTS (SELECT *
+FROM sys.objects
+WHERE object_id = OBJECT_ID(N'[dbo].[sp_update_user_by_role_user]') AND type in (N'P', N'PC'))
+BEGIN
+  DROP PROCEDURE [dbo].[sp_update_user_by_role_user]
+END
+GO
+
+CREATE PROCEDURE sp_update_user_by_role_user
+  @id_user BIGINT,
+  @first_name NVARCHAR(50) = NULL,
+  @last_name NVARCHAR(50) = NULL,
+  @second_last_name NVARCHAR (50) NULL,
+  @language_key NVARCHAR(2) NULL
+AS
+BEGIN
+  SET NOCOUNT ON;
+
+  -- Verificar si al menos uno de los parámetros tiene un valor no nulo
+  IF @first_name IS NULL AND @last_name IS NULL AND @second_last_name IS NULL AND @language_key IS NULL
+  BEGIN
+    RAISERROR('100, Al menos una variable no debe ser nula', 16, 1);
+    RETURN;
+  END
+
+  -- Verificar si el id_user existe en la tabla user_mva
+  IF NOT EXISTS (SELECT 1
+  FROM user_mva
+  WHERE id = @id_user)
+  BEGIN
+    RAISERROR('102, El usuario no existe', 16, 1);
+    RETURN;
+  END
+
+  -- Carga de los valores previos
+  DECLARE @current_first_name NVARCHAR(50), @current_last_name NVARCHAR(50),
+   @current_second_last_name NVARCHAR (50), @current_language_key NVARCHAR(2);
+
+  -- Obtener los valores actuales del usuario
+  SELECT @current_first_name = first_name,
+    @current_last_name = last_name,
+    @current_second_last_name = second_last_name,
+    @current_language_key = language_key
+  FROM user_mva
+  WHERE id = @id_user;
+
+  -- Verificar si los parámetros proporcionados son iguales a los valores existentes
+  IF (
+      (@current_first_name = @first_name) OR (@current_last_name = @last_name) OR
+    (@current_second_last_name = @second_last_name) OR (@current_language_key = @language_key)
+    )
+    BEGIN
+    RAISERROR('103, El nuevo valor no puede ser igual al valor actual', 16, 1);
+    RETURN;
+  END
+
+  BEGIN TRY
+        BEGIN TRANSACTION
+
+        -- Actualizar información personal que los usuarios pueden modificar por sí mismos
+        UPDATE user_mva
+        SET first_name = COALESCE(@first_name, first_name),
+            last_name = COALESCE(@last_name, last_name),
+            second_last_name = COALESCE(@second_last_name, second_last_name),
+            language_key = COALESCE(@language_key, language_key)
+        WHERE id = @id_user;
+
+        COMMIT TRANSACTION
+
+    -- Devuelve el usuario actualizado con su rol: la aplicación no lo vuelve a cargar
+    SELECT u.id, u.first_name, u.last_name, u.second_last_name, u.email, u.nickname,
+      u.language_key, u.status, u.activated, ua.authority_name
+    FROM user_mva u
+      LEFT JOIN user_authority ua ON ua.user_id = u.id
+    WHERE u.id = @id_user;
+    END TRY
+    BEGIN CATCH
+        ROLLBACK TRANSACTION;
+        DECLARE @ErrorMessage NVARCHAR(4000) = ERROR_MESSAGE();
+        RAISERROR (@ErrorMessage, 16, 1);
+    END CATCH
+END;
+
+GO
+
+IF EXISTS (SELECT *
+FROM sys.objects
+WHERE object_id = OBJECT_ID(N'[dbo].[sp_change_nickname]') AND type in (N'P', N'PC'))
+BEGIN
+  DROP PROCEDURE [dbo].[sp_change_nickname]
+END
+GO
+
+CREATE PROCEDURE sp_change_nickname
+  @id_user BIGINT,
+  @NewNickname NVARCHAR(50)
+AS
+BEGIN
+  SET NOCOUNT ON;
+  BEGIN TRY
+    BEGIN TRANSACTION
+
+    -- Validar que el nuevo nickname no sea NULL
+    IF @NewNickname IS NULL
+    BEGIN
+    RAISERROR('101, El valor no puede ser nulo', 16, 1);
+    RETURN;
+  END
+
+   -- Verificar si el id_user existe en la tabla user_mva
+  IF NOT EXISTS (SELECT 1
+  FROM user_mva
+  WHERE id = @id_user)
+  BEGIN
+    RAISERROR('102, El usuario no existe', 16, 1);
+    RETURN;
+  END
+
+    -- Verificar si el nuevo nickname ya está en uso por otro usuario
+    IF EXISTS(SELECT 1
+  FROM user_mva
+  WHERE nickname = @NewNickname AND id <> @id_user)
+    BEGIN
+    RAISERROR('105, El nickname ingresado ya existe', 16, 1);
+    RETURN;
+  END
+
+  -- Verificar si el nuevo nickname no sea el mismo
+    IF EXISTS(SELECT 1
+  FROM user_mva
+  WHERE nickname = @NewNickname AND id = @id_user)
+    BEGIN
+    RAISERROR('103, El nuevo valor no puede ser igual al valor actual', 16, 1);
+    RETURN;
+  END
+
+    -- Actualizar el nickname si no está en uso
+    UPDATE user_mva
+    SET nickname = @NewNickname
+    WHERE id = @id_user;
+
+    COMMIT TRANSACTION
+
+    -- Devuelve el usuario actualizado con su rol: la aplicación no lo vuelve a cargar
+    SELECT u.id, u.first_name, u.last_name, u.second_last_name, u.email, u.nickname,
+      u.language_key, u.status, u.activated, ua.authority_name
+    FROM user_mva u
+      LEFT JOIN user_authority ua ON ua.user_id = u.id
+    WHERE u.id = @id_user;
+  END TRY
+  BEGIN CATCH
+    ROLLBACK TRANSACTION;
+    DECLARE @ErrorMessage NVARCHAR(4000) = ERROR_MESSAGE();
+    RAISERROR(@ErrorMessage, 16, 1);
+  END CATCH
+END;
+GO
+
+IF EXISTS (SELECT *
+FROM sys.objects
+WHERE object_id = OBJECT_ID(N'[dbo].[sp_change_email]') AND type in (N'P', N'PC'))
+BEGIN
+  DROP PROCEDURE [dbo].[sp_change_email]
+END
+GO
+
+CREATE PROCEDURE sp_change_email
+  @id_user BIGINT,
+  @NewEmail NVARCHAR(254)
+AS
+BEGIN
+  SET NOCOUNT ON;
+  BEGIN TRY
+    BEGIN TRANSACTION
+
+    -- Verificar que el nuevo email no sea NULL
+    IF @NewEmail IS NULL
+    BEGIN
+    RAISERROR('101, El valor no puede ser nulo', 16, 1);
+    RETURN;
+  END
+
+    -- Verificar si el id_user existe en la tabla user_mva
+  IF NOT EXISTS (SELECT 1
+  FROM user_mva
+  WHERE id = @id_user)
+  BEGIN
+    RAISERROR('102, El usuario no existe', 16, 1);
+    RETURN;
+  END
+
+    -- Verificar si el nuevo email ya está en uso por otro usuario
+    IF EXISTS(SELECT 1
+  FROM user_mva
+  WHERE email = @NewEmail AND id <> @id_user)
+    BEGIN
+    RAISERROR('106, El correo ingresado ya existe', 16, 1);
+    RETURN;
+  END
+
+      -- Verificar si el nuevo email ya está en uso por otro usuario
+    IF EXISTS(SELECT 1
+  FROM user_mva
+  WHERE email = @NewEmail AND id = @id_user)
+    BEGIN
+    RAISERROR('103, El nuevo valor no puede ser igual al valor actual', 16, 1);
+    RETURN;
+  END
+
+    -- Actualizar el email si no está en uso
+    UPDATE user_mva
+    SET email = @NewEmail
+    WHERE id = @id_user;
+
+    COMMIT TRANSACTION
+
+    -- Devuelve el usuario actualizado con su rol: la aplicación no lo vuelve a cargar
+    SELECT u.id, u.first_name, u.last_name, u.second_last_name, u.email, u.nickname,
+      u.language_key, u.status, u.activated, ua.authority_name
+    FROM user_mva u
+      LEFT JOIN user_authority ua ON ua.user_id = u.id
+    WHERE u.id = @id_user;
+  END TRY
+  BEGIN CATCH
+    ROLLBACK TRANSACTION;
+    DECLARE @ErrorMessage NVARCHAR(4000) = ERROR_MESSAGE();
+    RAISERROR(@ErrorMessage, 16, 1);
+  END CATCH
+END;
+GO
+
+IF EXISTS (SELECT *
+FROM sys.objects
+WHERE object_id = OBJECT_ID(N'[dbo].[sp_user_authority_update]') AND type in (N'P', N'PC'))
+BEGIN
+  DROP PROCEDURE [dbo].[sp_user_authority_update]
+END
+GO
+
+CREATE PROCEDURE sp_user_authority_update
+  @id_user BIGINT,
+  @role NVARCHAR(50)
+-- Los roles posibles son 'ROLE_ADMIN', 'ROLE_USER', 'ROLE_UNAUTHORIZE'
+AS
+BEGIN
+  SET NOCOUNT ON;
+
+  -- Verificar que el role no sea nulo
+  IF @role IS NULL
+  BEGIN
+    RAISERROR('101, El valor no puede ser nulo', 16, 1);
+    RETURN;
+  END
+
+  -- Verificar si el id_user existe en la tabla user_mva
+  IF NOT EXISTS (SELECT 1
+  FROM user_mva
+  WHERE id = @id_user)
+  BEGIN
+    RAISERROR('102, El usuario no existe', 16, 1);
+    RETURN;
+  END
+
+  -- Declaración de variables
+  DECLARE @current_status BIT;
+  DECLARE @current_role NVARCHAR(50);
+
+  -- Obtener el status actual del usuario
+  SELECT @current_status = status
+  FROM user_mva
+  WHERE id = @id_user;
+
+  -- Obtener el rol actual del usuario
+  SELECT TOP 1
+    @current_role = authority_name
+  FROM user_authority
+  WHERE user_id = @id_user;
+
+  -- Verificar si el rol proporcionado es igual al rol existente
+  IF @current_role = @role
+  BEGIN
+    RAISERROR('103, El nuevo valor no puede ser igual al valor actual', 16, 1);
+    RETURN;
+  END
+
+  -- Verificar que el rol exista
+  IF NOT EXISTS (SELECT 1
+  FROM authority
+  WHERE name = @role)
+  BEGIN
+    RAISERROR('104, El rol asignado no existe', 16, 1);
+    RETURN;
+  END
+
+  BEGIN TRY
+    BEGIN TRANSACTION
+    -- Verificar si el usuario no tiene ningún rol asignado
+    IF @current_role IS NULL
+    BEGIN
+    -- Asignar el rol proporcionado
+    INSERT INTO user_authority
+      (user_id, authority_name)
+    VALUES
+      (@id_user, @role);
+  END
+    
+    -- Condición para 'ROLE_USER' o 'ROLE_ADMIN': Actualizar status a 1 si el status es 0
+    IF @role IN ('ROLE_USER', 'ROLE_ADMIN') AND @current_status = 0
+    BEGIN
+    UPDATE user_mva
+      SET status = 1
+      WHERE id = @id_user;
+
+    UPDATE user_authority
+      SET authority_name = @role
+      WHERE user_id = @id_user;
+  END
+
+    -- Condición para cambio entre 'ROLE_ADMIN' y 'ROLE_USER' si el status es 1
+    IF @role IN ('ROLE_ADMIN', 'ROLE_USER') AND @current_status = 1
+    BEGIN
+    UPDATE user_authority
+      SET authority_name = @role
+      WHERE user_id = @id_user;
+  END
+
+    -- Condición para 'ROLE_UNAUTHORIZE': Si el usuario está activo, cambiarlo a inactivo
+    IF @role = 'ROLE_UNAUTHORIZE' AND @current_status <> 0
+    BEGIN
+    UPDATE user_mva
+        SET status = 0
+        WHERE id = @id_user;
+
+    UPDATE user_authority
+        SET authority_name = @role
+        WHERE user_id = @id_user;
+  END
+
+  -- Condición para 'ROLE_UNAUTHORIZE': Si el usuario NO está activo, cambiarlo a inactivo
+    IF @role = 'ROLE_UNAUTHORIZE' AND @current_status = 0
+    BEGIN
+    UPDATE user_authority
+        SET authority_name = @role
+        WHERE user_id = @id_user;
+  END
+
+    -- El refresh token del rol anterior deja de ser válido: el usuario debe iniciar sesión de nuevo
+    DELETE FROM refresh_token
+      WHERE id_user = @id_user;
+
+    COMMIT TRANSACTION
+
+    -- Devuelve el usuario actualizado con su rol: la aplicación no lo vuelve a cargar
+    SELECT u.id, u.first_name, u.last_name, u.second_last_name, u.email, u.nickname,
+      u.language_key, u.status, u.activated, ua.authority_name
+    FROM user_mva u
+      LEFT JOIN user_authority ua ON ua.user_id = u.id
+    WHERE u.id = @id_user;
+  END
+  TRY
+  BEGIN CATCH
+  ROLLBACK TRANSACTION;
+  -- Capturar y re-lanzar cualquier error que ocurra durante la transacción
+  DECLARE @ErrorMessage NVARCHAR(4000) = ERROR_MESSAGE();
+  DECLARE @ErrorSeverity INT = ERROR_SEVERITY();
+  DECLARE @ErrorState INT = ERROR_STATE();
+  RAISERROR(@ErrorMessage, @ErrorSeverity, @ErrorState);
+  END CATCH
+END;
+
+GO
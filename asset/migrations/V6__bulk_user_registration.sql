@@ -0,0 +1,145 @@
+-- ===============================================================
+-- Description: Migración V6 de la base customer. Agrega el
+-- procedimiento sp_create_users_and_keys del registro masivo de
+-- usuarios por el administrador: inserta un lote de usuarios y sus
+-- claves de activación recibido en JSON (OPENJSON, SQL Server 2016
+-- o superior) y devuelve el resultado por fila.
+-- El script es idempotente.
+-- ===============================================================
+USE customer;
+GO
+
+-- ===============================================================
+-- Description: Procedimiento para el registro masivo de usuarios por el
+-- administrador. Recibe un lote en JSON, una fila por usuario con la
+-- contraseña ya cifrada y la clave de activación, e inserta los usuarios
+-- y sus claves con una sola sentencia por tabla. Las filas cuyo correo o
+-- nickname ya existen no se insertan y se devuelven con el código del
+-- error (106 o 105); las demás se devuelven con el id del usuario y el id
+-- de la clave de activación.
+-- ===============================================================
+IF EXISTS (SELECT *
+FROM sys.objects
+WHERE object_id = OBJECT_ID(N'[dbo].[sp_create_users_and_keys]') AND type IN (N'P', N'PC'))
+BEGIN
+  DROP PROCEDURE [dbo].[sp_create_users_and_keys];
+END;
+GO
+
+CREATE PROCEDURE sp_create_users_and_keys
+  -- [{"row": 2, "firstName": "", "lastName": "", "secondLastName": null, "email": "",
+  --   "nickname": "", "passwordHash": "", "languageKey": "es", "keyValue": ""}]
+  @users NVARCHAR(MAX),
+  @created_at DATETIME2
+AS
+BEGIN
+  SET NOCOUNT ON;
+
+  DECLARE @rows TABLE
+  (
+    row_index INT NOT NULL PRIMARY KEY,
+    first_name NVARCHAR(50) NOT NULL,
+    last_name NVARCHAR(50) NOT NULL,
+    second_last_name NVARCHAR(50) NULL,
+    email NVARCHAR(254) NOT NULL,
+    nickname NVARCHAR(50) NOT NULL,
+    password_hash NVARCHAR(60) NOT NULL,
+    language_key NVARCHAR(2) NOT NULL,
+    key_value NVARCHAR(36) NOT NULL,
+    error_code INT NULL,
+    id_user BIGINT NULL,
+    id_user_key BIGINT NULL
+  );
+
+  INSERT INTO @rows
+    (row_index, first_name, last_name, second_last_name, email, nickname,
+    password_hash, language_key, key_value)
+  SELECT row_index, first_name, last_name, second_last_name, email, nickname,
+    password_hash, language_key, key_value
+  FROM OPENJSON(@users)
+  WITH (
+    row_index INT '$.row',
+    first_name NVARCHAR(50) '$.firstName',
+    last_name NVARCHAR(50) '$.lastName',
+    second_last_name NVARCHAR(50) '$.secondLastName',
+    email NVARCHAR(254) '$.email',
+    nickname NVARCHAR(50) '$.nickname',
+    password_hash NVARCHAR(60) '$.passwordHash',
+    language_key NVARCHAR(2) '$.languageKey',
+    key_value NVARCHAR(36) '$.keyValue'
+  );
+
+  DECLARE @created TABLE (id_user BIGINT NOT NULL, email NVARCHAR(254) NOT NULL);
+  DECLARE @keys TABLE (id_user_key BIGINT NOT NULL, id_user BIGINT NOT NULL);
+
+  BEGIN TRY
+    BEGIN TRANSACTION;
+
+    -- ===============================================================
+    -- Correos y nicknames existentes. UPDLOCK y HOLDLOCK bloquean los
+    -- rangos consultados hasta confirmar el lote, de modo que otro
+    -- registro no puede insertar el mismo valor entre la verificación
+    -- y la inserción
+    -- ===============================================================
+    UPDATE r
+      SET error_code = 106
+      FROM @rows r
+      WHERE EXISTS (SELECT 1
+    FROM user_mva u WITH (UPDLOCK, HOLDLOCK)
+    WHERE u.email = r.email);
+
+    UPDATE r
+      SET error_code = 105
+      FROM @rows r
+      WHERE r.error_code IS NULL
+      AND EXISTS (SELECT 1
+      FROM user_mva u WITH (UPDLOCK, HOLDLOCK)
+      WHERE u.nickname = r.nickname);
+
+    -- ===============================================================
+    -- Insertar los usuarios y sus claves de activación; OUTPUT INTO
+    -- recupera los id generados sin consultar de nuevo las tablas
+    -- ===============================================================
+    INSERT INTO user_mva
+      (first_name, last_name, second_last_name, email, nickname, password_hash, language_key)
+    OUTPUT inserted.id, inserted.email INTO @created (id_user, email)
+    SELECT first_name, last_name, second_last_name, email, nickname, password_hash, language_key
+    FROM @rows
+    WHERE error_code IS NULL;
+
+    UPDATE r
+      SET id_user = c.id_user
+      FROM @rows r
+      JOIN @created c ON c.email = r.email;
+
+    INSERT INTO user_key
+      (id_user, key_value, created_at, key_purpose)
+    OUTPUT inserted.id, inserted.id_user INTO @keys (id_user_key, id_user)
+    SELECT id_user, key_value, @created_at, 'ACCOUNT_ACTIVATION'
+    FROM @rows
+    WHERE id_user IS NOT NULL;
+
+    UPDATE r
+      SET id_user_key = k.id_user_key
+      FROM @rows r
+      JOIN @keys k ON k.id_user = r.id_user;
+
+    COMMIT TRANSACTION;
+  END TRY
+  BEGIN CATCH
+    -- Si ocurre un error, realizar un rollback de todo el lote
+    IF @@TRANCOUNT > 0
+      ROLLBACK TRANSACTION;
+
+    -- Capturar y lanzar el mensaje de error
+    DECLARE @ErrorMessage NVARCHAR(4000) = ERROR_MESSAGE();
+    RAISERROR(@ErrorMessage, 16, 1);
+    RETURN;
+  END CATCH
+
+  -- Resultado por fila del lote
+  SELECT row_index, error_code, id_user, id_user_key
+  FROM @rows
+  ORDER BY row_index;
+END;
+GO
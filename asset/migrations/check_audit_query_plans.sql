@@ -0,0 +1,90 @@
+-- ===============================================================
+-- Description: Verificación del esquema y de los planes de ejecución
+-- de las consultas de auditoría contra una base local.
+-- 1. Falla con RAISERROR si falta alguno de los índices de la migración V2.
+-- 2. Muestra el plan estimado de cada consulta que ejecutan los
+-- repositorios; el resultado esperado es un Index Seek sobre el índice
+-- indicado en el comentario y ningún Clustered Index Scan ni Key Lookup.
+-- ===============================================================
+USE customer;
+GO
+
+-- ---------------------------------------------------------------
+-- 1. Existencia de los índices
+-- ---------------------------------------------------------------
+DECLARE @missing NVARCHAR(MAX);
+
+SELECT @missing = STRING_AGG(expected.name, ', ')
+FROM (VALUES
+  ('user_login_activity', 'idx_id_user_session_status_user_login_activity'),
+  ('user_login_activity', 'idx_id_user_session_time_user_login_activity'),
+  ('user_login_activity', 'idx_ip_address_session_time_user_login_activity'),
+  ('user_login_activity', 'idx_user_agent_session_time_user_login_activity'),
+  ('failed_login_attempt', 'idx_email_attempt_time_failed_login_attempt'),
+  ('failed_login_attempt', 'idx_nickname_attempt_time_failed_login_attempt'),
+  ('failed_login_attempt', 'idx_ip_address_attempt_time_failed_login_attempt'),
+  ('failed_login_attempt', 'idx_attempt_time_failed_login_attempt')
+) AS expected(table_name, name)
+WHERE NOT EXISTS (SELECT 1 FROM sys.indexes i
+  WHERE i.name = expected.name
+  AND i.object_id = OBJECT_ID('dbo.' + expected.table_name));
+
+IF @missing IS NOT NULL
+BEGIN
+  RAISERROR('100, Faltan los índices: %s', 16, 1, @missing);
+  RETURN;
+END
+PRINT 'Todos los índices de auditoría existen';
+GO
+
+-- ---------------------------------------------------------------
+-- 2. Planes estimados (no ejecuta las consultas)
+-- ---------------------------------------------------------------
+SET SHOWPLAN_TEXT ON;
+GO
+
+-- findByIpAddressAndSessionTimeBetween -> idx_ip_address_session_time_user_login_activity
+SELECT id_session, id_user, session_time, ip_address, user_agent, session_status
+FROM user_login_activity
+WHERE ip_address = N'127.0.0.1' AND session_time BETWEEN '2024-01-01' AND '2024-12-31'
+ORDER BY session_time DESC;
+GO
+
+-- findByUserAgentAndSessionTimeBetween -> idx_user_agent_session_time_user_login_activity
+SELECT id_session, id_user, session_time, ip_address, user_agent, session_status
+FROM user_login_activity
+WHERE user_agent = N'Mozilla/5.0' AND session_time BETWEEN '2024-01-01' AND '2024-12-31'
+ORDER BY session_time DESC;
+GO
+
+-- findByUserIdAndSessionTimeBetween -> idx_id_user_session_time_user_login_activity
+SELECT id_session, id_user, session_time, ip_address, user_agent, session_status
+FROM user_login_activity
+WHERE id_user = 1 AND session_time BETWEEN '2024-01-01' AND '2024-12-31';
+GO
+
+-- countByUserIdAndSessionStatus -> idx_id_user_session_status_user_login_activity
+SELECT COUNT(*) FROM user_login_activity WHERE id_user = 1 AND session_status = N'FAILURE';
+GO
+
+-- countByEmailAndAttemptTimeBetween -> idx_email_attempt_time_failed_login_attempt
+SELECT COUNT(*) FROM failed_login_attempt
+WHERE email = N'user@mail.com' AND attempt_time BETWEEN '2024-01-01' AND '2024-12-31';
+GO
+
+-- countByNicknameAndAttemptTimeBetween -> idx_nickname_attempt_time_failed_login_attempt
+SELECT COUNT(*) FROM failed_login_attempt
+WHERE nickname = N'user' AND attempt_time BETWEEN '2024-01-01' AND '2024-12-31';
+GO
+
+-- countByIpAddressAndAttemptTimeBetween -> idx_ip_address_attempt_time_failed_login_attempt
+SELECT COUNT(*) FROM failed_login_attempt
+WHERE ip_address = N'127.0.0.1' AND attempt_time BETWEEN '2024-01-01' AND '2024-12-31';
+GO
+
+-- deleteChunkByAttemptTimeBefore -> idx_attempt_time_failed_login_attempt
+DELETE TOP (4000) FROM failed_login_attempt WHERE attempt_time < '2024-01-01';
+GO
+
+SET SHOWPLAN_TEXT OFF;
+GO
@@ -0,0 +1,70 @@
+#!/usr/bin/env bash
+# ===============================================================
+# Description: Prueba de humo del ejecutable nativo. Levanta un SQL
+# Server en Docker como sustituto de las bases customer y trade, crea
+# los esquemas con asset/customer.sql y asset/creditos.sql, inicia el
+# binario y verifica readiness, un inicio de sesión rechazado (JPA,
+# procedimientos, BCrypt y JWT) y la generación del JWT de rotación.
+# Informa el tiempo hasta readiness y la memoria residente (RSS).
+#
+# Requiere haber ejecutado: mvn -Pnative -DskipTests native:compile
+# Uso: scripts/native-smoke-test.sh [puerto]
+# ===============================================================
+set -euo pipefail
+
+PORT="${1:-8080}"
+DB_PORT=14330
+DB_PASSWORD="Smoke_Test_2024!"
+CONTAINER="apirest-native-smoke-db"
+SQLCMD="/opt/mssql-tools18/bin/sqlcmd -C -S localhost -U sa -P $DB_PASSWORD"
+
+cd "$(dirname "$0")/.."
+BINARY="target/apirest_demo_springboot"
+[[ -x "$BINARY" ]] || { echo "No existe $BINARY: ejecute mvn -Pnative -DskipTests native:compile" >&2; exit 1; }
+
+cleanup() {
+  [[ -n "${APP_PID:-}" ]] && kill "$APP_PID" 2>/dev/null || true
+  docker rm -f "$CONTAINER" >/dev/null 2>&1 || true
+}
+trap cleanup EXIT
+
+# Base de datos sustituta
+docker run -d --name "$CONTAINER" -e ACCEPT_EULA=Y -e MSSQL_SA_PASSWORD="$DB_PASSWORD" \
+  -p "$DB_PORT:1433" mcr.microsoft.com/mssql/server:2022-latest >/dev/null
+until docker exec "$CONTAINER" $SQLCMD -Q "SELECT 1" >/dev/null 2>&1; do sleep 1; done
+for script in asset/customer.sql asset/creditos.sql; do
+  docker exec -i "$CONTAINER" $SQLCMD -b < "$script" >/dev/null
+done
+
+export DB_USERNAME=sa DB_PASSWORD DB_USERNAME2=sa DB_PASSWORD2="$DB_PASSWORD"
+export JWT_SECRET="$(head -c 64 /dev/urandom | base64 -w0)"
+DB_URL="jdbc:sqlserver://localhost:$DB_PORT;encrypt=true;trustServerCertificate=true;databaseName"
+
+start=$(date +%s%N)
+"$BINARY" --spring.profiles.active=prod --server.port="$PORT" \
+  --spring.datasource.customer.jdbc-url="$DB_URL=customer" \
+  --spring.datasource.business.jdbc-url="$DB_URL=trade" \
+  >target/native-smoke-test.log 2>&1 &
+APP_PID=$!
+
+until curl -sf "http://localhost:$PORT/actuator/health/readiness" >/dev/null; do
+  kill -0 "$APP_PID" 2>/dev/null || { echo "El binario terminó; ver target/native-smoke-test.log" >&2; exit 1; }
+  sleep 0.02
+done
+ready_ms=$((($(date +%s%N) - start) / 1000000))
+rss_kb=$(awk '/VmRSS/ {print $2}' "/proc/$APP_PID/status")
+
+# Inicio de sesión de un usuario inexistente: debe responder 4xx, no 5xx
+status=$(curl -s -o /dev/null -w "%{http_code}" -H "Content-Type: application/json" \
+  -d '{"nickname":"smoke-test","password":"Smoke-Test-1"}' \
+  "http://localhost:$PORT/api/auth/login/nickname")
+[[ "$status" =~ ^4 ]] || { echo "Login respondió $status; ver target/native-smoke-test.log" >&2; exit 1; }
+
+# Rotación con un refresh token inválido: debe responder 401
+status=$(curl -s -o /dev/null -w "%{http_code}" -H "Content-Type: application/json" \
+  -d '{"refreshToken":"invalid"}' "http://localhost:$PORT/api/auth/refresh-token")
+[[ "$status" == "401" ]] || { echo "Refresh token respondió $status" >&2; exit 1; }
+
+echo "Prueba de humo del binario nativo: OK"
+printf "  tiempo hasta readiness %6d ms\n" "$ready_ms"
+printf "  memoria residente      %6d MB\n" "$((rss_kb / 1024))"
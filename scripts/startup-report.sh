@@ -0,0 +1,81 @@
+#!/usr/bin/env bash
+# ===============================================================
+# Description: Compara el tiempo hasta readiness del build por defecto
+# contra el build AOT + AppCDS (perfil fast-startup) y contra los modos de la
+# unidad de persistencia 'business' (perezosa y deshabilitada).
+#
+# Requiere haber ejecutado:
+#   mvn -Pfast-startup -DskipTests package
+# y las variables de entorno de la base de datos del perfil indicado. Sin el
+# archivo CDS solo se comparan los modos de la unidad 'business'.
+# El perfil debe ser el procesado por el AOT y usado en el entrenamiento
+# (propiedad aot.profile del pom, 'prod' por defecto); para otro perfil se
+# vuelve a compilar con -Daot.profile=<perfil>.
+#
+# Uso: scripts/startup-report.sh [ejecuciones] [perfil] [puerto]
+# ===============================================================
+set -euo pipefail
+
+RUNS="${1:-5}"
+PROFILE="${2:-prod}"
+PORT="${3:-8080}"
+
+cd "$(dirname "$0")/.."
+JAR="$(ls target/*.jar | head -n 1)"
+CDS_DIR="target/cds"
+READY_URL="http://localhost:$PORT/actuator/health/readiness"
+
+
+# Inicia la aplicación desde el directorio indicado y devuelve los milisegundos
+# hasta que readiness responde UP. El archivo CDS solo se utiliza si el
+# classpath coincide con el del entrenamiento, por eso se ejecuta en target/cds
+measure() {
+  local dir="$1" start end pid
+  shift
+  start=$(date +%s%N)
+  (cd "$dir" && exec "$@" --spring.profiles.active="$PROFILE" --server.port="$PORT") >/dev/null 2>&1 &
+  pid=$!
+  until curl -sf "$READY_URL" >/dev/null 2>&1; do
+    if ! kill -0 "$pid" 2>/dev/null; then
+      echo "La aplicación terminó antes de estar disponible" >&2
+      exit 1
+    fi
+    sleep 0.05
+  done
+  end=$(date +%s%N)
+  kill "$pid"
+  wait "$pid" 2>/dev/null || true
+  echo $(((end - start) / 1000000))
+}
+
+# Promedio de varias ejecuciones de un modo de arranque
+report() {
+  local total=0 ms
+  for ((i = 1; i <= RUNS; i++)); do
+    ms=$(measure "$@")
+    total=$((total + ms))
+  done
+  echo "$((total / RUNS))"
+}
+
+# Imprime una línea del informe con la reducción respecto al modo por defecto
+line() {
+  printf "  %-22s %6d ms  %4d %%\n" "$1" "$2" "$((100 - $2 * 100 / default_ms))"
+}
+
+default_ms=$(report . java -jar "$JAR")
+lazy_ms=$(report . java -jar "$JAR" --app.business.lazy=true)
+auth_ms=$(report . java -jar "$JAR" --app.business.enabled=false)
+
+echo "Tiempo promedio hasta readiness ($RUNS ejecuciones, perfil $PROFILE)"
+printf "  %-22s %6d ms\n" "default" "$default_ms"
+line "business perezosa" "$lazy_ms"
+line "sin business (auth)" "$auth_ms"
+
+if [[ -f "$CDS_DIR/application.jsa" ]]; then
+  fast_ms=$(report "$CDS_DIR" java -XX:SharedArchiveFile=application.jsa \
+    -Xlog:cds=off -Xlog:cds+dynamic=off -Dspring.aot.enabled=true -jar "$(basename "$JAR")")
+  line "AOT + AppCDS" "$fast_ms"
+else
+  echo "  (sin $CDS_DIR/application.jsa: ejecute mvn -Pfast-startup -DskipTests package para comparar AOT + AppCDS)"
+fi
@@ -1,6 +1,7 @@
 package com.mvanalytic.apirest_demo_springboot.controllers.business;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -12,6 +13,7 @@ import com.mvanalytic.apirest_demo_springboot.services.business.ClientTypeServic
 
 // Pendiente los DTO's
 @RestController
+@ConditionalOnProperty(name = "app.business.enabled", havingValue = "true", matchIfMissing = true)
 @RequestMapping("/api/user-bussiness/client-type")
 public class ClientTypeController {
 
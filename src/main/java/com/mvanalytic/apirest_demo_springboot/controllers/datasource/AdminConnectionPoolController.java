@@ -0,0 +1,41 @@
+package com.mvanalytic.apirest_demo_springboot.controllers.datasource;
+
+import java.util.List;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import com.mvanalytic.apirest_demo_springboot.dto.datasource.ConnectionPoolStatusDTO;
+import com.mvanalytic.apirest_demo_springboot.services.datasource.ConnectionPoolService;
+
+/**
+ * Controlador para consultar el estado de los pools de conexiones y de su
+ * ajuste automático de tamaño. Este controlador solo puede ser accedido por
+ * usuarios con el rol "ROLE_ADMIN".
+ */
+@RestController
+@RequestMapping("/api/admin/connection-pools")
+@PreAuthorize("hasRole('ROLE_ADMIN')")
+public class AdminConnectionPoolController {
+
+  @Autowired
+  private ConnectionPoolService connectionPoolService;
+
+  /**
+   * Endpoint que devuelve, para cada pool de conexiones creado, las conexiones
+   * activas, inactivas y en espera, el tamaño máximo actual y sus límites, los
+   * tiempos de obtención de conexión (media, p95, p99 y máximo) y el último
+   * ajuste de tamaño realizado.
+   *
+   * @return ResponseEntity<List<ConnectionPoolStatusDTO>> - Una respuesta HTTP
+   *         con el estado 200 (OK) y el estado de cada pool.
+   */
+  @GetMapping("/all")
+  @PreAuthorize("hasRole('ROLE_ADMIN')")
+  public ResponseEntity<List<ConnectionPoolStatusDTO>> getAllPools() {
+    return ResponseEntity.ok(connectionPoolService.getPoolStatus());
+  }
+
+}
@@ -1,16 +1,23 @@
 package com.mvanalytic.apirest_demo_springboot.controllers.files;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.Resource;
-import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.mvanalytic.apirest_demo_springboot.dto.files.FileMetadataDTO;
 import com.mvanalytic.apirest_demo_springboot.services.files.FileService;
+import com.mvanalytic.apirest_demo_springboot.services.files.FileTransferService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.async.WebAsyncTask;
 
 @RestController
 @RequestMapping("/api/public/files")
@@ -19,6 +26,29 @@ public class FileController {
   @Autowired
   private FileService fileService;
 
+  @Autowired
+  private FileTransferService fileTransferService;
+
+  // Caché para URLs versionadas: el contenido de una versión nunca cambia
+  private static final String CACHE_IMMUTABLE = "public, max-age=31536000, immutable";
+
+  // Caché para URLs sin versión: se revalida siempre con el ETag
+  private static final String CACHE_REVALIDATE = "public, no-cache";
+
+  /**
+   * Endpoint que lista los archivos PDF disponibles para descarga con su tamaño,
+   * fecha de modificación, hash del contenido, ETag y versión. La respuesta se
+   * obtiene del catálogo en memoria, sin acceder al sistema de archivos.
+   * La versión se usa como parámetro {@code v} de la URL de descarga para que
+   * el archivo pueda almacenarse en caché de forma indefinida.
+   *
+   * @return Una respuesta HTTP 200 OK con la lista de archivos disponibles.
+   */
+  @GetMapping
+  public ResponseEntity<List<FileMetadataDTO>> listFiles() {
+    return ResponseEntity.ok(fileService.listFiles());
+  }
+
   /**
    * Controlador para descargar un archivo PDF desde el servidor.
    *
@@ -27,28 +57,52 @@ public class FileController {
    * El archivo solicitado por el nombre de archivo es enviado como un archivo
    * adjunto para su descarga.
    * 
+   * - Si el archivo no cambió respecto a la versión del cliente
+   * ({@code If-None-Match}, {@code If-Modified-Since}), devuelve 304 (Not
+   * Modified) sin cuerpo.
+   * - Si se solicita un rango válido ({@code Range}, {@code If-Range}),
+   * devuelve 206 (Partial Content) con la porción solicitada; si el rango no es
+   * satisfacible, 416.
+   * - En otro caso devuelve 200 (OK) con el archivo completo, enviado por
+   * bloques sin cargarlo completo en memoria. El envío se realiza de forma
+   * asíncrona desde el pool de descargas o, con el modo opcional sendfile
+   * habilitado y soportado por el contenedor, lo realiza el contenedor.
+   * - Si se alcanzó el máximo de descargas simultáneas, global o de la dirección
+   * IP, devuelve 503 (Service Unavailable) con {@code Retry-After} y
+   * {@code Cache-Control: no-store}, sin los encabezados del archivo.
+   * - Si el cliente acepta gzip y existe una variante precomprimida útil, se
+   * envía esa variante con {@code Content-Encoding: gzip}.
+   * - Si el parámetro {@code v} coincide con la versión actual del archivo, la
+   * respuesta se marca como inmutable durante un año; en otro caso el cliente
+   * debe revalidarla con el ETag en cada uso.
+   * - Si el archivo no existe o no está permitido, arroja una excepción manejada
+   * dentro del servicio `FileService`.
+   * 
    * @param fileName Nombre del archivo a descargar, capturado desde la URL. El
    *                 parámetro de la ruta "{fileName:.+}" asegura que el nombre
    *                 del archivo capture también extensiones como ".pdf" o ".jpg"
    *                 gracias a la expresión regular `:.+`.
-   * 
-   * @return ResponseEntity<Resource> con el archivo como cuerpo de la respuesta.
-   *         Incluye los encabezados adecuados para forzar la descarga del archivo
-   *         como un archivo adjunto.
-   * 
-   *         - Si el archivo existe y es legible, devuelve un código HTTP 200 (OK)
-   *         y el archivo en el cuerpo de la respuesta.
-   *         - Si no, arroja una excepción manejada dentro del servicio
-   *         `FileService`.
+   * @param version  Versión del contenido obtenida del listado de archivos
+   *                 (opcional).
+   * @param request  La solicitud HTTP con los encabezados condicionales y de
+   *                 rango.
+   * @param response La respuesta HTTP a la que se escribe el archivo.
+   * @return La tarea que escribe el cuerpo de forma asíncrona, o {@code null}
+   *         si la respuesta ya quedó completa.
+   * @throws IOException Si ocurre un error al escribir la respuesta.
    */
   @GetMapping("/download/{fileName:.+}")
-  public ResponseEntity<Resource> downloadFile(@PathVariable String fileName) {
-    Resource file = fileService.loadFileAResource(fileName);
+  public WebAsyncTask<Void> downloadFile(@PathVariable String fileName,
+      @RequestParam(name = "v", required = false) String version,
+      HttpServletRequest request, HttpServletResponse response) throws IOException {
+    FileMetadataDTO metadata = fileService.loadFileMetadata(fileName);
+    Path file = fileService.loadFilePath(fileName);
 
-    return ResponseEntity.ok()
-        .contentType(MediaType.APPLICATION_PDF)
-        .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; fileName=\"" + file.getFilename() + "\" ")
-        .body(file);
+    // Los encabezados del archivo los escribe FileTransferService después de
+    // reservar la descarga
+    String cacheControl = metadata.getVersion().equals(version) ? CACHE_IMMUTABLE : CACHE_REVALIDATE;
+    return fileTransferService.send(file, metadata, MediaType.APPLICATION_PDF_VALUE, cacheControl,
+        request, response);
   }
 
 }
@@ -3,7 +3,9 @@ package com.mvanalytic.apirest_demo_springboot.controllers.user;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import com.mvanalytic.apirest_demo_springboot.dto.user.BulkDeleteJobResponseDTO;
 import com.mvanalytic.apirest_demo_springboot.dto.user.FailedLoginAttemptResponseDTO;
+import com.mvanalytic.apirest_demo_springboot.services.user.BulkDeleteJobService;
 import com.mvanalytic.apirest_demo_springboot.services.user.FailedLoginAttemptService;
 import com.mvanalytic.apirest_demo_springboot.utility.AppUtility;
 import com.mvanalytic.apirest_demo_springboot.utility.UserValidationService;
@@ -14,6 +16,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
 /**
@@ -35,6 +38,9 @@ public class AdminFailedLoginAttemptController {
   @Autowired
   private UserValidationService userValidationService;
 
+  @Autowired
+  private BulkDeleteJobService bulkDeleteJobService;
+
   /**
    * Endpoint para obtener los intentos de inicio de sesión fallidos basados en el
    * correo electrónico, con soporte de paginación.
@@ -138,9 +144,46 @@ public class AdminFailedLoginAttemptController {
     Instant startTime = Instant.parse(appUtility.convertToUtcString(attemptTimeString));
 
     // llamada al servicio para que elimine los intentos
-    fLoginAttemptService.deleteByEmailAndAttemptTimeBefore(email, startTime);
+    long deleted = fLoginAttemptService.deleteByEmailAndAttemptTimeBefore(email, startTime);
+
+    return ResponseEntity.ok("Se eliminaron los intentos de sesión del email y fecha: " + deleted);
+  }
+
+  /**
+   * Endpoint que inicia en segundo plano la eliminación de los intentos de
+   * inicio de sesión de un correo anteriores a una fecha. Devuelve el
+   * identificador del proceso, cuyo avance se consulta en
+   * {@code /delete-jobs/{jobId}}.
+   *
+   * @param email             El correo electrónico del usuario cuyos intentos se
+   *                          eliminarán.
+   * @param attemptTimeString La fecha y hora antes de la cual los intentos serán
+   *                          eliminados (formato ISO).
+   * @return Una respuesta HTTP 202 con el estado inicial del proceso.
+   * @throws IllegalArgumentException Si el correo o la fecha tienen un formato
+   *                                  inválido.
+   */
+  @DeleteMapping("/delete-by-email/{email}/attemptTime/{attemptTimeString}/async")
+  @PreAuthorize("hasRole('ROLE_ADMIN')")
+  public ResponseEntity<BulkDeleteJobResponseDTO> deleteLogingAttemptByEmailAndTimeAsync(
+      @PathVariable String email, @PathVariable String attemptTimeString) {
+    // validar si el correo es correcto el formato
+    if (!userValidationService.isValidGeneralEmail(email)) {
+      throw new IllegalArgumentException("123, El correo no cumple el formato definido");
+    }
+    // Validar el formato de la fecha recibida como parámetro
+    if (!appUtility.isValidDateFormat(attemptTimeString)) {
+      throw new IllegalArgumentException("184, Error en el formato de la fecha y hora");
+    }
+
+    // Convertir el string en un objeto Instant
+    Instant startTime = Instant.parse(appUtility.convertToUtcString(attemptTimeString));
+
+    BulkDeleteJobResponseDTO job = bulkDeleteJobService.submit(
+        "FailedLoginAttempt por email previos a " + startTime,
+        progress -> fLoginAttemptService.deleteByEmailAndAttemptTimeBefore(email, startTime, progress));
 
-    return ResponseEntity.ok("Se eliminaron los intentos de sesión del email y fecha");
+    return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
   }
 
   /**
@@ -177,9 +220,44 @@ public class AdminFailedLoginAttemptController {
     Instant startTime = Instant.parse(appUtility.convertToUtcString(attemptTimeString));
 
     // llamada al servicio para que elimine los intentos
-    fLoginAttemptService.deleteByNicknameAndAttemptTimeBefore(nickname, startTime);
+    long deleted = fLoginAttemptService.deleteByNicknameAndAttemptTimeBefore(nickname, startTime);
+
+    return ResponseEntity.ok("Se eliminaron los intentos de sesión del nickname y fecha: " + deleted);
+  }
+
+  /**
+   * Endpoint que inicia en segundo plano la eliminación de los intentos de
+   * inicio de sesión de un nickname anteriores a una fecha.
+   *
+   * @param nickname          El nickname del usuario cuyos intentos se
+   *                          eliminarán.
+   * @param attemptTimeString La fecha y hora antes de la cual los intentos serán
+   *                          eliminados (formato ISO).
+   * @return Una respuesta HTTP 202 con el estado inicial del proceso.
+   * @throws IllegalArgumentException Si el nickname o la fecha tienen un formato
+   *                                  inválido.
+   */
+  @DeleteMapping("/delete-by-nickname/{nickname}/attemptTime/{attemptTimeString}/async")
+  @PreAuthorize("hasRole('ROLE_ADMIN')")
+  public ResponseEntity<BulkDeleteJobResponseDTO> deleteLogingAttemptByNicknameAndTimeAsync(
+      @PathVariable String nickname, @PathVariable String attemptTimeString) {
+    // validar el nickname
+    if (!userValidationService.isValidNickname(nickname, 1, 50)) {
+      throw new IllegalArgumentException("124, El nickname no cumple el formato definido");
+    }
+    // Validar el formato de la fecha recibida como parámetro
+    if (!appUtility.isValidDateFormat(attemptTimeString)) {
+      throw new IllegalArgumentException("184, Error en el formato de la fecha y hora");
+    }
 
-    return ResponseEntity.ok("Se eliminaron los intentos de sesión del nickname y fecha");
+    // Convertir el string en un objeto Instant
+    Instant startTime = Instant.parse(appUtility.convertToUtcString(attemptTimeString));
+
+    BulkDeleteJobResponseDTO job = bulkDeleteJobService.submit(
+        "FailedLoginAttempt por nickname previos a " + startTime,
+        progress -> fLoginAttemptService.deleteByNicknameAndAttemptTimeBefore(nickname, startTime, progress));
+
+    return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
   }
 
   /**
@@ -209,9 +287,55 @@ public class AdminFailedLoginAttemptController {
     Instant startTime = Instant.parse(appUtility.convertToUtcString(attemptTimeString));
 
     // llamada al servicio para que elimine los intentos
-    fLoginAttemptService.deleteByAttemptTimeBefore(startTime);
+    long deleted = fLoginAttemptService.deleteByAttemptTimeBefore(startTime);
+
+    return ResponseEntity.ok("Se eliminaron los intentos de sesión por fecha: " + deleted);
+  }
+
+  /**
+   * Endpoint que inicia en segundo plano la eliminación de los intentos de
+   * inicio de sesión fallidos anteriores a una fecha. Es la opción recomendada
+   * para depurar periodos largos, ya que la petición HTTP no espera a que
+   * termine la eliminación.
+   *
+   * @param attemptTimeString La fecha y hora antes de la cual los intentos serán
+   *                          eliminados (formato ISO).
+   * @return Una respuesta HTTP 202 con el estado inicial del proceso.
+   * @throws IllegalArgumentException Si la fecha proporcionada tiene un formato
+   *                                  inválido.
+   */
+  @DeleteMapping("/delete-by-time-before/{attemptTimeString}/async")
+  @PreAuthorize("hasRole('ROLE_ADMIN')")
+  public ResponseEntity<BulkDeleteJobResponseDTO> deleteLogingAttemptByTimeBeforeAsync(
+      @PathVariable String attemptTimeString) {
+    // Validar el formato de la fecha recibida como parámetro
+    if (!appUtility.isValidDateFormat(attemptTimeString)) {
+      throw new IllegalArgumentException("184, Error en el formato de la fecha y hora");
+    }
 
-    return ResponseEntity.ok("Se eliminaron los intentos de sesión por fecha");
+    // Convertir el string en un objeto Instant
+    Instant startTime = Instant.parse(appUtility.convertToUtcString(attemptTimeString));
+
+    BulkDeleteJobResponseDTO job = bulkDeleteJobService.submit(
+        "FailedLoginAttempt previos a " + startTime,
+        progress -> fLoginAttemptService.deleteByAttemptTimeBefore(startTime, progress));
+
+    return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+  }
+
+  /**
+   * Endpoint para consultar el avance de un proceso de eliminación iniciado en
+   * segundo plano.
+   *
+   * @param jobId El identificador devuelto al iniciar el proceso.
+   * @return Una respuesta HTTP con el estado y las filas eliminadas hasta el
+   *         momento.
+   * @throws IllegalArgumentException Si el proceso no existe.
+   */
+  @GetMapping("/delete-jobs/{jobId}")
+  @PreAuthorize("hasRole('ROLE_ADMIN')")
+  public ResponseEntity<BulkDeleteJobResponseDTO> getDeleteJob(@PathVariable String jobId) {
+    return ResponseEntity.ok(bulkDeleteJobService.getJob(jobId));
   }
 
   /**
@@ -1,8 +1,15 @@
 package com.mvanalytic.apirest_demo_springboot.controllers.user;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -10,15 +17,18 @@ import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import com.mvanalytic.apirest_demo_springboot.domain.user.User;
 import com.mvanalytic.apirest_demo_springboot.dto.user.AdminUserResponseDTO;
+import com.mvanalytic.apirest_demo_springboot.dto.user.BulkUserRegistrationJobResponseDTO;
 import com.mvanalytic.apirest_demo_springboot.dto.user.ResendActivationRequestDTO;
 import com.mvanalytic.apirest_demo_springboot.dto.user.UserAuthorityRequestDTO;
 import com.mvanalytic.apirest_demo_springboot.dto.user.UserRegistrationByAdminRequestDTO;
 import com.mvanalytic.apirest_demo_springboot.dto.user.UserStatusRequestDTO;
 import com.mvanalytic.apirest_demo_springboot.mapper.user.UserMapper;
+import com.mvanalytic.apirest_demo_springboot.services.user.BulkUserRegistrationService;
 import com.mvanalytic.apirest_demo_springboot.services.user.UserAuthorityService;
 import com.mvanalytic.apirest_demo_springboot.services.user.UserService;
 import com.mvanalytic.apirest_demo_springboot.utility.UserValidationService;
@@ -36,6 +46,9 @@ public class AdminUserController {
   @Autowired
   private UserValidationService userValidationService;
 
+  @Autowired
+  private BulkUserRegistrationService bulkUserRegistrationService;
+
   /**
    * Registra un nuevo usuario en el sistema.
    * Solo usuarios con el rol ROLE_ADMIN pueden acceder a este método.
@@ -60,6 +73,52 @@ public class AdminUserController {
     return ResponseEntity.ok("Usuario registrado exitosamente");
   }
 
+  /**
+   * Inicia en segundo plano el registro masivo de los usuarios de un archivo
+   * CSV o NDJSON. Devuelve el identificador del proceso, cuyo avance y cuyo
+   * informe se consultan en {@code /register/bulk/{jobId}}.
+   * Solo usuarios con el rol ROLE_ADMIN pueden acceder a este método.
+   *
+   * Cada fila tiene los campos de `UserRegistrationByAdminRequestDTO` (CSV con
+   * encabezado o un objeto JSON por línea). Las filas inválidas o repetidas se
+   * rechazan sin detener el registro y los correos de activación se envían en
+   * segundo plano.
+   *
+   * @param contentType El tipo de contenido: text/csv o application/x-ndjson.
+   * @param body        El contenido del archivo.
+   * @return Una respuesta HTTP 202 con el estado inicial del proceso.
+   * @throws IOException Si falla la lectura de la solicitud.
+   */
+  @PostMapping(value = "/register/bulk", consumes = { "text/csv", MediaType.APPLICATION_NDJSON_VALUE })
+  @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+  public ResponseEntity<BulkUserRegistrationJobResponseDTO> registerUsers(
+      @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+      InputStream body) throws IOException {
+
+    MediaType mediaType = MediaType.parseMediaType(contentType);
+    BulkUserRegistrationService.Format format = BulkUserRegistrationService.Format.of(mediaType);
+
+    // UTF-8 salvo que la solicitud indique otro juego de caracteres
+    Charset charset = mediaType.getCharset() != null ? mediaType.getCharset() : StandardCharsets.UTF_8;
+
+    BulkUserRegistrationJobResponseDTO job = bulkUserRegistrationService.submit(body, charset, format);
+    return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+  }
+
+  /**
+   * Consulta el avance de un registro masivo iniciado en segundo plano.
+   * Solo usuarios con el rol ROLE_ADMIN pueden acceder a este método.
+   *
+   * @param jobId El identificador devuelto al iniciar el registro.
+   * @return El estado del proceso y, cuando se completó, el informe con el
+   *         resultado de cada fila.
+   */
+  @GetMapping("/register/bulk/{jobId}")
+  @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+  public ResponseEntity<BulkUserRegistrationJobResponseDTO> getRegisterUsersJob(@PathVariable String jobId) {
+    return ResponseEntity.ok(bulkUserRegistrationService.getJob(jobId));
+  }
+
   /**
    * Controlador para reenviar un enlace de activación a un usuario.
    *
@@ -182,9 +241,7 @@ public class AdminUserController {
     userValidationService.validateUserStatusUpdateRequestDTO(userStatusUpdateRequestDTO);
 
     // User user = UserMapper.convertAdminUserDTOToUser(adminUserDTO);
-    User updateUser = userService.updateStatusUser(userStatusUpdateRequestDTO);
-
-    AdminUserResponseDTO adminUserDTOResponse = UserMapper.convertUserToAdminUserDTO(updateUser);
+    AdminUserResponseDTO adminUserDTOResponse = userService.updateStatusUser(userStatusUpdateRequestDTO);
 
     return ResponseEntity.ok(adminUserDTOResponse);
   }
@@ -207,9 +264,7 @@ public class AdminUserController {
     userValidationService.validateUserRoleUpdateRequestDTO(userAuthorityRequestDTO);
 
     // User user = UserMapper.convertAdminUserDTOToUser(adminUserDTO);
-    User updateUser = userAuthorityService.updateUserAuthority(userAuthorityRequestDTO);
-
-    AdminUserResponseDTO adminUserDTOResponse = UserMapper.convertUserToAdminUserDTO(updateUser);
+    AdminUserResponseDTO adminUserDTOResponse = userAuthorityService.updateUserAuthority(userAuthorityRequestDTO);
 
     return ResponseEntity.ok(adminUserDTOResponse);
   }
@@ -3,10 +3,15 @@ package com.mvanalytic.apirest_demo_springboot.controllers.user;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import com.mvanalytic.apirest_demo_springboot.dto.user.BulkDeleteJobResponseDTO;
 import com.mvanalytic.apirest_demo_springboot.dto.user.UserLoginActivityResponseDTO;
+import com.mvanalytic.apirest_demo_springboot.services.user.BulkDeleteJobService;
+import com.mvanalytic.apirest_demo_springboot.services.user.LoginActivityStreamService;
 import com.mvanalytic.apirest_demo_springboot.services.user.UserLoginActivityService;
 import com.mvanalytic.apirest_demo_springboot.utility.AppUtility;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import java.util.List;
@@ -21,6 +26,7 @@ import org.springframework.data.domain.Page;
  */
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/api/admin/user-login")
@@ -34,6 +40,12 @@ public class AdminUserLoginActivityController {
   @Autowired
   private AppUtility appUtility;
 
+  @Autowired
+  private BulkDeleteJobService bulkDeleteJobService;
+
+  @Autowired
+  private LoginActivityStreamService loginActivityStreamService;
+
   /**
    * Endpoint para obtener todas las actividades de inicio de sesión de usuarios
    * sin paginación.
@@ -81,6 +93,25 @@ public class AdminUserLoginActivityController {
     return ResponseEntity.ok(uLoginDTOs);
   }
 
+  /**
+   * Endpoint que abre un flujo Server-Sent Events con las actividades de inicio
+   * de sesión a medida que se registran, como alternativa a consultar
+   * periódicamente {@code /get-by-page}.
+   * 
+   * Se emiten los eventos 'login-activity' (`UserLoginActivityResponseDTO`) y
+   * 'failed-login-attempt' (`FailedLoginAttemptResponseDTO`). Si el cliente no
+   * consume los eventos a tiempo, se descartan los más antiguos y se emite un
+   * evento 'events-dropped' con la cantidad perdida.
+   *
+   * @return El emisor SSE asociado a la conexión.
+   * @throws IllegalArgumentException Si se alcanzó el máximo de suscriptores.
+   */
+  @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  @PreAuthorize("hasRole('ROLE_ADMIN')")
+  public SseEmitter streamLoginActivity() {
+    return loginActivityStreamService.subscribe();
+  }
+
   /**
    * Endpoint para obtener actividades de inicio de sesión de un usuario
    * específico filtradas por su estado.
@@ -347,9 +378,47 @@ public class AdminUserLoginActivityController {
       @PathVariable Long userId,
       @PathVariable String status) {
     // Llama al servicio para eliminar las sesiones del usuario especificado
-    uLoginActivityService.deleteByUserIdAndSessionStatus(userId, status);
+    long deleted = uLoginActivityService.deleteByUserIdAndSessionStatus(userId, status);
+
+    return ResponseEntity.ok("Las sesiones han sido eliminadas: " + deleted);
+  }
 
-    return ResponseEntity.ok("Las sesiones han sido eliminadas");
+  /**
+   * Endpoint que inicia en segundo plano la eliminación de las actividades de
+   * inicio de sesión de un usuario según el estado de la sesión. Devuelve el
+   * identificador del proceso, cuyo avance se consulta en
+   * {@code /delete-jobs/{jobId}}.
+   *
+   * @param userId El identificador único del usuario cuyas actividades de inicio
+   *               de sesión serán eliminadas.
+   * @param status El estado de la sesión a eliminar, como "SUCCESS" o "FAILURE".
+   * @return Una respuesta HTTP 202 con el estado inicial del proceso.
+   */
+  @DeleteMapping("/delete-by-userId/{userId}/status/{status}/async")
+  @PreAuthorize("hasRole('ROLE_ADMIN')")
+  public ResponseEntity<BulkDeleteJobResponseDTO> deleteByUserIdAndSessionStatusAsync(
+      @PathVariable Long userId,
+      @PathVariable String status) {
+    BulkDeleteJobResponseDTO job = bulkDeleteJobService.submit(
+        "UserLoginActivity del usuario " + userId + " con estado " + status,
+        progress -> uLoginActivityService.deleteByUserIdAndSessionStatus(userId, status, progress));
+
+    return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+  }
+
+  /**
+   * Endpoint para consultar el avance de un proceso de eliminación iniciado en
+   * segundo plano.
+   *
+   * @param jobId El identificador devuelto al iniciar el proceso.
+   * @return Una respuesta HTTP con el estado y las filas eliminadas hasta el
+   *         momento.
+   * @throws IllegalArgumentException Si el proceso no existe.
+   */
+  @GetMapping("/delete-jobs/{jobId}")
+  @PreAuthorize("hasRole('ROLE_ADMIN')")
+  public ResponseEntity<BulkDeleteJobResponseDTO> getDeleteJob(@PathVariable String jobId) {
+    return ResponseEntity.ok(bulkDeleteJobService.getJob(jobId));
   }
 
 }
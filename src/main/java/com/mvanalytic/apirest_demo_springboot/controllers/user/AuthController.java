@@ -7,9 +7,11 @@ import org.springframework.web.bind.annotation.RestController;
 import com.mvanalytic.apirest_demo_springboot.domain.user.User;
 import com.mvanalytic.apirest_demo_springboot.dto.user.JwtResponseDTO;
 import com.mvanalytic.apirest_demo_springboot.dto.user.LoginRequestDTO;
+import com.mvanalytic.apirest_demo_springboot.dto.user.RefreshTokenRequestDTO;
 import com.mvanalytic.apirest_demo_springboot.dto.user.UserRegistrationRequestDTO;
 import com.mvanalytic.apirest_demo_springboot.mapper.user.UserMapper;
 import com.mvanalytic.apirest_demo_springboot.services.user.AuthService;
+import com.mvanalytic.apirest_demo_springboot.services.user.RefreshTokenService;
 import com.mvanalytic.apirest_demo_springboot.services.user.UserService;
 import com.mvanalytic.apirest_demo_springboot.utility.UserValidationService;
 import jakarta.servlet.http.HttpServletRequest;
@@ -29,6 +31,9 @@ public class AuthController {
   @Autowired
   private UserValidationService userValidationService;
 
+  @Autowired
+  private RefreshTokenService refreshTokenService;
+
   // @Autowired
   // private UserKeyServiceImpl userKeyServiceImpl;
 
@@ -104,4 +109,22 @@ public class AuthController {
     return ResponseEntity.ok(jwtResponse);
   }
 
+  /**
+   * Rota el refresh token del cliente y devuelve un nuevo token JWT.
+   * 
+   * El refresh token presentado es la credencial: no requiere un JWT vigente.
+   * Cada refresh token solo puede utilizarse una vez; la respuesta contiene el
+   * nickname, el nuevo JWT y el nuevo refresh token.
+   *
+   * @param refreshTokenRequest Objeto que contiene el refresh token vigente.
+   * @return Respuesta que contiene el nuevo JWT y el nuevo refresh token.
+   */
+  @PostMapping("/refresh-token")
+  public ResponseEntity<JwtResponseDTO> rotateRefreshToken(
+      @RequestBody RefreshTokenRequestDTO refreshTokenRequest) {
+    JwtResponseDTO jwtResponse = refreshTokenService.rotateRefreshToken(
+        refreshTokenRequest.getRefreshToken());
+    return ResponseEntity.ok(jwtResponse);
+  }
+
 }
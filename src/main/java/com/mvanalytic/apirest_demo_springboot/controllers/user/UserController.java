@@ -15,7 +15,6 @@ import com.mvanalytic.apirest_demo_springboot.dto.user.UserNicknameRequestDTO;
 import com.mvanalytic.apirest_demo_springboot.dto.user.UserPasswordRequestDTO;
 import com.mvanalytic.apirest_demo_springboot.dto.user.UserProfileResponseDTO;
 import com.mvanalytic.apirest_demo_springboot.dto.user.UserProfileRequestDTO;
-import com.mvanalytic.apirest_demo_springboot.mapper.user.UserMapper;
 import com.mvanalytic.apirest_demo_springboot.services.user.RefreshTokenService;
 import com.mvanalytic.apirest_demo_springboot.services.user.UserService;
 import com.mvanalytic.apirest_demo_springboot.utility.UserValidationService;
@@ -80,9 +79,7 @@ public class UserController {
     userValidationService.validateUserProfileUpdateRequestDTO(userProfileUpdateRequestDTO);
 
     // Realiza la actualización del usuario
-    User updateUser = userService.updateProfileUser(userProfileUpdateRequestDTO);
-
-    UserProfileResponseDTO userDTOResponse = UserMapper.convertUserToUserProfileDTO(updateUser);
+    UserProfileResponseDTO userDTOResponse = userService.updateProfileUser(userProfileUpdateRequestDTO);
 
     return ResponseEntity.ok(userDTOResponse);
   }
@@ -106,9 +103,7 @@ public class UserController {
     userValidationService.validateUserNicknameUpdateRequestDTO(userNicknameUpdateRequestDTO);
 
     // Realiza la actualización del usuario
-    User updateUser = userService.updateNickname(userNicknameUpdateRequestDTO);
-
-    UserProfileResponseDTO userDTOResponse = UserMapper.convertUserToUserProfileDTO(updateUser);
+    UserProfileResponseDTO userDTOResponse = userService.updateNickname(userNicknameUpdateRequestDTO);
 
     return ResponseEntity.ok(userDTOResponse);
   }
@@ -132,9 +127,7 @@ public class UserController {
     userValidationService.validateUserMailRequestDTO(userEmailUpdateRequestDTO);
 
     // Realiza la actualización del usuario
-    User updateUser = userService.updateEmail(userEmailUpdateRequestDTO);
-
-    UserProfileResponseDTO userDTOResponse = UserMapper.convertUserToUserProfileDTO(updateUser);
+    UserProfileResponseDTO userDTOResponse = userService.updateEmail(userEmailUpdateRequestDTO);
 
     return ResponseEntity.ok(userDTOResponse);
   }
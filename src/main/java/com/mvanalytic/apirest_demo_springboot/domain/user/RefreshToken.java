@@ -8,6 +8,9 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.NamedSubgraph;
 import jakarta.persistence.OneToOne;
 import jakarta.persistence.Table;
 
@@ -16,11 +19,19 @@ import jakarta.persistence.Table;
  * sistema.
  * Los refresh tokens se utilizan para permitir a los usuarios obtener nuevos
  * tokens JWT sin necesidad de volver a autenticarse.
+ *
+ * El grafo 'RefreshToken.user' carga el usuario y sus autoridades en la misma
+ * consulta que el token.
  */
 @Entity
+@NamedEntityGraph(name = RefreshToken.WITH_USER,
+    attributeNodes = @NamedAttributeNode(value = "user", subgraph = "user"),
+    subgraphs = @NamedSubgraph(name = "user", attributeNodes = @NamedAttributeNode("authorities")))
 @Table(name = "refresh_token")
 public class RefreshToken {
 
+  public static final String WITH_USER = "RefreshToken.user";
+
   @Id
   @GeneratedValue(strategy = GenerationType.IDENTITY)
   @Column(name = "id_token")
@@ -21,6 +21,8 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotNull;
@@ -29,13 +31,20 @@ import jakarta.validation.constraints.Size;
 
 /*
  * Representa un usuario en el sistema
+ *
+ * El grafo 'User.authorities' carga las autoridades en la misma consulta que el
+ * usuario; lo usan los repositorios para que el usuario quede completo antes de
+ * liberar la conexión (open-in-view deshabilitado).
  */
 @Entity
+@NamedEntityGraph(name = User.WITH_AUTHORITIES, attributeNodes = @NamedAttributeNode("authorities"))
 @Table(name = "user_mva", schema = "dbo")
 @Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE)
 public class User implements UserDetails {
   private static final long serialVersionUID = 1L;
 
+  public static final String WITH_AUTHORITIES = "User.authorities";
+
   @Id
   @GeneratedValue(strategy = GenerationType.IDENTITY)
   private Long id;
@@ -0,0 +1,186 @@
+package com.mvanalytic.apirest_demo_springboot.dto.datasource;
+
+import java.time.Instant;
+
+/**
+ * DTO que representa el estado de un pool de conexiones Hikari y de su ajuste
+ * automático de tamaño. Los tiempos de obtención de conexión corresponden a la
+ * ventana reciente del histograma 'hikaricp.connections.acquire'.
+ */
+public class ConnectionPoolStatusDTO {
+  private String poolName; // Nombre del pool ('customer', 'business')
+  private boolean started; // false si el pool aún no abrió conexiones
+  private int active; // Conexiones en uso
+  private int idle; // Conexiones inactivas
+  private int total; // Conexiones abiertas
+  private int pending; // Hilos esperando una conexión
+  private int maximumPoolSize; // Tamaño máximo actual
+  private int minimumIdle; // Mínimo de conexiones inactivas
+  private int lowerBound; // Límite inferior del ajuste automático
+  private int upperBound; // Límite superior del ajuste automático
+  private long leakDetectionThresholdMs; // Umbral de detección de fugas (0 = deshabilitada)
+  private long acquireCount; // Conexiones obtenidas desde el inicio
+  private double acquireMeanMs; // Tiempo medio de obtención desde el inicio
+  private double acquireP95Ms; // Percentil 95 de la ventana reciente
+  private double acquireP99Ms; // Percentil 99 de la ventana reciente
+  private double acquireMaxMs; // Máximo de la ventana reciente
+  private double lastIntervalWaitMs; // Espera media en el último intervalo del ajuste
+  private String lastAdjustment; // Último cambio de tamaño y su motivo
+  private Instant lastAdjustmentTime; // Momento del último cambio de tamaño
+
+  public ConnectionPoolStatusDTO() {
+  }
+
+  public String getPoolName() {
+    return poolName;
+  }
+
+  public void setPoolName(String poolName) {
+    this.poolName = poolName;
+  }
+
+  public boolean isStarted() {
+    return started;
+  }
+
+  public void setStarted(boolean started) {
+    this.started = started;
+  }
+
+  public int getActive() {
+    return active;
+  }
+
+  public void setActive(int active) {
+    this.active = active;
+  }
+
+  public int getIdle() {
+    return idle;
+  }
+
+  public void setIdle(int idle) {
+    this.idle = idle;
+  }
+
+  public int getTotal() {
+    return total;
+  }
+
+  public void setTotal(int total) {
+    this.total = total;
+  }
+
+  public int getPending() {
+    return pending;
+  }
+
+  public void setPending(int pending) {
+    this.pending = pending;
+  }
+
+  public int getMaximumPoolSize() {
+    return maximumPoolSize;
+  }
+
+  public void setMaximumPoolSize(int maximumPoolSize) {
+    this.maximumPoolSize = maximumPoolSize;
+  }
+
+  public int getMinimumIdle() {
+    return minimumIdle;
+  }
+
+  public void setMinimumIdle(int minimumIdle) {
+    this.minimumIdle = minimumIdle;
+  }
+
+  public int getLowerBound() {
+    return lowerBound;
+  }
+
+  public void setLowerBound(int lowerBound) {
+    this.lowerBound = lowerBound;
+  }
+
+  public int getUpperBound() {
+    return upperBound;
+  }
+
+  public void setUpperBound(int upperBound) {
+    this.upperBound = upperBound;
+  }
+
+  public long getLeakDetectionThresholdMs() {
+    return leakDetectionThresholdMs;
+  }
+
+  public void setLeakDetectionThresholdMs(long leakDetectionThresholdMs) {
+    this.leakDetectionThresholdMs = leakDetectionThresholdMs;
+  }
+
+  public long getAcquireCount() {
+    return acquireCount;
+  }
+
+  public void setAcquireCount(long acquireCount) {
+    this.acquireCount = acquireCount;
+  }
+
+  public double getAcquireMeanMs() {
+    return acquireMeanMs;
+  }
+
+  public void setAcquireMeanMs(double acquireMeanMs) {
+    this.acquireMeanMs = acquireMeanMs;
+  }
+
+  public double getAcquireP95Ms() {
+    return acquireP95Ms;
+  }
+
+  public void setAcquireP95Ms(double acquireP95Ms) {
+    this.acquireP95Ms = acquireP95Ms;
+  }
+
+  public double getAcquireP99Ms() {
+    return acquireP99Ms;
+  }
+
+  public void setAcquireP99Ms(double acquireP99Ms) {
+    this.acquireP99Ms = acquireP99Ms;
+  }
+
+  public double getAcquireMaxMs() {
+    return acquireMaxMs;
+  }
+
+  public void setAcquireMaxMs(double acquireMaxMs) {
+    this.acquireMaxMs = acquireMaxMs;
+  }
+
+  public double getLastIntervalWaitMs() {
+    return lastIntervalWaitMs;
+  }
+
+  public void setLastIntervalWaitMs(double lastIntervalWaitMs) {
+    this.lastIntervalWaitMs = lastIntervalWaitMs;
+  }
+
+  public String getLastAdjustment() {
+    return lastAdjustment;
+  }
+
+  public void setLastAdjustment(String lastAdjustment) {
+    this.lastAdjustment = lastAdjustment;
+  }
+
+  public Instant getLastAdjustmentTime() {
+    return lastAdjustmentTime;
+  }
+
+  public void setLastAdjustmentTime(Instant lastAdjustmentTime) {
+    this.lastAdjustmentTime = lastAdjustmentTime;
+  }
+
+}
@@ -0,0 +1,77 @@
+package com.mvanalytic.apirest_demo_springboot.dto.files;
+
+import java.time.Instant;
+
+/**
+ * DTO que representa los metadatos de un archivo de la carpeta de
+ * almacenamiento, mantenidos en memoria por el catálogo de archivos.
+ */
+public class FileMetadataDTO {
+  private String name; // Nombre del archivo
+  private long size; // Tamaño en bytes
+  private Instant lastModified; // Fecha de la última modificación
+  private String contentHash; // Hash SHA-256 del contenido en hexadecimal
+  private String etag; // ETag derivado del hash del contenido
+  private String version; // Versión para URLs cacheables (?v=), derivada del hash
+  private Long gzipSize; // Tamaño de la variante gzip precomprimida, si existe
+
+  public FileMetadataDTO() {
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public void setName(String name) {
+    this.name = name;
+  }
+
+  public long getSize() {
+    return size;
+  }
+
+  public void setSize(long size) {
+    this.size = size;
+  }
+
+  public Instant getLastModified() {
+    return lastModified;
+  }
+
+  public void setLastModified(Instant lastModified) {
+    this.lastModified = lastModified;
+  }
+
+  public String getContentHash() {
+    return contentHash;
+  }
+
+  public void setContentHash(String contentHash) {
+    this.contentHash = contentHash;
+  }
+
+  public String getEtag() {
+    return etag;
+  }
+
+  public void setEtag(String etag) {
+    this.etag = etag;
+  }
+
+  public String getVersion() {
+    return version;
+  }
+
+  public void setVersion(String version) {
+    this.version = version;
+  }
+
+  public Long getGzipSize() {
+    return gzipSize;
+  }
+
+  public void setGzipSize(Long gzipSize) {
+    this.gzipSize = gzipSize;
+  }
+
+}
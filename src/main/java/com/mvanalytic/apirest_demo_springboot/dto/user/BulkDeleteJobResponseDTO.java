@@ -0,0 +1,96 @@
+package com.mvanalytic.apirest_demo_springboot.dto.user;
+
+import java.time.Instant;
+
+/**
+ * DTO que representa el estado de un proceso de eliminación masiva ejecutado
+ * en segundo plano. Es devuelto al crear el proceso y al consultarlo por su
+ * identificador.
+ */
+public class BulkDeleteJobResponseDTO {
+  private String jobId; // Identificador del proceso
+  private String description; // Descripción de la eliminación solicitada
+  private String status; // Estado: 'PENDING', 'RUNNING', 'COMPLETED', 'FAILED'
+  private long deletedRows; // Filas eliminadas hasta el momento
+  private int chunks; // Lotes DELETE TOP (n) ejecutados
+  private Instant submitTime; // Registro del proceso
+  private Instant startTime; // Inicio de la eliminación, si ya comenzó
+  private Instant endTime; // Fin del proceso, si ya terminó
+  private String errorMessage; // Mensaje de error si el proceso falló
+
+  public BulkDeleteJobResponseDTO() {
+  }
+
+  public String getJobId() {
+    return jobId;
+  }
+
+  public void setJobId(String jobId) {
+    this.jobId = jobId;
+  }
+
+  public String getDescription() {
+    return description;
+  }
+
+  public void setDescription(String description) {
+    this.description = description;
+  }
+
+  public String getStatus() {
+    return status;
+  }
+
+  public void setStatus(String status) {
+    this.status = status;
+  }
+
+  public long getDeletedRows() {
+    return deletedRows;
+  }
+
+  public void setDeletedRows(long deletedRows) {
+    this.deletedRows = deletedRows;
+  }
+
+  public int getChunks() {
+    return chunks;
+  }
+
+  public void setChunks(int chunks) {
+    this.chunks = chunks;
+  }
+
+  public Instant getSubmitTime() {
+    return submitTime;
+  }
+
+  public void setSubmitTime(Instant submitTime) {
+    this.submitTime = submitTime;
+  }
+
+  public Instant getStartTime() {
+    return startTime;
+  }
+
+  public void setStartTime(Instant startTime) {
+    this.startTime = startTime;
+  }
+
+  public Instant getEndTime() {
+    return endTime;
+  }
+
+  public void setEndTime(Instant endTime) {
+    this.endTime = endTime;
+  }
+
+  public String getErrorMessage() {
+    return errorMessage;
+  }
+
+  public void setErrorMessage(String errorMessage) {
+    this.errorMessage = errorMessage;
+  }
+
+}
@@ -0,0 +1,78 @@
+package com.mvanalytic.apirest_demo_springboot.dto.user;
+
+import java.time.Instant;
+
+/**
+ * DTO que representa el estado de un registro masivo de usuarios ejecutado en
+ * segundo plano. Es devuelto al crear el proceso y al consultarlo por su
+ * identificador.
+ */
+public class BulkUserRegistrationJobResponseDTO {
+  private String jobId; // Identificador del proceso
+  private String status; // Estado: 'PENDING', 'RUNNING', 'COMPLETED', 'FAILED'
+  private int processedRows; // Filas procesadas hasta el momento
+  private Instant startTime; // Recepción del archivo
+  private Instant endTime; // Fin del proceso, si ya terminó
+  private String errorMessage; // Mensaje de error si el proceso falló
+  private BulkUserRegistrationResponseDTO report; // Informe por fila, si el proceso se completó
+
+  public BulkUserRegistrationJobResponseDTO() {
+  }
+
+  public String getJobId() {
+    return jobId;
+  }
+
+  public void setJobId(String jobId) {
+    this.jobId = jobId;
+  }
+
+  public String getStatus() {
+    return status;
+  }
+
+  public void setStatus(String status) {
+    this.status = status;
+  }
+
+  public int getProcessedRows() {
+    return processedRows;
+  }
+
+  public void setProcessedRows(int processedRows) {
+    this.processedRows = processedRows;
+  }
+
+  public Instant getStartTime() {
+    return startTime;
+  }
+
+  public void setStartTime(Instant startTime) {
+    this.startTime = startTime;
+  }
+
+  public Instant getEndTime() {
+    return endTime;
+  }
+
+  public void setEndTime(Instant endTime) {
+    this.endTime = endTime;
+  }
+
+  public String getErrorMessage() {
+    return errorMessage;
+  }
+
+  public void setErrorMessage(String errorMessage) {
+    this.errorMessage = errorMessage;
+  }
+
+  public BulkUserRegistrationResponseDTO getReport() {
+    return report;
+  }
+
+  public void setReport(BulkUserRegistrationResponseDTO report) {
+    this.report = report;
+  }
+
+}
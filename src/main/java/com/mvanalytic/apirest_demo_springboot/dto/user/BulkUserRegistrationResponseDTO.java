@@ -0,0 +1,88 @@
+package com.mvanalytic.apirest_demo_springboot.dto.user;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO que representa el informe de un registro masivo de usuarios por el
+ * administrador, con el resultado de cada fila recibida.
+ */
+public class BulkUserRegistrationResponseDTO {
+  private int totalRows; // Filas leídas del archivo (sin encabezado ni líneas vacías)
+  private int registered; // Usuarios registrados
+  private int rejected; // Filas rechazadas
+  private int batches; // Lotes insertados en la base de datos
+  private Instant startTime; // Inicio del registro
+  private Instant endTime; // Fin del registro
+  private String errorMessage; // Motivo por el que se detuvo la lectura, si ocurrió
+  private List<BulkUserRegistrationRowDTO> rows = new ArrayList<>(); // Resultado por fila
+
+  public BulkUserRegistrationResponseDTO() {
+  }
+
+  public int getTotalRows() {
+    return totalRows;
+  }
+
+  public void setTotalRows(int totalRows) {
+    this.totalRows = totalRows;
+  }
+
+  public int getRegistered() {
+    return registered;
+  }
+
+  public void setRegistered(int registered) {
+    this.registered = registered;
+  }
+
+  public int getRejected() {
+    return rejected;
+  }
+
+  public void setRejected(int rejected) {
+    this.rejected = rejected;
+  }
+
+  public int getBatches() {
+    return batches;
+  }
+
+  public void setBatches(int batches) {
+    this.batches = batches;
+  }
+
+  public Instant getStartTime() {
+    return startTime;
+  }
+
+  public void setStartTime(Instant startTime) {
+    this.startTime = startTime;
+  }
+
+  public Instant getEndTime() {
+    return endTime;
+  }
+
+  public void setEndTime(Instant endTime) {
+    this.endTime = endTime;
+  }
+
+  public String getErrorMessage() {
+    return errorMessage;
+  }
+
+  public void setErrorMessage(String errorMessage) {
+    this.errorMessage = errorMessage;
+  }
+
+  public List<BulkUserRegistrationRowDTO> getRows() {
+    return rows;
+  }
+
+  public void setRows(List<BulkUserRegistrationRowDTO> rows) {
+    this.rows = rows;
+  }
+
+}
@@ -0,0 +1,66 @@
+package com.mvanalytic.apirest_demo_springboot.dto.user;
+
+/**
+ * DTO que representa el resultado de una fila del registro masivo de
+ * usuarios.
+ */
+public class BulkUserRegistrationRowDTO {
+  private int line; // Línea del archivo recibido
+  private String email; // Correo de la fila, si pudo leerse
+  private String nickname; // Nickname de la fila, si pudo leerse
+  private String status; // Estado: 'REGISTERED', 'REJECTED'
+  private Long id; // Id del usuario registrado
+  private String errorMessage; // Mensaje "código, mensaje" si la fila fue rechazada
+
+  public BulkUserRegistrationRowDTO() {
+  }
+
+  public int getLine() {
+    return line;
+  }
+
+  public void setLine(int line) {
+    this.line = line;
+  }
+
+  public String getEmail() {
+    return email;
+  }
+
+  public void setEmail(String email) {
+    this.email = email;
+  }
+
+  public String getNickname() {
+    return nickname;
+  }
+
+  public void setNickname(String nickname) {
+    this.nickname = nickname;
+  }
+
+  public String getStatus() {
+    return status;
+  }
+
+  public void setStatus(String status) {
+    this.status = status;
+  }
+
+  public Long getId() {
+    return id;
+  }
+
+  public void setId(Long id) {
+    this.id = id;
+  }
+
+  public String getErrorMessage() {
+    return errorMessage;
+  }
+
+  public void setErrorMessage(String errorMessage) {
+    this.errorMessage = errorMessage;
+  }
+
+}
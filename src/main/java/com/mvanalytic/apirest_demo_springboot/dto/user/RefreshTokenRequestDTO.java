@@ -0,0 +1,24 @@
+package com.mvanalytic.apirest_demo_springboot.dto.user;
+
+/**
+ * DTO utilizado para solicitar la rotación de un refresh token.
+ * 
+ * Campos:
+ * - refreshToken: El refresh token vigente que presenta el cliente.
+ */
+public class RefreshTokenRequestDTO {
+
+  private String refreshToken;
+
+  public RefreshTokenRequestDTO() {
+  }
+
+  public String getRefreshToken() {
+    return refreshToken;
+  }
+
+  public void setRefreshToken(String refreshToken) {
+    this.refreshToken = refreshToken;
+  }
+
+}
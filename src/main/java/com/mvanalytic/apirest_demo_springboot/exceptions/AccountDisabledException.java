@@ -0,0 +1,27 @@
+package com.mvanalytic.apirest_demo_springboot.exceptions;
+
+import org.springframework.security.authentication.DisabledException;
+
+/**
+ * Variante sin traza de la pila de DisabledException, lanzada cuando la cuenta
+ * del usuario está deshabilitada.
+ * 
+ * Los bloques catch de DisabledException la siguen recibiendo.
+ */
+public class AccountDisabledException extends DisabledException {
+
+  /**
+   * Crea una nueva instancia de AccountDisabledException.
+   * 
+   * @param message El mensaje con el formato "código, mensaje".
+   */
+  public AccountDisabledException(String message) {
+    super(message);
+  }
+
+  @Override
+  public synchronized Throwable fillInStackTrace() {
+    return this;
+  }
+
+}
@@ -0,0 +1,57 @@
+package com.mvanalytic.apirest_demo_springboot.exceptions;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Excepción para los errores de negocio esperados, con el formato
+ * "código, mensaje" utilizado en toda la aplicación (por ejemplo, un correo
+ * ya registrado o una contraseña que no coincide).
+ * 
+ * No captura la traza de la pila: estos errores son resultados previsibles de
+ * la solicitud y no fallos del sistema, por lo que la traza solo agrega costo
+ * de CPU, en especial bajo ataques de fuerza bruta. Extiende
+ * IllegalArgumentException para conservar los bloques catch existentes y la
+ * respuesta 400 (BAD_REQUEST) por defecto.
+ */
+public class BusinessException extends IllegalArgumentException {
+
+  private final HttpStatus status;
+
+  /**
+   * Crea una nueva instancia de BusinessException que se responde con el estado
+   * 400 (BAD_REQUEST).
+   * 
+   * @param message El mensaje con el formato "código, mensaje".
+   */
+  public BusinessException(String message) {
+    this(message, HttpStatus.BAD_REQUEST);
+  }
+
+  /**
+   * Crea una nueva instancia de BusinessException con el estado HTTP indicado.
+   * 
+   * @param message El mensaje con el formato "código, mensaje".
+   * @param status  El estado HTTP de la respuesta.
+   */
+  public BusinessException(String message, HttpStatus status) {
+    super(message);
+    this.status = status;
+  }
+
+  public HttpStatus getStatus() {
+    return status;
+  }
+
+  /**
+   * Omite la captura de la traza de la pila, equivalente a
+   * writableStackTrace=false, que IllegalArgumentException no expone en sus
+   * constructores.
+   * 
+   * @return Esta misma excepción.
+   */
+  @Override
+  public synchronized Throwable fillInStackTrace() {
+    return this;
+  }
+
+}
@@ -0,0 +1,30 @@
+package com.mvanalytic.apirest_demo_springboot.exceptions;
+
+/**
+ * Excepción lanzada cuando no hay capacidad para iniciar una nueva descarga,
+ * ya sea por el límite global de descargas simultáneas o por el límite por
+ * dirección IP.
+ * 
+ * Se responde con el código de estado 503 (SERVICE_UNAVAILABLE) y el
+ * encabezado {@code Retry-After} con los segundos sugeridos para reintentar.
+ */
+public class DownloadLimitExceededException extends RuntimeException {
+
+  private final long retryAfterSeconds;
+
+  /**
+   * Crea una nueva instancia de DownloadLimitExceededException.
+   * 
+   * @param message           El mensaje que describe el error.
+   * @param retryAfterSeconds Segundos sugeridos al cliente antes de reintentar.
+   */
+  public DownloadLimitExceededException(String message, long retryAfterSeconds) {
+    super(message);
+    this.retryAfterSeconds = retryAfterSeconds;
+  }
+
+  public long getRetryAfterSeconds() {
+    return retryAfterSeconds;
+  }
+
+}
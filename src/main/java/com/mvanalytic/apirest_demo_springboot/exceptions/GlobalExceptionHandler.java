@@ -5,9 +5,12 @@ import java.util.HashMap;
 import java.util.Map;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataAccessException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.CredentialsExpiredException;
 import org.springframework.security.authentication.DisabledException;
 import org.springframework.security.authentication.InsufficientAuthenticationException;
@@ -15,6 +18,7 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import com.mvanalytic.apirest_demo_springboot.utility.AppUtility;
+import com.mvanalytic.apirest_demo_springboot.utility.EventLogger;
 import jakarta.persistence.EntityNotFoundException;
 
 /**
@@ -35,6 +39,9 @@ public class GlobalExceptionHandler {
   @Autowired
   private AppUtility appUtility;
 
+  @Autowired
+  private EventLogger eventLogger;
+
   /**
    * Maneja la excepción EntityNotFoundException lanzada en cualquier parte de la
    * aplicación.
@@ -48,7 +55,7 @@ public class GlobalExceptionHandler {
     // Maneja la excepción de entidad no encontrada
     Map<String, String> response = new HashMap<>();
     response.put("error", ex.getLocalizedMessage());
-    appUtility.sendLog(ex.getLocalizedMessage(), "");
+    appUtility.sendLog(GlobalExceptionHandler.class, ex.getLocalizedMessage(), "");
     return new ResponseEntity<>(response, HttpStatus.NOT_FOUND);
   }
 
@@ -65,7 +72,7 @@ public class GlobalExceptionHandler {
     // Maneja excepciones de tipo Runtime
     Map<String, String> response = new HashMap<>();
     response.put("error", ex.getMessage());
-    appUtility.sendLog(ex.getMessage(), "");
+    appUtility.sendLog(GlobalExceptionHandler.class, ex.getMessage(), "");
     return new ResponseEntity<>(response, HttpStatus.INTERNAL_SERVER_ERROR);
   }
 
@@ -82,7 +89,7 @@ public class GlobalExceptionHandler {
     // Maneja excepciones de tipo Runtime
     Map<String, String> response = new HashMap<>();
     response.put("erro", ex.getMessage());
-    appUtility.sendLog(ex.getMessage(), "");
+    appUtility.sendLog(GlobalExceptionHandler.class, ex.getMessage(), "");
     return new ResponseEntity<>(response, HttpStatus.INTERNAL_SERVER_ERROR);
   }
 
@@ -99,10 +106,59 @@ public class GlobalExceptionHandler {
     // Maneja excepciones de tipo IllegalArgumentException
     Map<String, String> response = new HashMap<>();
     response.put("error", ex.getMessage());
-    appUtility.sendLog(ex.getMessage(), "");
+    appUtility.sendLog(GlobalExceptionHandler.class, ex.getMessage(), "");
     return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
   }
 
+  /**
+   * Maneja las excepciones BusinessException, que representan errores de negocio
+   * esperados y no capturan la traza de la pila.
+   * 
+   * @param ex La excepción BusinessException capturada.
+   * @return ResponseEntity que contiene un mapa con el mensaje de error y el
+   *         estado HTTP definido en la excepción (400 por defecto).
+   */
+  @ExceptionHandler(BusinessException.class)
+  public ResponseEntity<Object> handleBusinessException(BusinessException ex) {
+    Map<String, String> response = new HashMap<>();
+    response.put("error", ex.getMessage());
+    // Error esperado: se registra con nivel WARN y no como ERROR
+    eventLogger.warn(GlobalExceptionHandler.class, EventLogger.eventCode(ex.getMessage()), "{}", "message", ex.getMessage());
+    return new ResponseEntity<>(response, ex.getStatus());
+  }
+
+  /**
+   * Maneja las excepciones ServiceFailureException, que representan fallos
+   * inesperados de una operación. Se registran con la traza de su causa.
+   * 
+   * @param ex La excepción ServiceFailureException capturada.
+   * @return ResponseEntity que contiene un mapa con el mensaje de error y un
+   *         estado HTTP 500 (INTERNAL_SERVER_ERROR).
+   */
+  @ExceptionHandler(ServiceFailureException.class)
+  public ResponseEntity<Object> handleServiceFailureException(ServiceFailureException ex) {
+    Map<String, String> response = new HashMap<>();
+    response.put("error", ex.getMessage());
+    eventLogger.error(GlobalExceptionHandler.class, EventLogger.eventCode(ex.getMessage()), ex, "{}", "message", ex.getMessage());
+    return new ResponseEntity<>(response, HttpStatus.INTERNAL_SERVER_ERROR);
+  }
+
+  /**
+   * Maneja excepciones de tipo BadCredentialsException lanzadas cuando la
+   * contraseña no coincide con la registrada.
+   * 
+   * @param ex La excepción BadCredentialsException capturada.
+   * @return ResponseEntity que contiene un mapa con el mensaje de error y un
+   *         estado HTTP 401 (UNAUTHORIZED).
+   */
+  @ExceptionHandler(BadCredentialsException.class)
+  public ResponseEntity<Object> handleBadCredentialsException(BadCredentialsException ex) {
+    Map<String, String> response = new HashMap<>();
+    response.put("error", ex.getMessage());
+    eventLogger.warn(GlobalExceptionHandler.class, EventLogger.eventCode(ex.getMessage()), "{}", "message", ex.getMessage());
+    return new ResponseEntity<>(response, HttpStatus.UNAUTHORIZED);
+  }
+
   /**
    * Maneja excepciones de tipo CredentialsExpiredException lanzadas en cualquier
    * parte de la aplicación.
@@ -116,7 +172,7 @@ public class GlobalExceptionHandler {
     // Maneja excepciones de tipo CredentialsExpiredException
     Map<String, String> response = new HashMap<>();
     response.put("error", ex.getMessage());
-    appUtility.sendLog(ex.getMessage(), "");
+    appUtility.sendLog(GlobalExceptionHandler.class, ex.getMessage(), "");
     return new ResponseEntity<>(response, HttpStatus.UNAUTHORIZED);
   }
 
@@ -134,7 +190,7 @@ public class GlobalExceptionHandler {
     // Maneja excepciones de tipo CredentialsExpiredException
     Map<String, String> response = new HashMap<>();
     response.put("error", ex.getMessage());
-    appUtility.sendLog(ex.getMessage(), "");
+    appUtility.sendLog(GlobalExceptionHandler.class, ex.getMessage(), "");
     return new ResponseEntity<>(response, HttpStatus.UNAUTHORIZED);
   }
 
@@ -152,7 +208,7 @@ public class GlobalExceptionHandler {
     // Maneja excepciones de tipo DisabledException
     Map<String, String> response = new HashMap<>();
     response.put("error", ex.getMessage());
-    appUtility.sendLog(ex.getMessage(), "");
+    appUtility.sendLog(GlobalExceptionHandler.class, ex.getMessage(), "");
     return new ResponseEntity<>(response, HttpStatus.UNAUTHORIZED);
   }
 
@@ -170,7 +226,7 @@ public class GlobalExceptionHandler {
     // Maneja excepciones de tipo DataAccessException
     Map<String, String> response = new HashMap<>();
     response.put("error", ex.getMessage());
-    appUtility.sendLog(ex.getMessage(), "");
+    appUtility.sendLog(GlobalExceptionHandler.class, ex.getMessage(), "");
     return new ResponseEntity<>(response, HttpStatus.INTERNAL_SERVER_ERROR);
   }
 
@@ -188,7 +244,7 @@ public class GlobalExceptionHandler {
     // Maneja excepciones de tipo AccessDeniedException
     Map<String, String> response = new HashMap<>();
     response.put("error", ex.getMessage());
-    appUtility.sendLog(ex.getMessage(), "");
+    appUtility.sendLog(GlobalExceptionHandler.class, ex.getMessage(), "");
     return new ResponseEntity<>(response, HttpStatus.FORBIDDEN);
   }
 
@@ -204,7 +260,7 @@ public class GlobalExceptionHandler {
   public ResponseEntity<Object> handleMailSendException(MailSendException ex) {
     Map<String, String> response = new HashMap<>();
     response.put("error", ex.getMessage());
-    appUtility.sendLog(ex.getMessage(), "");
+    appUtility.sendLog(GlobalExceptionHandler.class, ex.getMessage(), "");
     return new ResponseEntity<>(response, HttpStatus.INTERNAL_SERVER_ERROR);
   }
 
@@ -242,7 +298,7 @@ public class GlobalExceptionHandler {
     Map<String, String> response = new HashMap<>();
     response.put("error", "archivo no encontrado");
     response.put("details", ex.getMessage());
-    appUtility.sendLog(ex.getMessage(), "");
+    appUtility.sendLog(GlobalExceptionHandler.class, ex.getMessage(), "");
     return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
   }
 
@@ -263,8 +319,29 @@ public class GlobalExceptionHandler {
   public ResponseEntity<Object> handleSecurityException(SecurityException ex) {
     Map<String, String> response = new HashMap<>();
     response.put("error", ex.getMessage());
-    appUtility.sendLog(ex.getMessage(), "");
+    appUtility.sendLog(GlobalExceptionHandler.class, ex.getMessage(), "");
     return new ResponseEntity<>(response, HttpStatus.FORBIDDEN); // Devolver un código 403 Forbidden
   }
 
+  /**
+   * Maneja la excepción DownloadLimitExceededException lanzada cuando no hay
+   * capacidad para iniciar una nueva descarga.
+   * 
+   * @param ex La excepción DownloadLimitExceededException capturada.
+   * @return ResponseEntity que contiene un mapa con el mensaje de error, los
+   *         encabezados Retry-After y Cache-Control (no-store, para que ninguna
+   *         caché compartida conserve el rechazo) y un estado HTTP 503
+   *         (SERVICE_UNAVAILABLE).
+   */
+  @ExceptionHandler(DownloadLimitExceededException.class)
+  public ResponseEntity<Object> handleDownloadLimitExceededException(DownloadLimitExceededException ex) {
+    Map<String, String> response = new HashMap<>();
+    response.put("error", ex.getMessage());
+    appUtility.sendLog(GlobalExceptionHandler.class, ex.getMessage(), "");
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+        .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+        .cacheControl(CacheControl.noStore())
+        .body(response);
+  }
+
 }
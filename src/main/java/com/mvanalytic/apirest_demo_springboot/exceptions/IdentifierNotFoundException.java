@@ -0,0 +1,27 @@
+package com.mvanalytic.apirest_demo_springboot.exceptions;
+
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+/**
+ * Variante sin traza de la pila de UsernameNotFoundException, lanzada cuando
+ * el correo o el nickname no corresponden a ningún usuario.
+ * 
+ * Los bloques catch de UsernameNotFoundException la siguen recibiendo.
+ */
+public class IdentifierNotFoundException extends UsernameNotFoundException {
+
+  /**
+   * Crea una nueva instancia de IdentifierNotFoundException.
+   * 
+   * @param message El mensaje con el formato "código, mensaje".
+   */
+  public IdentifierNotFoundException(String message) {
+    super(message);
+  }
+
+  @Override
+  public synchronized Throwable fillInStackTrace() {
+    return this;
+  }
+
+}
@@ -0,0 +1,29 @@
+package com.mvanalytic.apirest_demo_springboot.exceptions;
+
+import org.springframework.security.authentication.BadCredentialsException;
+
+/**
+ * Variante sin traza de la pila de BadCredentialsException, lanzada cuando la
+ * contraseña no coincide con la registrada.
+ * 
+ * Es el resultado más frecuente de un ataque de fuerza bruta, por lo que no se
+ * captura la traza. Los bloques catch de BadCredentialsException la siguen
+ * recibiendo.
+ */
+public class InvalidCredentialsException extends BadCredentialsException {
+
+  /**
+   * Crea una nueva instancia de InvalidCredentialsException.
+   * 
+   * @param message El mensaje con el formato "código, mensaje".
+   */
+  public InvalidCredentialsException(String message) {
+    super(message);
+  }
+
+  @Override
+  public synchronized Throwable fillInStackTrace() {
+    return this;
+  }
+
+}
@@ -0,0 +1,45 @@
+package com.mvanalytic.apirest_demo_springboot.exceptions;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Error de negocio informado por un procedimiento almacenado con
+ * RAISERROR('código, mensaje', 16, 1).
+ *
+ * SQL Server entrega estos errores con el número 50000 y el texto exacto del
+ * RAISERROR, por lo que el mensaje conserva el formato "código, mensaje" de
+ * {@link BusinessException} sin buscar el texto dentro de la excepción del
+ * driver. El código 102 (el usuario no existe) responde 404, igual que la
+ * EntityNotFoundException de UserService.getUserById.
+ */
+public class ProcedureException extends BusinessException {
+
+  // Código de los procedimientos para un usuario inexistente
+  static final int USER_NOT_FOUND = 102;
+
+  private final String procedure;
+
+  private final int code;
+
+  /**
+   * Crea una nueva instancia de ProcedureException.
+   *
+   * @param procedure El nombre del procedimiento almacenado.
+   * @param code      El código de negocio del mensaje o -1 si no tiene.
+   * @param message   El mensaje del RAISERROR.
+   */
+  public ProcedureException(String procedure, int code, String message) {
+    super(message, code == USER_NOT_FOUND ? HttpStatus.NOT_FOUND : HttpStatus.BAD_REQUEST);
+    this.procedure = procedure;
+    this.code = code;
+  }
+
+  public String getProcedure() {
+    return procedure;
+  }
+
+  public int getCode() {
+    return code;
+  }
+
+}
@@ -0,0 +1,24 @@
+package com.mvanalytic.apirest_demo_springboot.exceptions;
+
+/**
+ * Excepción para los fallos inesperados de una operación (por ejemplo, un
+ * error de acceso a datos), con el formato "código, mensaje" utilizado en toda
+ * la aplicación.
+ * 
+ * A diferencia de {@link BusinessException}, conserva la traza de la pila y la
+ * causa original para su diagnóstico, y se responde con el estado 500
+ * (INTERNAL_SERVER_ERROR).
+ */
+public class ServiceFailureException extends RuntimeException {
+
+  /**
+   * Crea una nueva instancia de ServiceFailureException.
+   * 
+   * @param message El mensaje con el formato "código, mensaje".
+   * @param cause   La excepción original que produjo el fallo.
+   */
+  public ServiceFailureException(String message, Throwable cause) {
+    super(message, cause);
+  }
+
+}
@@ -1,5 +1,7 @@
 package com.mvanalytic.apirest_demo_springboot.mapper.user;
 
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
@@ -177,6 +179,72 @@ public class UserMapper {
     }
   }
 
+  // Filas devueltas por los procedimientos de actualización - DTO
+
+  /**
+   * Convierte las filas del usuario devueltas por un procedimiento almacenado en
+   * un `AdminUserResponseDTO`.
+   * 
+   * Cada fila contiene las columnas del usuario y una de sus autoridades
+   * (`authority_name`, null si no tiene rol); las autoridades se acumulan en el
+   * mismo DTO. Se usa como ResultSetExtractor, sin volver a cargar el `User`.
+   * 
+   * @param resultSet Las filas devueltas por el procedimiento.
+   * @return Un objeto `AdminUserResponseDTO` o null si no hay filas.
+   * @throws SQLException Si ocurre algún error al leer las columnas.
+   */
+  public static AdminUserResponseDTO convertResultSetToAdminUserDTO(ResultSet resultSet)
+      throws SQLException {
+    if (!resultSet.next()) {
+      return null;
+    }
+    AdminUserResponseDTO adminUserDTO = new AdminUserResponseDTO();
+    adminUserDTO.setId(resultSet.getLong("id"));
+    adminUserDTO.setFirstName(resultSet.getString("first_name"));
+    adminUserDTO.setLastName(resultSet.getString("last_name"));
+    adminUserDTO.setSecondLastName(resultSet.getString("second_last_name"));
+    adminUserDTO.setNickname(resultSet.getString("nickname"));
+    adminUserDTO.setEmail(resultSet.getString("email"));
+    adminUserDTO.setLanguageKey(resultSet.getString("language_key"));
+    adminUserDTO.setStatus(resultSet.getBoolean("status"));
+    adminUserDTO.setActivated(resultSet.getBoolean("activated"));
+    adminUserDTO.setAuthorities(new HashSet<>());
+    do {
+      String authorityName = resultSet.getString("authority_name");
+      if (authorityName != null) {
+        adminUserDTO.getAuthorities().add(new AuthorityDTO(authorityName));
+      }
+    } while (resultSet.next());
+    return adminUserDTO;
+  }
+
+  /**
+   * Convierte la fila del usuario devuelta por un procedimiento almacenado en un
+   * `UserProfileResponseDTO`.
+   * 
+   * Solo se leen las columnas del perfil; las filas adicionales (una por
+   * autoridad) se ignoran.
+   * 
+   * @param resultSet Las filas devueltas por el procedimiento.
+   * @return Un objeto `UserProfileResponseDTO` o null si no hay filas.
+   * @throws SQLException Si ocurre algún error al leer las columnas.
+   */
+  public static UserProfileResponseDTO convertResultSetToUserProfileDTO(ResultSet resultSet)
+      throws SQLException {
+    if (!resultSet.next()) {
+      return null;
+    }
+    UserProfileResponseDTO userProfileDTO = new UserProfileResponseDTO();
+    userProfileDTO.setId(resultSet.getLong("id"));
+    userProfileDTO.setFirstName(resultSet.getString("first_name"));
+    userProfileDTO.setLastName(resultSet.getString("last_name"));
+    userProfileDTO.setSecondLastName(resultSet.getString("second_last_name"));
+    userProfileDTO.setNickname(resultSet.getString("nickname"));
+    userProfileDTO.setEmail(resultSet.getString("email"));
+    userProfileDTO.setLanguageKey(resultSet.getString("language_key"));
+    return userProfileDTO;
+  }
+
   /**
    * Convierte un objeto `UserProfileResponseDTO` en un objeto `User`.
    * 
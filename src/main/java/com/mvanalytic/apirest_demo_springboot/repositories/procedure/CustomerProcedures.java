@@ -0,0 +1,60 @@
+package com.mvanalytic.apirest_demo_springboot.repositories.procedure;
+
+import static java.sql.Types.BIGINT;
+import static java.sql.Types.BIT;
+import static java.sql.Types.INTEGER;
+import static java.sql.Types.NVARCHAR;
+import static java.sql.Types.TIMESTAMP;
+
+/**
+ * Procedimientos almacenados de la base de datos 'customer' (asset/customer.sql)
+ * que ejecuta {@link StoredProcedureExecutor}.
+ *
+ * Los tipos se declaran en el mismo orden que los parámetros del procedimiento.
+ */
+public final class CustomerProcedures {
+
+  public static final StoredProcedure CREATE_USER_AND_KEY = StoredProcedure.withOutput(
+      "sp_create_user_and_key", BIGINT,
+      NVARCHAR, NVARCHAR, NVARCHAR, NVARCHAR, NVARCHAR, NVARCHAR, NVARCHAR, NVARCHAR, NVARCHAR, TIMESTAMP);
+
+  // Lote JSON de usuarios y fecha de creación de las claves; devuelve una fila por usuario
+  public static final StoredProcedure CREATE_USERS_AND_KEYS = StoredProcedure.of(
+      "sp_create_users_and_keys", NVARCHAR, TIMESTAMP);
+
+  public static final StoredProcedure UPDATE_PASSWORD_AND_INSERT_KEY = StoredProcedure.withOutput(
+      "sp_update_password_and_insert_key", BIGINT,
+      BIGINT, NVARCHAR, NVARCHAR, NVARCHAR, TIMESTAMP);
+
+  public static final StoredProcedure UPDATE_USER_BY_ROLE_ADMIN = StoredProcedure.of(
+      "sp_update_user_by_role_admin", BIGINT, BIT, BIT);
+
+  public static final StoredProcedure UPDATE_USER_BY_ROLE_USER = StoredProcedure.of(
+      "sp_update_user_by_role_user", BIGINT, NVARCHAR, NVARCHAR, NVARCHAR, NVARCHAR);
+
+  public static final StoredProcedure USER_AUTHORITY_UPDATE = StoredProcedure.of(
+      "sp_user_authority_update", BIGINT, NVARCHAR);
+
+  public static final StoredProcedure CHANGE_NICKNAME = StoredProcedure.of(
+      "sp_change_nickname", BIGINT, NVARCHAR);
+
+  public static final StoredProcedure CHANGE_EMAIL = StoredProcedure.of(
+      "sp_change_email", BIGINT, NVARCHAR);
+
+  public static final StoredProcedure CHANGE_PASSWORD = StoredProcedure.of(
+      "sp_change_password", BIGINT, NVARCHAR, NVARCHAR);
+
+  public static final StoredProcedure CHANGE_PASSWORD_BY_RESET = StoredProcedure.of(
+      "sp_change_password_by_reset", BIGINT, NVARCHAR, NVARCHAR, INTEGER);
+
+  public static final StoredProcedure ACTIVATE_ACCOUNT = StoredProcedure.of(
+      "sp_activate_account", BIGINT, NVARCHAR, INTEGER);
+
+  public static final StoredProcedure REGISTER_SUCCESSFUL_LOGIN = StoredProcedure.of(
+      "sp_register_successful_login",
+      BIGINT, NVARCHAR, TIMESTAMP, NVARCHAR, NVARCHAR, NVARCHAR, TIMESTAMP, NVARCHAR);
+
+  private CustomerProcedures() {
+  }
+
+}
@@ -0,0 +1,91 @@
+package com.mvanalytic.apirest_demo_springboot.repositories.procedure;
+
+import java.sql.Types;
+
+/**
+ * Plantilla inmutable de la llamada a un procedimiento almacenado.
+ *
+ * El texto JDBC '{call dbo.nombre(?, ...)}' y los tipos SQL de los parámetros
+ * se calculan una sola vez al definir la plantilla; el driver reutiliza la
+ * sentencia preparada de cada conexión por ese mismo texto
+ * (statementPoolingCacheSize). Los parámetros se vinculan por posición, en el
+ * orden en que los declara el procedimiento.
+ */
+public final class StoredProcedure {
+
+  private final String name;
+
+  private final String call;
+
+  private final int[] parameterTypes;
+
+  // Tipo SQL del parámetro OUTPUT final o Types.NULL si no tiene
+  private final int outputType;
+
+  private StoredProcedure(String name, int outputType, int... parameterTypes) {
+    this.name = name;
+    this.parameterTypes = parameterTypes.clone();
+    this.outputType = outputType;
+
+    int count = parameterTypes.length + (outputType == Types.NULL ? 0 : 1);
+    StringBuilder sql = new StringBuilder(name.length() + 16 + count * 2)
+        .append("{call dbo.").append(name).append('(');
+    for (int i = 0; i < count; i++) {
+      sql.append(i == 0 ? "?" : ",?");
+    }
+    this.call = sql.append(")}").toString();
+  }
+
+  /**
+   * Define un procedimiento sin parámetros de salida.
+   *
+   * @param name           El nombre del procedimiento.
+   * @param parameterTypes Los tipos SQL ({@link Types}) de los parámetros.
+   * @return La plantilla del procedimiento.
+   */
+  public static StoredProcedure of(String name, int... parameterTypes) {
+    return new StoredProcedure(name, Types.NULL, parameterTypes);
+  }
+
+  /**
+   * Define un procedimiento cuyo último parámetro es de salida (OUTPUT).
+   *
+   * @param name           El nombre del procedimiento.
+   * @param outputType     El tipo SQL del parámetro de salida.
+   * @param parameterTypes Los tipos SQL de los parámetros de entrada.
+   * @return La plantilla del procedimiento.
+   */
+  public static StoredProcedure withOutput(String name, int outputType, int... parameterTypes) {
+    return new StoredProcedure(name, outputType, parameterTypes);
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public String getCall() {
+    return call;
+  }
+
+  int parameterCount() {
+    return parameterTypes.length;
+  }
+
+  int parameterType(int index) {
+    return parameterTypes[index];
+  }
+
+  boolean hasOutput() {
+    return outputType != Types.NULL;
+  }
+
+  int outputType() {
+    return outputType;
+  }
+
+  @Override
+  public String toString() {
+    return call;
+  }
+
+}
@@ -0,0 +1,189 @@
+package com.mvanalytic.apirest_demo_springboot.repositories.procedure;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.Calendar;
+import java.util.TimeZone;
+import javax.sql.DataSource;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.support.SQLErrorCodeSQLExceptionTranslator;
+import org.springframework.jdbc.support.SQLExceptionTranslator;
+import com.mvanalytic.apirest_demo_springboot.exceptions.ProcedureException;
+
+/**
+ * Ejecuta procedimientos almacenados directamente con un CallableStatement, sin
+ * construir un StoredProcedureQuery de JPA por cada llamada.
+ *
+ * - La conexión se obtiene con DataSourceUtils del DataSource del
+ * EntityManagerFactory, por lo que la llamada participa en la transacción JPA
+ * activa (JpaTransactionManager expone su conexión) o usa una conexión propia
+ * en modo auto-commit si no hay transacción.
+ * - Los parámetros se vinculan con el setter JDBC del tipo declarado en la
+ * {@link StoredProcedure}, sin reflexión; los Instant se envían en UTC, igual
+ * que hibernate.jdbc.time_zone.
+ * - Si el procedimiento devuelve filas (por ejemplo el registro actualizado),
+ * el primer conjunto de resultados se entrega a un ResultSetExtractor y el resto
+ * de resultados se sigue recorriendo.
+ * - Un RAISERROR('código, mensaje', 16, 1) del procedimiento (error 50000) se
+ * lanza como {@link ProcedureException} con su código; cualquier otro error de
+ * SQL Server se traduce a la DataAccessException de Spring correspondiente.
+ */
+public class StoredProcedureExecutor {
+
+  // Número de error de SQL Server para un RAISERROR con texto de mensaje
+  static final int RAISERROR_MESSAGE = 50000;
+
+  private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+
+  private final DataSource dataSource;
+
+  private final SQLExceptionTranslator translator = new SQLErrorCodeSQLExceptionTranslator("MS-SQL");
+
+  /**
+   * Crea el ejecutor de una unidad de persistencia.
+   *
+   * @param dataSource El DataSource del EntityManagerFactory de la unidad.
+   */
+  public StoredProcedureExecutor(DataSource dataSource) {
+    this.dataSource = dataSource;
+  }
+
+  /**
+   * Ejecuta un procedimiento sin parámetros de salida.
+   *
+   * @param procedure La plantilla del procedimiento.
+   * @param args      Los valores de los parámetros en orden.
+   * @throws ProcedureException Si el procedimiento informa un error de negocio.
+   */
+  public void execute(StoredProcedure procedure, Object... args) {
+    call(procedure, null, args);
+  }
+
+  /**
+   * Ejecuta un procedimiento cuyo parámetro de salida es un BIGINT.
+   *
+   * @param procedure La plantilla del procedimiento.
+   * @param args      Los valores de los parámetros de entrada en orden.
+   * @return El valor del parámetro de salida o null.
+   * @throws ProcedureException Si el procedimiento informa un error de negocio.
+   */
+  public Long executeForLong(StoredProcedure procedure, Object... args) {
+    Object value = call(procedure, null, args);
+    return value == null ? null : ((Number) value).longValue();
+  }
+
+  /**
+   * Ejecuta un procedimiento que devuelve un conjunto de resultados.
+   *
+   * @param <T>       El tipo que construye el extractor.
+   * @param procedure La plantilla del procedimiento.
+   * @param extractor Convierte el primer conjunto de resultados.
+   * @param args      Los valores de los parámetros en orden.
+   * @return El valor construido por el extractor o null si el procedimiento no
+   *         devolvió filas.
+   * @throws ProcedureException Si el procedimiento informa un error de negocio.
+   */
+  @SuppressWarnings("unchecked")
+  public <T> T query(StoredProcedure procedure, ResultSetExtractor<T> extractor, Object... args) {
+    return (T) call(procedure, extractor, args);
+  }
+
+  private Object call(StoredProcedure procedure, ResultSetExtractor<?> extractor, Object[] args) {
+    if (args.length != procedure.parameterCount()) {
+      throw new IllegalArgumentException(procedure.getName() + " espera "
+          + procedure.parameterCount() + " parámetros y recibió " + args.length);
+    }
+    Connection connection = DataSourceUtils.getConnection(dataSource);
+    try (CallableStatement statement = connection.prepareCall(procedure.getCall())) {
+      for (int i = 0; i < args.length; i++) {
+        bind(statement, i + 1, procedure.parameterType(i), args[i]);
+      }
+      int output = args.length + 1;
+      if (procedure.hasOutput()) {
+        statement.registerOutParameter(output, procedure.outputType());
+      }
+
+      // Recorre todos los resultados: un RAISERROR posterior a un conteo de filas
+      // solo se recibe al avanzar sobre los resultados
+      Object extracted = null;
+      boolean result = statement.execute();
+      while (result || statement.getUpdateCount() != -1) {
+        if (result && extractor != null) {
+          try (ResultSet resultSet = statement.getResultSet()) {
+            extracted = extractor.extractData(resultSet);
+          }
+          extractor = null;
+        }
+        result = statement.getMoreResults();
+      }
+      return procedure.hasOutput() ? statement.getObject(output) : extracted;
+    } catch (SQLException e) {
+      throw translate(procedure, e);
+    } finally {
+      DataSourceUtils.releaseConnection(connection, dataSource);
+    }
+  }
+
+  private static void bind(CallableStatement statement, int index, int type, Object value)
+      throws SQLException {
+    if (value == null) {
+      statement.setNull(index, type);
+      return;
+    }
+    switch (type) {
+      case Types.BIGINT -> statement.setLong(index, ((Number) value).longValue());
+      case Types.INTEGER -> statement.setInt(index, ((Number) value).intValue());
+      case Types.BIT -> statement.setBoolean(index, (Boolean) value);
+      case Types.NVARCHAR -> statement.setString(index, (String) value);
+      case Types.TIMESTAMP -> statement.setTimestamp(index,
+          Timestamp.from((Instant) value), Calendar.getInstance(UTC));
+      default -> statement.setObject(index, value, type);
+    }
+  }
+
+  /**
+   * Convierte el error de la llamada en una excepción tipada.
+   */
+  private RuntimeException translate(StoredProcedure procedure, SQLException e) {
+    // El RAISERROR puede venir seguido de otros errores (por ejemplo 266 por
+    // @@TRANCOUNT); se busca en toda la cadena
+    for (SQLException current = e; current != null; current = current.getNextException()) {
+      if (current.getErrorCode() == RAISERROR_MESSAGE) {
+        String message = current.getMessage();
+        return new ProcedureException(procedure.getName(), code(message), message);
+      }
+    }
+    RuntimeException translated = translator.translate(procedure.getName(), procedure.getCall(), e);
+    return translated != null ? translated
+        : new IllegalStateException("Error al ejecutar " + procedure.getName(), e);
+  }
+
+  /**
+   * Devuelve el código numérico de un mensaje "código, mensaje".
+   *
+   * @param message El mensaje del RAISERROR.
+   * @return El código o -1 si el mensaje no comienza con un código.
+   */
+  static int code(String message) {
+    if (message == null) {
+      return -1;
+    }
+    int code = 0;
+    int i = 0;
+    for (; i < message.length() && i < 9; i++) {
+      char c = message.charAt(i);
+      if (c < '0' || c > '9') {
+        break;
+      }
+      code = code * 10 + (c - '0');
+    }
+    return i > 0 && i < message.length() && message.charAt(i) == ',' ? code : -1;
+  }
+
+}
@@ -1,7 +1,11 @@
 package com.mvanalytic.apirest_demo_springboot.repositories.user;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import java.time.Instant;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Page;
@@ -36,99 +40,159 @@ public interface FailedLoginAttemptRepository extends JpaRepository<FailedLoginA
   Page<FailedLoginAttempt> findByNickname(String nickname, Pageable pageable);
 
   /**
-   * Método para eliminar todos los intentos de inicio de sesión anteriores a una
-   * fecha específica basados en el correo electrónico.
-   * 
+   * Elimina como máximo {@code batchSize} intentos fallidos del correo anteriores
+   * a la fecha indicada mediante una única sentencia {@code DELETE TOP (n)}.
+   * Cada llamada se ejecuta en su propia transacción corta para no retener
+   * bloqueos sobre la tabla mientras se depuran grandes volúmenes.
+   *
    * @param email       El correo electrónico del usuario.
    * @param attemptTime Fecha límite para eliminar intentos anteriores.
+   * @param batchSize   Número máximo de filas a eliminar en la llamada.
+   * @return El número de filas eliminadas.
    */
-  void deleteByEmailAndAttemptTimeBefore(String email, Instant attemptTime);
+  @Modifying
+  @Transactional
+  @Query(value = "DELETE TOP (:batchSize) FROM dbo.failed_login_attempt "
+      + "WHERE email = :email AND attempt_time < :attemptTime", nativeQuery = true)
+  int deleteChunkByEmailAndAttemptTimeBefore(
+      @Param("email") String email,
+      @Param("attemptTime") Instant attemptTime,
+      @Param("batchSize") int batchSize);
 
   /**
-   * Método para eliminar todos los intentos de inicio de sesión anteriores a una
-   * fecha específica basados en el nickname.
-   * 
+   * Elimina como máximo {@code batchSize} intentos fallidos del nickname
+   * anteriores a la fecha indicada mediante una única sentencia
+   * {@code DELETE TOP (n)}.
+   *
    * @param nickname    El nickname del usuario.
    * @param attemptTime Fecha límite para eliminar intentos anteriores.
+   * @param batchSize   Número máximo de filas a eliminar en la llamada.
+   * @return El número de filas eliminadas.
    */
-  void deleteByNicknameAndAttemptTimeBefore(String nickname, Instant attemptTime);
+  @Modifying
+  @Transactional
+  @Query(value = "DELETE TOP (:batchSize) FROM dbo.failed_login_attempt "
+      + "WHERE nickname = :nickname AND attempt_time < :attemptTime", nativeQuery = true)
+  int deleteChunkByNicknameAndAttemptTimeBefore(
+      @Param("nickname") String nickname,
+      @Param("attemptTime") Instant attemptTime,
+      @Param("batchSize") int batchSize);
 
   /**
-   * Método para eliminar todos los intentos de inicio de sesión anteriores a una
-   * fecha específica para todos los usuarios. Este método es útil para limpiar
-   * intentos de inicio de sesión fallidos o antiguos a nivel global en la
-   * aplicación.
+   * Elimina como máximo {@code batchSize} intentos fallidos anteriores a la fecha
+   * indicada para todos los usuarios mediante una única sentencia
+   * {@code DELETE TOP (n)}.
    *
-   * @param attemptTime La fecha y hora límite; todos los intentos de inicio de
-   *                    sesión anteriores a este valor serán eliminados para todos
-   *                    los usuarios.
-   */
-  void deleteByAttemptTimeBefore(Instant attemptTime);
-
-  /**
-   * Cuenta el número de intentos fallidos de inicio de sesión para un usuario
-   * basado en el correo electrónico.
-   * 
-   * @param email El correo electrónico del usuario.
-   * @return El número de intentos fallidos de inicio de sesión.
+   * @param attemptTime Fecha límite para eliminar intentos anteriores.
+   * @param batchSize   Número máximo de filas a eliminar en la llamada.
+   * @return El número de filas eliminadas.
    */
-  Long countByEmail(String email);
+  @Modifying
+  @Transactional
+  @Query(value = "DELETE TOP (:batchSize) FROM dbo.failed_login_attempt "
+      + "WHERE attempt_time < :attemptTime", nativeQuery = true)
+  int deleteChunkByAttemptTimeBefore(
+      @Param("attemptTime") Instant attemptTime,
+      @Param("batchSize") int batchSize);
 
   /**
-   * Cuenta el número de intentos fallidos de inicio de sesión para un usuario
-   * basado en el nickname.
-   * 
-   * @param nickname El nickname del usuario.
+   * Cuenta los intentos fallidos de inicio de sesión de un valor de dimensión
+   * (correo, nickname o dirección IP) a partir de los contadores por hora de
+   * {@code failed_login_attempt_hourly}.
+   *
+   * @param dimension      La dimensión del contador: 'EMAIL', 'NICKNAME' o 'IP'.
+   * @param dimensionValue El correo, nickname o dirección IP.
    * @return El número de intentos fallidos de inicio de sesión.
    */
-  Long countByNickname(String nickname);
+  @Query(value = "SELECT COALESCE(SUM(CAST(attempt_count AS BIGINT)), 0) "
+      + "FROM dbo.failed_login_attempt_hourly "
+      + "WHERE dimension = :dimension AND dimension_value = :dimensionValue", nativeQuery = true)
+  Long sumHourlyCount(
+      @Param("dimension") String dimension,
+      @Param("dimensionValue") String dimensionValue);
 
   /**
-   * Cuenta el número total de intentos fallidos de inicio de sesión basados en la
-   * dirección IP.
-   * 
-   * @param ipAddress La dirección IP desde la cual se intentó iniciar sesión.
-   * @return El número de intentos fallidos de inicio de sesión desde esa IP.
-   */
-  Long countByIpAddress(String ipAddress);
-
-  /**
-   * Cuenta el número de intentos fallidos de inicio de sesión para un usuario
-   * basado en el correo electrónico,
-   * entre un lapso de tiempo definido.
-   * 
+   * Cuenta los intentos fallidos de un correo en el rango
+   * [{@code startTime}, {@code endTime}]. Las horas completas
+   * [{@code fullFrom}, {@code fullTo}) se suman desde los contadores por hora y
+   * solo las fracciones de hora de los extremos se cuentan sobre
+   * {@code failed_login_attempt}.
+   *
    * @param email     El correo electrónico del usuario.
-   * @param startTime El tiempo de inicio del rango de búsqueda.
-   * @param endTime   El tiempo de finalización del rango de búsqueda.
+   * @param startTime El tiempo de inicio del rango de búsqueda (inclusive).
+   * @param fullFrom  Inicio de la primera hora completa dentro del rango.
+   * @param fullTo    Inicio de la hora que contiene a {@code endTime}.
+   * @param endTime   El tiempo de finalización del rango de búsqueda
+   *                  (inclusive).
    * @return El número de intentos fallidos de inicio de sesión en ese periodo.
    */
-  Long countByEmailAndAttemptTimeBetween(String email, Instant startTime, Instant endTime);
+  @Query(value = "SELECT "
+      + "(SELECT COALESCE(SUM(CAST(attempt_count AS BIGINT)), 0) FROM dbo.failed_login_attempt_hourly "
+      + " WHERE dimension = 'EMAIL' AND dimension_value = :email "
+      + " AND hour_bucket >= :fullFrom AND hour_bucket < :fullTo) "
+      + "+ (SELECT COUNT_BIG(*) FROM dbo.failed_login_attempt WHERE email = :email "
+      + " AND ((attempt_time >= :startTime AND attempt_time < :fullFrom) "
+      + " OR (attempt_time >= :fullTo AND attempt_time <= :endTime)))", nativeQuery = true)
+  Long countByEmailAndAttemptTimeBetween(
+      @Param("email") String email,
+      @Param("startTime") Instant startTime,
+      @Param("fullFrom") Instant fullFrom,
+      @Param("fullTo") Instant fullTo,
+      @Param("endTime") Instant endTime);
 
   /**
-   * Cuenta el número de intentos fallidos de inicio de sesión para un usuario
-   * basado en el nickname,
-   * entre un lapso de tiempo definido.
-   * 
+   * Cuenta los intentos fallidos de un nickname en el rango
+   * [{@code startTime}, {@code endTime}] combinando los contadores por hora con
+   * las fracciones de hora de los extremos.
+   *
    * @param nickname  El nickname del usuario.
-   * @param startTime El tiempo de inicio del rango de búsqueda.
-   * @param endTime   El tiempo de finalización del rango de búsqueda.
+   * @param startTime El tiempo de inicio del rango de búsqueda (inclusive).
+   * @param fullFrom  Inicio de la primera hora completa dentro del rango.
+   * @param fullTo    Inicio de la hora que contiene a {@code endTime}.
+   * @param endTime   El tiempo de finalización del rango de búsqueda
+   *                  (inclusive).
    * @return El número de intentos fallidos de inicio de sesión en ese periodo.
    */
-  Long countByNicknameAndAttemptTimeBetween(String nickname, Instant startTime, Instant endTime);
-
-  
+  @Query(value = "SELECT "
+      + "(SELECT COALESCE(SUM(CAST(attempt_count AS BIGINT)), 0) FROM dbo.failed_login_attempt_hourly "
+      + " WHERE dimension = 'NICKNAME' AND dimension_value = :nickname "
+      + " AND hour_bucket >= :fullFrom AND hour_bucket < :fullTo) "
+      + "+ (SELECT COUNT_BIG(*) FROM dbo.failed_login_attempt WHERE nickname = :nickname "
+      + " AND ((attempt_time >= :startTime AND attempt_time < :fullFrom) "
+      + " OR (attempt_time >= :fullTo AND attempt_time <= :endTime)))", nativeQuery = true)
+  Long countByNicknameAndAttemptTimeBetween(
+      @Param("nickname") String nickname,
+      @Param("startTime") Instant startTime,
+      @Param("fullFrom") Instant fullFrom,
+      @Param("fullTo") Instant fullTo,
+      @Param("endTime") Instant endTime);
 
   /**
-   * Cuenta el número de intentos fallidos de inicio de sesión basados en la
-   * dirección IP,
-   * en un rango de tiempo específico.
-   * 
+   * Cuenta los intentos fallidos desde una dirección IP en el rango
+   * [{@code startTime}, {@code endTime}] combinando los contadores por hora con
+   * las fracciones de hora de los extremos.
+   *
    * @param ipAddress La dirección IP desde la cual se intentó iniciar sesión.
-   * @param startTime El tiempo de inicio del rango de búsqueda.
-   * @param endTime   El tiempo de finalización del rango de búsqueda.
+   * @param startTime El tiempo de inicio del rango de búsqueda (inclusive).
+   * @param fullFrom  Inicio de la primera hora completa dentro del rango.
+   * @param fullTo    Inicio de la hora que contiene a {@code endTime}.
+   * @param endTime   El tiempo de finalización del rango de búsqueda
+   *                  (inclusive).
    * @return El número de intentos fallidos de inicio de sesión desde esa IP en el
    *         rango de fechas dado.
    */
-  Long countByIpAddressAndAttemptTimeBetween(String ipAddress, Instant startTime, Instant endTime);
+  @Query(value = "SELECT "
+      + "(SELECT COALESCE(SUM(CAST(attempt_count AS BIGINT)), 0) FROM dbo.failed_login_attempt_hourly "
+      + " WHERE dimension = 'IP' AND dimension_value = :ipAddress "
+      + " AND hour_bucket >= :fullFrom AND hour_bucket < :fullTo) "
+      + "+ (SELECT COUNT_BIG(*) FROM dbo.failed_login_attempt WHERE ip_address = :ipAddress "
+      + " AND ((attempt_time >= :startTime AND attempt_time < :fullFrom) "
+      + " OR (attempt_time >= :fullTo AND attempt_time <= :endTime)))", nativeQuery = true)
+  Long countByIpAddressAndAttemptTimeBetween(
+      @Param("ipAddress") String ipAddress,
+      @Param("startTime") Instant startTime,
+      @Param("fullFrom") Instant fullFrom,
+      @Param("fullTo") Instant fullTo,
+      @Param("endTime") Instant endTime);
 
 }
@@ -2,7 +2,11 @@ package com.mvanalytic.apirest_demo_springboot.repositories.user;
 
 import java.time.Instant;
 import java.util.List;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import com.mvanalytic.apirest_demo_springboot.domain.user.RefreshToken;
 import com.mvanalytic.apirest_demo_springboot.domain.user.User;
@@ -16,6 +20,9 @@ import java.util.Optional;
  * Extiende JpaRepository, por lo que hereda métodos estándar como save(),
  * findById(), findAll(), delete(), entre otros.
  * 
+ * Las búsquedas aplican el grafo {@link RefreshToken#WITH_USER}: token, usuario
+ * y autoridades en una sola consulta.
+ * 
  * @author [Tu nombre]
  * @see org.springframework.data.jpa.repository.JpaRepository
  */
@@ -29,6 +36,7 @@ public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long
    * @return Optional<RefreshToken> Un Optional que contiene el RefreshToken si se
    *         encuentra, o vacío si no existe.
    */
+  @EntityGraph(RefreshToken.WITH_USER)
   Optional<RefreshToken> findByToken(String token);
 
   /**
@@ -54,6 +62,7 @@ public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long
    *             actualización.
    * @return Un Optional que contiene el RefreshToken si existe.
    */
+  @EntityGraph(RefreshToken.WITH_USER)
   Optional<RefreshToken> findByUser(User user);
 
   /**
@@ -64,6 +73,7 @@ public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long
    * @return Un Optional que contiene el refresh token si se encuentra; de lo
    *         contrario, un Optional vacío.
    */
+  @EntityGraph(RefreshToken.WITH_USER)
   Optional<RefreshToken> findByUserId(Long userId);
 
   /**
@@ -73,7 +83,53 @@ public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long
  * @param endDate La fecha y hora de finalización del rango (inclusive) como un objeto Instant.
  * @return Una lista de objetos RefreshToken cuya fecha de expiración esté entre las fechas proporcionadas.
  */
-List<RefreshToken> findByExpiryDateBetween(Instant startDate, Instant endDate);
+  @EntityGraph(RefreshToken.WITH_USER)
+  List<RefreshToken> findByExpiryDateBetween(Instant startDate, Instant endDate);
+
+  /**
+   * Reemplaza un refresh token vigente por uno nuevo en una sola sentencia
+   * UPDATE (compare-and-swap).
+   * 
+   * La fila solo se actualiza si todavía contiene el token presentado, no ha
+   * expirado y el usuario está habilitado (status) y activado (activated), las
+   * mismas condiciones que exige el inicio de sesión. Si dos solicitudes
+   * presentan el mismo token, solo una de ellas actualiza la fila.
+   *
+   * @param currentToken El refresh token presentado por el cliente.
+   * @param newToken     El nuevo refresh token.
+   * @param newExpiry    La fecha de expiración del nuevo refresh token.
+   * @param now          La fecha y hora actual.
+   * @return 1 si el token fue rotado; 0 si no existe, expiró, ya fue utilizado
+   *         o el usuario está deshabilitado o desactivado.
+   */
+  @Modifying
+  @Query("UPDATE RefreshToken r SET r.token = :newToken, r.expiryDate = :newExpiry "
+      + "WHERE r.token = :currentToken AND r.expiryDate > :now "
+      + "AND r.user.id IN (SELECT u.id FROM User u WHERE u.status = true AND u.activated = true)")
+  int rotateToken(
+      @Param("currentToken") String currentToken,
+      @Param("newToken") String newToken,
+      @Param("newExpiry") Instant newExpiry,
+      @Param("now") Instant now);
+
+  /**
+   * Busca un refresh token por su id junto con su usuario.
+   *
+   * @param id El id del refresh token.
+   * @return Un Optional que contiene el RefreshToken si existe.
+   */
+  @Override
+  @EntityGraph(RefreshToken.WITH_USER)
+  Optional<RefreshToken> findById(Long id);
 
+  /**
+   * Devuelve todos los refresh tokens junto con sus usuarios en una sola
+   * consulta.
+   *
+   * @return La lista de refresh tokens.
+   */
+  @Override
+  @EntityGraph(RefreshToken.WITH_USER)
+  List<RefreshToken> findAll();
 
 }
@@ -3,10 +3,12 @@ package com.mvanalytic.apirest_demo_springboot.repositories.user;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.query.Procedure;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import java.time.Instant;
 import java.util.List;
 import com.mvanalytic.apirest_demo_springboot.domain.user.UserLoginActivity;
@@ -142,44 +144,22 @@ public interface UserLoginActivityRepository extends JpaRepository<UserLoginActi
   long countByUserIdAndSessionStatus(Long userId, String sessionStatus);
 
   /**
-   * Elimina todas las sesiones de usuario basadas en su estado de sesión.
+   * Elimina como máximo {@code batchSize} sesiones del usuario con el estado
+   * indicado mediante una única sentencia {@code DELETE TOP (n)}, en su propia
+   * transacción corta.
    *
-   * Este método se utiliza para eliminar todas las sesiones relacionadas con un
-   * usuario específico que tengan un estado de sesión determinado. Por ejemplo,
-   * se pueden eliminar todas las sesiones con estado "SUCCESS" o "FAILURE" para
-   * un
-   * usuario en particular.
-   *
-   * @param userId        El identificador único del usuario (ID) cuyas sesiones
-   *                      se quieren eliminar.
-   * @param sessionStatus El estado de la sesión que debe coincidir para que la
-   *                      sesión sea eliminada. Los valores posibles incluyen
-   *                      "SUCCESS", "FAILURE" u otros estados personalizados.
-   */
-  void deleteByUserIdAndSessionStatus(Long userId, String sessionStatus);
-
-  /**
-   * Invoca el procedimiento almacenado 'sp_success_login' para registrar la
-   * actividad de inicio de sesión exitosa y actualizar el refresh token.
-   *
-   * @param userId        ID del usuario que inicia sesión.
-   * @param newToken      Nuevo refresh token generado.
-   * @param expiryDate    Fecha de expiración del token.
-   * @param ipAddress     Dirección IP desde la cual se inició la sesión.
-   * @param userAgent     Información del agente de usuario.
-   * @param idSession     ID de la sesión de usuario.
-   * @param sessionTime   Hora de inicio de la sesión.
-   * @param sessionStatus Estado de la sesión (por ejemplo, 'SUCCESS').
+   * @param userId        El identificador único del usuario.
+   * @param sessionStatus El estado de la sesión a eliminar.
+   * @param batchSize     Número máximo de filas a eliminar en la llamada.
+   * @return El número de filas eliminadas.
    */
-  @Procedure("sp_register_successful_login")
-  void spRegisterSuccessfulLogin(
+  @Modifying
+  @Transactional
+  @Query(value = "DELETE TOP (:batchSize) FROM user_login_activity "
+      + "WHERE id_user = :userId AND session_status = :sessionStatus", nativeQuery = true)
+  int deleteChunkByUserIdAndSessionStatus(
       @Param("userId") Long userId,
-      @Param("newToken") String newToken,
-      @Param("expiryDate") Instant expiryDate,
-      @Param("ipAddress") String ipAddress,
-      @Param("userAgent") String userAgent,
-      @Param("idSession") String idSession,
-      @Param("sessionTime") Instant sessionTime,
-      @Param("sessionStatus") String sessionStatus);
+      @Param("sessionStatus") String sessionStatus,
+      @Param("batchSize") int batchSize);
 
 }
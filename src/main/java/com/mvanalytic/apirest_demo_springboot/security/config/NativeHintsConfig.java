@@ -0,0 +1,81 @@
+package com.mvanalytic.apirest_demo_springboot.security.config;
+
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+/**
+ * Metadatos de alcance (reflexión y recursos) para la imagen nativa de GraalVM
+ * que el procesamiento AOT de Spring no puede deducir.
+ *
+ * Las entidades de las dos unidades de persistencia, los controladores y los
+ * DTO los registra el procesamiento AOT a partir de los beans
+ * PersistenceManagedTypes y de los métodos de los controladores. El driver
+ * mssql-jdbc se complementa con el repositorio de metadatos de GraalVM
+ * (perfil 'native' del pom.xml).
+ */
+@Configuration
+@ImportRuntimeHints(NativeHintsConfig.AppRuntimeHints.class)
+public class NativeHintsConfig {
+
+  /**
+   * Clases de jjwt que se instancian por nombre desde jjwt-api (Jwts, Keys,
+   * CompressionCodecs) y los serializadores de jjwt-jackson que se cargan con
+   * ServiceLoader.
+   */
+  private static final String[] JJWT_TYPES = {
+      "io.jsonwebtoken.impl.DefaultClaims",
+      "io.jsonwebtoken.impl.DefaultHeader",
+      "io.jsonwebtoken.impl.DefaultJwsHeader",
+      "io.jsonwebtoken.impl.DefaultJwtBuilder",
+      "io.jsonwebtoken.impl.DefaultJwtParser",
+      "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+      "io.jsonwebtoken.impl.compression.DeflateCompressionCodec",
+      "io.jsonwebtoken.impl.compression.GzipCompressionCodec",
+      "io.jsonwebtoken.impl.crypto.EllipticCurveProvider",
+      "io.jsonwebtoken.impl.crypto.MacProvider",
+      "io.jsonwebtoken.impl.crypto.RsaProvider",
+      "io.jsonwebtoken.jackson.io.JacksonSerializer",
+      "io.jsonwebtoken.jackson.io.JacksonDeserializer"
+  };
+
+  /**
+   * Registra los metadatos de la aplicación.
+   */
+  static class AppRuntimeHints implements RuntimeHintsRegistrar {
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+      for (String type : JJWT_TYPES) {
+        hints.reflection().registerType(TypeReference.of(type),
+            MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+            MemberCategory.INVOKE_PUBLIC_METHODS);
+      }
+      hints.resources()
+          .registerPattern("META-INF/services/io.jsonwebtoken.io.*");
+
+      // Driver JDBC cargado por nombre desde 'driver-class-name'
+      hints.reflection().registerType(
+          TypeReference.of("com.microsoft.sqlserver.jdbc.SQLServerDriver"),
+          MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+      hints.resources().registerResourceBundle("com.microsoft.sqlserver.jdbc.SQLServerResource");
+
+      // Proxies JDK de QueryMonitor sobre las conexiones y sentencias JDBC
+      hints.proxies()
+          .registerJdkProxy(java.sql.Connection.class)
+          .registerJdkProxy(java.sql.Statement.class)
+          .registerJdkProxy(java.sql.PreparedStatement.class)
+          .registerJdkProxy(java.sql.CallableStatement.class);
+
+      // Plantillas de correo, imagen embebida en los correos y mensajes i18n
+      hints.resources()
+          .registerPattern("templates/*.html")
+          .registerPattern("static/img/*")
+          .registerPattern("i18n/messages*.properties");
+    }
+  }
+
+}
@@ -3,6 +3,7 @@ package com.mvanalytic.apirest_demo_springboot.security.config;
 import java.util.Arrays;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.Customizer;
@@ -19,10 +20,12 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
+import jakarta.servlet.DispatcherType;
 import com.mvanalytic.apirest_demo_springboot.exceptions.CustomAccessDeniedHandler;
 import com.mvanalytic.apirest_demo_springboot.security.handlers.AuthEntryPointJwt;
 import com.mvanalytic.apirest_demo_springboot.security.jwt.AuthTokenFilter;
 import com.mvanalytic.apirest_demo_springboot.services.user.UserDetailsServiceImpl;
+import com.mvanalytic.apirest_demo_springboot.utility.RequestTrace;
 
 /**
  * Configura la seguridad web utilizando Spring Security.
@@ -36,6 +39,10 @@ public class SecurityConfig {
   @Autowired
   private UserDetailsServiceImpl userDetailsServiceImpl;
 
+  // Expone 'Server-Timing' a los clientes; deshabilitado por defecto
+  @Value("${app.trace.server-timing.enabled:false}")
+  private boolean serverTimingEnabled;
+
   // public SecurityConfig(UserDetailsServiceImpl userDetailsServiceImpl) {
   // this.userDetailsServiceImpl = userDetailsServiceImpl;
   // }
@@ -72,9 +79,16 @@ public class SecurityConfig {
         // Establecimiento de las reglas de autorización a nivel de URL para la
         // aplicación web
         .authorizeHttpRequests(authz -> authz
+            // Los despachos asíncronos (SSE y descargas en streaming) ya fueron
+            // autorizados en la petición original
+            .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
             // Permitir acceso sin autenticación a rutas publicas
             .requestMatchers("/api/public/**", "/favicon.ico").permitAll()
             .requestMatchers("/api/auth/**").permitAll()
+            // Sondas de liveness y readiness del orquestador
+            .requestMatchers("/actuator/health/**").permitAll()
+            // Métricas de la aplicación y de los pools de conexiones
+            .requestMatchers("/actuator/metrics/**").hasAnyAuthority("ROLE_ADMIN")
             // Solo usuarios con ROLE_ADMIN pueden acceder a /admin/**
             .requestMatchers(("/api/admin/**")).hasAnyAuthority("ROLE_ADMIN")
             // Solo usuarios con ROLE_USER pueden acceder a /user/**
@@ -132,10 +146,15 @@ public class SecurityConfig {
     configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE"));
     // Cabezales permitidos en las peticiones. Estos cabezales son comunes en
     // peticiones que incluyen autenticación o información de control de caché.
-    configuration.setAllowedHeaders(Arrays.asList("Authorization", "Cache-Control", "Content-Type"));
+    configuration.setAllowedHeaders(Arrays.asList("Authorization", "Cache-Control", "Content-Type", "X-Correlation-Id"));
     // Exponer ciertos cabezales a la respuesta. Útil para aplicaciones que
     // necesitan leer cabezales específicos en el lado del cliente.
-    configuration.setExposedHeaders(Arrays.asList("Some-Exposed-Header"));
+    configuration.setExposedHeaders(Arrays.asList("Some-Exposed-Header", "X-Correlation-Id"));
+    // 'Server-Timing' revela el desglose interno de la solicitud: solo se expone
+    // si se habilitó su envío
+    if (serverTimingEnabled) {
+      configuration.addExposedHeader("Server-Timing");
+    }
     // Opciones adicionales como permitir credenciales en las peticiones CORS.
     // Cambiar a `true` si tu API necesita cookies o encabezados de autorización en
     // solicitudes cross-origin.
@@ -155,6 +174,21 @@ public class SecurityConfig {
    */
   @Bean
   public PasswordEncoder passwordEncoder() {
-    return new BCryptPasswordEncoder();
+    // Registra la duración de cada hash en el tramo 'bcrypt' de la solicitud
+    return new BCryptPasswordEncoder() {
+      @Override
+      public String encode(CharSequence rawPassword) {
+        try (RequestTrace.Span span = RequestTrace.span("bcrypt")) {
+          return super.encode(rawPassword);
+        }
+      }
+
+      @Override
+      public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        try (RequestTrace.Span span = RequestTrace.span("bcrypt")) {
+          return super.matches(rawPassword, encodedPassword);
+        }
+      }
+    };
   }
 }
@@ -1,19 +1,41 @@
 
 package com.mvanalytic.apirest_demo_springboot.security.config.datasource;
 
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.data.jpa.mapping.JpaMetamodelMappingContext;
+import org.springframework.data.repository.config.BootstrapMode;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.metamodel.Metamodel;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.config.AbstractFactoryBean;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.jdbc.DataSourceBuilder;
 import org.springframework.boot.orm.jpa.EntityManagerFactoryBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.orm.jpa.JpaTransactionManager;
 import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.persistenceunit.PersistenceManagedTypes;
+import org.springframework.orm.jpa.persistenceunit.PersistenceManagedTypesScanner;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.ResourceLoader;
 import org.springframework.transaction.PlatformTransactionManager;
 import javax.sql.DataSource;
+import com.mvanalytic.apirest_demo_springboot.utility.QueryMonitor;
 
 /**
  * Configuración del DataSource, EntityManagerFactory y TransactionManager para
@@ -24,12 +46,107 @@ import javax.sql.DataSource;
  * La clase utiliza HikariCP como el pool de conexiones y define el
  * EntityManagerFactory y TransactionManager específicamente para la base de
  * datos 'business'.
+ *
+ * Modos de inicialización, para los nodos que solo atienden autenticación:
+ * - app.business.enabled=false (perfil 'auth'): no se crean el pool, el
+ * EntityManagerFactory, los repositorios ni los servicios de 'business'.
+ * - app.business.lazy=true: el pool, el EntityManagerFactory y los
+ * repositorios se crean en el primer uso; si la base de datos 'trade' no está
+ * disponible el inicio no se bloquea y la solicitud responde con el error 237.
+ * - app.business.lazy=false (por defecto): se crean al iniciar la aplicación.
  */
 @Configuration
 @EnableTransactionManagement
-@EnableJpaRepositories(basePackages = "com.mvanalytic.apirest_demo_springboot.repositories.business", entityManagerFactoryRef = "businessEntityManagerFactory", transactionManagerRef = "businessTransactionManager")
+@ConditionalOnProperty(name = "app.business.enabled", havingValue = "true", matchIfMissing = true)
+@EnableJpaRepositories(basePackages = BusinessDataSourceConfig.REPOSITORIES_PACKAGE, entityManagerFactoryRef = "businessEntityManagerFactory", transactionManagerRef = "businessTransactionManager", bootstrapMode = BootstrapMode.LAZY)
 public class BusinessDataSourceConfig {
 
+  static final String REPOSITORIES_PACKAGE = "com.mvanalytic.apirest_demo_springboot.repositories.business";
+
+  // Contexto de mapeo que Spring Data comparte entre todos los repositorios JPA
+  private static final String SHARED_MAPPING_CONTEXT = "jpaMappingContext";
+
+  private static final String BUSINESS_MAPPING_CONTEXT = "businessMappingContext";
+
+  private static final String BUSINESS_ENTITY_MANAGER_FACTORY = "businessEntityManagerFactory";
+
+  // Beans de la unidad de persistencia que se inicializan en el primer uso
+  private static final List<String> UNIT_BEANS = Arrays.asList(
+      "businessDataSource",
+      "businessManagedTypes",
+      BUSINESS_ENTITY_MANAGER_FACTORY,
+      // EntityManager compartido que Spring Data registra para los repositorios
+      "jpaSharedEM_" + BUSINESS_ENTITY_MANAGER_FACTORY,
+      "businessTransactionManager");
+
+  /**
+   * Marca como perezosos (lazy-init) los beans de la unidad de persistencia
+   * 'business' y sus repositorios cuando app.business.lazy=true; en otro caso
+   * los repositorios se crean al iniciar, como el resto de beans.
+   *
+   * Los repositorios se registran con BootstrapMode.LAZY, por lo que los
+   * servicios reciben un proxy y el EntityManagerFactory no se crea hasta la
+   * primera llamada a un repositorio. El contexto de mapeo compartido de Spring
+   * Data reúne los metamodelos de todos los EntityManagerFactory y lo crean los
+   * repositorios de 'customer' al iniciar; en modo perezoso se limita a las
+   * unidades no perezosas y los repositorios de 'business' usan uno propio.
+   *
+   * @param environment El entorno con las propiedades de la aplicación.
+   * @return El post-procesador de las definiciones de beans.
+   */
+  @Bean
+  public static BeanFactoryPostProcessor businessLazyInitPostProcessor(Environment environment) {
+    boolean lazy = environment.getProperty("app.business.lazy", Boolean.class, false);
+    return beanFactory -> {
+      for (String name : beanFactory.getBeanDefinitionNames()) {
+        BeanDefinition definition = beanFactory.getBeanDefinition(name);
+        if (UNIT_BEANS.contains(name)) {
+          definition.setLazyInit(lazy);
+        } else if (isBusinessRepository(definition)) {
+          definition.setLazyInit(lazy);
+          if (lazy) {
+            definition.getPropertyValues().add("mappingContext",
+                new RuntimeBeanReference(BUSINESS_MAPPING_CONTEXT));
+          }
+        }
+      }
+      if (lazy) {
+        BeanDefinitionRegistry registry = (BeanDefinitionRegistry) beanFactory;
+        registry.removeBeanDefinition(SHARED_MAPPING_CONTEXT);
+        registry.registerBeanDefinition(SHARED_MAPPING_CONTEXT, mappingContextDefinition(false));
+        registry.registerBeanDefinition(BUSINESS_MAPPING_CONTEXT, mappingContextDefinition(true));
+      }
+    };
+  }
+
+  /**
+   * Definición de un contexto de mapeo que incluye solo la unidad 'business' o
+   * todas las demás.
+   *
+   * @param business true para la unidad 'business'.
+   * @return La definición del bean, perezosa para 'business'.
+   */
+  private static RootBeanDefinition mappingContextDefinition(boolean business) {
+    RootBeanDefinition definition = new RootBeanDefinition(UnitMappingContextFactoryBean.class);
+    definition.getPropertyValues().add("business", business);
+    definition.setLazyInit(business);
+    return definition;
+  }
+
+  /**
+   * Indica si la definición corresponde a un repositorio del paquete
+   * 'repositories.business'.
+   *
+   * @param definition La definición del bean.
+   * @return true si es un repositorio de 'business'.
+   */
+  private static boolean isBusinessRepository(BeanDefinition definition) {
+    ResolvableType factoryType = definition.getResolvableType().as(RepositoryFactoryBeanSupport.class);
+    Class<?> repositoryInterface = factoryType.getGeneric(0).resolve();
+    return repositoryInterface != null
+        && REPOSITORIES_PACKAGE.equals(repositoryInterface.getPackageName());
+  }
+
   /**
    * Define el DataSource para la base de datos 'business' usando las propiedades
    * prefijadas con 'spring.datasource.business'. Se utiliza HikariCP como el pool
@@ -45,24 +162,49 @@ public class BusinessDataSourceConfig {
         .build();
   }
 
+  /**
+   * Entidades de la unidad de persistencia 'business'. El escaneo del paquete se
+   * resuelve en el procesamiento AOT, de modo que la imagen nativa no necesita
+   * recorrer el classpath al iniciar.
+   *
+   * @param resourceLoader El cargador de recursos de la aplicación.
+   * @return Los tipos administrados de la unidad de persistencia 'business'.
+   */
+  @Bean(name = "businessManagedTypes")
+  public PersistenceManagedTypes businessManagedTypes(ResourceLoader resourceLoader) {
+    return new PersistenceManagedTypesScanner(resourceLoader)
+        .scan("com.mvanalytic.apirest_demo_springboot.domain.business");
+  }
+
   /**
    * Configura el EntityManagerFactory para la base de datos 'business',
    * vinculando el DataSource correspondiente y las entidades que están en el
    * paquete 'com.mvanalytic.apirest_demo_springboot.domain.business'.
    *
-   * @param builder    El EntityManagerFactoryBuilder proporcionado por Spring.
-   * @param dataSource El DataSource configurado para 'business'.
+   * El bean se declara como EntityManagerFactory y no como
+   * LocalContainerEntityManagerFactoryBean: el contexto inicializa al arrancar
+   * todos los beans LoadTimeWeaverAware, aunque sean lazy-init, lo que
+   * impediría el modo perezoso.
+   *
+   * @param builder      El EntityManagerFactoryBuilder proporcionado por Spring.
+   * @param dataSource   El DataSource configurado para 'business'.
+   * @param managedTypes Las entidades de la unidad de persistencia 'business'.
+   * @param queryMonitor El supervisor de las sentencias SQL de la unidad.
    * @return El EntityManagerFactory configurado para la base de datos 'business'.
    */
-  @Bean(name = "businessEntityManagerFactory")
-  public LocalContainerEntityManagerFactoryBean businessEntityManagerFactory(
+  @Bean(name = BUSINESS_ENTITY_MANAGER_FACTORY)
+  public EntityManagerFactory businessEntityManagerFactory(
       EntityManagerFactoryBuilder builder,
-      @Qualifier("businessDataSource") DataSource dataSource) {
-    return builder
-        .dataSource(dataSource)
-        .packages("com.mvanalytic.apirest_demo_springboot.domain.business")
+      @Qualifier("businessDataSource") DataSource dataSource,
+      @Qualifier("businessManagedTypes") PersistenceManagedTypes managedTypes,
+      QueryMonitor queryMonitor) {
+    LocalContainerEntityManagerFactoryBean factoryBean = builder
+        .dataSource(queryMonitor.wrap("business", dataSource))
+        .managedTypes(managedTypes)
         .persistenceUnit("business")
         .build(); // No es necesario agregar el dialecto aquí
+    factoryBean.afterPropertiesSet();
+    return factoryBean.getObject();
   }
 
   /**
@@ -77,13 +219,41 @@ public class BusinessDataSourceConfig {
    */
   @Bean(name = "businessTransactionManager")
   public PlatformTransactionManager businessTransactionManager(
-      @Qualifier("businessEntityManagerFactory") LocalContainerEntityManagerFactoryBean businessEntityManagerFactory) {
+      @Qualifier(BUSINESS_ENTITY_MANAGER_FACTORY) EntityManagerFactory businessEntityManagerFactory) {
+    return new JpaTransactionManager(businessEntityManagerFactory);
+  }
+
+  /**
+   * Crea el JpaMetamodelMappingContext con el metamodelo de la unidad
+   * 'business' o con los de las demás unidades, en lugar de todos los
+   * EntityManagerFactory como hace Spring Data.
+   */
+  static class UnitMappingContextFactoryBean extends AbstractFactoryBean<JpaMetamodelMappingContext> {
+
+    private boolean business;
 
-    EntityManagerFactory entityManagerFactory = businessEntityManagerFactory.getObject();
-    if (entityManagerFactory == null) {
-      throw new IllegalStateException("Business EntityManagerFactory is null");
+    public void setBusiness(boolean business) {
+      this.business = business;
     }
 
-    return new JpaTransactionManager(entityManagerFactory);
+    @Override
+    public Class<?> getObjectType() {
+      return JpaMetamodelMappingContext.class;
+    }
+
+    @Override
+    protected JpaMetamodelMappingContext createInstance() {
+      ListableBeanFactory beanFactory = (ListableBeanFactory) getBeanFactory();
+      Set<Metamodel> metamodels = new HashSet<>();
+      for (String name : beanFactory.getBeanNamesForType(EntityManagerFactory.class, false, false)) {
+        if (name.equals(BUSINESS_ENTITY_MANAGER_FACTORY) == business) {
+          metamodels.add(beanFactory.getBean(name, EntityManagerFactory.class).getMetamodel());
+        }
+      }
+      JpaMetamodelMappingContext context = new JpaMetamodelMappingContext(metamodels);
+      context.initialize();
+      return context;
+    }
   }
+
 }
@@ -1,19 +1,28 @@
 
 package com.mvanalytic.apirest_demo_springboot.security.config.datasource;
 
+import java.sql.Connection;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.jdbc.DataSourceBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
 import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.persistenceunit.PersistenceManagedTypes;
+import org.springframework.orm.jpa.persistenceunit.PersistenceManagedTypesScanner;
+import org.springframework.core.io.ResourceLoader;
 import org.springframework.boot.orm.jpa.EntityManagerFactoryBuilder;
 import org.springframework.orm.jpa.JpaTransactionManager;
 import org.springframework.transaction.PlatformTransactionManager;
 import jakarta.persistence.EntityManagerFactory;
 import javax.sql.DataSource;
+import com.mvanalytic.apirest_demo_springboot.repositories.procedure.StoredProcedureExecutor;
+import com.mvanalytic.apirest_demo_springboot.utility.QueryMonitor;
 
 /**
  * Configuración del DataSource, EntityManagerFactory y TransactionManager para
@@ -25,6 +34,12 @@ import javax.sql.DataSource;
  * La clase utiliza HikariCP como pool de conexiones y define el
  * EntityManagerFactory y TransactionManager para la base de datos 'customer',
  * siendo esta la base de datos principal de la aplicación.
+ *
+ * El EntityManagerFactory usa un DataSource de enrutamiento: las transacciones
+ * {@code @Transactional(readOnly = true)} se atienden desde el pool de la
+ * réplica de lectura 'customer-read' cuando está habilitada
+ * (app.datasource.customer.read-replica.enabled) y las demás desde el pool
+ * principal 'customer'.
  */
 @Configuration
 @EnableJpaRepositories(basePackages = "com.mvanalytic.apirest_demo_springboot.repositories.user", entityManagerFactoryRef = "customerEntityManagerFactory", transactionManagerRef = "customerTransactionManager")
@@ -46,6 +61,67 @@ public class CustomerDataSourceConfig {
         .build();
   }
 
+  /**
+   * Define el DataSource de la réplica de lectura de 'customer' usando las
+   * propiedades prefijadas con 'spring.datasource.customer-read'. Solo se crea
+   * cuando app.datasource.customer.read-replica.enabled es true.
+   *
+   * @return El DataSource de la réplica de lectura de 'customer'.
+   */
+  @Bean(name = "customerReadDataSource")
+  @ConditionalOnProperty(name = "app.datasource.customer.read-replica.enabled", havingValue = "true")
+  @ConfigurationProperties(prefix = "spring.datasource.customer-read")
+  public DataSource customerReadDataSource() {
+    return DataSourceBuilder.create()
+        .type(com.zaxxer.hikari.HikariDataSource.class)
+        .build();
+  }
+
+  /**
+   * Define el DataSource que enruta las conexiones de la unidad 'customer' según
+   * el indicador de solo lectura de la transacción.
+   *
+   * La conexión real se obtiene al ejecutar la primera sentencia, después de que
+   * HibernateJpaDialect marque la conexión como de solo lectura al iniciar una
+   * transacción {@code readOnly = true}; en ese caso se toma del pool de la
+   * réplica y en los demás del pool principal. Sin réplica configurada todas las
+   * conexiones se toman del pool principal.
+   *
+   * Los valores por defecto de auto-commit y aislamiento se fijan para que el
+   * proxy no abra una conexión al crearse.
+   *
+   * @param writeDataSource El DataSource principal de 'customer'.
+   * @param readDataSource  El DataSource de la réplica, si está habilitada.
+   * @return El DataSource de enrutamiento de 'customer'.
+   */
+  @Bean(name = "customerRoutingDataSource")
+  public DataSource customerRoutingDataSource(
+      @Qualifier("customerDataSource") DataSource writeDataSource,
+      @Qualifier("customerReadDataSource") ObjectProvider<DataSource> readDataSource) {
+    LazyConnectionDataSourceProxy routingDataSource = new LazyConnectionDataSourceProxy();
+    routingDataSource.setTargetDataSource(writeDataSource);
+    routingDataSource.setReadOnlyDataSource(readDataSource.getIfAvailable(() -> writeDataSource));
+    routingDataSource.setDefaultAutoCommit(true);
+    routingDataSource.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+    routingDataSource.afterPropertiesSet();
+    return routingDataSource;
+  }
+
+  /**
+   * Entidades de la unidad de persistencia 'customer'. El escaneo del paquete se
+   * resuelve en el procesamiento AOT, de modo que la imagen nativa no necesita
+   * recorrer el classpath al iniciar.
+   *
+   * @param resourceLoader El cargador de recursos de la aplicación.
+   * @return Los tipos administrados de la unidad de persistencia 'customer'.
+   */
+  @Primary
+  @Bean(name = "customerManagedTypes")
+  public PersistenceManagedTypes customerManagedTypes(ResourceLoader resourceLoader) {
+    return new PersistenceManagedTypesScanner(resourceLoader)
+        .scan("com.mvanalytic.apirest_demo_springboot.domain.user");
+  }
+
   /**
    * Configura el EntityManagerFactory para la base de datos 'customer',
    * vinculando el DataSource correspondiente y las entidades que están en el
@@ -53,18 +129,22 @@ public class CustomerDataSourceConfig {
    * asegura de que Spring JPA maneje correctamente las entidades relacionadas con
    * la base de datos 'customer'.
    *
-   * @param builder    El EntityManagerFactoryBuilder proporcionado por Spring.
-   * @param dataSource El DataSource configurado para 'customer'.
+   * @param builder      El EntityManagerFactoryBuilder proporcionado por Spring.
+   * @param dataSource   El DataSource de enrutamiento de 'customer'.
+   * @param managedTypes Las entidades de la unidad de persistencia 'customer'.
+   * @param queryMonitor El supervisor de las sentencias SQL de la unidad.
    * @return El EntityManagerFactory configurado para la base de datos 'customer'.
    */
   @Primary
   @Bean(name = "customerEntityManagerFactory")
   public LocalContainerEntityManagerFactoryBean customerEntityManagerFactory(
       EntityManagerFactoryBuilder builder,
-      @Qualifier("customerDataSource") DataSource dataSource) {
+      @Qualifier("customerRoutingDataSource") DataSource dataSource,
+      @Qualifier("customerManagedTypes") PersistenceManagedTypes managedTypes,
+      QueryMonitor queryMonitor) {
     return builder
-        .dataSource(dataSource)
-        .packages("com.mvanalytic.apirest_demo_springboot.domain.user") // Cambia a tu paquete correcto
+        .dataSource(queryMonitor.wrap("customer", dataSource))
+        .managedTypes(managedTypes)
         .persistenceUnit("customer")
         .build(); // No es necesario agregar el dialecto aquí
   }
@@ -91,4 +171,18 @@ public class CustomerDataSourceConfig {
     return new JpaTransactionManager(entityManagerFactory);
   }
 
+  /**
+   * Define el ejecutor de procedimientos almacenados de 'customer'. Usa el mismo
+   * DataSource que el EntityManagerFactory, de modo que las llamadas comparten
+   * la conexión de la transacción JPA activa y pasan por QueryMonitor.
+   *
+   * @param customerEntityManagerFactory El EntityManagerFactory de 'customer'.
+   * @return El ejecutor de procedimientos almacenados de 'customer'.
+   */
+  @Bean(name = "customerProcedureExecutor")
+  public StoredProcedureExecutor customerProcedureExecutor(
+      @Qualifier("customerEntityManagerFactory") LocalContainerEntityManagerFactoryBean customerEntityManagerFactory) {
+    return new StoredProcedureExecutor(customerEntityManagerFactory.getDataSource());
+  }
+
 }
@@ -0,0 +1,129 @@
+package com.mvanalytic.apirest_demo_springboot.security.filters;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.regex.Pattern;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import com.mvanalytic.apirest_demo_springboot.utility.EventLogger;
+import com.mvanalytic.apirest_demo_springboot.utility.QueryMonitor;
+import com.mvanalytic.apirest_demo_springboot.utility.QueryStatistics;
+import com.mvanalytic.apirest_demo_springboot.utility.RequestTrace;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Filtro que asigna un identificador de correlación a cada solicitud.
+ *
+ * Se ejecuta antes que la cadena de Spring Security, de modo que todos los
+ * registros de la solicitud (incluidos los del filtro JWT) llevan el campo
+ * 'correlationId'. Si el cliente envía un 'X-Correlation-Id' válido se
+ * reutiliza; en otro caso se genera uno nuevo. El identificador se devuelve en
+ * el mismo encabezado. La duración de cada tramo se envía en 'Server-Timing'
+ * solo si 'app.trace.server-timing.enabled' está habilitado, porque revela el
+ * desglose interno de la solicitud; en todo caso se registra en el evento 232.
+ *
+ * También abre las estadísticas de sentencias SQL de la solicitud; al terminar
+ * se informan los textos SQL repetidos (posible N+1) y el tiempo que se
+ * retuvieron conexiones.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class CorrelationIdFilter extends OncePerRequestFilter {
+
+  public static final String CORRELATION_HEADER = "X-Correlation-Id";
+
+  public static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+  // Solo se aceptan identificadores cortos y sin caracteres especiales
+  private static final Pattern VALID_ID = Pattern.compile("[A-Za-z0-9-]{1,64}");
+
+  @Value("${app.trace.slow-request-ms:1000}")
+  private long slowRequestMs;
+
+  @Value("${app.trace.server-timing.enabled:false}")
+  private boolean serverTimingEnabled;
+
+  @Autowired
+  private EventLogger eventLogger;
+
+  @Autowired
+  private QueryMonitor queryMonitor;
+
+  @Override
+  protected void doFilterInternal(
+      @NonNull HttpServletRequest request,
+      @NonNull HttpServletResponse response,
+      @NonNull FilterChain filterChain)
+      throws ServletException, IOException {
+
+    String correlationId = request.getHeader(CORRELATION_HEADER);
+    if (correlationId == null || !VALID_ID.matcher(correlationId).matches()) {
+      correlationId = UUID.randomUUID().toString();
+    }
+
+    RequestTrace trace = RequestTrace.begin(correlationId);
+    QueryStatistics queries = QueryStatistics.begin();
+    response.setHeader(CORRELATION_HEADER, correlationId);
+    TimingResponseWrapper wrapper = serverTimingEnabled ? new TimingResponseWrapper(response, trace) : null;
+
+    try {
+      filterChain.doFilter(request, wrapper != null ? wrapper : response);
+    } finally {
+      // La respuesta aún no se envió: los tramos registrados se agregan al final
+      if (wrapper != null && !response.isCommitted()) {
+        wrapper.writeServerTiming();
+      }
+      double elapsed = trace.elapsedMillis();
+      if (elapsed >= slowRequestMs) {
+        eventLogger.warn(CorrelationIdFilter.class, "232", "Solicitud lenta {} {} ({} ms): {}",
+            "method", request.getMethod(),
+            "uri", request.getRequestURI(),
+            "durationMs", Math.round(elapsed),
+            "statements", queries.getStatementCount(),
+            "connectionHoldMs", Math.round(queries.getConnectionHoldMillis()),
+            "serverTiming", trace.serverTiming());
+      }
+      queryMonitor.report(request.getMethod(), request.getRequestURI(), queries);
+      QueryStatistics.end();
+      RequestTrace.end();
+    }
+  }
+
+  /**
+   * Respuesta que agrega el encabezado 'Server-Timing' justo antes de que se
+   * envíen los encabezados al cliente.
+   */
+  private static final class TimingResponseWrapper extends OnCommittedResponseWrapper {
+
+    private final RequestTrace trace;
+
+    private boolean written;
+
+    TimingResponseWrapper(HttpServletResponse response, RequestTrace trace) {
+      super(response);
+      this.trace = trace;
+    }
+
+    @Override
+    protected void onResponseCommitted() {
+      writeServerTiming();
+    }
+
+    void writeServerTiming() {
+      if (!written) {
+        written = true;
+        ((HttpServletResponse) getResponse()).setHeader(SERVER_TIMING_HEADER, trace.serverTiming());
+      }
+    }
+  }
+
+}
@@ -53,6 +53,7 @@ public class AuthTokenFilter extends OncePerRequestFilter {
       String requestUri = request.getRequestURI();
       if (requestUri.startsWith("/api/auth") ||
           requestUri.startsWith("/api/public") ||
+          requestUri.startsWith("/actuator/health") ||
           requestUri.equals("/favicon.ico")) {
         // Si es una solicitud de login, no se requiere token, así que continúa
         filterChain.doFilter(request, response);
@@ -77,16 +78,16 @@ public class AuthTokenFilter extends OncePerRequestFilter {
       }
 
     } catch (CredentialsExpiredException e) {
-      appUtility.sendLog("502, Token expirado",  e.getMessage());
+      appUtility.sendLog(AuthTokenFilter.class, "502, Token expirado",  e.getMessage());
       // Configura la respuesta con un error 401 y el mensaje correspondiente
       response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Error: 502, Token expirado");
       return;
     } catch (InsufficientAuthenticationException e) {
       // Manejo de excepción para autenticación insuficiente
-      appUtility.sendLog("507, Autenticación insuficiente",  e.getMessage());
+      appUtility.sendLog(AuthTokenFilter.class, "507, Autenticación insuficiente",  e.getMessage());
       response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Error: 507, Autenticación insuficiente");
     } catch (Exception e) {
-      appUtility.sendLog("504, No se pudo configurar la autenticación", e.getMessage());
+      appUtility.sendLog(AuthTokenFilter.class, "504, No se pudo configurar la autenticación", e.getMessage());
       response.sendError(HttpServletResponse.SC_UNAUTHORIZED,
           "Error: 504, No se pudo configurar la autenticación " + e.getMessage());
     }
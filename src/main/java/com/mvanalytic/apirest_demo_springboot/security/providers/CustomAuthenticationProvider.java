@@ -12,6 +12,8 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
+import com.mvanalytic.apirest_demo_springboot.exceptions.AccountDisabledException;
+import com.mvanalytic.apirest_demo_springboot.exceptions.InvalidCredentialsException;
 
 
 
@@ -51,12 +53,12 @@ public class CustomAuthenticationProvider implements AuthenticationProvider {
 
       // Verifica si el usuario está habilitado
       if (!userDetails.isEnabled()) {
-        throw new DisabledException("110, Cuenta deshabilitada");
+        throw new AccountDisabledException("110, Cuenta deshabilitada");
       }
 
       // Verifica si las credenciales (password) son correctas
       if (!passwordEncoder.matches(rawPassword, userDetails.getPassword())) {
-        throw new BadCredentialsException("108, La contraseña no coincide con la registrada");
+        throw new InvalidCredentialsException("108, La contraseña no coincide con la registrada");
       }
 
       // Devuelve un token de autenticación completamente autenticado si la validación
@@ -2,13 +2,18 @@ package com.mvanalytic.apirest_demo_springboot.services.business;
 
 import com.mvanalytic.apirest_demo_springboot.repositories.business.ClientTypeRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
 import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
 import com.mvanalytic.apirest_demo_springboot.domain.business.ClientType;
+import com.mvanalytic.apirest_demo_springboot.exceptions.BusinessException;
 
 // Pendiente los DTO y los Try-catch
 @Service
+@ConditionalOnProperty(name = "app.business.enabled", havingValue = "true", matchIfMissing = true)
 public class ClientTypeService {
 
   @Autowired
@@ -24,8 +29,22 @@ public class ClientTypeService {
     }
   }
 
+  /**
+   * Obtiene todos los ClientType. Con app.business.lazy=true la primera llamada
+   * inicializa la unidad de persistencia 'business'.
+   *
+   * @return La lista de ClientType.
+   * @throws BusinessException Si la unidad de persistencia 'business' no se
+   *                           puede inicializar (base de datos 'trade' no
+   *                           disponible); se responde con 503.
+   */
   public List<ClientType> getAllClientType(){
-    List<ClientType> cList = clientTypeRepository.findAll();
-    return cList;
+    try {
+      List<ClientType> cList = clientTypeRepository.findAll();
+      return cList;
+    } catch (BeansException e) {
+      throw new BusinessException("237, La base de datos de negocio no está disponible",
+          HttpStatus.SERVICE_UNAVAILABLE);
+    }
   }
 }
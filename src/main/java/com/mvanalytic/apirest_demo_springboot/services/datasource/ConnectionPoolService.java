@@ -0,0 +1,300 @@
+package com.mvanalytic.apirest_demo_springboot.services.datasource;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+import com.mvanalytic.apirest_demo_springboot.dto.datasource.ConnectionPoolStatusDTO;
+import com.mvanalytic.apirest_demo_springboot.utility.EventLogger;
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Servicio que supervisa los pools de conexiones Hikari de cada DataSource y
+ * ajusta su tamaño máximo según el tiempo de espera por una conexión.
+ * <p>
+ * Cada intervalo calcula la espera media de las conexiones obtenidas en el
+ * intervalo a partir del temporizador 'hikaricp.connections.acquire' que
+ * registra Micrometer:
+ * - si la espera media supera 'grow-wait-ms' o hay hilos esperando, el tamaño
+ * máximo crece 'step' conexiones hasta el límite superior del pool;
+ * - si la espera media es menor que 'shrink-wait-ms' durante
+ * 'shrink-after-intervals' intervalos seguidos y sobran al menos 'step'
+ * conexiones, el tamaño máximo se reduce 'step' hasta el límite inferior.
+ * </p>
+ * <p>
+ * Los límites se configuran por pool con app.pool.tuner.{pool}.min-size y
+ * app.pool.tuner.{pool}.max-size; por defecto son el tamaño configurado y su
+ * doble. Solo se consultan los DataSource ya creados, de modo que no se
+ * inicializa la unidad 'business' cuando es perezosa.
+ * </p>
+ */
+@Service
+public class ConnectionPoolService {
+
+  @Value("${app.pool.tuner.enabled:true}")
+  private boolean enabled;
+
+  @Value("${app.pool.tuner.interval-ms:10000}")
+  private long intervalMs;
+
+  @Value("${app.pool.tuner.grow-wait-ms:20}")
+  private double growWaitMs;
+
+  @Value("${app.pool.tuner.shrink-wait-ms:2}")
+  private double shrinkWaitMs;
+
+  @Value("${app.pool.tuner.shrink-after-intervals:6}")
+  private int shrinkAfterIntervals;
+
+  @Value("${app.pool.tuner.step:2}")
+  private int step;
+
+  @Autowired
+  private ConfigurableListableBeanFactory beanFactory;
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  @Autowired
+  private Environment environment;
+
+  @Autowired
+  private EventLogger eventLogger;
+
+  // Estado del ajuste por nombre de pool
+  private final Map<String, PoolState> states = new ConcurrentHashMap<>();
+
+  private final ScheduledExecutorService tuner = Executors.newSingleThreadScheduledExecutor(r -> {
+    Thread thread = new Thread(r, "connection-pool-tuner");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  /**
+   * Inicia el ajuste periódico de los pools si está habilitado.
+   */
+  @PostConstruct
+  public void start() {
+    if (enabled) {
+      tuner.scheduleWithFixedDelay(this::tuneAll, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  /**
+   * Detiene el ajuste al cerrar el contexto.
+   */
+  @PreDestroy
+  public void shutdown() {
+    tuner.shutdownNow();
+  }
+
+  /**
+   * Obtiene el estado de todos los pools creados.
+   *
+   * @return La lista con el estado de cada pool.
+   */
+  public List<ConnectionPoolStatusDTO> getPoolStatus() {
+    List<ConnectionPoolStatusDTO> result = new ArrayList<>();
+    for (HikariDataSource dataSource : createdDataSources()) {
+      result.add(toStatus(dataSource, state(dataSource)));
+    }
+    return result;
+  }
+
+  /**
+   * Ajusta cada pool iniciado; un error en un pool no detiene el ajuste de los
+   * demás ni los intervalos siguientes.
+   */
+  private void tuneAll() {
+    for (HikariDataSource dataSource : createdDataSources()) {
+      try {
+        tune(dataSource, state(dataSource));
+      } catch (RuntimeException e) {
+        eventLogger.error(ConnectionPoolService.class, "241", "Error al ajustar el pool {}: {}",
+            "pool", dataSource.getPoolName(), "detail", e.getMessage());
+      }
+    }
+  }
+
+  /**
+   * Aplica una iteración del ajuste a un pool.
+   *
+   * @param dataSource El DataSource del pool.
+   * @param state      El estado del ajuste del pool.
+   */
+  private void tune(HikariDataSource dataSource, PoolState state) {
+    HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+    Timer acquire = acquireTimer(dataSource.getPoolName());
+    if (pool == null || acquire == null) {
+      return;
+    }
+
+    // Espera media de las conexiones obtenidas durante el intervalo
+    long count = acquire.count();
+    double totalMs = acquire.totalTime(TimeUnit.MILLISECONDS);
+    long intervalCount = count - state.lastCount;
+    double waitMs = intervalCount > 0 ? (totalMs - state.lastTotalMs) / intervalCount : 0;
+    state.lastCount = count;
+    state.lastTotalMs = totalMs;
+    state.lastIntervalWaitMs = waitMs;
+
+    HikariConfigMXBean config = dataSource.getHikariConfigMXBean();
+    int current = config.getMaximumPoolSize();
+    int pending = pool.getThreadsAwaitingConnection();
+
+    if (waitMs >= growWaitMs || pending > 0) {
+      state.calmIntervals = 0;
+      if (current < state.upperBound) {
+        resize(dataSource, state, current, Math.min(state.upperBound, current + step), waitMs, pending);
+      } else {
+        eventLogger.warn(ConnectionPoolService.class, "240", "Pool {} saturado en su límite de {} conexiones: espera media {} ms, {} hilos en espera",
+            "pool", dataSource.getPoolName(), "maximumPoolSize", current,
+            "waitMs", Math.round(waitMs), "pending", pending);
+      }
+    } else if (waitMs < shrinkWaitMs && pool.getActiveConnections() <= current - step) {
+      state.calmIntervals++;
+      if (state.calmIntervals >= shrinkAfterIntervals && current > state.lowerBound) {
+        state.calmIntervals = 0;
+        resize(dataSource, state, current, Math.max(state.lowerBound, current - step), waitMs, pending);
+      }
+    } else {
+      state.calmIntervals = 0;
+    }
+  }
+
+  /**
+   * Cambia el tamaño máximo del pool. Hikari aplica el nuevo tamaño sin
+   * reiniciar el pool: al reducirlo, las conexiones sobrantes se cierran al
+   * devolverse.
+   */
+  private void resize(HikariDataSource dataSource, PoolState state, int from, int to,
+      double waitMs, int pending) {
+    dataSource.getHikariConfigMXBean().setMaximumPoolSize(to);
+    state.lastAdjustment = from + " -> " + to + " (espera media " + Math.round(waitMs)
+        + " ms, " + pending + " hilos en espera)";
+    state.lastAdjustmentTime = Instant.now();
+    eventLogger.info(ConnectionPoolService.class, "239", "Pool {} redimensionado de {} a {} conexiones: espera media {} ms, {} hilos en espera",
+        "pool", dataSource.getPoolName(), "from", from, "to", to,
+        "waitMs", Math.round(waitMs), "pending", pending);
+  }
+
+  /**
+   * Obtiene los DataSource Hikari ya creados, sin inicializar los declarados
+   * lazy-init.
+   *
+   * @return Los DataSource creados.
+   */
+  private List<HikariDataSource> createdDataSources() {
+    List<HikariDataSource> dataSources = new ArrayList<>();
+    for (String name : beanFactory.getBeanNamesForType(DataSource.class, false, false)) {
+      if (beanFactory.containsSingleton(name)
+          && beanFactory.getBean(name) instanceof HikariDataSource hikari) {
+        dataSources.add(hikari);
+      }
+    }
+    return dataSources;
+  }
+
+  /**
+   * Obtiene el estado del ajuste de un pool; al verlo por primera vez toma sus
+   * límites de la configuración.
+   */
+  private PoolState state(HikariDataSource dataSource) {
+    return states.computeIfAbsent(dataSource.getPoolName(), poolName -> {
+      int configured = dataSource.getMaximumPoolSize();
+      int lower = environment.getProperty("app.pool.tuner." + poolName + ".min-size", Integer.class, configured);
+      int upper = environment.getProperty("app.pool.tuner." + poolName + ".max-size", Integer.class, configured * 2);
+      return new PoolState(lower, Math.max(lower, upper));
+    });
+  }
+
+  /**
+   * Obtiene el temporizador de obtención de conexiones del pool.
+   *
+   * @param poolName El nombre del pool.
+   * @return El temporizador o null si el pool aún no registró métricas.
+   */
+  private Timer acquireTimer(String poolName) {
+    return meterRegistry.find("hikaricp.connections.acquire").tag("pool", poolName).timer();
+  }
+
+  /**
+   * Convierte el estado de un pool en su DTO.
+   */
+  private ConnectionPoolStatusDTO toStatus(HikariDataSource dataSource, PoolState state) {
+    ConnectionPoolStatusDTO dto = new ConnectionPoolStatusDTO();
+    dto.setPoolName(dataSource.getPoolName());
+    dto.setMaximumPoolSize(dataSource.getHikariConfigMXBean().getMaximumPoolSize());
+    dto.setMinimumIdle(dataSource.getMinimumIdle());
+    dto.setLowerBound(state.lowerBound);
+    dto.setUpperBound(state.upperBound);
+    dto.setLeakDetectionThresholdMs(dataSource.getLeakDetectionThreshold());
+    dto.setLastIntervalWaitMs(state.lastIntervalWaitMs);
+    dto.setLastAdjustment(state.lastAdjustment);
+    dto.setLastAdjustmentTime(state.lastAdjustmentTime);
+
+    HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+    dto.setStarted(pool != null);
+    if (pool != null) {
+      dto.setActive(pool.getActiveConnections());
+      dto.setIdle(pool.getIdleConnections());
+      dto.setTotal(pool.getTotalConnections());
+      dto.setPending(pool.getThreadsAwaitingConnection());
+    }
+
+    Timer acquire = acquireTimer(dataSource.getPoolName());
+    if (acquire != null) {
+      HistogramSnapshot snapshot = acquire.takeSnapshot();
+      dto.setAcquireCount(acquire.count());
+      dto.setAcquireMeanMs(acquire.mean(TimeUnit.MILLISECONDS));
+      dto.setAcquireMaxMs(snapshot.max(TimeUnit.MILLISECONDS));
+      for (ValueAtPercentile percentile : snapshot.percentileValues()) {
+        if (percentile.percentile() == 0.95) {
+          dto.setAcquireP95Ms(percentile.value(TimeUnit.MILLISECONDS));
+        } else if (percentile.percentile() == 0.99) {
+          dto.setAcquireP99Ms(percentile.value(TimeUnit.MILLISECONDS));
+        }
+      }
+    }
+    return dto;
+  }
+
+  /**
+   * Estado del ajuste de un pool. Lo modifica solo el hilo del ajuste; las
+   * consultas leen los valores más recientes.
+   */
+  private static final class PoolState {
+    private final int lowerBound;
+    private final int upperBound;
+    private long lastCount;
+    private double lastTotalMs;
+    private int calmIntervals;
+    private volatile double lastIntervalWaitMs;
+    private volatile String lastAdjustment;
+    private volatile Instant lastAdjustmentTime;
+
+    PoolState(int lowerBound, int upperBound) {
+      this.lowerBound = lowerBound;
+      this.upperBound = upperBound;
+    }
+  }
+
+}
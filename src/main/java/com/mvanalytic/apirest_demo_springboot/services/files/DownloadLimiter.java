@@ -0,0 +1,90 @@
+package com.mvanalytic.apirest_demo_springboot.services.files;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import com.mvanalytic.apirest_demo_springboot.exceptions.DownloadLimitExceededException;
+import jakarta.annotation.PostConstruct;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Servicio que acota las descargas simultáneas, de forma global y por
+ * dirección IP, para que los clientes lentos no acaparen los hilos de envío.
+ * <p>
+ * Cada {@link #acquire(String)} exitoso debe liberarse con
+ * {@link #release(String)} al terminar la transferencia.
+ * </p>
+ */
+@Service
+public class DownloadLimiter {
+
+  @Value("${app.download.max-concurrent:200}")
+  private int maxConcurrent;
+
+  @Value("${app.download.max-per-client:4}")
+  private int maxPerClient;
+
+  @Value("${app.download.retry-after-seconds:5}")
+  private long retryAfterSeconds;
+
+  private Semaphore global;
+
+  // Descargas en curso por dirección IP; la entrada se elimina al llegar a cero
+  private final Map<String, Integer> perClient = new ConcurrentHashMap<>();
+
+  @PostConstruct
+  public void init() {
+    global = new Semaphore(maxConcurrent);
+  }
+
+  /**
+   * Reserva un lugar para una descarga del cliente indicado.
+   *
+   * @param client La dirección IP del cliente.
+   * @throws DownloadLimitExceededException Si se alcanzó el límite global o el
+   *                                        límite del cliente.
+   */
+  public void acquire(String client) {
+    if (!global.tryAcquire()) {
+      throw new DownloadLimitExceededException(
+          "230, Se alcanzó el máximo de descargas simultáneas", retryAfterSeconds);
+    }
+    AtomicBoolean allowed = new AtomicBoolean();
+    perClient.compute(client, (key, count) -> {
+      int current = count == null ? 0 : count;
+      if (current >= maxPerClient) {
+        return count;
+      }
+      allowed.set(true);
+      return current + 1;
+    });
+    if (!allowed.get()) {
+      global.release();
+      throw new DownloadLimitExceededException(
+          "231, Se alcanzó el máximo de descargas simultáneas del cliente", retryAfterSeconds);
+    }
+  }
+
+  /**
+   * Libera el lugar reservado por una descarga del cliente indicado.
+   *
+   * @param client La dirección IP del cliente.
+   */
+  public void release(String client) {
+    perClient.computeIfPresent(client, (key, count) -> count <= 1 ? null : count - 1);
+    global.release();
+  }
+
+  /**
+   * Devuelve el máximo de descargas simultáneas, utilizado para dimensionar el
+   * pool de envío.
+   *
+   * @return El límite global de descargas.
+   */
+  public int getMaxConcurrent() {
+    return maxConcurrent;
+  }
+
+}
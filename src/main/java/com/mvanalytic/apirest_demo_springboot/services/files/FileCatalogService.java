@@ -0,0 +1,328 @@
+package com.mvanalytic.apirest_demo_springboot.services.files;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import com.mvanalytic.apirest_demo_springboot.dto.files.FileMetadataDTO;
+import com.mvanalytic.apirest_demo_springboot.utility.AppUtility;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Catálogo en memoria de los archivos de la carpeta definida en
+ * 'file.storage.location'.
+ * <p>
+ * Al iniciar se indexan el nombre, tamaño, fecha de modificación, hash SHA-256
+ * del contenido y ETag de cada archivo. Un {@link WatchService} mantiene el
+ * índice actualizado cuando se agregan, modifican o eliminan archivos, de modo
+ * que las validaciones de existencia y la lectura de metadatos no acceden al
+ * sistema de archivos en cada descarga.
+ * </p>
+ * <p>
+ * Junto a cada archivo se genera una sola vez una variante precomprimida
+ * {@code <nombre>.gz}, que se conserva solo si reduce el tamaño de forma
+ * significativa y que se sirve a los clientes que aceptan gzip.
+ * </p>
+ */
+@Service
+public class FileCatalogService {
+
+  @Autowired
+  private AppUtility appUtility;
+
+  // Extensión de las variantes precomprimidas, que no se indexan como archivos
+  public static final String GZIP_EXTENSION = ".gz";
+
+  // Extensión de los archivos temporales usados al generar las variantes
+  private static final String TEMP_EXTENSION = ".tmp";
+
+  // La variante gzip se descarta si no ahorra al menos el 10 % del tamaño
+  private static final double MIN_GZIP_RATIO = 0.9;
+
+  @Value("${file.storage.precompress:true}")
+  private boolean precompress;
+
+  // Ruta base de almacenamiento, resuelta una sola vez al iniciar
+  private Path storageLocation;
+
+  private final Map<String, FileMetadataDTO> catalog = new ConcurrentHashMap<>();
+
+  private WatchService watchService;
+
+  /**
+   * Resuelve la carpeta de almacenamiento, indexa sus archivos e inicia el hilo
+   * que observa los cambios en la carpeta.
+   */
+  @PostConstruct
+  public void init() {
+    storageLocation = Paths.get(appUtility.getFileStorageLocation())
+        .toAbsolutePath().normalize();
+
+    if (!Files.isDirectory(storageLocation)) {
+      appUtility.sendLog(FileCatalogService.class, "170, Error al cargar la ruta de los archivos para descarga",
+          storageLocation.toString());
+      return;
+    }
+
+    try {
+      watchService = storageLocation.getFileSystem().newWatchService();
+      storageLocation.register(watchService,
+          StandardWatchEventKinds.ENTRY_CREATE,
+          StandardWatchEventKinds.ENTRY_MODIFY,
+          StandardWatchEventKinds.ENTRY_DELETE);
+    } catch (IOException e) {
+      appUtility.sendLog(FileCatalogService.class, "Error al observar la carpeta de archivos", e.getMessage());
+    }
+
+    rescan();
+
+    if (watchService != null) {
+      Thread watcher = new Thread(this::watch, "file-catalog-watcher");
+      watcher.setDaemon(true);
+      watcher.start();
+    }
+  }
+
+  /**
+   * Detiene el hilo que observa la carpeta de almacenamiento.
+   */
+  @PreDestroy
+  public void shutdown() throws IOException {
+    if (watchService != null) {
+      watchService.close();
+    }
+  }
+
+  /**
+   * Devuelve la carpeta de almacenamiento absoluta y normalizada.
+   *
+   * @return La ruta base de almacenamiento.
+   */
+  public Path getStorageLocation() {
+    return storageLocation;
+  }
+
+  /**
+   * Obtiene los metadatos de un archivo desde memoria.
+   *
+   * @param fileName El nombre del archivo.
+   * @return Los metadatos del archivo o {@code null} si no está en el catálogo.
+   */
+  public FileMetadataDTO getFile(String fileName) {
+    return catalog.get(fileName);
+  }
+
+  /**
+   * Lista los archivos del catálogo ordenados por nombre.
+   *
+   * @return La lista de metadatos de los archivos indexados.
+   */
+  public List<FileMetadataDTO> listFiles() {
+    List<FileMetadataDTO> files = new ArrayList<>(catalog.values());
+    files.sort(Comparator.comparing(FileMetadataDTO::getName));
+    return files;
+  }
+
+  /**
+   * Vuelve a indexar todos los archivos de la carpeta de almacenamiento.
+   */
+  private void rescan() {
+    List<String> found = new ArrayList<>();
+    try (DirectoryStream<Path> stream = Files.newDirectoryStream(storageLocation)) {
+      for (Path file : stream) {
+        if (isVariant(file)) {
+          continue;
+        }
+        found.add(file.getFileName().toString());
+        index(file);
+      }
+    } catch (IOException e) {
+      appUtility.sendLog(FileCatalogService.class, "Error al indexar la carpeta de archivos", e.getMessage());
+      return;
+    }
+    catalog.keySet().retainAll(found);
+  }
+
+  /**
+   * Indexa un archivo, o lo elimina del catálogo si ya no existe o no es un
+   * archivo regular.
+   *
+   * @param file La ruta del archivo.
+   */
+  private void index(Path file) {
+    String name = file.getFileName().toString();
+    try {
+      BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+      if (!attributes.isRegularFile()) {
+        catalog.remove(name);
+        return;
+      }
+      String hash = hash(file);
+      FileMetadataDTO metadata = new FileMetadataDTO();
+      metadata.setName(name);
+      metadata.setSize(attributes.size());
+      metadata.setLastModified(attributes.lastModifiedTime().toInstant());
+      metadata.setContentHash(hash);
+      metadata.setVersion(hash.substring(0, 16));
+      metadata.setEtag("\"" + hash.substring(0, 32) + "\"");
+      if (precompress) {
+        metadata.setGzipSize(precompress(file, attributes));
+      }
+      catalog.put(name, metadata);
+    } catch (IOException e) {
+      catalog.remove(name);
+    }
+  }
+
+  /**
+   * Devuelve la ruta de la variante gzip de un archivo.
+   *
+   * @param file La ruta del archivo original.
+   * @return La ruta {@code <nombre>.gz} junto al archivo.
+   */
+  public static Path gzipVariant(Path file) {
+    return file.resolveSibling(file.getFileName() + GZIP_EXTENSION);
+  }
+
+  /**
+   * Genera la variante gzip del archivo si no existe o es anterior al original.
+   * La variante se escribe en un archivo temporal y se mueve de forma atómica
+   * para que nunca se sirva incompleta.
+   *
+   * @param file       La ruta del archivo original.
+   * @param attributes Los atributos del archivo original.
+   * @return El tamaño de la variante, o {@code null} si no compensa o no se pudo
+   *         generar.
+   */
+  private Long precompress(Path file, BasicFileAttributes attributes) {
+    Path gzip = gzipVariant(file);
+    try {
+      if (!Files.exists(gzip)
+          || Files.getLastModifiedTime(gzip).compareTo(attributes.lastModifiedTime()) < 0) {
+        Path temp = file.resolveSibling(file.getFileName() + GZIP_EXTENSION + TEMP_EXTENSION);
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(temp))) {
+          Files.copy(file, out);
+        }
+        Files.move(temp, gzip, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      }
+      long gzipSize = Files.size(gzip);
+      if (gzipSize >= attributes.size() * MIN_GZIP_RATIO) {
+        // El contenido ya está comprimido (p. ej. la mayoría de los PDF)
+        Files.deleteIfExists(gzip);
+        return null;
+      }
+      return gzipSize;
+    } catch (IOException e) {
+      appUtility.sendLog(FileCatalogService.class, "Error al generar la variante gzip del archivo", e.getMessage());
+      return null;
+    }
+  }
+
+  /**
+   * Indica si la ruta corresponde a una variante precomprimida o a un archivo
+   * temporal, que no se indexan.
+   *
+   * @param file La ruta a evaluar.
+   * @return {@code true} si la ruta no debe indexarse.
+   */
+  private boolean isVariant(Path file) {
+    String name = file.getFileName().toString();
+    return name.endsWith(GZIP_EXTENSION) || name.endsWith(TEMP_EXTENSION);
+  }
+
+  /**
+   * Calcula el hash SHA-256 del contenido de un archivo.
+   *
+   * @param file La ruta del archivo.
+   * @return El hash en hexadecimal.
+   * @throws IOException Si ocurre un error al leer el archivo.
+   */
+  private String hash(Path file) throws IOException {
+    try (InputStream in = Files.newInputStream(file)) {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      byte[] buffer = new byte[8192];
+      int read;
+      while ((read = in.read(buffer)) != -1) {
+        digest.update(buffer, 0, read);
+      }
+      return HexFormat.of().formatHex(digest.digest());
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * Elimina la variante gzip de un archivo que ya no existe.
+   *
+   * @param file La ruta del archivo original eliminado.
+   */
+  private void deleteVariant(Path file) {
+    try {
+      Files.deleteIfExists(gzipVariant(file));
+    } catch (IOException e) {
+      appUtility.sendLog(FileCatalogService.class, "Error al eliminar la variante gzip del archivo", e.getMessage());
+    }
+  }
+
+  /**
+   * Procesa los eventos de la carpeta de almacenamiento hasta que se cierra el
+   * {@link WatchService}.
+   */
+  private void watch() {
+    try {
+      while (true) {
+        WatchKey key = watchService.take();
+        for (WatchEvent<?> event : key.pollEvents()) {
+          if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+            // Se perdieron eventos: se reconstruye el índice completo
+            rescan();
+            continue;
+          }
+          Path file = storageLocation.resolve((Path) event.context());
+          if (isVariant(file)) {
+            continue;
+          }
+          if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+            catalog.remove(file.getFileName().toString());
+            deleteVariant(file);
+          } else {
+            index(file);
+          }
+        }
+        if (!key.reset()) {
+          appUtility.sendLog(FileCatalogService.class, "Error al observar la carpeta de archivos", "La carpeta ya no es accesible");
+          catalog.clear();
+          return;
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (ClosedWatchServiceException e) {
+      // El contexto se está cerrando
+    }
+  }
+
+}
@@ -1,6 +1,9 @@
 package com.mvanalytic.apirest_demo_springboot.services.files;
 
 import org.springframework.core.io.Resource;
+import com.mvanalytic.apirest_demo_springboot.dto.files.FileMetadataDTO;
+import java.nio.file.Path;
+import java.util.List;
 
 /**
  * Interfaz para el servicio de manejo de archivos.
@@ -10,4 +13,10 @@ import org.springframework.core.io.Resource;
  */
 public interface FileService {
   Resource loadFileAResource(String fileName);
+
+  Path loadFilePath(String fileName);
+
+  FileMetadataDTO loadFileMetadata(String fileName);
+
+  List<FileMetadataDTO> listFiles();
 }
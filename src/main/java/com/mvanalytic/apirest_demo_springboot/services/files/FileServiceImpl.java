@@ -4,11 +4,12 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.UrlResource;
 import org.springframework.stereotype.Service;
+import com.mvanalytic.apirest_demo_springboot.dto.files.FileMetadataDTO;
 import com.mvanalytic.apirest_demo_springboot.utility.AppUtility;
 import java.io.FileNotFoundException;
 import java.net.MalformedURLException;
 import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.util.List;
 
 /**
  * Servicio que implementa la interfaz {@link FileService} para la gestión de
@@ -17,9 +18,9 @@ import java.nio.file.Paths;
  * la manipulación de archivos y controla el acceso a ellos.
  * 
  * <p>
- * La clase usa el componente {@link AppUtility} para obtener la ubicación de
- * almacenamiento de los archivos y maneja solo archivos PDF como medida de
- * seguridad.
+ * La clase usa el catálogo en memoria {@link FileCatalogService}, construido a
+ * partir de la ubicación de almacenamiento definida en {@link AppUtility}, y
+ * maneja solo archivos PDF como medida de seguridad.
  * </p>
  * 
  * <p>
@@ -39,7 +40,7 @@ import java.nio.file.Paths;
 public class FileServiceImpl implements FileService {
 
   @Autowired
-  private AppUtility appUtility;
+  private FileCatalogService fileCatalogService;
 
   /**
    * Carga un archivo como recurso a partir de su nombre de archivo.
@@ -60,37 +61,77 @@ public class FileServiceImpl implements FileService {
   @Override
   public Resource loadFileAResource(String fileName) {
     try {
-      // Obtener la ruta base desde appUtility
-      Path storageLocation = Paths.get(appUtility.getFileStorageLocation())
-          .toAbsolutePath().normalize();
+      return new UrlResource(loadFilePath(fileName).toUri());
+    } catch (MalformedURLException e) {
+      throw new RuntimeException(e.getMessage());
+    }
+  }
 
-      // Resolver la ruta del archivo solicitado a partir de la ruta base
-      Path filePath = storageLocation.resolve(fileName).normalize();
+  /**
+   * Obtiene la ruta de un archivo de la carpeta de almacenamiento, aplicando las
+   * mismas validaciones de seguridad que {@link #loadFileAResource(String)}.
+   * Se utiliza para enviar el archivo directamente desde su canal sin crear un
+   * {@link Resource}.
+   *
+   * @param fileName El nombre del archivo que se desea cargar.
+   * @return La ruta absoluta y normalizada del archivo.
+   * @throws SecurityException Si la ruta sale de la carpeta de almacenamiento o
+   *                           el archivo no es PDF.
+   * @throws RuntimeException  Si el archivo no existe en el catálogo.
+   */
+  @Override
+  public Path loadFilePath(String fileName) {
+    loadFileMetadata(fileName);
+    return fileCatalogService.getStorageLocation().resolve(fileName);
+  }
+
+  /**
+   * Obtiene los metadatos de un archivo desde el catálogo en memoria, sin
+   * acceder al sistema de archivos.
+   *
+   * @param fileName El nombre del archivo.
+   * @return Los metadatos del archivo (tamaño, fecha de modificación, hash y
+   *         ETag).
+   * @throws SecurityException Si la ruta sale de la carpeta de almacenamiento o
+   *                           el archivo no es PDF.
+   * @throws RuntimeException  Si el archivo no existe en el catálogo.
+   */
+  @Override
+  public FileMetadataDTO loadFileMetadata(String fileName) {
+    Path storageLocation = fileCatalogService.getStorageLocation();
 
-      // Validar que el archivo solicitado esté dentro de la carpeta de almacenamiento
-      // permitida
-      if (!filePath.startsWith(storageLocation)) {
-        throw new SecurityException("165, Acceso no autorizado al archivo");
-      }
+    // Resolver la ruta del archivo solicitado a partir de la ruta base
+    Path filePath = storageLocation.resolve(fileName).normalize();
 
-      // Limitar unicamente a archivos de tipo .pdf
-      if (!fileName.endsWith(".pdf")) {
-        throw new SecurityException("163, Tipo de archivo no permitido");
-      }
+    // Validar que el archivo solicitado esté dentro de la carpeta de almacenamiento
+    // permitida y directamente en ella, que es lo que indexa el catálogo
+    if (!filePath.startsWith(storageLocation) || !storageLocation.equals(filePath.getParent())) {
+      throw new SecurityException("165, Acceso no autorizado al archivo");
+    }
 
-      // Crear el recurso del archivo
-      Resource resource = new UrlResource(filePath.toUri());
+    // Limitar unicamente a archivos de tipo .pdf
+    if (!fileName.endsWith(".pdf")) {
+      throw new SecurityException("163, Tipo de archivo no permitido");
+    }
 
-      if (resource.exists() || resource.isReadable()) {
-        return resource;
-      } else {
-        throw new FileNotFoundException("164, Archivo no encontrado");
-      }
-    } catch (FileNotFoundException e) {
-      throw new RuntimeException(e.getMessage()); // Maneja la excepción
-    } catch (MalformedURLException e) {
-      throw new RuntimeException(e.getMessage());
+    FileMetadataDTO metadata = fileCatalogService.getFile(fileName);
+    if (metadata == null) {
+      throw new RuntimeException("164, Archivo no encontrado");
     }
+    return metadata;
+  }
+
+  /**
+   * Lista los archivos PDF disponibles para descarga desde el catálogo en
+   * memoria.
+   *
+   * @return La lista de metadatos de los archivos PDF.
+   */
+  @Override
+  public List<FileMetadataDTO> listFiles() {
+    return fileCatalogService.listFiles().stream()
+        .filter(file -> file.getName().endsWith(".pdf"))
+        .toList();
   }
 
 }
@@ -0,0 +1,386 @@
+package com.mvanalytic.apirest_demo_springboot.services.files;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import com.mvanalytic.apirest_demo_springboot.dto.files.FileMetadataDTO;
+import com.mvanalytic.apirest_demo_springboot.exceptions.DownloadLimitExceededException;
+import com.mvanalytic.apirest_demo_springboot.utility.RequestTrace;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Servicio que envía archivos de la carpeta de almacenamiento por bloques, sin
+ * cargarlos completos en memoria.
+ * <p>
+ * Soporta:
+ * <ul>
+ * <li>Solicitudes condicionales con {@code ETag} y {@code Last-Modified}
+ * (respuesta 304).</li>
+ * <li>Descargas parciales o reanudables con {@code Range} e {@code If-Range}
+ * (respuesta 206 o 416).</li>
+ * <li>Envío por bloques: el archivo se copia a la respuesta con
+ * {@link FileChannel#transferTo} a través de un búfer intermedio de tamaño
+ * fijo. No es un envío sin copia, pero el archivo nunca se carga completo en
+ * memoria.</li>
+ * <li>Modo opcional sendfile ('app.download.sendfile.enabled'): si el
+ * contenedor lo soporta, el archivo lo envía el sistema operativo sin
+ * copiarlo a la memoria de la aplicación.</li>
+ * <li>Selección de la variante gzip precomprimida por
+ * {@link FileCatalogService} según {@code Accept-Encoding}, con su propio
+ * ETag y {@code Vary: Accept-Encoding}.</li>
+ * <li>{@code Content-Length} en todas las respuestas, incluidas 304 y 416.</li>
+ * <li>Envío asíncrono desde un pool propio cuando no hay sendfile, para no
+ * retener los hilos de Tomcat con clientes lentos. El pool y su tiempo máximo
+ * se asignan solo a la descarga ({@link WebAsyncTask}), sin modificar el
+ * soporte asíncrono del resto de la API.</li>
+ * <li>Límite de descargas simultáneas, global y por IP, con
+ * {@link DownloadLimiter} en todos los envíos que realiza la aplicación.</li>
+ * </ul>
+ * </p>
+ * <p>
+ * El modo sendfile está deshabilitado por defecto: el contenedor envía el
+ * archivo después de terminar la solicitud y sin avisar al terminar la
+ * transferencia, por lo que esos envíos no pueden acotarse con
+ * {@link DownloadLimiter}. Solo conviene habilitarlo si los límites de
+ * descargas se aplican antes de la aplicación (por ejemplo, en el proxy).
+ * </p>
+ */
+@Service
+public class FileTransferService {
+
+  // Atributos de Tomcat para delegar el envío del archivo al sistema operativo
+  private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+  private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+  private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+  private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+  @Autowired
+  private DownloadLimiter downloadLimiter;
+
+  @Value("${app.download.async.enabled:true}")
+  private boolean asyncEnabled;
+
+  @Value("${app.download.sendfile.enabled:false}")
+  private boolean sendfileEnabled;
+
+  @Value("${app.download.async-timeout-ms:3600000}")
+  private long asyncTimeoutMs;
+
+  private final ThreadPoolTaskExecutor downloadExecutor = new ThreadPoolTaskExecutor();
+
+  /**
+   * Crea el pool de envío con tantos hilos como descargas simultáneas permite
+   * {@link DownloadLimiter}. La cola tiene la misma capacidad para que una
+   * descarga ya admitida no sea rechazada por el pool; si aun así ocurre, el
+   * lugar reservado se libera al completar la solicitud.
+   * <p>
+   * El pool no se registra como bean para no reemplazar el ejecutor de tareas
+   * que Spring Boot configura por defecto.
+   * </p>
+   */
+  @PostConstruct
+  public void init() {
+    int maxConcurrent = downloadLimiter.getMaxConcurrent();
+    downloadExecutor.setThreadNamePrefix("file-download-");
+    downloadExecutor.setCorePoolSize(maxConcurrent);
+    downloadExecutor.setMaxPoolSize(maxConcurrent);
+    downloadExecutor.setQueueCapacity(maxConcurrent);
+    downloadExecutor.setAllowCoreThreadTimeOut(true);
+    downloadExecutor.setKeepAliveSeconds(60);
+    // Conserva el identificador de correlación en los registros de la descarga
+    downloadExecutor.setTaskDecorator(RequestTrace::wrap);
+    downloadExecutor.initialize();
+  }
+
+  /**
+   * Detiene el pool de envío al cerrar el contexto.
+   */
+  @PreDestroy
+  public void shutdown() {
+    downloadExecutor.shutdown();
+  }
+
+  /**
+   * Envía un archivo como respuesta HTTP, atendiendo las cabeceras
+   * condicionales y de rango de la solicitud.
+   *
+   * @param file        Ruta del archivo validada por {@link FileService}.
+   * @param metadata    Metadatos del archivo obtenidos del catálogo en memoria.
+   * @param contentType Tipo de contenido de la respuesta.
+   * @param cacheControl Valor del encabezado {@code Cache-Control} de la
+   *                    respuesta.
+   * @param request     La solicitud HTTP.
+   * @param response    La respuesta HTTP.
+   * @return La tarea que escribe el cuerpo desde el pool de descargas, o
+   *         {@code null} si la respuesta ya quedó completa o la envía el
+   *         contenedor.
+   * @throws IOException                    Si ocurre un error al leer el archivo
+   *                                        o escribir la respuesta.
+   * @throws DownloadLimitExceededException Si no hay capacidad para una nueva
+   *                                        descarga.
+   */
+  public WebAsyncTask<Void> send(Path file, FileMetadataDTO metadata, String contentType, String cacheControl,
+      HttpServletRequest request, HttpServletResponse response) throws IOException {
+    long lastModified = metadata.getLastModified().toEpochMilli();
+    String contentDisposition = "attachment; fileName=\"" + file.getFileName() + "\" ";
+
+    // La variante gzip solo se envía completa: los rangos se atienden sobre el
+    // archivo original para que los desplazamientos sean los del PDF
+    boolean gzip = metadata.getGzipSize() != null
+        && request.getHeader(HttpHeaders.RANGE) == null
+        && acceptsGzip(request);
+    if (gzip) {
+      file = FileCatalogService.gzipVariant(file);
+    }
+    long length = gzip ? metadata.getGzipSize() : metadata.getSize();
+    String etag = gzip ? metadata.getEtag().replaceFirst("\"$", "-gz\"") : metadata.getEtag();
+
+    // Las condiciones se evalúan sin la respuesta para no escribir encabezados
+    // antes de reservar la descarga
+    boolean notModified = new ServletWebRequest(request).checkNotModified(etag, lastModified);
+
+    long start = 0;
+    long end = length - 1;
+    boolean unsatisfiable = false;
+    HttpRange range = notModified ? null : resolveRange(request, etag, lastModified);
+    if (range != null) {
+      try {
+        start = range.getRangeStart(length);
+        end = range.getRangeEnd(length);
+      } catch (IllegalArgumentException e) {
+        // El rango no se puede satisfacer con el tamaño actual del archivo
+        unsatisfiable = true;
+      }
+    }
+    long count = end - start + 1;
+
+    boolean head = "HEAD".equals(request.getMethod());
+    boolean sendfile = sendfileEnabled && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT));
+    boolean limited = !notModified && !unsatisfiable && !head && count > 0 && !sendfile;
+    String client = request.getRemoteAddr();
+    if (limited) {
+      // Se reserva antes de escribir cualquier encabezado: el 503 del manejador
+      // de excepciones no hereda el Content-Disposition ni el Cache-Control del
+      // archivo
+      downloadLimiter.acquire(client);
+    }
+
+    response.setHeader(HttpHeaders.CONTENT_DISPOSITION, contentDisposition);
+    response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+    // La representación depende de Accept-Encoding, incluso en las respuestas 304
+    response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+    // Responde 304 (o 412) y agrega ETag y Last-Modified según la solicitud
+    if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+      response.setContentLength(0);
+      return null;
+    }
+    if (unsatisfiable) {
+      response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+      response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+      response.setContentLength(0);
+      return null;
+    }
+
+    if (gzip) {
+      response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+    }
+    response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+    response.setContentType(contentType);
+    if (range != null) {
+      response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+      response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+    }
+    response.setContentLengthLong(count);
+
+    if (head || count == 0) {
+      return null;
+    }
+
+    if (sendfile) {
+      // El contenedor envía el archivo con sendfile al terminar la solicitud,
+      // sin ocupar un hilo de Tomcat durante la transferencia
+      request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+      request.setAttribute(SENDFILE_START, start);
+      request.setAttribute(SENDFILE_END, end + 1);
+      return null;
+    }
+
+    if (asyncEnabled) {
+      return transferAsync(file, start, count, response, client);
+    }
+    try {
+      transfer(file, start, count, response.getOutputStream());
+    } finally {
+      downloadLimiter.release(client);
+    }
+    return null;
+  }
+
+  /**
+   * Crea la tarea que envía el archivo desde el pool de descargas, con el
+   * tiempo máximo de las descargas, y libera el hilo de Tomcat.
+   * <p>
+   * El lugar reservado en {@link DownloadLimiter} se libera una sola vez: al
+   * terminar la transferencia o, si la tarea nunca comenzó porque el pool la
+   * rechazó o la solicitud expiró en la cola, al completar la solicitud.
+   * </p>
+   *
+   * @param file     La ruta del archivo.
+   * @param position Posición inicial en el archivo.
+   * @param count    Cantidad de bytes a enviar.
+   * @param response La respuesta HTTP.
+   * @param client   La dirección IP del cliente.
+   * @return La tarea asíncrona de la descarga.
+   */
+  private WebAsyncTask<Void> transferAsync(Path file, long position, long count,
+      HttpServletResponse response, String client) {
+    AtomicBoolean started = new AtomicBoolean();
+    WebAsyncTask<Void> task = new WebAsyncTask<>(asyncTimeoutMs, downloadExecutor, () -> {
+      if (!started.compareAndSet(false, true)) {
+        return null;
+      }
+      try {
+        transfer(file, position, count, response.getOutputStream());
+      } finally {
+        downloadLimiter.release(client);
+      }
+      return null;
+    });
+    task.onCompletion(() -> {
+      if (started.compareAndSet(false, true)) {
+        downloadLimiter.release(client);
+      }
+    });
+    return task;
+  }
+
+  /**
+   * Copia una porción del archivo al flujo de salida con
+   * {@link FileChannel#transferTo}. El destino no es un canal de socket, por lo
+   * que el JDK copia el contenido a través de un búfer intermedio de tamaño
+   * fijo: el archivo nunca se carga completo en memoria, pero no es un envío
+   * sin copia como sendfile.
+   *
+   * @param file     La ruta del archivo.
+   * @param position Posición inicial en el archivo.
+   * @param count    Cantidad de bytes a copiar.
+   * @param out      El flujo de salida de la respuesta.
+   * @throws IOException Si ocurre un error al leer el archivo o escribir la
+   *                     respuesta.
+   */
+  private void transfer(Path file, long position, long count, OutputStream out) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      WritableByteChannel target = Channels.newChannel(out);
+      long remaining = count;
+      while (remaining > 0) {
+        long sent = channel.transferTo(position, remaining, target);
+        if (sent <= 0) {
+          break;
+        }
+        position += sent;
+        remaining -= sent;
+      }
+    }
+  }
+
+  /**
+   * Indica si el cliente acepta la codificación gzip. Se respeta un valor
+   * {@code q=0}, que la excluye de forma explícita.
+   *
+   * @param request La solicitud HTTP.
+   * @return {@code true} si puede enviarse la variante gzip.
+   */
+  private boolean acceptsGzip(HttpServletRequest request) {
+    String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+    if (acceptEncoding == null) {
+      return false;
+    }
+    for (String coding : acceptEncoding.split(",")) {
+      String[] parts = coding.trim().split(";");
+      String name = parts[0].trim();
+      if (!"gzip".equalsIgnoreCase(name) && !"*".equals(name)) {
+        continue;
+      }
+      for (int i = 1; i < parts.length; i++) {
+        String param = parts[i].trim();
+        if (param.startsWith("q=")) {
+          try {
+            return Double.parseDouble(param.substring(2)) > 0;
+          } catch (NumberFormatException e) {
+            return false;
+          }
+        }
+      }
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Obtiene el rango solicitado, si debe atenderse. Se ignora el encabezado
+   * {@code Range} cuando es inválido, cuando pide varios rangos o cuando
+   * {@code If-Range} no coincide con la versión actual del archivo; en esos
+   * casos se envía el archivo completo.
+   *
+   * @param request      La solicitud HTTP.
+   * @param etag         ETag actual del archivo.
+   * @param lastModified Fecha de modificación actual del archivo en milisegundos.
+   * @return El rango a enviar o {@code null} para enviar el archivo completo.
+   */
+  private HttpRange resolveRange(HttpServletRequest request, String etag, long lastModified) {
+    String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+    if (rangeHeader == null || !matchesIfRange(request, etag, lastModified)) {
+      return null;
+    }
+    try {
+      List<HttpRange> ranges = HttpRange.parseRanges(rangeHeader);
+      return ranges.size() == 1 ? ranges.get(0) : null;
+    } catch (IllegalArgumentException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Evalúa el encabezado {@code If-Range}, que puede contener un ETag fuerte o
+   * una fecha HTTP.
+   *
+   * @param request      La solicitud HTTP.
+   * @param etag         ETag actual del archivo.
+   * @param lastModified Fecha de modificación actual del archivo en milisegundos.
+   * @return {@code true} si no hay {@code If-Range} o si coincide con el archivo.
+   */
+  private boolean matchesIfRange(HttpServletRequest request, String etag, long lastModified) {
+    String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+    if (ifRange == null) {
+      return true;
+    }
+    if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+      return ifRange.equals(etag);
+    }
+    try {
+      return request.getDateHeader(HttpHeaders.IF_RANGE) / 1000 == lastModified / 1000;
+    } catch (IllegalArgumentException e) {
+      return false;
+    }
+  }
+
+}
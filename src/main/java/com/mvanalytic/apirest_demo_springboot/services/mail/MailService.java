@@ -18,6 +18,7 @@ import com.mvanalytic.apirest_demo_springboot.domain.user.User;
 import com.mvanalytic.apirest_demo_springboot.domain.user.UserKey;
 import com.mvanalytic.apirest_demo_springboot.dto.user.UserProfileResponseDTO;
 import com.mvanalytic.apirest_demo_springboot.utility.AppUtility;
+import com.mvanalytic.apirest_demo_springboot.utility.RequestTrace;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 import java.time.Instant;
@@ -99,7 +100,7 @@ public class MailService {
       // context.setVariable("user", user); // Pasamos el userKey completo
 
       // Procesar la plantilla HTML usando Thymeleaf
-      String htmlContent = templateEngine.process("activationAccount", context);
+      String htmlContent = render("activationAccount", context);
 
       // Crear MimeMessage
       MimeMessage mimeMessage = javaMailSender.createMimeMessage();
@@ -171,7 +172,7 @@ public class MailService {
       String template = isNew ? "activationAccountCreateUser" : "activationAccountResend";
 
       // Procesar la plantilla
-      String htmlContent = templateEngine.process(template, context);
+      String htmlContent = render(template, context);
 
       // Crear el mensaje de correo HTML
       MimeMessage mimeMessage = javaMailSender.createMimeMessage();
@@ -238,7 +239,7 @@ public class MailService {
       String template = "changePasswordByReset";
 
       // Procesar la plantilla
-      String htmlContent = templateEngine.process(template, context);
+      String htmlContent = render(template, context);
 
       // Crear el mensaje de correo HTML
       MimeMessage mimeMessage = javaMailSender.createMimeMessage();
@@ -364,7 +365,7 @@ public class MailService {
       String template = "activationReportToAdmin";
 
       // Procesar la plantilla
-      String htmlContent = templateEngine.process(template, context);
+      String htmlContent = render(template, context);
 
       // Crear el mensaje de correo HTML
       MimeMessage mimeMessage = javaMailSender.createMimeMessage();
@@ -436,7 +437,7 @@ public class MailService {
       String template = "failedLoginAttemptNotification";
 
       // Procesar la plantilla
-      String htmlContent = templateEngine.process(template, context);
+      String htmlContent = render(template, context);
 
       // Crear el mensaje de correo HTML
       MimeMessage mimeMessage = javaMailSender.createMimeMessage();
@@ -513,7 +514,7 @@ public class MailService {
       String template = "successfulAttempt";
 
       // Procesar la plantilla
-      String htmlContent = templateEngine.process(template, context);
+      String htmlContent = render(template, context);
 
       // Crear el mensaje de correo HTML
       MimeMessage mimeMessage = javaMailSender.createMimeMessage();
@@ -542,4 +543,18 @@ public class MailService {
     }
   }
 
+  /**
+   * Procesa una plantilla de Thymeleaf registrando su duración en la traza de la
+   * solicitud.
+   *
+   * @param template Nombre de la plantilla.
+   * @param context  Variables de la plantilla.
+   * @return El contenido HTML generado.
+   */
+  private String render(String template, Context context) {
+    try (RequestTrace.Span span = RequestTrace.span("template", template)) {
+      return templateEngine.process(template, context);
+    }
+  }
+
 }
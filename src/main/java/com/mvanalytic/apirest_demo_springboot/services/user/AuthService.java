@@ -18,11 +18,17 @@ import com.mvanalytic.apirest_demo_springboot.domain.user.RefreshToken;
 import com.mvanalytic.apirest_demo_springboot.domain.user.User;
 import com.mvanalytic.apirest_demo_springboot.domain.user.UserLoginActivity;
 import com.mvanalytic.apirest_demo_springboot.dto.user.JwtResponseDTO;
+import com.mvanalytic.apirest_demo_springboot.mapper.user.FailedLoginAttemptMapper;
+import com.mvanalytic.apirest_demo_springboot.mapper.user.UserLoginActivityMapper;
 import com.mvanalytic.apirest_demo_springboot.mapper.user.UserMapper;
 import com.mvanalytic.apirest_demo_springboot.services.mail.MailService;
 import com.mvanalytic.apirest_demo_springboot.utility.AppUtility;
 import com.mvanalytic.apirest_demo_springboot.utility.JwtUtils;
+import com.mvanalytic.apirest_demo_springboot.utility.RequestTrace;
 import jakarta.servlet.http.HttpServletRequest;
+import com.mvanalytic.apirest_demo_springboot.exceptions.AccountDisabledException;
+import com.mvanalytic.apirest_demo_springboot.exceptions.IdentifierNotFoundException;
+import com.mvanalytic.apirest_demo_springboot.exceptions.InvalidCredentialsException;
 
 /**
  * Servicio para gestionar la autenticación de usuarios.
@@ -52,6 +58,9 @@ public class AuthService {
   @Autowired
   private MailService mailService;
 
+  @Autowired
+  private LoginActivityStreamService loginActivityStreamService;
+
   @Autowired
   private AppUtility appUtility;
 
@@ -134,6 +143,9 @@ public class AuthService {
           userLoginActivity.getSessionTime(),
           userLoginActivity.getSessionStatus());
 
+      // Difusión a los administradores suscritos al flujo de sesiones
+      publishLoginActivity(userLoginActivity);
+
       // notificación por correo de inicio de sesion
       sendMail(user, userLoginActivity.getIpAddress(), userLoginActivity.getUserAgent(),
           userLoginActivity.getSessionTime(), userLoginActivity.getSessionStatus());
@@ -143,30 +155,30 @@ public class AuthService {
     } catch (UsernameNotFoundException e) {
       // Registro del intento fallido por credenciales incorrectas
       failAuth(identifier, request);
-      throw new UsernameNotFoundException("111, El identificador no existe");
+      throw new IdentifierNotFoundException("111, El identificador no existe");
     } catch (BadCredentialsException e) {
       // Registro del intento fallido por credenciales incorrectas
       failAuth(identifier, request);
       // Maneja el caso cuando el password es incorrecto
-      throw new BadCredentialsException("108, La contraseña no coincide con la registrada");
+      throw new InvalidCredentialsException("108, La contraseña no coincide con la registrada");
     } catch (CredentialsExpiredException e) {
       // Registro del intento fallido por credenciales incorrectas
       failAuth(identifier, request);
       // Maneja el caso cuando las credenciales han expirado
-      appUtility.sendLog("112, Las credenciales han expirado", e.getMessage());
+      appUtility.sendLog(AuthService.class, "112, Las credenciales han expirado", e.getMessage());
       throw new CredentialsExpiredException("112, Las credenciales han expirado");
 
     } catch (DisabledException e) {
       // Registro del intento fallido por credenciales incorrectas
       failAuth(identifier, request);
       // Maneja el caso cuando la cuenta está deshabilitada
-      appUtility.sendLog("110, Cuenta deshabilitada", e.getMessage());
-      throw new DisabledException("110, Cuenta deshabilitada");
+      appUtility.sendLog(AuthService.class, "110, Cuenta deshabilitada", e.getMessage());
+      throw new AccountDisabledException("110, Cuenta deshabilitada");
     } catch (Exception e) {
       // Registro del intento fallido por credenciales incorrectas
       failAuth(identifier, request);
       // Manejo de cualquier otra excepción de autenticación
-      appUtility.sendLog("155, Error en tiempo de ejecución ", e.getMessage());
+      appUtility.sendLog(AuthService.class, "155, Error en tiempo de ejecución ", e.getMessage());
       throw new RuntimeException("155, Error en tiempo de ejecución " + e.getMessage());
     }
 
@@ -187,14 +199,13 @@ public class AuthService {
    */
   public User getUserByIdentifier(String identifier) {
     // Buscar el usuario por nickname o email
-    User user = new User();
-    if (identifier.contains("@")) {
-      // Verifica si es un email
-      user = userService.getUserByEmail(identifier);
-    } else {
-      user = userService.getUserByNickName(identifier);
+    try (RequestTrace.Span span = RequestTrace.span("user")) {
+      if (identifier.contains("@")) {
+        // Verifica si es un email
+        return userService.getUserByEmail(identifier);
+      }
+      return userService.getUserByNickName(identifier);
     }
-    return user;
   }
 
   /**
@@ -261,10 +272,12 @@ public class AuthService {
       String nickname = identifier.contains("@") ? null : identifier;
       FailedLoginAttempt failedLoginAttempt = createFailedLoginAttempt(email, nickname, request);
       fLoginAttemptService.saveFailedAttempt(failedLoginAttempt);
+      publishFailedLoginAttempt(failedLoginAttempt);
       // logFailedAttempt(email, nickname, request);
     } else {
       UserLoginActivity userLoginActivity = createUserLoginActivity(user, request, "FAILURE");
       saveLoginActivity(userLoginActivity);
+      publishLoginActivity(userLoginActivity);
       sendMail(
           user, userLoginActivity.getIpAddress(),
           userLoginActivity.getUserAgent(), userLoginActivity.getSessionTime(),
@@ -336,7 +349,7 @@ public class AuthService {
       session.setIdSession(UUID.randomUUID().toString());
       return session;
     } catch (Exception e) {
-      appUtility.sendLog("Error al crear el UserLoginActivity {}", e.getMessage());
+      appUtility.sendLog(AuthService.class, "Error al crear el UserLoginActivity {}", e.getMessage());
       throw new RuntimeException("227, Error al crear el UserLoginActivity");
     }
   }
@@ -355,4 +368,35 @@ public class AuthService {
     uLoginActivityService.saveLoginActivity(userLoginActivity);
   }
 
+  /**
+   * Publica la actividad de inicio de sesión en el flujo en tiempo real de los
+   * administradores. Un error en la difusión no debe afectar el inicio de
+   * sesión, por lo que solo se registra en el log.
+   *
+   * @param userLoginActivity La actividad de inicio de sesión registrada.
+   */
+  private void publishLoginActivity(UserLoginActivity userLoginActivity) {
+    try {
+      loginActivityStreamService.publish(
+          UserLoginActivityMapper.convertUserLoginActivityToUserLoginActivityResponseDTO(userLoginActivity));
+    } catch (Exception e) {
+      appUtility.sendLog(AuthService.class, "Error al publicar el UserLoginActivity", e.getMessage());
+    }
+  }
+
+  /**
+   * Publica el intento fallido de inicio de sesión en el flujo en tiempo real de
+   * los administradores, sin afectar el flujo de autenticación si falla.
+   *
+   * @param failedLoginAttempt El intento fallido registrado.
+   */
+  private void publishFailedLoginAttempt(FailedLoginAttempt failedLoginAttempt) {
+    try {
+      loginActivityStreamService.publish(
+          FailedLoginAttemptMapper.convertFailedLoginAttemptToFailedLoginAttemptResponseDTO(failedLoginAttempt));
+    } catch (Exception e) {
+      appUtility.sendLog(AuthService.class, "Error al publicar el FailedLoginAttempt", e.getMessage());
+    }
+  }
+
 }
@@ -0,0 +1,181 @@
+package com.mvanalytic.apirest_demo_springboot.services.user;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import com.mvanalytic.apirest_demo_springboot.dto.user.BulkDeleteJobResponseDTO;
+import com.mvanalytic.apirest_demo_springboot.utility.RequestTrace;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.IntUnaryOperator;
+import java.util.function.LongConsumer;
+
+/**
+ * Servicio que ejecuta eliminaciones masivas por lotes {@code DELETE TOP (n)}
+ * y, opcionalmente, en segundo plano como procesos consultables por su
+ * identificador.
+ * <p>
+ * Los procesos se ejecutan en un único hilo dedicado para que una depuración
+ * grande no compita con otra por los bloqueos de las tablas de auditoría ni
+ * por las conexiones del pool utilizadas por los inicios de sesión.
+ * </p>
+ */
+@Service
+public class BulkDeleteJobService {
+
+  /**
+   * Consumidor de progreso de las eliminaciones síncronas, que solo devuelven
+   * el total.
+   */
+  public static final LongConsumer NO_PROGRESS = deleted -> {
+  };
+
+  // Tiempo que se conservan los procesos terminados para poder consultarlos
+  private static final Duration FINISHED_JOB_RETENTION = Duration.ofHours(24);
+
+  @Value("${app.bulk.delete.batch.size:4000}")
+  private int batchSize;
+
+  private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+  private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+    Thread thread = new Thread(r, "bulk-delete");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  /**
+   * Ejecuta una eliminación por lotes hasta que un lote elimine menos filas que
+   * el tamaño configurado. Cada lote se confirma en su propia transacción, por
+   * lo que una eliminación interrumpida conserva el avance realizado.
+   *
+   * @param deleteChunk Función que recibe el tamaño del lote, elimina como
+   *                    máximo esa cantidad de filas y devuelve las eliminadas.
+   * @param progress    Recibe el número de filas eliminadas en cada lote.
+   * @return El número total de filas eliminadas.
+   */
+  public long deleteInChunks(IntUnaryOperator deleteChunk, LongConsumer progress) {
+    long total = 0;
+    int deleted;
+    do {
+      deleted = deleteChunk.applyAsInt(batchSize);
+      total += deleted;
+      progress.accept(deleted);
+    } while (deleted >= batchSize);
+    return total;
+  }
+
+  /**
+   * Registra un proceso de eliminación y lo ejecuta en segundo plano. El
+   * proceso queda en 'PENDING' hasta que el hilo de eliminación lo inicia, ya
+   * que puede esperar a que termine el anterior.
+   *
+   * @param description Descripción legible de la eliminación solicitada.
+   * @param task        Tarea que realiza la eliminación; recibe el consumidor
+   *                    de progreso y devuelve el total de filas eliminadas.
+   * @return El estado inicial del proceso, incluido su identificador.
+   */
+  public BulkDeleteJobResponseDTO submit(String description, Function<LongConsumer, Long> task) {
+    purgeFinishedJobs();
+
+    Job job = new Job(UUID.randomUUID().toString(), description);
+    jobs.put(job.jobId, job);
+
+    executor.execute(RequestTrace.wrap(() -> {
+      job.status = "RUNNING";
+      job.startTime = Instant.now();
+      try {
+        task.apply(job::addChunk);
+        job.status = "COMPLETED";
+      } catch (Exception e) {
+        job.errorMessage = e.getMessage();
+        job.status = "FAILED";
+      } finally {
+        job.endTime = Instant.now();
+      }
+    }));
+
+    return job.toDTO();
+  }
+
+  /**
+   * Obtiene el estado actual de un proceso de eliminación.
+   *
+   * @param jobId El identificador del proceso.
+   * @return El estado del proceso con el avance realizado.
+   * @throws IllegalArgumentException Si el proceso no existe o ya fue depurado.
+   */
+  public BulkDeleteJobResponseDTO getJob(String jobId) {
+    Job job = jobs.get(jobId);
+    if (job == null) {
+      throw new IllegalArgumentException("228, El proceso de eliminación no existe");
+    }
+    return job.toDTO();
+  }
+
+  /**
+   * Detiene el hilo de eliminación al cerrar el contexto de la aplicación.
+   */
+  @PreDestroy
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  /**
+   * Elimina de memoria los procesos que terminaron hace más del tiempo de
+   * retención.
+   */
+  private void purgeFinishedJobs() {
+    Instant limit = Instant.now().minus(FINISHED_JOB_RETENTION);
+    jobs.values().removeIf(job -> job.endTime != null && job.endTime.isBefore(limit));
+  }
+
+  /**
+   * Estado mutable de un proceso, actualizado por el hilo de eliminación y
+   * leído por las consultas de los administradores.
+   */
+  private static final class Job {
+    private final String jobId;
+    private final String description;
+    private final Instant submitTime = Instant.now();
+    private volatile Instant startTime;
+    private final AtomicLong deletedRows = new AtomicLong();
+    private final AtomicInteger chunks = new AtomicInteger();
+    private volatile String status = "PENDING";
+    private volatile Instant endTime;
+    private volatile String errorMessage;
+
+    private Job(String jobId, String description) {
+      this.jobId = jobId;
+      this.description = description;
+    }
+
+    private void addChunk(long deleted) {
+      deletedRows.addAndGet(deleted);
+      chunks.incrementAndGet();
+    }
+
+    private BulkDeleteJobResponseDTO toDTO() {
+      BulkDeleteJobResponseDTO dto = new BulkDeleteJobResponseDTO();
+      dto.setJobId(jobId);
+      dto.setDescription(description);
+      dto.setStatus(status);
+      dto.setDeletedRows(deletedRows.get());
+      dto.setChunks(chunks.get());
+      dto.setSubmitTime(submitTime);
+      dto.setStartTime(startTime);
+      dto.setEndTime(endTime);
+      dto.setErrorMessage(errorMessage);
+      return dto;
+    }
+  }
+
+}
@@ -0,0 +1,688 @@
+package com.mvanalytic.apirest_demo_springboot.services.user;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.mvanalytic.apirest_demo_springboot.domain.user.User;
+import com.mvanalytic.apirest_demo_springboot.domain.user.UserKey;
+import com.mvanalytic.apirest_demo_springboot.dto.user.BulkUserRegistrationJobResponseDTO;
+import com.mvanalytic.apirest_demo_springboot.dto.user.BulkUserRegistrationResponseDTO;
+import com.mvanalytic.apirest_demo_springboot.dto.user.BulkUserRegistrationRowDTO;
+import com.mvanalytic.apirest_demo_springboot.dto.user.UserRegistrationByAdminRequestDTO;
+import com.mvanalytic.apirest_demo_springboot.exceptions.BusinessException;
+import com.mvanalytic.apirest_demo_springboot.mapper.user.UserMapper;
+import com.mvanalytic.apirest_demo_springboot.repositories.procedure.CustomerProcedures;
+import com.mvanalytic.apirest_demo_springboot.repositories.procedure.StoredProcedureExecutor;
+import com.mvanalytic.apirest_demo_springboot.services.mail.MailService;
+import com.mvanalytic.apirest_demo_springboot.utility.AppUtility;
+import com.mvanalytic.apirest_demo_springboot.utility.EventLogger;
+import com.mvanalytic.apirest_demo_springboot.utility.RandomKeyGenerator;
+import com.mvanalytic.apirest_demo_springboot.utility.RequestTrace;
+import com.mvanalytic.apirest_demo_springboot.utility.UserValidationError;
+import com.mvanalytic.apirest_demo_springboot.utility.UserValidationService;
+import jakarta.annotation.PreDestroy;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Servicio que registra usuarios de forma masiva a partir de un archivo CSV o
+ * NDJSON enviado por el administrador.
+ * <p>
+ * El registro se ejecuta en segundo plano como un proceso consultable por su
+ * identificador: la solicitud solo copia el cuerpo a un archivo temporal y
+ * devuelve el proceso, sin retener el hilo de la solicitud mientras se cifran
+ * hasta {@code app.bulk.register.max-rows} contraseñas.
+ * </p>
+ * <p>
+ * El archivo se lee en streaming y se procesa por lotes:
+ * - cada fila se valida con {@link UserValidationService} y, si es válida, se
+ * genera su contraseña temporal y su hash BCrypt en un pool propio, en
+ * paralelo;
+ * - los correos y nicknames repetidos dentro del archivo se rechazan; solo
+ * cuentan los de las filas registradas, por lo que las filas de un lote
+ * revertido pueden repetirse más adelante en el archivo;
+ * - el lote se inserta con una sola llamada a sp_create_users_and_keys, que
+ * recibe las filas en JSON y rechaza los correos y nicknames existentes;
+ * - los correos de activación se encolan en un pool de envío propio y se
+ * envían después de confirmar el lote, sin retener la conexión. La cola es
+ * acotada porque cada tarea guarda la contraseña temporal en claro: si se
+ * llena, el hilo del registro envía el correo y el registro avanza al ritmo
+ * del envío.
+ * </p>
+ * Solo se ejecuta un registro masivo a la vez para no competir con los
+ * inicios de sesión por la CPU del cifrado ni por las conexiones del pool.
+ */
+@Service
+public class BulkUserRegistrationService {
+
+  /**
+   * Formatos aceptados por el registro masivo.
+   */
+  public enum Format {
+    CSV, NDJSON;
+
+    /**
+     * Obtiene el formato a partir del tipo de contenido de la solicitud.
+     *
+     * @param contentType El tipo de contenido recibido.
+     * @return El formato correspondiente.
+     * @throws BusinessException Si el tipo de contenido no es text/csv ni
+     *                           application/x-ndjson.
+     */
+    public static Format of(MediaType contentType) {
+      if (TEXT_CSV.isCompatibleWith(contentType)) {
+        return CSV;
+      }
+      if (MediaType.APPLICATION_NDJSON.isCompatibleWith(contentType)) {
+        return NDJSON;
+      }
+      throw new BusinessException("246, El registro masivo debe enviarse como text/csv o application/x-ndjson",
+          HttpStatus.UNSUPPORTED_MEDIA_TYPE);
+    }
+  }
+
+  public static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
+  // Tiempo que se conservan los procesos terminados para poder consultarlos
+  private static final Duration FINISHED_JOB_RETENTION = Duration.ofHours(24);
+
+  private static final String REGISTERED = "REGISTERED";
+  private static final String REJECTED = "REJECTED";
+
+  // Columnas obligatorias del encabezado CSV
+  private static final List<String> REQUIRED_COLUMNS = List.of("firstname", "lastname", "email", "nickname");
+
+  @Value("${app.bulk.register.batch.size:500}")
+  private int batchSize;
+
+  @Value("${app.bulk.register.max-rows:50000}")
+  private int maxRows;
+
+  @Autowired
+  private UserValidationService userValidationService;
+
+  @Autowired
+  private PasswordEncoder passwordEncoder;
+
+  @Autowired
+  private AppUtility appUtility;
+
+  @Autowired
+  private MailService mailService;
+
+  @Autowired
+  private StoredProcedureExecutor procedureExecutor;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Autowired
+  private EventLogger eventLogger;
+
+  private final Semaphore running = new Semaphore(1);
+
+  private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+  private final ExecutorService jobExecutor = Executors.newSingleThreadExecutor(daemon("bulk-register-"));
+
+  private final ExecutorService hashExecutor;
+
+  private final ExecutorService mailExecutor;
+
+  /**
+   * Crea los pools de cifrado y de envío de correos.
+   *
+   * @param hashThreads Hilos de cifrado; 0 utiliza la mitad de los procesadores
+   *                    para dejar CPU a los inicios de sesión.
+   * @param mailThreads Hilos de envío de los correos de activación.
+   * @param mailQueueCapacity Correos pendientes de envío; con la cola llena el
+   *                    hilo del registro envía el correo.
+   */
+  public BulkUserRegistrationService(
+      @Value("${app.bulk.register.hash-threads:0}") int hashThreads,
+      @Value("${app.bulk.register.mail-threads:2}") int mailThreads,
+      @Value("${app.bulk.register.mail-queue-capacity:1000}") int mailQueueCapacity) {
+    int threads = hashThreads > 0 ? hashThreads
+        : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    this.hashExecutor = Executors.newFixedThreadPool(threads, daemon("bulk-register-hash-"));
+    int senders = Math.max(1, mailThreads);
+    this.mailExecutor = new ThreadPoolExecutor(senders, senders, 0, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(Math.max(1, mailQueueCapacity)), daemon("bulk-register-mail-"),
+        new ThreadPoolExecutor.CallerRunsPolicy());
+  }
+
+  /**
+   * Copia el archivo recibido a un archivo temporal y registra sus usuarios en
+   * segundo plano.
+   *
+   * @param body    El contenido del archivo.
+   * @param charset El juego de caracteres del archivo.
+   * @param format  El formato del archivo.
+   * @return El estado inicial del proceso, incluido su identificador.
+   * @throws BusinessException Si ya hay un registro masivo en curso.
+   * @throws IOException       Si falla la lectura de la solicitud.
+   */
+  public BulkUserRegistrationJobResponseDTO submit(InputStream body, Charset charset, Format format)
+      throws IOException {
+    if (!running.tryAcquire()) {
+      throw new BusinessException("245, Ya hay un registro masivo de usuarios en curso", HttpStatus.CONFLICT);
+    }
+    Job job = new Job(UUID.randomUUID().toString());
+    Path file = null;
+    try {
+      file = Files.createTempFile("bulk-register-", "." + format.name().toLowerCase(Locale.ROOT));
+      Files.copy(body, file, StandardCopyOption.REPLACE_EXISTING);
+
+      purgeFinishedJobs();
+      jobs.put(job.jobId, job);
+      Path upload = file;
+      jobExecutor.execute(RequestTrace.wrap(() -> run(job, upload, charset, format)));
+      return job.toDTO();
+    } catch (IOException | RuntimeException e) {
+      jobs.remove(job.jobId);
+      if (file != null) {
+        Files.deleteIfExists(file);
+      }
+      running.release();
+      throw e;
+    }
+  }
+
+  /**
+   * Obtiene el estado actual de un proceso de registro masivo.
+   *
+   * @param jobId El identificador del proceso.
+   * @return El estado del proceso; incluye el informe cuando terminó.
+   * @throws BusinessException Si el proceso no existe o ya fue depurado.
+   */
+  public BulkUserRegistrationJobResponseDTO getJob(String jobId) {
+    Job job = jobs.get(jobId);
+    if (job == null) {
+      throw new BusinessException("254, El proceso de registro masivo no existe", HttpStatus.NOT_FOUND);
+    }
+    return job.toDTO();
+  }
+
+  /**
+   * Ejecuta un proceso en el hilo de registro, elimina su archivo temporal y
+   * libera el registro masivo en curso antes de publicar el resultado, para
+   * que un administrador que ve el proceso terminado pueda iniciar otro.
+   */
+  private void run(Job job, Path file, Charset charset, Format format) {
+    job.status = "RUNNING";
+    BulkUserRegistrationResponseDTO report = null;
+    String errorMessage = null;
+    try (BufferedReader reader = Files.newBufferedReader(file, charset)) {
+      report = register(reader, format, job.processedRows);
+    } catch (Exception e) {
+      errorMessage = e.getMessage();
+      eventLogger.error(BulkUserRegistrationService.class, "255", "Error en el registro masivo de usuarios: {}", "detail", e.getMessage());
+    } finally {
+      try {
+        Files.deleteIfExists(file);
+      } catch (IOException e) {
+        eventLogger.warn(BulkUserRegistrationService.class, "255", "No se pudo eliminar el archivo temporal del registro masivo {}: {}",
+            "file", file, "detail", e.getMessage());
+      }
+      running.release();
+    }
+    job.report = report;
+    job.errorMessage = errorMessage;
+    job.endTime = Instant.now();
+    job.status = report != null ? "COMPLETED" : "FAILED";
+  }
+
+  /**
+   * Registra los usuarios del archivo recibido.
+   *
+   * @param reader        El contenido del archivo.
+   * @param format        El formato del archivo.
+   * @param processedRows Recibe el número de filas procesadas.
+   * @return El informe con el resultado de cada fila.
+   * @throws BusinessException Si el encabezado CSV no contiene las columnas
+   *                           obligatorias.
+   * @throws IOException       Si falla la lectura del archivo.
+   */
+  private BulkUserRegistrationResponseDTO register(BufferedReader reader, Format format, AtomicInteger processedRows)
+      throws IOException {
+    BulkUserRegistrationResponseDTO report = new BulkUserRegistrationResponseDTO();
+    report.setStartTime(Instant.now());
+
+    Set<String> emails = new HashSet<>();
+    Set<String> nicknames = new HashSet<>();
+    List<Row> batch = new ArrayList<>(batchSize);
+    Map<String, Integer> header = null;
+    int lineNumber = 0;
+    String line;
+
+    while ((line = reader.readLine()) != null) {
+      lineNumber++;
+      // Marca de orden de bytes que agregan algunas hojas de cálculo al exportar
+      if (lineNumber == 1 && line.startsWith("\uFEFF")) {
+        line = line.substring(1);
+      }
+      if (line.isBlank()) {
+        continue;
+      }
+      if (format == Format.CSV && header == null) {
+        header = parseHeader(line);
+        continue;
+      }
+      if (report.getTotalRows() >= maxRows) {
+        report.setErrorMessage("248, El registro masivo excede el máximo de " + maxRows
+            + " filas; las filas desde la línea " + lineNumber + " no se procesaron");
+        break;
+      }
+      report.setTotalRows(report.getTotalRows() + 1);
+      batch.add(format == Format.CSV ? csvRow(lineNumber, line, header) : ndjsonRow(lineNumber, line));
+
+      if (batch.size() >= batchSize) {
+        processBatch(batch, emails, nicknames, report);
+        processedRows.addAndGet(batch.size());
+        batch.clear();
+      }
+    }
+    if (!batch.isEmpty()) {
+      processBatch(batch, emails, nicknames, report);
+      processedRows.addAndGet(batch.size());
+    }
+
+    report.setEndTime(Instant.now());
+    eventLogger.info(BulkUserRegistrationService.class, "252", "Registro masivo completado: {} filas, {} registrados, {} rechazados en {} lotes",
+        "totalRows", report.getTotalRows(), "registered", report.getRegistered(),
+        "rejected", report.getRejected(), "batches", report.getBatches());
+    return report;
+  }
+
+  /**
+   * Detiene los pools al cerrar el contexto. El registro en curso se
+   * interrumpe y los correos pendientes se descartan; las cuentas quedan registradas y el administrador puede reenviar
+   * la activación.
+   */
+  @PreDestroy
+  public void shutdown() {
+    jobExecutor.shutdownNow();
+    hashExecutor.shutdownNow();
+    mailExecutor.shutdownNow();
+  }
+
+  /**
+   * Elimina de memoria los procesos que terminaron hace más del tiempo de
+   * retención.
+   */
+  private void purgeFinishedJobs() {
+    Instant limit = Instant.now().minus(FINISHED_JOB_RETENTION);
+    jobs.values().removeIf(job -> job.endTime != null && job.endTime.isBefore(limit));
+  }
+
+  /**
+   * Valida, cifra e inserta un lote y agrega su resultado al informe. Los
+   * correos y nicknames del lote se agregan a los registrados solo después de
+   * confirmarlo.
+   *
+   * @param batch     Las filas del lote.
+   * @param emails    Los correos registrados en los lotes anteriores.
+   * @param nicknames Los nicknames registrados en los lotes anteriores.
+   * @param report    El informe del registro.
+   */
+  private void processBatch(List<Row> batch, Set<String> emails, Set<String> nicknames,
+      BulkUserRegistrationResponseDTO report) {
+    Instant createdAt = Instant.now();
+
+    // Validación, contraseña temporal y hash en paralelo
+    CompletableFuture<?>[] prepared = batch.stream()
+        .filter(row -> row.errorMessage == null)
+        .map(row -> CompletableFuture.runAsync(() -> prepare(row, createdAt), hashExecutor))
+        .toArray(CompletableFuture[]::new);
+    CompletableFuture.allOf(prepared).join();
+
+    // Correos y nicknames repetidos dentro del archivo, en el orden de las filas
+    Set<String> batchEmails = new HashSet<>();
+    Set<String> batchNicknames = new HashSet<>();
+    Map<Integer, Row> pending = new HashMap<>();
+    ArrayNode users = objectMapper.createArrayNode();
+    for (Row row : batch) {
+      if (row.errorMessage != null) {
+        continue;
+      }
+      String email = row.user.getEmail().toLowerCase(Locale.ROOT);
+      String nickname = row.user.getNickname().toLowerCase(Locale.ROOT);
+      if (emails.contains(email) || !batchEmails.add(email)) {
+        row.errorMessage = "249, El email está repetido en el archivo";
+      } else if (nicknames.contains(nickname) || !batchNicknames.add(nickname)) {
+        // El email queda libre para las filas siguientes
+        batchEmails.remove(email);
+        row.errorMessage = "250, El nickname está repetido en el archivo";
+      } else {
+        pending.put(row.line, row);
+        users.addObject()
+            .put("row", row.line)
+            .put("firstName", row.user.getFirstName())
+            .put("lastName", row.user.getLastName())
+            .put("secondLastName", row.user.getSecondLastName())
+            .put("email", row.user.getEmail())
+            .put("nickname", row.user.getNickname())
+            .put("passwordHash", row.user.getPassword())
+            .put("languageKey", row.user.getLanguageKey())
+            .put("keyValue", row.userKey.getKeyValue());
+      }
+    }
+
+    if (!pending.isEmpty() && insert(pending, users, createdAt)) {
+      report.setBatches(report.getBatches() + 1);
+    }
+
+    for (Row row : batch) {
+      if (row.errorMessage == null && row.user.getId() == null) {
+        row.errorMessage = "251, Error al registrar el lote de usuarios";
+      }
+      if (row.errorMessage == null) {
+        report.setRegistered(report.getRegistered() + 1);
+        emails.add(row.user.getEmail().toLowerCase(Locale.ROOT));
+        nicknames.add(row.user.getNickname().toLowerCase(Locale.ROOT));
+        // Copia de los valores usados por el correo: la fila se descarta al terminar el lote
+        User user = row.user;
+        UserKey userKey = row.userKey;
+        String temporaryPassword = row.temporaryPassword;
+        mailExecutor.execute(RequestTrace.wrap(() -> sendActivation(user, userKey, temporaryPassword)));
+      } else {
+        report.setRejected(report.getRejected() + 1);
+      }
+      report.getRows().add(row.toDTO());
+    }
+  }
+
+  /**
+   * Valida la fila y genera su contraseña temporal, el hash y la clave de
+   * activación. Se ejecuta en el pool de cifrado.
+   *
+   * @param row       La fila a preparar.
+   * @param createdAt La fecha de creación de las claves del lote.
+   */
+  private void prepare(Row row, Instant createdAt) {
+    try {
+      UserValidationError error = userValidationService.checkUserRegistrationByAdminRequestDTO(row.request);
+      if (error != null) {
+        row.errorMessage = error.toString();
+        return;
+      }
+      row.user = UserMapper.convertUserRegistrationByAdminDTOToUser(row.request);
+      row.temporaryPassword = RandomKeyGenerator.generateRandomKey(6);
+      row.user.setPassword(passwordEncoder.encode(row.temporaryPassword));
+      row.userKey = appUtility.generateKey(row.user, true);
+      row.userKey.setCreatedAt(createdAt);
+    } catch (RuntimeException e) {
+      row.errorMessage = e.getMessage();
+    }
+  }
+
+  /**
+   * Inserta las filas pendientes del lote con sp_create_users_and_keys y
+   * asigna a cada una el id del usuario y de la clave o el error devuelto.
+   *
+   * @param pending   Las filas a insertar por número de línea.
+   * @param users     Las filas en el formato JSON del procedimiento.
+   * @param createdAt La fecha de creación de las claves del lote.
+   * @return true si el lote se insertó; false si se revirtió completo.
+   */
+  private boolean insert(Map<Integer, Row> pending, ArrayNode users, Instant createdAt) {
+    try {
+      procedureExecutor.query(CustomerProcedures.CREATE_USERS_AND_KEYS, resultSet -> {
+        while (resultSet.next()) {
+          Row row = pending.get(resultSet.getInt("row_index"));
+          int errorCode = resultSet.getInt("error_code");
+          if (!resultSet.wasNull()) {
+            row.errorMessage = errorCode == 106 ? "106, El email ingresado ya existe"
+                : "105, El nickname ingresado ya existe";
+            continue;
+          }
+          row.user.setId(resultSet.getLong("id_user"));
+          row.userKey.setId(resultSet.getLong("id_user_key"));
+        }
+        return null;
+      }, objectMapper.writeValueAsString(users), createdAt);
+      return true;
+    } catch (Exception e) {
+      // El lote se revirtió completo: sus filas se informan como rechazadas
+      eventLogger.error(BulkUserRegistrationService.class, "251", "Error al registrar el lote de usuarios desde la línea {}: {}",
+          "line", pending.keySet().stream().min(Integer::compare).orElse(0), "detail", e.getMessage());
+      return false;
+    }
+  }
+
+  /**
+   * Envía el correo de activación con la contraseña temporal. Se ejecuta en el
+   * pool de envío después de confirmar el lote.
+   */
+  private void sendActivation(User user, UserKey userKey, String temporaryPassword) {
+    try {
+      mailService.sendActivationAccountWithTemporaryPassword(user, userKey, temporaryPassword, true);
+    } catch (Exception e) {
+      eventLogger.error(BulkUserRegistrationService.class, "253", "Error al enviar el correo de activación del registro masivo a {}: {}",
+          "email", user.getEmail(), "detail", e.getMessage());
+    }
+  }
+
+  /**
+   * Obtiene la posición de cada columna del encabezado CSV. Los nombres no
+   * distinguen mayúsculas y corresponden a las propiedades de
+   * {@link UserRegistrationByAdminRequestDTO}.
+   *
+   * @param line La primera línea del archivo.
+   * @return La posición de cada columna por nombre en minúsculas.
+   * @throws BusinessException Si falta alguna columna obligatoria.
+   */
+  private static Map<String, Integer> parseHeader(String line) {
+    List<String> columns = parseCsvLine(line);
+    Map<String, Integer> header = new HashMap<>();
+    for (int i = 0; i < columns.size(); i++) {
+      String column = columns.get(i);
+      if (column != null) {
+        header.put(column.trim().toLowerCase(Locale.ROOT), i);
+      }
+    }
+    if (!header.keySet().containsAll(REQUIRED_COLUMNS)) {
+      throw new BusinessException(
+          "247, El encabezado CSV debe contener las columnas firstName, lastName, email y nickname");
+    }
+    return header;
+  }
+
+  /**
+   * Convierte una línea CSV en una fila.
+   */
+  private static Row csvRow(int lineNumber, String line, Map<String, Integer> header) {
+    List<String> values;
+    try {
+      values = parseCsvLine(line);
+    } catch (IllegalArgumentException e) {
+      return Row.rejected(lineNumber, "247, La fila no tiene el formato esperado");
+    }
+    UserRegistrationByAdminRequestDTO request = new UserRegistrationByAdminRequestDTO();
+    request.setFirstName(column(values, header, "firstname"));
+    request.setLastName(column(values, header, "lastname"));
+    request.setSecondLastName(column(values, header, "secondlastname"));
+    request.setEmail(column(values, header, "email"));
+    request.setNickname(column(values, header, "nickname"));
+    String languageKey = column(values, header, "languagekey");
+    if (languageKey != null) {
+      request.setLanguageKey(languageKey);
+    }
+    return new Row(lineNumber, request);
+  }
+
+  /**
+   * Convierte una línea NDJSON en una fila.
+   */
+  private Row ndjsonRow(int lineNumber, String line) {
+    try {
+      UserRegistrationByAdminRequestDTO request = objectMapper.readValue(line,
+          UserRegistrationByAdminRequestDTO.class);
+      if (request == null) {
+        return Row.rejected(lineNumber, "247, La fila no tiene el formato esperado");
+      }
+      return new Row(lineNumber, request);
+    } catch (IOException e) {
+      return Row.rejected(lineNumber, "247, La fila no tiene el formato esperado");
+    }
+  }
+
+  /**
+   * Devuelve el valor de una columna o null si no existe o está vacía.
+   */
+  private static String column(List<String> values, Map<String, Integer> header, String name) {
+    Integer index = header.get(name);
+    if (index == null || index >= values.size()) {
+      return null;
+    }
+    String value = values.get(index);
+    return value == null || value.isBlank() ? null : value.trim();
+  }
+
+  /**
+   * Divide una línea CSV (RFC 4180) en sus valores. Admite valores entre
+   * comillas con comas y comillas dobles escapadas; no admite saltos de línea
+   * dentro de un valor.
+   *
+   * @param line La línea a dividir.
+   * @return Los valores de la línea.
+   * @throws IllegalArgumentException Si una comilla queda sin cerrar.
+   */
+  private static List<String> parseCsvLine(String line) {
+    List<String> values = new ArrayList<>();
+    StringBuilder value = new StringBuilder();
+    boolean quoted = false;
+    for (int i = 0; i < line.length(); i++) {
+      char c = line.charAt(i);
+      if (quoted) {
+        if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+          value.append('"');
+          i++;
+        } else if (c == '"') {
+          quoted = false;
+        } else {
+          value.append(c);
+        }
+      } else if (c == '"') {
+        quoted = true;
+      } else if (c == ',') {
+        values.add(value.toString());
+        value.setLength(0);
+      } else {
+        value.append(c);
+      }
+    }
+    if (quoted) {
+      throw new IllegalArgumentException("Comilla sin cerrar");
+    }
+    values.add(value.toString());
+    return values;
+  }
+
+  private static ThreadFactory daemon(String prefix) {
+    AtomicInteger count = new AtomicInteger();
+    return r -> {
+      Thread thread = new Thread(r, prefix + count.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    };
+  }
+
+  /**
+   * Estado mutable de un proceso, actualizado por el hilo de registro y leído
+   * por las consultas de los administradores.
+   */
+  private static final class Job {
+    private final String jobId;
+    private final Instant startTime = Instant.now();
+    private final AtomicInteger processedRows = new AtomicInteger();
+    private volatile String status = "PENDING";
+    private volatile Instant endTime;
+    private volatile String errorMessage;
+    private volatile BulkUserRegistrationResponseDTO report;
+
+    private Job(String jobId) {
+      this.jobId = jobId;
+    }
+
+    private BulkUserRegistrationJobResponseDTO toDTO() {
+      BulkUserRegistrationJobResponseDTO dto = new BulkUserRegistrationJobResponseDTO();
+      dto.setJobId(jobId);
+      dto.setStatus(status);
+      dto.setProcessedRows(processedRows.get());
+      dto.setStartTime(startTime);
+      dto.setEndTime(endTime);
+      dto.setErrorMessage(errorMessage);
+      dto.setReport(report);
+      return dto;
+    }
+  }
+
+  /**
+   * Estado de una fila mientras se procesa su lote. Los campos se escriben en
+   * el pool de cifrado y se leen después de esperar a todas sus tareas.
+   */
+  private static final class Row {
+    private final int line;
+    private final UserRegistrationByAdminRequestDTO request;
+    private String errorMessage;
+    private User user;
+    private UserKey userKey;
+    private String temporaryPassword;
+
+    private Row(int line, UserRegistrationByAdminRequestDTO request) {
+      this.line = line;
+      this.request = request;
+    }
+
+    private static Row rejected(int line, String errorMessage) {
+      Row row = new Row(line, null);
+      row.errorMessage = errorMessage;
+      return row;
+    }
+
+    private BulkUserRegistrationRowDTO toDTO() {
+      BulkUserRegistrationRowDTO dto = new BulkUserRegistrationRowDTO();
+      dto.setLine(line);
+      if (request != null) {
+        dto.setEmail(request.getEmail());
+        dto.setNickname(request.getNickname());
+      }
+      dto.setStatus(errorMessage == null ? REGISTERED : REJECTED);
+      dto.setId(errorMessage == null ? user.getId() : null);
+      dto.setErrorMessage(errorMessage);
+      return dto;
+    }
+  }
+
+}
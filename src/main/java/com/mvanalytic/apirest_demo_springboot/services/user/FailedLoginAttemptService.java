@@ -1,17 +1,20 @@
 package com.mvanalytic.apirest_demo_springboot.services.user;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import com.mvanalytic.apirest_demo_springboot.domain.user.FailedLoginAttempt;
 import com.mvanalytic.apirest_demo_springboot.dto.user.FailedLoginAttemptResponseDTO;
 import com.mvanalytic.apirest_demo_springboot.mapper.user.FailedLoginAttemptMapper;
 import com.mvanalytic.apirest_demo_springboot.repositories.user.FailedLoginAttemptRepository;
-import org.springframework.transaction.annotation.Transactional;
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.function.LongConsumer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import com.mvanalytic.apirest_demo_springboot.exceptions.ServiceFailureException;
 
 @Service
 public class FailedLoginAttemptService {
@@ -19,6 +22,9 @@ public class FailedLoginAttemptService {
   @Autowired
   private FailedLoginAttemptRepository fRepository;
 
+  @Autowired
+  private BulkDeleteJobService bulkDeleteJobService;
+
   /**
    * Guarda un intento de inicio de sesión en la base de datos.
    * <p>
@@ -37,9 +43,9 @@ public class FailedLoginAttemptService {
    *                           dirección IP, agente de usuario, el resultado del
    *                           intento, etc.
    * 
-   * @throws IllegalArgumentException Si ocurre un error al intentar guardar el
-   *                                  intento de inicio de sesión en la base de
-   *                                  datos.
+   * @throws ServiceFailureException Si ocurre un error al intentar guardar el
+   *                                 intento de inicio de sesión en la base de
+   *                                 datos.
    * @see FailedLoginAttempt
    * @see FailedLoginAttemptRepository
    */
@@ -47,7 +53,7 @@ public class FailedLoginAttemptService {
     try {
       fRepository.save(fAttempt);
     } catch (Exception e) {
-      throw new IllegalArgumentException("166, Error al intentar guardar el registro FailedLoginAttempt");
+      throw new ServiceFailureException("166, Error al intentar guardar el registro FailedLoginAttempt", e);
     }
   }
 
@@ -62,6 +68,7 @@ public class FailedLoginAttemptService {
    * @param pageSize   El tamaño de la página (cantidad de registros por página).
    * @return Una página de intentos fallidos de inicio de sesión como DTOs.
    */
+  @Transactional(readOnly = true)
   public Page<FailedLoginAttemptResponseDTO> findFailedLoginAttemptsByEmailPaginated(
       String email, int pageNumber, int pageSize) {
 
@@ -87,6 +94,7 @@ public class FailedLoginAttemptService {
    * @param pageSize   El tamaño de la página (cantidad de registros por página).
    * @return Una página de intentos fallidos de inicio de sesión como DTOs.
    */
+  @Transactional(readOnly = true)
   public Page<FailedLoginAttemptResponseDTO> findFailedLoginAttemptsByNicknamePaginated(
       String nickname, int pageNumber, int pageSize) {
 
@@ -103,84 +111,128 @@ public class FailedLoginAttemptService {
     return fPagesDTO;
   }
 
+  /**
+   * Elimina todos los intentos de inicio de sesión de un email específico que
+   * ocurrieron antes de una fecha y hora específica, sin informar el avance de
+   * cada lote.
+   *
+   * @param email       El email del usuario cuyos intentos de inicio de sesión se
+   *                    desean eliminar.
+   * @param attemptTime La fecha y hora límite; se eliminarán todos los intentos
+   *                    previos a esta.
+   * @return El número total de intentos eliminados.
+   * @see #deleteByEmailAndAttemptTimeBefore(String, Instant, LongConsumer)
+   */
+  public long deleteByEmailAndAttemptTimeBefore(String email, Instant attemptTime) {
+    return deleteByEmailAndAttemptTimeBefore(email, attemptTime, BulkDeleteJobService.NO_PROGRESS);
+  }
+
   /**
    * Elimina todos los intentos de inicio de sesión
    * (FailedLoginAttemptResponseDTO) de un email específico que ocurrieron antes
    * de una fecha y hora específica.
    *
-   * Este método utiliza el repositorio de FailedLoginAttemptRepository para
-   * eliminar los intentos de inicio de sesión asociados a un usuario,
-   * identificados por su email, cuyo tiempo de intento (attemptTime) sea anterior
-   * a la fecha y hora especificada.
+   * La eliminación se realiza por lotes {@code DELETE TOP (n)}, cada uno en su
+   * propia transacción, de modo que no se cargan las entidades en memoria ni se
+   * mantienen bloqueos sobre la tabla durante toda la depuración.
    * 
    * @param email       El email del usuario cuyos intentos de inicio de sesión se
    *                    desean eliminar.
    * @param attemptTime La fecha y hora límite; se eliminarán todos los intentos
    *                    previos a esta.
+   * @param progress    Recibe el número de filas eliminadas en cada lote.
+   * @return El número total de intentos eliminados.
    * 
-   * @throws IllegalArgumentException Si ocurre algún error durante el proceso de
-   *                                  eliminación.
+   * @throws ServiceFailureException Si ocurre algún error durante el proceso de
+   *                                 eliminación.
    */
-  @Transactional
-  public void deleteByEmailAndAttemptTimeBefore(String email, Instant attemptTime) {
+  public long deleteByEmailAndAttemptTimeBefore(
+      String email, Instant attemptTime, LongConsumer progress) {
     try {
-      fRepository.deleteByEmailAndAttemptTimeBefore(email, attemptTime);
+      return bulkDeleteJobService.deleteInChunks(
+          batchSize -> fRepository.deleteChunkByEmailAndAttemptTimeBefore(email, attemptTime, batchSize),
+          progress);
     } catch (Exception e) {
-      throw new IllegalArgumentException("208, Error al eliminar los FailedLoginAttempt previos a la fecha del correo");
+      throw new ServiceFailureException("208, Error al eliminar los FailedLoginAttempt previos a la fecha del correo", e);
     }
   }
 
+  /**
+   * Elimina todos los intentos de inicio de sesión de un nickname específico
+   * que ocurrieron antes de una fecha y hora específica, sin informar el avance
+   * de cada lote.
+   *
+   * @param nickname    El nickname del usuario cuyos intentos de inicio de sesión
+   *                    se desean eliminar.
+   * @param attemptTime La fecha y hora límite; se eliminarán todos los intentos
+   *                    previos a esta.
+   * @return El número total de intentos eliminados.
+   * @see #deleteByNicknameAndAttemptTimeBefore(String, Instant, LongConsumer)
+   */
+  public long deleteByNicknameAndAttemptTimeBefore(String nickname, Instant attemptTime) {
+    return deleteByNicknameAndAttemptTimeBefore(nickname, attemptTime, BulkDeleteJobService.NO_PROGRESS);
+  }
+
   /**
    * Elimina todos los intentos de inicio de sesión
    * (FailedLoginAttemptResponseDTO) de un nickname específico que ocurrieron
-   * antes
-   * de una fecha y hora específica.
-   *
-   * Este método utiliza el repositorio de FailedLoginAttemptRepository para
-   * eliminar los intentos de inicio de sesión asociados a un usuario,
-   * identificados por su nickname, cuyo tiempo de intento (attemptTime) sea
-   * anterior
-   * a la fecha y hora especificada.
+   * antes de una fecha y hora específica, por lotes {@code DELETE TOP (n)}.
    * 
    * @param nickname    El nickname del usuario cuyos intentos de inicio de sesión
-   *                    se
-   *                    desean eliminar.
+   *                    se desean eliminar.
    * @param attemptTime La fecha y hora límite; se eliminarán todos los intentos
    *                    previos a esta.
+   * @param progress    Recibe el número de filas eliminadas en cada lote.
+   * @return El número total de intentos eliminados.
    * 
-   * @throws IllegalArgumentException Si ocurre algún error durante el proceso de
-   *                                  eliminación.
+   * @throws ServiceFailureException Si ocurre algún error durante el proceso de
+   *                                 eliminación.
    */
-  @Transactional
-  public void deleteByNicknameAndAttemptTimeBefore(String nickname, Instant attemptTime) {
+  public long deleteByNicknameAndAttemptTimeBefore(
+      String nickname, Instant attemptTime, LongConsumer progress) {
     try {
-      fRepository.deleteByNicknameAndAttemptTimeBefore(nickname, attemptTime);
+      return bulkDeleteJobService.deleteInChunks(
+          batchSize -> fRepository.deleteChunkByNicknameAndAttemptTimeBefore(nickname, attemptTime, batchSize),
+          progress);
     } catch (Exception e) {
-      throw new IllegalArgumentException(
-          "220, Error al eliminar los FailedLoginAttempt previos a la fecha del nickname");
+      throw new ServiceFailureException(
+          "220, Error al eliminar los FailedLoginAttempt previos a la fecha del nickname", e);
     }
   }
 
   /**
-   * Elimina todos los intentos de inicio de sesión (FailedLoginAttempt) que
-   * ocurrieron antes de una fecha y hora específica.
+   * Elimina todos los intentos de inicio de sesión que ocurrieron antes de una
+   * fecha y hora específica, sin informar el avance de cada lote.
    *
-   * Este método utiliza el repositorio de FailedLoginAttempt para eliminar los
-   * intentos de inicio de sesión cuyo tiempo de intento (attemptTime) sea
-   * anterior a la fecha y hora especificada.
+   * @param attemptTime La fecha y hora límite; se eliminarán todos los intentos
+   *                    previos a esta.
+   * @return El número total de intentos eliminados.
+   * @see #deleteByAttemptTimeBefore(Instant, LongConsumer)
+   */
+  public long deleteByAttemptTimeBefore(Instant attemptTime) {
+    return deleteByAttemptTimeBefore(attemptTime, BulkDeleteJobService.NO_PROGRESS);
+  }
+
+  /**
+   * Elimina todos los intentos de inicio de sesión (FailedLoginAttempt) que
+   * ocurrieron antes de una fecha y hora específica, por lotes
+   * {@code DELETE TOP (n)}.
    * 
    * @param attemptTime La fecha y hora límite; se eliminarán todos los intentos
    *                    previos a esta.
+   * @param progress    Recibe el número de filas eliminadas en cada lote.
+   * @return El número total de intentos eliminados.
    * 
-   * @throws IllegalArgumentException Si ocurre algún error durante el proceso de
-   *                                  eliminación.
+   * @throws ServiceFailureException Si ocurre algún error durante el proceso de
+   *                                 eliminación.
    */
-  @Transactional
-  public void deleteByAttemptTimeBefore(Instant attemptTime) {
+  public long deleteByAttemptTimeBefore(Instant attemptTime, LongConsumer progress) {
     try {
-      fRepository.deleteByAttemptTimeBefore(attemptTime);
+      return bulkDeleteJobService.deleteInChunks(
+          batchSize -> fRepository.deleteChunkByAttemptTimeBefore(attemptTime, batchSize),
+          progress);
     } catch (Exception e) {
-      throw new IllegalArgumentException("207, Error al eliminar los loginAttempt previos a la fecha");
+      throw new ServiceFailureException("207, Error al eliminar los loginAttempt previos a la fecha", e);
     }
   }
 
@@ -188,22 +240,23 @@ public class FailedLoginAttemptService {
    * Cuenta el número de intentos de inicio de sesión fallidos basados en el
    * correo electrónico.
    *
-   * Este método consulta el repositorio para obtener el número de intentos
-   * fallidos de inicio de sesión que coinciden con el correo electrónico
-   * proporcionado.
+   * Este método suma los contadores por hora de
+   * {@code failed_login_attempt_hourly} que coinciden con el correo electrónico
+   * proporcionado, sin recorrer la tabla de intentos.
    *
    * @param email El correo electrónico por el cual se desea contar los intentos
    *              fallidos.
    * @return El número total de intentos de inicio de sesión fallidos asociados
    *         con el correo electrónico.
-   * @throws IllegalArgumentException Si ocurre un error al realizar la consulta
-   *                                  en la base de datos.
+   * @throws ServiceFailureException Si ocurre un error al realizar la consulta
+   *                                 en la base de datos.
    */
+  @Transactional(readOnly = true)
   public Long countByEmail(String email) {
     try {
-      return fRepository.countByEmail(email);
+      return fRepository.sumHourlyCount("EMAIL", email);
     } catch (Exception e) {
-      throw new IllegalArgumentException("221, Error al contar los intentos de sesión por correo");
+      throw new ServiceFailureException("221, Error al contar los intentos de sesión por correo", e);
     }
   }
 
@@ -211,21 +264,23 @@ public class FailedLoginAttemptService {
    * Cuenta el número de intentos de inicio de sesión fallidos basados en el
    * nickname.
    *
-   * Este método consulta el repositorio para obtener el número de intentos
-   * fallidos de inicio de sesión que coinciden con el nickname proporcionado.
+   * Este método suma los contadores por hora de
+   * {@code failed_login_attempt_hourly} que coinciden con el nickname
+   * proporcionado.
    *
    * @param nickname El nombre de usuario (nickname) por el cual se desea contar
    *                 los intentos fallidos.
    * @return El número total de intentos de inicio de sesión fallidos asociados
    *         con el nickname.
-   * @throws IllegalArgumentException Si ocurre un error al realizar la consulta
-   *                                  en la base de datos.
+   * @throws ServiceFailureException Si ocurre un error al realizar la consulta
+   *                                 en la base de datos.
    */
+  @Transactional(readOnly = true)
   public Long countByNickname(String nickname) {
     try {
-      return fRepository.countByNickname(nickname);
+      return fRepository.sumHourlyCount("NICKNAME", nickname);
     } catch (Exception e) {
-      throw new IllegalArgumentException("222, Error al contar los intentos de sesión por nickname");
+      throw new ServiceFailureException("222, Error al contar los intentos de sesión por nickname", e);
     }
   }
 
@@ -233,21 +288,23 @@ public class FailedLoginAttemptService {
    * Cuenta el número de intentos de inicio de sesión fallidos basados en el
    * ipAddress.
    *
-   * Este método consulta el repositorio para obtener el número de intentos
-   * fallidos de inicio de sesión que coinciden con el ipAddress proporcionado.
+   * Este método suma los contadores por hora de
+   * {@code failed_login_attempt_hourly} que coinciden con el ipAddress
+   * proporcionado.
    *
    * @param ipAddress El nombre de usuario (ipAddress) por el cual se desea contar
    *                  los intentos fallidos.
    * @return El número total de intentos de inicio de sesión fallidos asociados
    *         con el ipAddress.
-   * @throws IllegalArgumentException Si ocurre un error al realizar la consulta
-   *                                  en la base de datos.
+   * @throws ServiceFailureException Si ocurre un error al realizar la consulta
+   *                                 en la base de datos.
    */
+  @Transactional(readOnly = true)
   public Long countByIpAddress(String ipAddress) {
     try {
-      return fRepository.countByIpAddress(ipAddress);
+      return fRepository.sumHourlyCount("IP", ipAddress);
     } catch (Exception e) {
-      throw new IllegalArgumentException("225, Error al contar los intentos de sesión por ipAddress");
+      throw new ServiceFailureException("225, Error al contar los intentos de sesión por ipAddress", e);
     }
   }
 
@@ -257,7 +314,9 @@ public class FailedLoginAttemptService {
    *
    * Este método consulta el repositorio para contar los intentos fallidos de
    * inicio de sesión que coinciden con el correo electrónico y que ocurrieron
-   * dentro del rango de tiempo especificado.
+   * dentro del rango de tiempo especificado. Las horas completas del rango se
+   * obtienen de los contadores por hora y solo los extremos se cuentan fila a
+   * fila.
    *
    * @param email     El correo electrónico por el cual se desea contar los
    *                  intentos fallidos.
@@ -265,16 +324,19 @@ public class FailedLoginAttemptService {
    * @param endTime   El final del rango de tiempo (inclusive).
    * @return El número total de intentos de inicio de sesión fallidos asociados
    *         con el correo electrónico dentro del rango de tiempo especificado.
-   * @throws IllegalArgumentException Si ocurre un error al realizar la consulta
-   *                                  en la base de datos.
+   * @throws ServiceFailureException Si ocurre un error al realizar la consulta
+   *                                 en la base de datos.
    */
+  @Transactional(readOnly = true)
   public Long countByEmailAndAttemptTimeBetween(
       String email, Instant startTime, Instant endTime) {
     try {
-      Long fLong = fRepository.countByEmailAndAttemptTimeBetween(email, startTime, endTime);
+      Instant[] fullHours = fullHourRange(startTime, endTime);
+      Long fLong = fRepository.countByEmailAndAttemptTimeBetween(
+          email, startTime, fullHours[0], fullHours[1], endTime);
       return fLong;
     } catch (Exception e) {
-      throw new IllegalArgumentException("223, Error al contar los intentos de sesión por correo por rango");
+      throw new ServiceFailureException("223, Error al contar los intentos de sesión por correo por rango", e);
     }
   }
 
@@ -292,16 +354,19 @@ public class FailedLoginAttemptService {
    * @param endTime   El final del rango de tiempo (inclusive).
    * @return El número total de intentos de inicio de sesión fallidos asociados
    *         con el nickname dentro del rango de tiempo especificado.
-   * @throws IllegalArgumentException Si ocurre un error al realizar la consulta
-   *                                  en la base de datos.
+   * @throws ServiceFailureException Si ocurre un error al realizar la consulta
+   *                                 en la base de datos.
    */
+  @Transactional(readOnly = true)
   public Long countByNicknameAndAttemptTimeBetween(
       String nickname, Instant startTime, Instant endTime) {
     try {
-      Long fLong = fRepository.countByNicknameAndAttemptTimeBetween(nickname, startTime, endTime);
+      Instant[] fullHours = fullHourRange(startTime, endTime);
+      Long fLong = fRepository.countByNicknameAndAttemptTimeBetween(
+          nickname, startTime, fullHours[0], fullHours[1], endTime);
       return fLong;
     } catch (Exception e) {
-      throw new IllegalArgumentException("224, Error al contar los intentos de sesión por nickname por rango");
+      throw new ServiceFailureException("224, Error al contar los intentos de sesión por nickname por rango", e);
     }
   }
 
@@ -319,17 +384,45 @@ public class FailedLoginAttemptService {
    * @param endTime   El final del rango de tiempo (inclusive).
    * @return El número total de intentos de inicio de sesión fallidos asociados
    *         con el ipAddress dentro del rango de tiempo especificado.
-   * @throws IllegalArgumentException Si ocurre un error al realizar la consulta
-   *                                  en la base de datos.
+   * @throws ServiceFailureException Si ocurre un error al realizar la consulta
+   *                                 en la base de datos.
    */
+  @Transactional(readOnly = true)
   public Long countByIpAddressAndAttemptTimeBetween(
       String ipAddress, Instant startTime, Instant endTime) {
     try {
-      Long fLong = fRepository.countByIpAddressAndAttemptTimeBetween(ipAddress, startTime, endTime);
+      Instant[] fullHours = fullHourRange(startTime, endTime);
+      Long fLong = fRepository.countByIpAddressAndAttemptTimeBetween(
+          ipAddress, startTime, fullHours[0], fullHours[1], endTime);
       return fLong;
     } catch (Exception e) {
-      throw new IllegalArgumentException("226, Error al contar los intentos de sesión por ipAddress por rango");
+      throw new ServiceFailureException("226, Error al contar los intentos de sesión por ipAddress por rango", e);
+    }
+  }
+
+  /**
+   * Calcula las horas completas contenidas en el rango
+   * [{@code startTime}, {@code endTime}]: desde la primera hora exacta igual o
+   * posterior a {@code startTime} hasta el inicio de la hora que contiene a
+   * {@code endTime}. Si el rango no contiene ninguna hora completa, ambos
+   * límites se igualan a {@code startTime}, de modo que todo el rango se cuenta
+   * sobre la tabla de intentos.
+   *
+   * @param startTime El inicio del rango (inclusive).
+   * @param endTime   El final del rango (inclusive).
+   * @return Arreglo con el inicio (inclusive) y el fin (exclusivo) de las horas
+   *         completas.
+   */
+  private Instant[] fullHourRange(Instant startTime, Instant endTime) {
+    Instant fullFrom = startTime.truncatedTo(ChronoUnit.HOURS);
+    if (fullFrom.isBefore(startTime)) {
+      fullFrom = fullFrom.plus(1, ChronoUnit.HOURS);
+    }
+    Instant fullTo = endTime.truncatedTo(ChronoUnit.HOURS);
+    if (!fullFrom.isBefore(fullTo)) {
+      return new Instant[] { startTime, startTime };
     }
+    return new Instant[] { fullFrom, fullTo };
   }
 
   /**
@@ -353,7 +446,7 @@ public class FailedLoginAttemptService {
           .map(FailedLoginAttemptMapper::convertFailedLoginAttemptToFailedLoginAttemptResponseDTO);
       return fPagesDTO;
     } catch (Exception e) {
-      throw new IllegalArgumentException("219, Error mappear las sesiones");
+      throw new ServiceFailureException("219, Error mappear las sesiones", e);
     }
   }
 
@@ -0,0 +1,257 @@
+package com.mvanalytic.apirest_demo_springboot.services.user;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter.SseEventBuilder;
+import com.mvanalytic.apirest_demo_springboot.dto.user.FailedLoginAttemptResponseDTO;
+import com.mvanalytic.apirest_demo_springboot.dto.user.UserLoginActivityResponseDTO;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Servicio que difunde en tiempo real, mediante Server-Sent Events, las
+ * actividades de inicio de sesión registradas por {@link AuthService} a los
+ * administradores suscritos.
+ * <p>
+ * Cada suscriptor tiene un buffer acotado: la publicación nunca bloquea el
+ * hilo que atiende el login y, si un cliente lento llena su buffer, se
+ * descartan sus eventos más antiguos. Cada suscriptor con eventos pendientes
+ * se atiende en su propio hilo del pool de envío, de modo que una escritura
+ * bloqueada no retrasa a los demás; si un envío tarda más de
+ * 'app.login.stream.send-timeout-ms' el suscriptor se descarta. La conexión
+ * descartada la cierra su hilo de envío cuando la escritura termina: el hilo
+ * del login nunca espera el monitor del {@link SseEmitter} que la escritura
+ * retiene.
+ * </p>
+ */
+@Service
+public class LoginActivityStreamService {
+
+  // Eventos pendientes por suscriptor antes de descartar los más antiguos
+  private static final int SUBSCRIBER_BUFFER_SIZE = 256;
+
+  // Lugares disponibles para nuevos suscriptores
+  private final Semaphore slots;
+
+  private final long timeoutMs;
+
+  private final long sendTimeoutNanos;
+
+  private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+  // Un hilo por suscriptor con eventos pendientes, como máximo uno por suscriptor
+  private final ExecutorService sender;
+
+  private final ScheduledExecutorService heartbeat = Executors.newSingleThreadScheduledExecutor(r -> {
+    Thread thread = new Thread(r, "login-stream-heartbeat");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  public LoginActivityStreamService(
+      @Value("${app.login.stream.max-subscribers:50}") int maxSubscribers,
+      @Value("${app.login.stream.timeout-ms:1800000}") long timeoutMs,
+      @Value("${app.login.stream.send-timeout-ms:5000}") long sendTimeoutMs) {
+    this.slots = new Semaphore(maxSubscribers);
+    this.timeoutMs = timeoutMs;
+    this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+    this.sender = new ThreadPoolExecutor(0, maxSubscribers, 60, TimeUnit.SECONDS,
+        new SynchronousQueue<>(), r -> {
+          Thread thread = new Thread(r, "login-stream-sender");
+          thread.setDaemon(true);
+          return thread;
+        });
+    // Comentario periódico para mantener abiertas las conexiones inactivas y
+    // detectar los clientes que se desconectaron
+    heartbeat.scheduleAtFixedRate(
+        () -> broadcast(() -> SseEmitter.event().comment("heartbeat")), 15, 15, TimeUnit.SECONDS);
+  }
+
+  /**
+   * Registra un nuevo suscriptor al flujo de actividades de inicio de sesión.
+   *
+   * @return El {@link SseEmitter} asociado a la conexión del administrador.
+   * @throws IllegalArgumentException Si se alcanzó el máximo de suscriptores.
+   */
+  public SseEmitter subscribe() {
+    // El lugar se reserva antes de agregar el suscriptor para que las
+    // suscripciones concurrentes no superen el máximo
+    if (!slots.tryAcquire()) {
+      throw new IllegalArgumentException("229, Se alcanzó el máximo de suscriptores al flujo de sesiones");
+    }
+    SseEmitter emitter = new SseEmitter(timeoutMs);
+    Subscriber subscriber = new Subscriber(emitter);
+    emitter.onCompletion(() -> remove(subscriber));
+    emitter.onTimeout(() -> remove(subscriber));
+    emitter.onError(e -> remove(subscriber));
+    subscribers.add(subscriber);
+    return emitter;
+  }
+
+  /**
+   * Publica una actividad de inicio de sesión de un usuario registrado.
+   *
+   * @param dto La actividad de inicio de sesión ('SUCCESS' o 'FAILURE').
+   */
+  public void publish(UserLoginActivityResponseDTO dto) {
+    broadcast(() -> SseEmitter.event().name("login-activity").data(dto));
+  }
+
+  /**
+   * Publica un intento fallido de inicio de sesión de un no usuario.
+   *
+   * @param dto El intento fallido de inicio de sesión.
+   */
+  public void publish(FailedLoginAttemptResponseDTO dto) {
+    broadcast(() -> SseEmitter.event().name("failed-login-attempt").data(dto));
+  }
+
+  /**
+   * Cierra las conexiones abiertas y detiene los hilos al cerrar el contexto.
+   */
+  @PreDestroy
+  public void shutdown() {
+    heartbeat.shutdownNow();
+    sender.shutdownNow();
+    subscribers.forEach(subscriber -> {
+      remove(subscriber);
+      subscriber.emitter.complete();
+    });
+  }
+
+  /**
+   * Encola el evento en el buffer de cada suscriptor y programa su envío. Se
+   * encola una fábrica del evento porque {@link SseEventBuilder} no puede
+   * reutilizarse entre varias conexiones.
+   *
+   * @param event Fábrica del evento a difundir.
+   */
+  private void broadcast(Supplier<SseEventBuilder> event) {
+    long now = System.nanoTime();
+    for (Subscriber subscriber : subscribers) {
+      // Un envío en curso por más del tiempo máximo indica un cliente detenido
+      long sendStarted = subscriber.sendStarted;
+      if (sendStarted != 0 && now - sendStarted > sendTimeoutNanos) {
+        // Solo se descarta: el envío detenido retiene el monitor del emisor y
+        // su hilo de envío cierra la conexión cuando la escritura termina
+        remove(subscriber);
+        continue;
+      }
+      subscriber.enqueue(event);
+      if (subscriber.draining.compareAndSet(false, true)) {
+        try {
+          sender.execute(() -> drain(subscriber));
+        } catch (RejectedExecutionException e) {
+          // Todos los hilos están ocupados por envíos detenidos. Este suscriptor
+          // no tiene un envío en curso, por lo que cerrarlo no espera el monitor
+          disconnect(subscriber, e);
+        }
+      }
+    }
+  }
+
+  /**
+   * Elimina un suscriptor, descarta sus eventos pendientes y libera su lugar.
+   * Solo la primera llamada por suscriptor tiene efecto.
+   *
+   * @param subscriber El suscriptor a eliminar.
+   */
+  private void remove(Subscriber subscriber) {
+    if (subscriber.closed.compareAndSet(false, true)) {
+      subscribers.remove(subscriber);
+      subscriber.queue.clear();
+      slots.release();
+    }
+  }
+
+  /**
+   * Elimina un suscriptor y cierra su conexión. Solo se llama cuando el emisor
+   * no tiene un envío en curso desde otro hilo.
+   *
+   * @param subscriber El suscriptor a desconectar.
+   * @param cause      El motivo de la desconexión.
+   */
+  private void disconnect(Subscriber subscriber, Exception cause) {
+    remove(subscriber);
+    subscriber.emitter.completeWithError(cause);
+  }
+
+  /**
+   * Envía los eventos pendientes de un suscriptor. Si la conexión falla, el
+   * suscriptor se elimina.
+   *
+   * @param subscriber El suscriptor cuyo buffer se vacía.
+   */
+  private void drain(Subscriber subscriber) {
+    do {
+      Supplier<SseEventBuilder> event;
+      while ((event = subscriber.queue.poll()) != null) {
+        try {
+          // Avisa al cliente cuántos eventos perdió por tener el buffer lleno
+          subscriber.sendStarted = System.nanoTime();
+          int dropped = subscriber.dropped.getAndSet(0);
+          if (dropped > 0) {
+            subscriber.emitter.send(SseEmitter.event().name("events-dropped").data(dropped));
+          }
+          subscriber.emitter.send(event.get());
+          subscriber.sendStarted = 0;
+        } catch (Exception e) {
+          disconnect(subscriber, e);
+          return;
+        }
+        if (subscriber.closed.get()) {
+          // Se descartó mientras el envío estaba detenido: la conexión se cierra
+          // desde este hilo, que ya no retiene el monitor del emisor
+          subscriber.emitter.completeWithError(new IOException("Envío SSE detenido"));
+          return;
+        }
+      }
+      subscriber.draining.set(false);
+      // Un evento pudo encolarse después del último poll y antes de liberar la marca
+    } while (!subscriber.queue.isEmpty() && subscriber.draining.compareAndSet(false, true));
+  }
+
+  /**
+   * Conexión de un administrador con su buffer acotado de eventos pendientes.
+   */
+  private static final class Subscriber {
+    private final SseEmitter emitter;
+    private final Queue<Supplier<SseEventBuilder>> queue = new ArrayBlockingQueue<>(SUBSCRIBER_BUFFER_SIZE);
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicInteger dropped = new AtomicInteger();
+    // Marca de suscriptor eliminado; asegura que su lugar se libere una sola vez
+    private final AtomicBoolean closed = new AtomicBoolean();
+    // Inicio del envío en curso (System.nanoTime) o 0 si no hay envío
+    private volatile long sendStarted;
+
+    private Subscriber(SseEmitter emitter) {
+      this.emitter = emitter;
+    }
+
+    private void enqueue(Supplier<SseEventBuilder> event) {
+      // Si el buffer está lleno se descarta el evento más antiguo
+      while (!queue.offer(event)) {
+        if (queue.poll() != null) {
+          dropped.incrementAndGet();
+        }
+      }
+    }
+  }
+
+}
@@ -1,15 +1,22 @@
 package com.mvanalytic.apirest_demo_springboot.services.user;
 
+import java.time.Duration;
 import java.time.Instant;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import com.mvanalytic.apirest_demo_springboot.domain.user.RefreshToken;
 import com.mvanalytic.apirest_demo_springboot.domain.user.User;
 import com.mvanalytic.apirest_demo_springboot.dto.user.JwtResponseDTO;
 import com.mvanalytic.apirest_demo_springboot.dto.user.RefreshTokenResponseDTO;
+import com.mvanalytic.apirest_demo_springboot.exceptions.BusinessException;
 import com.mvanalytic.apirest_demo_springboot.repositories.user.RefreshTokenRepository;
 import com.mvanalytic.apirest_demo_springboot.utility.AppUtility;
 import com.mvanalytic.apirest_demo_springboot.utility.JwtUtils;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import java.util.stream.Collectors;
@@ -27,6 +34,8 @@ import java.util.List;
 @Service
 public class RefreshTokenService {
 
+  private static final String INVALID_REFRESH_TOKEN = "234, Refresh token inválido, expirado o ya utilizado";
+
   @Autowired
   private AppUtility appUtility;
 
@@ -42,6 +51,98 @@ public class RefreshTokenService {
   @PersistenceContext
   private EntityManager entityManager;
 
+  @Value("${app.refresh-token.roles-cache.max-size:10000}")
+  private long rolesCacheMaxSize;
+
+  @Value("${app.refresh-token.roles-cache.ttl-ms:3600000}")
+  private long rolesCacheTtlMs;
+
+  // Roles por nickname registrados al iniciar sesión; permiten rotar el token
+  // sin recargar el usuario. La caché está acotada y sus entradas expiran; los
+  // cambios de rol, de nickname y de estado eliminan la entrada del usuario
+  private Cache<String, String> rolesByNickname;
+
+  /**
+   * Crea la caché de roles con el tamaño máximo y la expiración configurados.
+   */
+  @PostConstruct
+  public void init() {
+    rolesByNickname = Caffeine.newBuilder()
+        .maximumSize(rolesCacheMaxSize)
+        .expireAfterWrite(Duration.ofMillis(rolesCacheTtlMs))
+        .build();
+  }
+
+  /**
+   * Rota el refresh token presentado por el cliente y genera un nuevo token de
+   * acceso.
+   * 
+   * El token presentado se valida por su firma y su expiración, y se reemplaza
+   * por el nuevo en una sola sentencia UPDATE condicionada al valor actual. Si
+   * otra solicitud ya lo rotó, si fue eliminado o si el usuario está
+   * deshabilitado, no se actualiza ninguna fila y se rechaza la solicitud. El
+   * nuevo JWT se genera con los roles registrados al iniciar sesión; el usuario
+   * solo se carga si sus roles no están registrados.
+   *
+   * @param presentedToken El refresh token vigente del cliente.
+   * @return Un JwtResponseDTO con el nickname, el nuevo JWT y el nuevo refresh
+   *         token.
+   * @throws BusinessException Si el refresh token es inválido, expiró o ya fue
+   *                           utilizado (401).
+   */
+  @Transactional
+  public JwtResponseDTO rotateRefreshToken(String presentedToken) {
+    String nickname;
+    try {
+      // Verifica la firma y la expiración sin consultar la base de datos
+      nickname = jwtUtils.getNicknameFromJwtToken(presentedToken);
+    } catch (Exception e) {
+      throw new BusinessException(INVALID_REFRESH_TOKEN, HttpStatus.UNAUTHORIZED);
+    }
+
+    Instant expiration = Instant.now().plusMillis(appUtility.getRefreshTokenDurationMs());
+    String token = jwtUtils.generateRefreshToken(nickname, expiration);
+
+    // Compare-and-swap: solo una solicitud puede reemplazar el token presentado
+    if (refreshTokenRepository.rotateToken(presentedToken, token, expiration, Instant.now()) == 0) {
+      throw new BusinessException(INVALID_REFRESH_TOKEN, HttpStatus.UNAUTHORIZED);
+    }
+
+    String roles = rolesByNickname.getIfPresent(nickname);
+    if (roles == null) {
+      roles = cacheRoles(userService.getUserByNickName(nickname));
+    }
+
+    JwtResponseDTO jwtResponseDTO = new JwtResponseDTO();
+    jwtResponseDTO.setNickname(nickname);
+    jwtResponseDTO.setToken(jwtUtils.generateJwtTokenFromRoles(nickname, roles));
+    jwtResponseDTO.setRefreshToken(token);
+    return jwtResponseDTO;
+  }
+
+  /**
+   * Registra los roles del usuario para las siguientes rotaciones de su refresh
+   * token.
+   *
+   * @param user El usuario con sus autoridades cargadas.
+   * @return Los roles registrados, separados por comas.
+   */
+  public String cacheRoles(User user) {
+    String roles = jwtUtils.getRolesClaim(user);
+    rolesByNickname.put(user.getNickname(), roles);
+    return roles;
+  }
+
+  /**
+   * Elimina los roles registrados de un usuario, por ejemplo después de un
+   * cambio de rol, de nickname o de estado.
+   *
+   * @param nickname El nickname del usuario.
+   */
+  public void evictRoles(String nickname) {
+    rolesByNickname.invalidate(nickname);
+  }
+
   /**
    * Genera un nuevo token de acceso y refresca el token de refresco asociado al
    * id del usuario.
@@ -124,6 +225,9 @@ public class RefreshTokenService {
       String token = jwtUtils.generateRefreshToken(user.getUsername(), expiration);
       refreshToken.setToken(token);
 
+      // Registra los roles para rotar el token sin recargar el usuario
+      cacheRoles(user);
+
       return refreshToken;
     } catch (Exception e) {
       throw new IllegalArgumentException("203, Error al crear el refreshToken del user");
@@ -288,6 +392,7 @@ public class RefreshTokenService {
    *                                  al usuario o si ocurre algún error durante
    *                                  la búsqueda.
    */
+  @Transactional(readOnly = true)
   public RefreshTokenResponseDTO getRefreshTokenByUser(User user) {
     try {
       RefreshToken refreshToken = refreshTokenRepository.findByUser(user).get();
@@ -333,6 +438,7 @@ public class RefreshTokenService {
    * @throws IllegalArgumentException Si no se encuentra un refresh token con el
    *                                  ID proporcionado.
    */
+  @Transactional(readOnly = true)
   public RefreshTokenResponseDTO getRefreshTokenDTOById(Long id) {
     RefreshToken token = getRefreshTokenById(id);
     return RefresTokenMapper.convertRefreshTokenResponseDTO(token);
@@ -371,6 +477,7 @@ public class RefreshTokenService {
    * @throws IllegalArgumentException Si el token no es encontrado o si ocurre
    *                                  algún error durante la búsqueda.
    */
+  @Transactional(readOnly = true)
   public RefreshTokenResponseDTO getRefreshTokenByToken(String token) {
     try {
       RefreshToken refreshToken = refreshTokenRepository.findByToken(token).get();
@@ -417,6 +524,7 @@ public class RefreshTokenService {
    * @throws IllegalArgumentException Si ocurre algún error al intentar cargar los
    *                                  RefreshTokens.
    */
+  @Transactional(readOnly = true)
   public List<RefreshTokenResponseDTO> findByExpiryDateBetween(Instant startDate, Instant endDate) {
     try {
       // Carga los RefreshTokens cuya fecha de expiración esté dentro del rango dado
@@ -444,6 +552,7 @@ public class RefreshTokenService {
    * @throws IllegalArgumentException si ocurre algún error durante el proceso de
    *                                  obtención o conversión de los tokens.
    */
+  @Transactional(readOnly = true)
   public List<RefreshTokenResponseDTO> getAllTokens() {
     try {
       // Obtener todos los RefreshTokens desde la base de datos
@@ -2,67 +2,38 @@ package com.mvanalytic.apirest_demo_springboot.services.user;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataAccessException;
-import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import java.util.Collection;
-import com.mvanalytic.apirest_demo_springboot.domain.user.User;
+import com.mvanalytic.apirest_demo_springboot.dto.user.AdminUserResponseDTO;
 import com.mvanalytic.apirest_demo_springboot.dto.user.AuthorityDTO;
 import com.mvanalytic.apirest_demo_springboot.dto.user.UserAuthorityRequestDTO;
-import com.mvanalytic.apirest_demo_springboot.repositories.user.UserAuthorityRepository;
-import jakarta.persistence.EntityManager;
-import jakarta.persistence.PersistenceContext;
+import com.mvanalytic.apirest_demo_springboot.mapper.user.UserMapper;
+import com.mvanalytic.apirest_demo_springboot.repositories.procedure.CustomerProcedures;
+import com.mvanalytic.apirest_demo_springboot.repositories.procedure.StoredProcedureExecutor;
 
 @Service
 public class UserAuthorityService {
 
   @Autowired
-  private UserService userService;
+  private StoredProcedureExecutor procedureExecutor;
 
   @Autowired
-  private UserAuthorityRepository userAuthorityRepository;
-
-  /**
-   * Para cuando se necesita manejar procedimientos almacenados que no se ajustan
-   * bien a los métodos simples
-   * del repositorio.
-   * Permite manejar la sincronización con la base de datos.
-   */
-  @PersistenceContext
-  private EntityManager entityManager;
+  private RefreshTokenService refreshTokenService;
 
   /**
    * Actualiza el rol de un usuario existente.
    * Solo ROLE_ADMIN puede acceder a este método
    *
-   * @param user El usuario con la información actualizada.
+   * El procedimiento valida que el usuario exista y que el rol sea distinto del
+   * actual, elimina el refresh token y devuelve el usuario con su nuevo rol, por
+   * lo que no se vuelve a cargar.
+   *
+   * @param userAuthorityRequestDTO El id del usuario y el nuevo rol.
    * @return El usuario actualizado.
    */
   @Transactional
-  public User updateUserAuthority(UserAuthorityRequestDTO userAuthorityRequestDTO) {
+  public AdminUserResponseDTO updateUserAuthority(UserAuthorityRequestDTO userAuthorityRequestDTO) {
     try {
-      // Obtener el usuario por ID, esto lanzará DataAccessException si no se
-      // encuentra
-      User user = userService.getUserById(userAuthorityRequestDTO.getUserId());
-
-      // Lista de autoridades del usuario
-      Collection<? extends GrantedAuthority> authorities = user.getAuthorities();
-
-      // obtener el primer elemento de la colección de autoridaded
-      GrantedAuthority firsAuthority = authorities
-          .stream()
-          .findFirst()
-          .orElse(null);
-
-      if (firsAuthority != null) {
-
-      }
-      String currentAuthority = null;
-
-      if (firsAuthority != null) {
-        currentAuthority = firsAuthority.getAuthority();
-      }
-
       // Obtén el primer nombre de autoridad incluso carga null si este es su valor
       String authorityName = userAuthorityRequestDTO.getAuthorities()
           // Crea un flujo a partir del conjunto
@@ -74,30 +45,19 @@ public class UserAuthorityService {
           // Devuelve null si el flujo está vacío
           .orElse(null);
 
-      // Verificar si la autoridad (Role) ya está asignado al usuario
-      if (currentAuthority != null &&
-          currentAuthority.equals(authorityName)) {
-        throw new IllegalArgumentException("103, El nuevo valor no puede ser igual al valor actual");
-      }
-
       // Llamar al procedimiento almacenado para actualizar el usuario
-      userAuthorityRepository.spUserAuthorityUdateUser(
-          userAuthorityRequestDTO.getUserId(),
-          authorityName);
+      AdminUserResponseDTO updatedUser = UserService.requireUpdatedUser(
+          procedureExecutor.query(CustomerProcedures.USER_AUTHORITY_UPDATE,
+              UserMapper::convertResultSetToAdminUserDTO,
+              userAuthorityRequestDTO.getUserId(),
+              authorityName));
 
-      /**
-       * Limpiar la caché de primer nivel de Hibernate: Puedes usar EntityManager
-       * para limpiar la caché de primer nivel antes de volver a cargar el usuario.
-       */
-      entityManager.flush();
-      /**
-       * Refrescar la entidad: Usar el método refresh de EntityManager para forzar
-       * la sincronización con la base de datos.
-       */
-      entityManager.clear();
+      // Los roles registrados ya no corresponden al nuevo rol; el procedimiento
+      // eliminó el refresh token y el usuario debe iniciar sesión de nuevo
+      refreshTokenService.evictRoles(updatedUser.getNickname());
 
       // Retornar el usuario actualizado
-      return userService.getUserById(userAuthorityRequestDTO.getUserId());
+      return updatedUser;
 
     } catch (DataAccessException e) {
       // Lanza una excepción de tiempo de ejecución con un mensaje más específico
@@ -4,7 +4,6 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
-import org.springframework.security.authentication.DisabledException;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -13,6 +12,8 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import com.mvanalytic.apirest_demo_springboot.domain.user.Authority;
 import com.mvanalytic.apirest_demo_springboot.domain.user.User;
+import com.mvanalytic.apirest_demo_springboot.exceptions.AccountDisabledException;
+import com.mvanalytic.apirest_demo_springboot.utility.RequestTrace;
 
 /**
  * Servicio para cargar los detalles de los usuarios basado en el nickname.
@@ -55,16 +56,18 @@ public class UserDetailsServiceImpl implements UserDetailsService {
   public UserDetails loadUser(String identifier) throws UsernameNotFoundException {
     User user;
 
-    if (identifier.contains("@")) {
-      // Verifica si es un email
-      user = userService.getUserByEmail(identifier);
-    } else {
-      user = userService.getUserByNickName(identifier);
+    try (RequestTrace.Span span = RequestTrace.span("user")) {
+      if (identifier.contains("@")) {
+        // Verifica si es un email
+        user = userService.getUserByEmail(identifier);
+      } else {
+        user = userService.getUserByNickName(identifier);
+      }
     }
 
     // Verifica si el usuario está habilitado
     if (!user.isStatus()) {
-      throw new DisabledException("110, Cuenta deshabilitada");
+      throw new AccountDisabledException("110, Cuenta deshabilitada");
     }
 
     // Convierte las autoridades del usuario a una lista de GrantedAuthority
@@ -6,8 +6,12 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import com.mvanalytic.apirest_demo_springboot.domain.user.UserKey;
+import com.mvanalytic.apirest_demo_springboot.exceptions.ProcedureException;
+import com.mvanalytic.apirest_demo_springboot.exceptions.ServiceFailureException;
 import com.mvanalytic.apirest_demo_springboot.repositories.user.UserKeyRepository;
 import com.mvanalytic.apirest_demo_springboot.utility.AppUtility;
+import com.mvanalytic.apirest_demo_springboot.repositories.procedure.CustomerProcedures;
+import com.mvanalytic.apirest_demo_springboot.repositories.procedure.StoredProcedureExecutor;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.persistence.PersistenceContext;
@@ -30,6 +34,9 @@ public class UserKeyServiceImpl {
   @Autowired
   private AppUtility appUtility;
 
+  @Autowired
+  private StoredProcedureExecutor procedureExecutor;
+
   @Autowired
   @Lazy
   private PasswordEncoder passwordEncoder;
@@ -61,7 +68,7 @@ public class UserKeyServiceImpl {
     try {
       return userKeyRepository.save(userKey);
     } catch (Exception e) {
-      throw new IllegalArgumentException("508, Error al cargar el registro de llaves");
+      throw new ServiceFailureException("508, Error al cargar el registro de llaves", e);
     }
 
   }
@@ -73,35 +80,27 @@ public class UserKeyServiceImpl {
    *
    * @param id            El identificador del registro de UserKey.
    * @param activationKey La clave de activación proporcionada.
-   * @throws IllegalArgumentException Si la clave es inválida o no se encuentra.
+   * @throws IllegalArgumentException Si la clave es inválida o no se encuentra;
+   *                                  los errores del procedimiento almacenado
+   *                                  se propagan como ProcedureException.
    */
   @Transactional
   public UserKey activateAccount(Long id, String activationKey, String tempPassword) {
-    try {
-      // Cargar el user_key que cumple con los parámetros id y activationKey
-      UserKey userKey = findByIdWithUser(id);
-
-      if (tempPassword != null &&
-          !isMatchPassword(tempPassword, userKey.getUser().getPassword())) {
-        throw new IllegalArgumentException("113, La contraseña temporal no coindice con la enviada");
-      }
+    // Cargar el user_key que cumple con los parámetros id y activationKey
+    UserKey userKey = findByIdWithUser(id);
 
-      // Verificar si la clave de restablecimiento ha expirado
-      appUtility.verifyExpirationActivation(userKey);
+    if (tempPassword != null &&
+        !isMatchPassword(tempPassword, userKey.getUser().getPassword())) {
+      throw new IllegalArgumentException("113, La contraseña temporal no coindice con la enviada");
+    }
 
-      // verificar si el usuario existe en la tabla user_mva
-      // userService.getUserById(userKey.getUser().getId());
+    // Verificar si la clave de restablecimiento ha expirado
+    appUtility.verifyExpirationActivation(userKey);
 
-      // envio de solicitud de activiación al store procedure
-      executeAcivateAccount(id, activationKey);
-
-      return userKey;
-    } catch (Exception e) {
-      // Obtiene solo el mensaje del procedimiento almacenado
-      String errorMessage = appUtility.extractErrorMessage(e.getMessage());
-      throw new IllegalArgumentException(errorMessage); // Lanza solo el mensaje relevante
-    }
+    // envio de solicitud de activiación al store procedure
+    executeAcivateAccount(id, activationKey);
 
+    return userKey;
   }
 
   
@@ -129,34 +128,27 @@ public class UserKeyServiceImpl {
    * Este método realiza las siguientes acciones:
    * 1. Carga el tiempo de expiración para la activación de la cuenta, definido en
    * la configuración de la aplicación.
-   * 2. Llama al procedimiento almacenado `spActivateAccount` en el repositorio
-   * `userKeyRepository`, enviando el ID del usuario, la clave de activación y el
-   * tiempo de expiración.
-   * 3. Si la activación es exitosa, se registra un mensaje de éxito en los logs.
-   * 4. Si ocurre un error durante el proceso de activación, captura la excepción,
-   * la registra en los logs y lanza una excepción con el mensaje de error.
+   * 2. Llama al procedimiento almacenado `sp_activate_account` con
+   * StoredProcedureExecutor, enviando el ID del usuario, la clave de activación y
+   * el tiempo de expiración.
+   * 3. Los errores de negocio del procedimiento (RAISERROR) se propagan como
+   * ProcedureException con su código y estado HTTP.
    *
    * @param id       El ID del usuario cuya cuenta se va a activar.
    * @param keyValue La clave de activación que se utilizará para activar la
    *                 cuenta.
    *
-   * @throws IllegalArgumentException Si ocurre algún error durante el proceso de
-   *                                  activación.
+   * @throws ProcedureException Si el procedimiento rechaza la activación.
    */
   public void executeAcivateAccount(Long id, String keyValue) {
-    try {
-
-      // cargar el tiempo de expiración
-      int expiracionTimeActivation = appUtility.getExpirationActivation();
-
-      // Enviar al procedimiento almacenado
-      userKeyRepository.spActivateAccount(
-          id,
-          keyValue,
-          expiracionTimeActivation);
-    } catch (Exception e) {
-      throw new IllegalArgumentException(e.getMessage());
-    }
+    // cargar el tiempo de expiración
+    int expiracionTimeActivation = appUtility.getExpirationActivation();
+
+    // Enviar al procedimiento almacenado
+    procedureExecutor.execute(CustomerProcedures.ACTIVATE_ACCOUNT,
+        id,
+        keyValue,
+        expiracionTimeActivation);
   }
 
 }
@@ -2,18 +2,22 @@ package com.mvanalytic.apirest_demo_springboot.services.user;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import com.mvanalytic.apirest_demo_springboot.domain.user.UserLoginActivity;
 import com.mvanalytic.apirest_demo_springboot.dto.user.UserLoginActivityResponseDTO;
 import com.mvanalytic.apirest_demo_springboot.mapper.user.UserLoginActivityMapper;
 import com.mvanalytic.apirest_demo_springboot.repositories.user.UserLoginActivityRepository;
 import java.time.Instant;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import java.util.List;
+import java.util.function.LongConsumer;
 import java.util.stream.Collectors;
+import com.mvanalytic.apirest_demo_springboot.exceptions.ServiceFailureException;
+import com.mvanalytic.apirest_demo_springboot.repositories.procedure.CustomerProcedures;
+import com.mvanalytic.apirest_demo_springboot.repositories.procedure.StoredProcedureExecutor;
 
 @Service
 public class UserLoginActivityService {
@@ -21,6 +25,12 @@ public class UserLoginActivityService {
   @Autowired
   private UserLoginActivityRepository userLoginActivityRepository;
 
+  @Autowired
+  private BulkDeleteJobService bulkDeleteJobService;
+
+  @Autowired
+  private StoredProcedureExecutor procedureExecutor;
+
   /**
    * Guarda una nueva sesión de usuario en la base de datos ya sea 'SUCCESS' o
    * 'FAILURE'.
@@ -31,14 +41,14 @@ public class UserLoginActivityService {
    *
    * @param userLoginActivity La entidad de sesión de usuario que se va a guardar
    *                          en la base de datos.
-   * @throws IllegalArgumentException Si ocurre un error al intentar guardar la
-   *                                  sesión.
+   * @throws ServiceFailureException Si ocurre un error al intentar guardar la
+   *                                 sesión.
    */
   public void saveLoginActivity(UserLoginActivity userLoginActivity) {
     try {
       userLoginActivityRepository.save(userLoginActivity);
     } catch (Exception e) {
-      throw new IllegalArgumentException("172, Error al intentar guardar sesión del usuario");
+      throw new ServiceFailureException("172, Error al intentar guardar sesión del usuario", e);
     }
   }
 
@@ -49,9 +59,10 @@ public class UserLoginActivityService {
    *
    * @return Una lista de `UserLoginActivityResponseDTO` que contiene todas las
    *         sesiones de usuario.
-   * @throws IllegalArgumentException Si ocurre algún error durante la carga o
-   *                                  transformación de las sesiones de usuario.
+   * @throws ServiceFailureException Si ocurre algún error durante la carga o
+   *                                 transformación de las sesiones de usuario.
    */
+  @Transactional(readOnly = true)
   public List<UserLoginActivityResponseDTO> getAllSession() {
     try {
       // Cargar todas las sesiones de usuario desde el repositorio
@@ -60,7 +71,7 @@ public class UserLoginActivityService {
       List<UserLoginActivityResponseDTO> uResponseDTOs = transformToDTO(userSessions);
       return uResponseDTOs;
     } catch (Exception e) {
-      throw new IllegalArgumentException("211, Error al cargar las sesiones");
+      throw new ServiceFailureException("211, Error al cargar las sesiones", e);
     }
   }
 
@@ -78,9 +89,10 @@ public class UserLoginActivityService {
    * @param pageSize   El número de elementos por página.
    * @return Una página de objetos `UserLoginActivityResponseDTO` que contiene los
    *         resultados paginados.
-   * @throws IllegalArgumentException Si ocurre un error durante la carga de
-   *                                  sesiones o el proceso de conversión.
+   * @throws ServiceFailureException Si ocurre un error durante la carga de
+   *                                 sesiones o el proceso de conversión.
    */
+  @Transactional(readOnly = true)
   public Page<UserLoginActivityResponseDTO> findAllSessionsPaginated(int pageNumber, int pageSize) {
     try {
       // Configurar la paginación y el orden
@@ -96,7 +108,7 @@ public class UserLoginActivityService {
       return sPage;
 
     } catch (Exception e) {
-      throw new IllegalArgumentException("211, Error al cargar las sesiones");
+      throw new ServiceFailureException("211, Error al cargar las sesiones", e);
     }
   }
 
@@ -111,9 +123,10 @@ public class UserLoginActivityService {
    * @return Una lista de `UserLoginActivityResponseDTO` que contiene las sesiones
    *         de
    *         usuario que coinciden con el ID del usuario y el estado de la sesión.
-   * @throws IllegalArgumentException Si ocurre algún error durante la búsqueda o
-   *                                  transformación de las sesiones de usuario.
+   * @throws ServiceFailureException Si ocurre algún error durante la búsqueda o
+   *                                 transformación de las sesiones de usuario.
    */
+  @Transactional(readOnly = true)
   public List<UserLoginActivityResponseDTO> findByUserIdAndSessionStatus(
       Long userId, String sessionStatus) {
     try {
@@ -125,7 +138,7 @@ public class UserLoginActivityService {
       List<UserLoginActivityResponseDTO> uResponseDTOs = transformToDTO(userSessions);
       return uResponseDTOs;
     } catch (Exception e) {
-      throw new IllegalArgumentException("212, Error buscar la sesión por el userId y status y status");
+      throw new ServiceFailureException("212, Error buscar la sesión por el userId y status y status", e);
     }
   }
 
@@ -142,9 +155,10 @@ public class UserLoginActivityService {
    *         de
    *         usuario que coinciden con el ID del usuario y que fueron iniciadas en
    *         el rango de fechas especificado.
-   * @throws IllegalArgumentException Si ocurre algún error durante la búsqueda o
-   *                                  transformación de las sesiones de usuario.
+   * @throws ServiceFailureException Si ocurre algún error durante la búsqueda o
+   *                                 transformación de las sesiones de usuario.
    */
+  @Transactional(readOnly = true)
   public List<UserLoginActivityResponseDTO> findByUserIdAndSessionTimeBetween(
       Long userId, Instant startDate, Instant endDate) {
     try {
@@ -156,7 +170,7 @@ public class UserLoginActivityService {
       List<UserLoginActivityResponseDTO> uResponseDTOs = transformToDTO(userSessions);
       return uResponseDTOs;
     } catch (Exception e) {
-      throw new IllegalArgumentException("213, Error al buscar la sesión por el userId y rango de fechas");
+      throw new ServiceFailureException("213, Error al buscar la sesión por el userId y rango de fechas", e);
     }
   }
 
@@ -170,9 +184,10 @@ public class UserLoginActivityService {
    * @return Una lista de `UserLoginActivityResponseDTO` que contiene las sesiones
    *         de
    *         usuario que coinciden con la dirección IP y el estado especificado.
-   * @throws IllegalArgumentException Si ocurre algún error durante la búsqueda o
-   *                                  transformación de las sesiones de usuario.
+   * @throws ServiceFailureException Si ocurre algún error durante la búsqueda o
+   *                                 transformación de las sesiones de usuario.
    */
+  @Transactional(readOnly = true)
   public List<UserLoginActivityResponseDTO> findByIpAddressAndSessionStatus(
       String ipAddress, String sessionStatus) {
     try {
@@ -181,7 +196,7 @@ public class UserLoginActivityService {
       List<UserLoginActivityResponseDTO> uResponseDTOs = transformToDTO(userSessions);
       return uResponseDTOs;
     } catch (Exception e) {
-      throw new IllegalArgumentException("214, Error al buscar la sesión por idAddress y estatus");
+      throw new ServiceFailureException("214, Error al buscar la sesión por idAddress y estatus", e);
     }
   }
 
@@ -196,9 +211,10 @@ public class UserLoginActivityService {
    * @return Un objeto Page<UserLoginActivityResponseDTO> que contiene una lista
    *         paginada de las actividades de inicio de sesión del usuario,
    *         transformadas en objetos UserLoginActivityResponseDTO.
-   * @throws IllegalArgumentException Si ocurre un error durante la consulta o
-   *                                  transformación de los datos.
+   * @throws ServiceFailureException Si ocurre un error durante la consulta o
+   *                                 transformación de los datos.
    */
+  @Transactional(readOnly = true)
   public Page<UserLoginActivityResponseDTO> findByUserId(
       Long userId, int pageNumber, int pageSize) {
     try {
@@ -213,7 +229,7 @@ public class UserLoginActivityService {
       Page<UserLoginActivityResponseDTO> uResponseDTOs = transformToDTOPage(userSessions);
       return uResponseDTOs;
     } catch (Exception e) {
-      throw new IllegalArgumentException("215, Error al buscar la sesión por userId y página");
+      throw new ServiceFailureException("215, Error al buscar la sesión por userId y página", e);
     }
   }
 
@@ -229,9 +245,10 @@ public class UserLoginActivityService {
    *         de
    *         usuario que coinciden con la dirección IP y el rango de fechas
    *         especificado.
-   * @throws IllegalArgumentException Si ocurre algún error durante la búsqueda o
-   *                                  transformación de las sesiones de usuario.
+   * @throws ServiceFailureException Si ocurre algún error durante la búsqueda o
+   *                                 transformación de las sesiones de usuario.
    */
+  @Transactional(readOnly = true)
   public Page<UserLoginActivityResponseDTO> findByIpAddressAndSessionTimeBetween(
       String ipAddress, Instant startDate, Instant endDate, int pageNumber, int pageSize) {
     try {
@@ -246,7 +263,7 @@ public class UserLoginActivityService {
       Page<UserLoginActivityResponseDTO> uResponseDTOs = transformToDTOPage(userSessions);
       return uResponseDTOs;
     } catch (Exception e) {
-      throw new IllegalArgumentException("216, Error al buscar la sesión por ipAddress y rango fechas");
+      throw new ServiceFailureException("216, Error al buscar la sesión por ipAddress y rango fechas", e);
     }
   }
 
@@ -273,9 +290,10 @@ public class UserLoginActivityService {
    * @return Una página de objetos `UserLoginActivityResponseDTO` que contienen la
    *         información de las actividades de inicio de sesión que coinciden con
    *         los criterios de búsqueda.
-   * @throws IllegalArgumentException Si ocurre algún error durante la consulta o
-   *                                  transformación de los datos.
+   * @throws ServiceFailureException Si ocurre algún error durante la consulta o
+   *                                 transformación de los datos.
    */
+  @Transactional(readOnly = true)
   public Page<UserLoginActivityResponseDTO> findByUserAgentAndSessionTimeBetween(
       String userAgent, Instant startDate, Instant endDate, int pageNumber, int pageSize) {
     try {
@@ -290,7 +308,7 @@ public class UserLoginActivityService {
       Page<UserLoginActivityResponseDTO> uResponseDTOs = transformToDTOPage(userSessions);
       return uResponseDTOs;
     } catch (Exception e) {
-      throw new IllegalArgumentException("217, Error al buscar la sesión por useAgent y rango fechas");
+      throw new ServiceFailureException("217, Error al buscar la sesión por useAgent y rango fechas", e);
     }
   }
 
@@ -303,9 +321,10 @@ public class UserLoginActivityService {
    *                      'SUCCESS' o 'FAILURE'.
    * @return Un valor `Long` que representa el número de sesiones que coinciden
    *         con el ID de usuario y el estado de sesión proporcionado.
-   * @throws IllegalArgumentException Si ocurre algún error durante el proceso de
-   *                                  conteo.
+   * @throws ServiceFailureException Si ocurre algún error durante el proceso de
+   *                                 conteo.
    */
+  @Transactional(readOnly = true)
   public Long countByUserIdAndSessionStatus(Long userId, String sessionStatus) {
     try {
       // Contar las sesiones en la base de datos que coinciden con el ID del usuario y
@@ -313,27 +332,48 @@ public class UserLoginActivityService {
       Long countSession = userLoginActivityRepository.countByUserIdAndSessionStatus(userId, sessionStatus);
       return countSession;
     } catch (Exception e) {
-      throw new IllegalArgumentException("218, Error contar las sesiones según estatus por idUser");
+      throw new ServiceFailureException("218, Error contar las sesiones según estatus por idUser", e);
     }
   }
 
+  /**
+   * Método que elimina las sesiones de usuario basadas en el ID de usuario y el
+   * estado de la sesión, sin informar el avance de cada lote.
+   *
+   * @param userId        El ID del usuario cuyas sesiones se desean eliminar.
+   * @param sessionStatus El estado de la sesión que se desea eliminar.
+   * @return El número total de sesiones eliminadas.
+   * @see #deleteByUserIdAndSessionStatus(Long, String, LongConsumer)
+   */
+  public long deleteByUserIdAndSessionStatus(Long userId, String sessionStatus) {
+    return deleteByUserIdAndSessionStatus(userId, sessionStatus, BulkDeleteJobService.NO_PROGRESS);
+  }
+
   /**
    * Método que elimina las sesiones de usuario basadas en el ID de usuario y el
    * estado de la sesión.
    * 
+   * La eliminación se realiza por lotes {@code DELETE TOP (n)}, cada uno en su
+   * propia transacción, sin cargar las entidades en memoria.
+   * 
    * @param userId        El ID del usuario cuyas sesiones se desean eliminar.
    * @param sessionStatus El estado de la sesión que se desea eliminar (por
    *                      ejemplo, 'SUCCESS' o 'FAILURE').
-   * @throws IllegalArgumentException Si ocurre algún error durante la eliminación
-   *                                  de las sesiones.
+   * @param progress      Recibe el número de filas eliminadas en cada lote.
+   * @return El número total de sesiones eliminadas.
+   * @throws ServiceFailureException Si ocurre algún error durante la eliminación
+   *                                 de las sesiones.
    */
-  @Transactional
-  public void deleteByUserIdAndSessionStatus(Long userId, String sessionStatus) {
+  public long deleteByUserIdAndSessionStatus(
+      Long userId, String sessionStatus, LongConsumer progress) {
     try {
       // Elimina las sesiones del usuario con el estado especificado
-      userLoginActivityRepository.deleteByUserIdAndSessionStatus(userId, sessionStatus);
+      return bulkDeleteJobService.deleteInChunks(
+          batchSize -> userLoginActivityRepository
+              .deleteChunkByUserIdAndSessionStatus(userId, sessionStatus, batchSize),
+          progress);
     } catch (Exception e) {
-      throw new IllegalArgumentException("219, Error al borrar sesión por userId y estatus");
+      throw new ServiceFailureException("219, Error al borrar sesión por userId y estatus", e);
     }
   }
 
@@ -356,7 +396,7 @@ public class UserLoginActivityService {
           .collect(Collectors.toList());
       return uList;
     } catch (Exception e) {
-      throw new IllegalArgumentException("205, Error al buscar el loginAttempt con el email");
+      throw new ServiceFailureException("205, Error al buscar el loginAttempt con el email", e);
     }
   }
 
@@ -383,19 +423,15 @@ public class UserLoginActivityService {
           .map(UserLoginActivityMapper::convertUserLoginActivityToUserLoginActivityResponseDTO);
       return uResponseDTOs;
     } catch (Exception e) {
-      throw new IllegalArgumentException("219, Error mappear las sesiones");
+      throw new ServiceFailureException("219, Error mappear las sesiones", e);
     }
   }
 
   public void registerSuccessfulLogin(
       Long userId, String newToken, Instant expiryDate, String ipAddress,
       String userAgent, String idSession, Instant sessionTime, String sessionStatus) {
-    try {
-      userLoginActivityRepository.spRegisterSuccessfulLogin(
-          userId, newToken, expiryDate, ipAddress, userAgent, idSession, sessionTime, sessionStatus);
-    } catch (Exception e) {
-      throw new IllegalArgumentException(e.getMessage());
-    }
+    procedureExecutor.execute(CustomerProcedures.REGISTER_SUCCESSFUL_LOGIN,
+        userId, newToken, expiryDate, ipAddress, userAgent, idSession, sessionTime, sessionStatus);
   }
 
 }
@@ -2,15 +2,19 @@ package com.mvanalytic.apirest_demo_springboot.services.user;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.TimeoutException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import com.mvanalytic.apirest_demo_springboot.domain.user.User;
 import com.mvanalytic.apirest_demo_springboot.domain.user.UserKey;
+import com.mvanalytic.apirest_demo_springboot.dto.user.AdminUserResponseDTO;
 import com.mvanalytic.apirest_demo_springboot.dto.user.PasswordResetRequestDTO;
 import com.mvanalytic.apirest_demo_springboot.dto.user.UserEmailRequestDTO;
 import com.mvanalytic.apirest_demo_springboot.dto.user.UserNicknameRequestDTO;
@@ -18,13 +22,22 @@ import com.mvanalytic.apirest_demo_springboot.dto.user.UserPasswordRequestDTO;
 import com.mvanalytic.apirest_demo_springboot.dto.user.UserProfileRequestDTO;
 import com.mvanalytic.apirest_demo_springboot.dto.user.UserProfileResponseDTO;
 import com.mvanalytic.apirest_demo_springboot.dto.user.UserStatusRequestDTO;
+import com.mvanalytic.apirest_demo_springboot.mapper.user.UserMapper;
 import com.mvanalytic.apirest_demo_springboot.repositories.user.UserRepository;
 import com.mvanalytic.apirest_demo_springboot.services.mail.MailService;
 import com.mvanalytic.apirest_demo_springboot.utility.AppUtility;
 import com.mvanalytic.apirest_demo_springboot.utility.RandomKeyGenerator;
+import com.mvanalytic.apirest_demo_springboot.utility.SingleFlight;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.QueryTimeoutException;
 import jakarta.persistence.EntityManager;
+import com.mvanalytic.apirest_demo_springboot.exceptions.BusinessException;
+import com.mvanalytic.apirest_demo_springboot.exceptions.ProcedureException;
+import com.mvanalytic.apirest_demo_springboot.exceptions.ServiceFailureException;
+import com.mvanalytic.apirest_demo_springboot.exceptions.IdentifierNotFoundException;
+import com.mvanalytic.apirest_demo_springboot.repositories.procedure.CustomerProcedures;
+import com.mvanalytic.apirest_demo_springboot.repositories.procedure.StoredProcedureExecutor;
 
 /**
  * Servicio para gestionar operaciones CRUD relacionadas con los usuarios.
@@ -48,6 +61,9 @@ public class UserService {
   @Autowired
   private UserKeyServiceImpl userKeyServiceImpl;
 
+  @Autowired
+  private StoredProcedureExecutor procedureExecutor;
+
   @Autowired
   private MailService mailService;
 
@@ -58,6 +74,20 @@ public class UserService {
   @Lazy
   private PasswordEncoder passwordEncoder;
 
+  // Diferido: RefreshTokenService depende de este servicio
+  @Autowired
+  @Lazy
+  private RefreshTokenService refreshTokenService;
+
+  // Tiempo máximo de la consulta por nickname y de la espera de las búsquedas
+  // que se unen a ella
+  @Value("${app.user.lookup.timeout-ms:2000}")
+  private long lookupTimeoutMs;
+
+  // Búsquedas por nickname en curso; solo se comparte el id del usuario, nunca
+  // la entidad, que pertenece al contexto de persistencia de quien la cargó
+  private final SingleFlight<String, Optional<Long>> nicknameLookups = new SingleFlight<>();
+
   /**
    * Registra un nuevo usuario en el sistema y gestiona el envío de un correo de
    * activación.
@@ -93,11 +123,11 @@ public class UserService {
     Optional<User> existingUserByNickname = userRepository.findByNickname(user.getNickname());
 
     if (existingUserByEmail.isPresent()) {
-      throw new IllegalArgumentException("106, El email ingresado ya existe");
+      throw new BusinessException("106, El email ingresado ya existe");
     }
 
     if (existingUserByNickname.isPresent()) {
-      throw new IllegalArgumentException("105, El nickname ingresado ya existe");
+      throw new BusinessException("105, El nickname ingresado ya existe");
     }
 
     // genera una clave temporal si es enviado por ROLE_ADMIN
@@ -180,26 +210,19 @@ public class UserService {
    * 
    * Este método obtiene al primer usuario con el rol 'ROLE_ADMIN' de la base de
    * datos y envía un correo informándole que un nuevo usuario ha activado su
-   * cuenta en la aplicación.
+   * cuenta en la aplicación. Los errores de acceso a datos y de envío del
+   * correo se propagan con su traza y su causa original.
    * 
    * @param user El objeto `UserKey` que contiene información del usuario que ha
    *             activado su cuenta, incluyendo su información personal y su
    *             relación con la entidad `User`.
-   * @throws IllegalArgumentException Si ocurre un error durante el proceso de
-   *                                  obtención del administrador o el envío del
-   *                                  correo.
    */
   public void activationReportToAdmin(UserKey user) {
-    try {
-      // cargar el user con ROLE_ADMIN
-      UserProfileResponseDTO userAdmin = getFirstAdminUser();
-
-      // envio a correo
-      mailService.sendActivationReportToAdmin(user.getUser(), userAdmin);
+    // cargar el user con ROLE_ADMIN
+    UserProfileResponseDTO userAdmin = getFirstAdminUser();
 
-    } catch (Exception e) {
-      throw new IllegalArgumentException(e.getMessage());
-    }
+    // envio a correo
+    mailService.sendActivationReportToAdmin(user.getUser(), userAdmin);
   }
 
   /**
@@ -298,21 +321,17 @@ public class UserService {
   /**
    * Crea un nuevo usuario y registra una clave en la tabla `user_key`.
    *
-   * Este método llama al procedimiento almacenado `sp_create_user_and_key` a
-   * través del repositorio `userRepository`. Se pasa la información del usuario
+   * Este método llama al procedimiento almacenado `sp_create_user_and_key` con
+   * StoredProcedureExecutor. Se pasa la información del usuario
    * (nombre, apellidos, email, nickname, contraseña hasheada, idioma) y la clave
-   * de activación junto con su propósito (por ejemplo, 'ACCOUNT_ACTIVATION'). Si
-   * ocurre algún error, como la existencia de un correo o nickname duplicado, se
-   * captura la excepción y se lanza una nueva excepción con el mensaje de error
-   * correspondiente.
+   * de activación junto con su propósito (por ejemplo, 'ACCOUNT_ACTIVATION').
    *
    * Proceso:
    * 1. Se envía la información del usuario y la clave de activación al
    * procedimiento almacenado.
    * 2. Si el procedimiento almacenado detecta errores (correo o nickname
-   * duplicados), se lanza una excepción con el mensaje de error respectivo.
-   * 3. Si ocurre algún otro error, también se captura y se registra en los logs
-   * para su posterior análisis.
+   * duplicados), se propaga la ProcedureException con su código y estado HTTP.
+   * 3. Los demás errores de acceso a datos se propagan sin envolver.
    *
    * @param firstName       El primer nombre del usuario.
    * @param lastName        El primer apellido del usuario.
@@ -325,19 +344,13 @@ public class UserService {
    * @param keyPurpose      El propósito de la clave, como 'ACCOUNT_ACTIVATION' o
    *                        'PASSWORD_RESET'.
    *
-   * @throws IllegalArgumentException Si ocurre algún error durante la ejecución
-   *                                  del procedimiento, se lanza una excepción
-   *                                  con el mensaje de error correspondiente.
+   * @throws ProcedureException Si el procedimiento rechaza el registro.
    */
   public Long createUserAndKey(User user, UserKey userKey) {
-    try {
-      return userRepository.spCreateUserAndKey(
-          user.getFirstName(), user.getLastName(), user.getSecondLastName(), user.getEmail(),
-          user.getNickname(), user.getPassword(), user.getLanguageKey(),
-          userKey.getKeyValue(), userKey.getKeyPurpose(), userKey.getCreatedAt());
-    } catch (Exception e) {
-      throw new IllegalArgumentException(e.getMessage());
-    }
+    return procedureExecutor.executeForLong(CustomerProcedures.CREATE_USER_AND_KEY,
+        user.getFirstName(), user.getLastName(), user.getSecondLastName(), user.getEmail(),
+        user.getNickname(), user.getPassword(), user.getLanguageKey(),
+        userKey.getKeyValue(), userKey.getKeyPurpose(), userKey.getCreatedAt());
   }
 
   /**
@@ -345,8 +358,8 @@ public class UserService {
    * activación en la tabla `user_key`.
    *
    * Este método llama al procedimiento almacenado
-   * `sp_update_password_and_insert_key` a través del repositorio
-   * `userRepository`. El procedimiento realiza dos acciones dentro de una
+   * `sp_update_password_and_insert_key` con StoredProcedureExecutor. El
+   * procedimiento realiza dos acciones dentro de una
    * transacción:
    * 1. Actualiza la columna `password_hash` de la tabla `user_mva` con la nueva
    * contraseña del usuario.
@@ -361,29 +374,22 @@ public class UserService {
    * fecha de creación.
    *
    * Proceso:
-   * 1. Extrae la información necesaria del objeto `User` y `UserKey` y llama al
-   * método `spUpdatePasswordAndInserKey` del repositorio, que ejecuta el
-   * procedimiento almacenado.
-   * 2. Si ocurre un error durante la ejecución del procedimiento almacenado, se
-   * captura la excepción, se registra el error en los logs y se lanza una nueva
-   * excepción `IllegalArgumentException` con el mensaje del error.
+   * 1. Extrae la información necesaria del objeto `User` y `UserKey` y ejecuta
+   * el procedimiento almacenado.
+   * 2. Si el procedimiento almacenado rechaza la operación, se propaga la
+   * ProcedureException con su código y estado HTTP.
    *
    * @param user    El objeto `User` que contiene el ID y la nueva contraseña
    *                hasheada del usuario.
    * @param userKey El objeto `UserKey` que contiene los datos de la clave de
    *                activación.
    *
-   * @throws IllegalArgumentException Si ocurre algún error durante la ejecución
-   *                                  del procedimiento almacenado.
+   * @throws ProcedureException Si el procedimiento rechaza la operación.
    */
   public Long updatePasswordAndInsertUserKey(User user, UserKey userKey) {
-    try {
-      return userRepository.spUpdatePasswordAndInsertUserKey(
-          user.getId(), user.getPassword(),
-          userKey.getKeyValue(), userKey.getKeyPurpose(), userKey.getCreatedAt());
-    } catch (Exception e) {
-      throw new IllegalArgumentException(e.getMessage());
-    }
+    return procedureExecutor.executeForLong(CustomerProcedures.UPDATE_PASSWORD_AND_INSERT_KEY,
+        user.getId(), user.getPassword(),
+        userKey.getKeyValue(), userKey.getKeyPurpose(), userKey.getCreatedAt());
   }
 
   /**
@@ -423,33 +429,26 @@ public class UserService {
    * </pre>
    */
   public void changePasswordByReset(Long id, String newPassword, String keValue) {
-    try {
-
-      // 1. verificar si hay una solicitud de reset password y está activa
-      UserKey userKey = userKeyServiceImpl.findByIdWithUser(id);
+    // 1. verificar si hay una solicitud de reset password y está activa
+    UserKey userKey = userKeyServiceImpl.findByIdWithUser(id);
 
-      // 2. Verificar si la clave de restablecimiento ha expirado
-      appUtility.verifyExpirationResetPassword(userKey);
+    // 2. Verificar si la clave de restablecimiento ha expirado
+    appUtility.verifyExpirationResetPassword(userKey);
 
-      // 3. verificar si el usuario existe en la tabla user_mva
-      User user = getUserById(userKey.getUser().getId());
+    // 3. verificar si el usuario existe en la tabla user_mva
+    User user = getUserById(userKey.getUser().getId());
 
-      // validar que la nueva contraseña sea diferente a la actual
-      // almacenada
-      if (passwordEncoder.matches(newPassword, user.getPassword())) {
-        throw new IllegalArgumentException("109, La nueva contraseña es igual a la contraseña vigente");
-      }
-
-      // 4. Encripta las contraseñas antes de guardarla
-      String hashedPassword = passwordEncoder.encode(newPassword);
+    // validar que la nueva contraseña sea diferente a la actual
+    // almacenada
+    if (passwordEncoder.matches(newPassword, user.getPassword())) {
+      throw new BusinessException("109, La nueva contraseña es igual a la contraseña vigente");
+    }
 
-      // 5. Envío a procesar la solicitud de restablecimiento
-      executeChangePasswordByReset(id, keValue, hashedPassword);
+    // 4. Encripta las contraseñas antes de guardarla
+    String hashedPassword = passwordEncoder.encode(newPassword);
 
-    } catch (Exception e) {
-      String errorMessage = appUtility.extractErrorMessage(e.getMessage());
-      throw new IllegalArgumentException(errorMessage);
-    }
+    // 5. Envío a procesar la solicitud de restablecimiento
+    executeChangePasswordByReset(id, keValue, hashedPassword);
   }
 
   /**
@@ -460,15 +459,15 @@ public class UserService {
    * 
    * @param id       El ID del usuario al que se le va a actualizar la contraseña.
    * @param password La nueva contraseña en formato hash.
-   * @throws IllegalArgumentException Si ocurre un error al intentar actualizar la
-   *                                  contraseña, se lanza esta excepción con un
-   *                                  código de error específico.
+   * @throws ServiceFailureException Si ocurre un error al intentar actualizar la
+   *                                 contraseña, se lanza esta excepción con un
+   *                                 código de error específico.
    */
   public void updateTemporaryPassword(Long id, String password) {
     try {
       userRepository.updatePasswordById(id, password);
     } catch (Exception e) {
-      throw new IllegalArgumentException("157, Error al actualizar contraseña");
+      throw new ServiceFailureException("157, Error al actualizar contraseña", e);
     }
   }
 
@@ -499,7 +498,7 @@ public class UserService {
     try {
       // intenta encontrar el usaurio con el email
       return userRepository.findByEmail(email)
-          .orElseThrow(() -> new UsernameNotFoundException("102, El usuario no existe"));
+          .orElseThrow(() -> new IdentifierNotFoundException("102, El usuario no existe"));
     } catch (UsernameNotFoundException e) {
       // Relanza la excepción para que sea manejada por otros manejadores de
       // excepciones
@@ -510,27 +509,63 @@ public class UserService {
   /**
    * Obtiene un usuario por su nickname.
    *
+   * Las búsquedas concurrentes del mismo nickname comparten una sola consulta,
+   * que resuelve el id del usuario. La solicitud que ejecuta la consulta
+   * conserva la entidad que cargó; las que se unen a ella cargan su propia
+   * entidad por id, en su propio contexto de persistencia. Un nickname
+   * inexistente se resuelve con una sola consulta para todas.
+   *
    * @param nickname El nickname del usuario a buscar.
    * @return El usuario encontrado.
+   * @throws BusinessException Con el código 233 y el estado 503
+   *                           (SERVICE_UNAVAILABLE) si la consulta o la espera
+   *                           superan 'app.user.lookup.timeout-ms'.
    */
   public User getUserByNickName(String nickname) {
     try {
-      // Intenta encontrar el usuario por su nickname
-      Optional<User> optionalUser = userRepository.findByNickname(nickname);
-
-      if (optionalUser.isPresent()) {
-        User user = optionalUser.get();
-        return user;
-      } else {
-        throw new UsernameNotFoundException("102, El usuario no existe");
+      User[] loaded = new User[1];
+      Optional<Long> userId = nicknameLookups.load(nickname, () -> {
+        Optional<User> found = findByNicknameWithTimeout(nickname);
+        found.ifPresent(user -> loaded[0] = user);
+        return found.map(User::getId);
+      }, lookupTimeoutMs);
+
+      if (userId.isEmpty()) {
+        throw new IdentifierNotFoundException("102, El usuario no existe");
       }
-    } catch (UsernameNotFoundException e) {
+      if (loaded[0] != null) {
+        return loaded[0];
+      }
+      return userRepository.findById(userId.get())
+          .orElseThrow(() -> new IdentifierNotFoundException("102, El usuario no existe"));
+    } catch (UsernameNotFoundException | BusinessException e) {
       throw e; // Relanza la excepción para que sea manejada por los manejadores de excepciones
+    } catch (TimeoutException | QueryTimeoutException e) {
+      throw new BusinessException("233, Tiempo de espera agotado al buscar el usuario",
+          HttpStatus.SERVICE_UNAVAILABLE);
     } catch (Exception e) {
       throw new RuntimeException("114, Error inesperado al buscar el usuario", e);
     }
   }
 
+  /**
+   * Busca un usuario por su nickname, junto con sus autoridades, con el tiempo
+   * máximo de consulta 'app.user.lookup.timeout-ms'.
+   *
+   * @param nickname El nickname del usuario a buscar.
+   * @return Un Optional con el usuario, o vacío si no existe.
+   * @throws QueryTimeoutException Si la consulta supera el tiempo máximo.
+   */
+  private Optional<User> findByNicknameWithTimeout(String nickname) {
+    return entityManager.createQuery("SELECT u FROM User u WHERE u.nickname = :nickname", User.class)
+        .setParameter("nickname", nickname)
+        .setHint("jakarta.persistence.fetchgraph", entityManager.getEntityGraph(User.WITH_AUTHORITIES))
+        .setHint("jakarta.persistence.query.timeout", lookupTimeoutMs)
+        .getResultList()
+        .stream()
+        .findFirst();
+  }
+
   /**
    * Método para obtener un usuario por su nickname. Si el usuario no existe,
    * retorna null.
@@ -582,7 +617,7 @@ public class UserService {
     try {
       return userRepository.save(user);
     } catch (Exception e) {
-      throw new IllegalArgumentException("158, Error al cargar el usuario");
+      throw new ServiceFailureException("158, Error al cargar el usuario", e);
     }
   }
 
@@ -595,35 +630,25 @@ public class UserService {
    * @return El usuario actualizado.
    */
   @Transactional
-  public User updateStatusUser(UserStatusRequestDTO userStatusUpdateRequestDTO) {
+  public AdminUserResponseDTO updateStatusUser(UserStatusRequestDTO userStatusUpdateRequestDTO) {
     try {
-      // Obtener el usuario por ID
-      getUserById(userStatusUpdateRequestDTO.getId());
-
-      // Llamar al procedimiento almacenado para actualizar el usuario
-      userRepository.spUpdateUserByRoleAdmin(
+      // Llamar al procedimiento almacenado para actualizar el usuario; valida que
+      // el usuario exista y devuelve el registro actualizado
+      AdminUserResponseDTO updatedUser = requireUpdatedUser(procedureExecutor.query(
+          CustomerProcedures.UPDATE_USER_BY_ROLE_ADMIN,
+          UserMapper::convertResultSetToAdminUserDTO,
           userStatusUpdateRequestDTO.getId(),
           userStatusUpdateRequestDTO.getActivated(),
-          userStatusUpdateRequestDTO.getStatus());
+          userStatusUpdateRequestDTO.getStatus()));
 
-      /**
-       * Limpiar la caché de primer nivel de Hibernate: Puedes usar EntityManager
-       * para limpiar la caché de primer nivel antes de volver a cargar el usuario.
-       */
-      entityManager.flush();
-      /**
-       * Refrescar la entidad: Usar el método refresh de EntityManager para forzar
-       * la sincronización con la base de datos.
-       */
-      entityManager.clear();
+      // Los roles registrados se vuelven a cargar en la siguiente rotación
+      refreshTokenService.evictRoles(updatedUser.getNickname());
 
       // Retornar el usuario actualizado
-      return getUserById(userStatusUpdateRequestDTO.getId());
+      return updatedUser;
 
     } catch (DataAccessException e) {
       throw new RuntimeException(e.getMostSpecificCause().getMessage());
-    } catch (Exception e) {
-      throw new IllegalArgumentException(e.getMessage());
     }
 
   }
@@ -638,33 +663,21 @@ public class UserService {
    * @return El usuario actualizado.
    */
   @Transactional
-  public User updateProfileUser(UserProfileRequestDTO userProfileUpdateRequestDTO) {
+  public UserProfileResponseDTO updateProfileUser(UserProfileRequestDTO userProfileUpdateRequestDTO) {
     try {
-      // Obtener el usuario por ID, esto lanzará DataAccessException si no se
-      // encuentra
-      getUserById(userProfileUpdateRequestDTO.getId());
-
-      // Llamar al procedimiento almacenado para actualizar el usuario
-      userRepository.spUpdateUserByRoleUser(
+      // Llamar al procedimiento almacenado para actualizar el usuario; valida que
+      // el usuario exista y devuelve el registro actualizado
+      UserProfileResponseDTO updatedUser = procedureExecutor.query(
+          CustomerProcedures.UPDATE_USER_BY_ROLE_USER,
+          UserMapper::convertResultSetToUserProfileDTO,
           userProfileUpdateRequestDTO.getId(),
           userProfileUpdateRequestDTO.getFirstName(),
           userProfileUpdateRequestDTO.getLastName(),
           userProfileUpdateRequestDTO.getSecondLastName(),
           userProfileUpdateRequestDTO.getLanguageKey());
 
-      /**
-       * Limpiar la caché de primer nivel de Hibernate: Puedes usar EntityManager
-       * para limpiar la caché de primer nivel antes de volver a cargar el usuario.
-       */
-      entityManager.flush();
-      /**
-       * Refrescar la entidad: Usar el método refresh de EntityManager para forzar
-       * la sincronización con la base de datos.
-       */
-      entityManager.clear();
-
       // Retornar el usuario actualizado
-      return getUserById(userProfileUpdateRequestDTO.getId());
+      return requireUpdatedUser(updatedUser);
 
     } catch (DataAccessException e) {
       // Lanza una excepción de tiempo de ejecución con un mensaje más específico
@@ -680,30 +693,23 @@ public class UserService {
    * @return El usuario actualizado.
    */
   @Transactional
-  public User updateNickname(UserNicknameRequestDTO userNicknameUpdateRequestDTO) {
+  public UserProfileResponseDTO updateNickname(UserNicknameRequestDTO userNicknameUpdateRequestDTO) {
     try {
-      // Obtener el usuario por ID, esto lanzará DataAccessException si no se
-      // encuentra
-      getUserById(userNicknameUpdateRequestDTO.getId());
-
-      // Llamar al procedimiento almacenado para actualizar el usuario
-      userRepository.spChangeNickname(
+      // Nickname actual, para eliminar los roles registrados con él
+      Optional<String> previousNickname = userRepository.findNicknameById(userNicknameUpdateRequestDTO.getId());
+
+      // Llamar al procedimiento almacenado para actualizar el usuario; valida que
+      // el usuario exista y devuelve el registro actualizado
+      UserProfileResponseDTO updatedUser = requireUpdatedUser(procedureExecutor.query(
+          CustomerProcedures.CHANGE_NICKNAME,
+          UserMapper::convertResultSetToUserProfileDTO,
           userNicknameUpdateRequestDTO.getId(),
-          userNicknameUpdateRequestDTO.getNickname());
+          userNicknameUpdateRequestDTO.getNickname()));
 
-      /**
-       * Limpiar la caché de primer nivel de Hibernate: Puedes usar EntityManager
-       * para limpiar la caché de primer nivel antes de volver a cargar el usuario.
-       */
-      entityManager.flush();
-      /**
-       * Refrescar la entidad: Usar el método refresh de EntityManager para forzar
-       * la sincronización con la base de datos.
-       */
-      entityManager.clear();
+      previousNickname.ifPresent(refreshTokenService::evictRoles);
 
       // Retornar el usuario actualizado
-      return getUserById(userNicknameUpdateRequestDTO.getId());
+      return updatedUser;
 
     } catch (DataAccessException e) {
       // Lanza una excepción de tiempo de ejecución con un mensaje más específico
@@ -722,30 +728,18 @@ public class UserService {
    * @return El usuario actualizado.
    */
   @Transactional
-  public User updateEmail(UserEmailRequestDTO userEmailUpdateRequestDTO) {
+  public UserProfileResponseDTO updateEmail(UserEmailRequestDTO userEmailUpdateRequestDTO) {
     try {
-      // Obtener el usuario por ID, esto lanzará DataAccessException si no se
-      // encuentra
-      getUserById(userEmailUpdateRequestDTO.getId());
-
-      // Llamar al procedimiento almacenado para actualizar el usuario
-      userRepository.spChangeEmail(
+      // Llamar al procedimiento almacenado para actualizar el usuario; valida que
+      // el usuario exista y devuelve el registro actualizado
+      UserProfileResponseDTO updatedUser = procedureExecutor.query(
+          CustomerProcedures.CHANGE_EMAIL,
+          UserMapper::convertResultSetToUserProfileDTO,
           userEmailUpdateRequestDTO.getId(),
           userEmailUpdateRequestDTO.getEmail());
 
-      /**
-       * Limpiar la caché de primer nivel de Hibernate: Puedes usar EntityManager
-       * para limpiar la caché de primer nivel antes de volver a cargar el usuario.
-       */
-      entityManager.flush();
-      /**
-       * Refrescar la entidad: Usar el método refresh de EntityManager para forzar
-       * la sincronización con la base de datos.
-       */
-      entityManager.clear();
-
       // Retornar el usuario actualizado
-      return getUserById(userEmailUpdateRequestDTO.getId());
+      return requireUpdatedUser(updatedUser);
 
     } catch (DataAccessException e) {
       // Lanza una excepción de tiempo de ejecución con un mensaje más específico
@@ -756,6 +750,21 @@ public class UserService {
     }
   }
 
+  /**
+   * Verifica que el procedimiento haya devuelto el usuario actualizado.
+   *
+   * @param <T>         El tipo de DTO de respuesta.
+   * @param updatedUser El DTO construido con la fila devuelta.
+   * @return El mismo DTO.
+   * @throws EntityNotFoundException Si el procedimiento no devolvió filas.
+   */
+  static <T> T requireUpdatedUser(T updatedUser) {
+    if (updatedUser == null) {
+      throw new EntityNotFoundException("102, El usuario no existe");
+    }
+    return updatedUser;
+  }
+
   /**
    * Actualiza el password de un usuario existente.
    * Solo ROLE_USER puede acceder a este método
@@ -773,7 +782,7 @@ public class UserService {
       // Verificar que la contraseña actual proporcionada coincida con la que está
       // almacenada
       if (!passwordEncoder.matches(userPasswordUpdateRequestDTO.getOldPassword(), user.getPassword())) {
-        throw new IllegalArgumentException("108, La contraseña no coincide con la registrada");
+        throw new BusinessException("108, La contraseña no coincide con la registrada");
       }
 
       // Codifica las contraseñas antes de guardarla
@@ -781,11 +790,11 @@ public class UserService {
 
       // Verifica que la nueva contraseña no sea igual a la actual
       if (passwordEncoder.matches(userPasswordUpdateRequestDTO.getNewPassword(), user.getPassword())) {
-        throw new IllegalArgumentException("109, La nueva contraseña es igual a la contraseña vigente");
+        throw new BusinessException("109, La nueva contraseña es igual a la contraseña vigente");
       }
 
       // Llamar al procedimiento almacenado para actualizar el usuario
-      userRepository.spChangePassword(
+      procedureExecutor.execute(CustomerProcedures.CHANGE_PASSWORD,
           userPasswordUpdateRequestDTO.getId(),
           hashedPassword,
           user.getPassword());
@@ -817,39 +826,30 @@ public class UserService {
    * Procesa el restablecimiento de contraseña para un usuario.
    *
    * Este método se encarga de invocar el procedimiento almacenado
-   * `spResetPassword` para cambiar la contraseña de un usuario utilizando un
+   * `sp_change_password_by_reset` para cambiar la contraseña de un usuario utilizando un
    * `key_value` (clave de restablecimiento) generado previamente y su
    * identificación de usuario (`id`).
    * 
    * Si el procedimiento almacenado detecta algún error (como clave vencida o
-   * clave no válida), se captura el mensaje de error y se lanza una excepción con
-   * el mensaje proporcionado por el procedimiento.
+   * clave no válida), se propaga la ProcedureException con el código y el
+   * mensaje del procedimiento.
    *
    * @param id          El identificador del usuario que está restableciendo la
    *                    contraseña.
    * @param keyValue    La clave de restablecimiento proporcionada por el usuario.
    * @param newPassword La nueva contraseña que el usuario desea establecer.
-   * @throws IllegalArgumentException Si ocurre un error en el procedimiento
-   *                                  almacenado y se recibe un mensaje de error
-   *                                  desde la base de datos.
+   * @throws ProcedureException Si el procedimiento rechaza el restablecimiento.
    */
   public void executeChangePasswordByReset(Long id, String keyValue, String newHashedPassword) {
-    try {
-
-      // cargar el tiempo de expiración
-      int expiracionTimeActivation = appUtility.getExpirationActivation();
-
-      // Invoca el procedimiento almacenado para generar la clave de restablecimiento
-
-      userRepository.spChangePasswordByReset(
-          id,
-          keyValue,
-          newHashedPassword,
-          expiracionTimeActivation);
-
-    } catch (Exception e) {
-      throw new IllegalArgumentException(e.getMessage());
-    }
+    // cargar el tiempo de expiración
+    int expiracionTimeActivation = appUtility.getExpirationActivation();
+
+    // Invoca el procedimiento almacenado para generar la clave de restablecimiento
+    procedureExecutor.execute(CustomerProcedures.CHANGE_PASSWORD_BY_RESET,
+        id,
+        keyValue,
+        newHashedPassword,
+        expiracionTimeActivation);
   }
 
 }
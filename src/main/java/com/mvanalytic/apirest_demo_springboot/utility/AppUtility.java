@@ -3,7 +3,7 @@ package com.mvanalytic.apirest_demo_springboot.utility;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.UUID;
-import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import com.mvanalytic.apirest_demo_springboot.domain.user.User;
@@ -18,8 +18,9 @@ import java.time.format.DateTimeParseException;
 @Component
 public class AppUtility {
 
-  // Instancia singleton de logger
-  private static final Logger logger = LoggerSingleton.getLogger(AppUtility.class);
+  // Fachada de logging estructurado
+  @Autowired
+  private EventLogger eventLogger;
 
   // cargar el valor baseUrl desde el archivo properties
   @Value("${app.base-url}")
@@ -45,18 +46,24 @@ public class AppUtility {
    * 
    * Dependiendo del perfil de la aplicación, se registra la información de la
    * excepción para desarrollo, mientras que en producción se mantiene más simple.
+   * El evento se registra con nivel ERROR a través de {@link EventLogger}, con
+   * el código inicial del mensaje como código de evento y limitado en eventos
+   * por segundo. Los eventos esperados deben usar {@link EventLogger} con un
+   * nivel menor.
    *
+   * @param source   La clase que registra el error; su logger recibe el evento.
    * @param message  Mensaje principal del log. Puede describir el contexto o la
    *                 operación en la cual ocurrió el error.
    * @param eMessage Mensaje de la excepción (detalles del error), que puede ser
    *                 registrado en modo desarrollo para facilitar el diagnóstico.
    * @author Mario Martínez Lanuza
    */
-  public void sendLog(String message, String eMessage) {
+  public void sendLog(Class<?> source, String message, String eMessage) {
+    String event = EventLogger.eventCode(message);
     if ("dev".equals(mode)) {
-      logger.error("{}: {}", message, eMessage);
+      eventLogger.error(source, event, "{}: {}", "message", message, "detail", eMessage);
     } else {
-      logger.error("{}", message);
+      eventLogger.error(source, event, "{}", "message", message);
     }
   }
 
@@ -72,27 +79,6 @@ public class AppUtility {
     }
   }
 
-  /**
-   * Método para extraer el mensaje de error principal de una excepción.
-   *
-   * @param exceptionMessage Mensaje completo de la excepción
-   * @return Mensaje filtrado con solo el código y el mensaje relevante
-   */
-  public String extractErrorMessage(String exceptionMessage) {
-    // Busca el mensaje del procedimiento almacenado
-    if (exceptionMessage != null && exceptionMessage.contains("[")) {
-      int startIndex = exceptionMessage.indexOf("[") + 1;
-      int endIndex = exceptionMessage.indexOf("]");
-      if (startIndex >= 0 && endIndex > startIndex) {
-        // Retorna solo el mensaje dentro de los corchetes, por ejemplo: "105, El
-        // usuario ya está activado"
-        return exceptionMessage.substring(startIndex, endIndex);
-      }
-    }
-    // Retorna el mensaje completo si no se encuentra el patrón esperado
-    return exceptionMessage;
-  }
-
   /**
    * Genera una clave (key) para la activación de cuenta o el restablecimiento de
    * contraseña.
@@ -153,7 +139,7 @@ public class AppUtility {
       }
 
     } catch (Exception e) {
-      sendLog("147, La clave de activación ha expirado", e.getMessage());
+      sendLog(AppUtility.class, "147, La clave de activación ha expirado", e.getMessage());
       throw new IllegalArgumentException("147, La clave de activación ha expirado", e);
     }
   }
@@ -180,7 +166,7 @@ public class AppUtility {
       }
 
     } catch (Exception e) {
-      sendLog("147, La clave de activación ha expirado", e.getMessage());
+      sendLog(AppUtility.class, "147, La clave de activación ha expirado", e.getMessage());
       throw new IllegalArgumentException("147, La clave de activación ha expirado", e);
     }
   }
@@ -206,7 +192,7 @@ public class AppUtility {
     try {
       return expirationActivation;
     } catch (Exception e) {
-      sendLog("159, Error al cargar el tiempo de expiración", e.getMessage());
+      sendLog(AppUtility.class, "159, Error al cargar el tiempo de expiración", e.getMessage());
       throw new IllegalArgumentException("159, Error al cargar el tiempo de expiración");
     }
 
@@ -229,7 +215,7 @@ public class AppUtility {
     try {
       return baseUrl;
     } catch (Exception e) {
-      sendLog("169, Error al cargar la url base", e.getMessage());
+      sendLog(AppUtility.class, "169, Error al cargar la url base", e.getMessage());
       throw new IllegalArgumentException("169, Error al cargar la url base");
     }
   }
@@ -253,7 +239,7 @@ public class AppUtility {
     try {
       return storageLocation;
     } catch (Exception e) {
-      sendLog("170, Error al cargar la ruta de los archivos para descarga", e.getMessage());
+      sendLog(AppUtility.class, "170, Error al cargar la ruta de los archivos para descarga", e.getMessage());
       throw new IllegalArgumentException("170, Error al cargar la ruta de los archivos para descarga");
     }
   }
@@ -270,7 +256,7 @@ public class AppUtility {
     try {
       return refreshTokenDurationMs;
     } catch (Exception e) {
-      sendLog("173, Error al cargar el refreshTokenDurationMs", e.getMessage());
+      sendLog(AppUtility.class, "173, Error al cargar el refreshTokenDurationMs", e.getMessage());
       throw new IllegalArgumentException("173, Error al cargar el refreshTokenDurationMs");
     }
   }
@@ -303,7 +289,7 @@ public class AppUtility {
       return localDateTime.format(formatter);
 
     } catch (Exception e) {
-      sendLog("171, Error al formatear la fecha y hora del intento", e.getMessage());
+      sendLog(AppUtility.class, "171, Error al formatear la fecha y hora del intento", e.getMessage());
       throw new IllegalArgumentException("171, Error al formatear la fecha y hora del intento", e);
     }
   }
@@ -340,7 +326,7 @@ public class AppUtility {
       return utcDateTime.format(outputFormatter);
 
     } catch (Exception e) {
-      sendLog("185, Error al convertir la fecha a UTC", e.getMessage());
+      sendLog(AppUtility.class, "185, Error al convertir la fecha a UTC", e.getMessage());
       throw new IllegalArgumentException("185, Error al convertir la fecha a UTC", e);
     }
   }
@@ -0,0 +1,163 @@
+package com.mvanalytic.apirest_demo_springboot.utility;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.event.Level;
+import org.slf4j.spi.LoggingEventBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fachada de logging estructurado de la aplicación.
+ *
+ * Cada evento se registra en el logger de la clase que lo genera, recibida
+ * como primer parámetro, de modo que el nivel y los appenders se configuran
+ * por clase o paquete en logback.xml. Esta clase solo agrega los campos
+ * estructurados y el límite de eventos. Cada evento se registra con:
+ * - un código de evento (el código "NNN" de la tabla de errores),
+ * - un mensaje parametrizado con '{}' que solo se formatea si el nivel está
+ * habilitado,
+ * - pares clave/valor que se emiten como campos del JSON y, en el mismo orden,
+ * como argumentos del mensaje.
+ *
+ * Los eventos repetidos se limitan por código a
+ * 'app.log.rate-limit.events-per-second'; los descartados se informan en el
+ * campo 'suppressed' del siguiente evento registrado con el mismo código.
+ *
+ * Ejemplo:
+ * eventLogger.warn(JwtUtils.class, "509", "Token JWT ha expirado: {}", "detail", e.getMessage());
+ */
+@Component
+public class EventLogger {
+
+  // Código utilizado cuando el mensaje no comienza con un código numérico
+  public static final String DEFAULT_EVENT = "app";
+
+  @Value("${app.log.rate-limit.events-per-second:20}")
+  private int eventsPerSecond;
+
+  // Ventana de conteo por código de evento; los códigos son un conjunto acotado
+  private final Map<String, Window> windows = new ConcurrentHashMap<>();
+
+  public void error(Class<?> source, String event, String message, Object... keyValues) {
+    log(source, Level.ERROR, event, null, message, keyValues);
+  }
+
+  /**
+   * Registra un evento de error con la traza de la excepción que lo produjo.
+   *
+   * @param source    La clase que genera el evento.
+   * @param event     Código del evento.
+   * @param cause     La excepción cuya traza se registra.
+   * @param message   Mensaje parametrizado con '{}'.
+   * @param keyValues Pares clave/valor alternados.
+   */
+  public void error(Class<?> source, String event, Throwable cause, String message, Object... keyValues) {
+    log(source, Level.ERROR, event, cause, message, keyValues);
+  }
+
+  public void warn(Class<?> source, String event, String message, Object... keyValues) {
+    log(source, Level.WARN, event, null, message, keyValues);
+  }
+
+  public void info(Class<?> source, String event, String message, Object... keyValues) {
+    log(source, Level.INFO, event, null, message, keyValues);
+  }
+
+  public void debug(Class<?> source, String event, String message, Object... keyValues) {
+    log(source, Level.DEBUG, event, null, message, keyValues);
+  }
+
+  /**
+   * Obtiene el código de evento de un mensaje con el formato "NNN, mensaje".
+   *
+   * @param message El mensaje de error.
+   * @return El código numérico inicial o {@link #DEFAULT_EVENT} si no tiene.
+   */
+  public static String eventCode(String message) {
+    if (message == null) {
+      return DEFAULT_EVENT;
+    }
+    int end = 0;
+    while (end < message.length() && Character.isDigit(message.charAt(end))) {
+      end++;
+    }
+    return end == 0 ? DEFAULT_EVENT : message.substring(0, end);
+  }
+
+  /**
+   * Registra el evento si el nivel está habilitado y no supera el límite de
+   * eventos por segundo de su código.
+   *
+   * @param source    La clase cuyo logger registra el evento.
+   * @param level     Nivel del evento.
+   * @param event     Código del evento.
+   * @param cause     La excepción cuya traza se registra, o null.
+   * @param message   Mensaje parametrizado con '{}'.
+   * @param keyValues Pares clave/valor alternados.
+   */
+  private void log(Class<?> source, Level level, String event, Throwable cause, String message,
+      Object[] keyValues) {
+    Logger logger = LoggerSingleton.getLogger(source);
+    // Sin costo adicional cuando el nivel está deshabilitado
+    if (!logger.isEnabledForLevel(level)) {
+      return;
+    }
+    int suppressed = admit(event);
+    if (suppressed < 0) {
+      return;
+    }
+
+    LoggingEventBuilder builder = logger.atLevel(level)
+        .setMessage(message)
+        .addKeyValue("event", event);
+    for (int i = 0; i + 1 < keyValues.length; i += 2) {
+      builder.addKeyValue(String.valueOf(keyValues[i]), keyValues[i + 1]);
+      builder.addArgument(keyValues[i + 1]);
+    }
+    if (suppressed > 0) {
+      builder.addKeyValue("suppressed", suppressed);
+    }
+    if (cause != null) {
+      builder.setCause(cause);
+    }
+    builder.log();
+  }
+
+  /**
+   * Aplica el límite de eventos por segundo del código indicado.
+   *
+   * @param event Código del evento.
+   * @return -1 si el evento se descarta; en otro caso, la cantidad de eventos
+   *         descartados desde el último registrado.
+   */
+  private int admit(String event) {
+    Window window = windows.computeIfAbsent(event, key -> new Window());
+    long second = System.currentTimeMillis() / 1000;
+    if (window.second != second) {
+      synchronized (window) {
+        if (window.second != second) {
+          window.second = second;
+          window.count.set(0);
+        }
+      }
+    }
+    if (window.count.incrementAndGet() > eventsPerSecond) {
+      window.suppressed.incrementAndGet();
+      return -1;
+    }
+    return window.suppressed.getAndSet(0);
+  }
+
+  /**
+   * Conteo de eventos de un código durante el segundo en curso.
+   */
+  private static final class Window {
+    private volatile long second;
+    private final AtomicInteger count = new AtomicInteger();
+    private final AtomicInteger suppressed = new AtomicInteger();
+  }
+
+}
@@ -26,6 +26,9 @@ public class JwtUtils {
   @Autowired
   private AppUtility appUtility;
 
+  @Autowired
+  private EventLogger eventLogger;
+
   // La clave secreta utilizada para firmar el JWT.
   @Value("${app.jwtSecret}")
   private String jwtSecret;
@@ -62,48 +65,68 @@ public class JwtUtils {
         .collect(Collectors.joining(","));
 
     // Construye y devuelve el token JWT
-    String token = Jwts.builder()
-        // Establece el nombre de usuario como el "subject" del token
-        .setSubject((userPrincipal.getUsername()))
-        // Añade los roles del usuario como un "claim"
-        .claim("roles", roles)
-        // Establece la fecha de emisión del token
-        .setIssuedAt(new Date())
-        // Establece la fecha de expiración del token
-        .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
-        // Firma el token con la clave secreta usando el algoritmo HS512
-        .signWith(getSigningKey(), SignatureAlgorithm.HS512)
-        // Genera el token como una cadena compacta
-        .compact();
-
-    return token;
+    try (RequestTrace.Span span = RequestTrace.span("jwt")) {
+      return Jwts.builder()
+          // Establece el nombre de usuario como el "subject" del token
+          .setSubject((userPrincipal.getUsername()))
+          // Añade los roles del usuario como un "claim"
+          .claim("roles", roles)
+          // Establece la fecha de emisión del token
+          .setIssuedAt(new Date())
+          // Establece la fecha de expiración del token
+          .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
+          // Firma el token con la clave secreta usando el algoritmo HS512
+          .signWith(getSigningKey(), SignatureAlgorithm.HS512)
+          // Genera el token como una cadena compacta
+          .compact();
+    }
   }
 
   public String generateJwtTokenFromUsername(User user) {
+    return generateJwtTokenFromRoles(user.getNickname(), getRolesClaim(user));
+  }
+
+  /**
+   * Obtiene los roles del usuario en el formato del claim "roles".
+   *
+   * @param user El usuario con sus autoridades cargadas.
+   * @return Los nombres de los roles separados por comas.
+   */
+  public String getRolesClaim(User user) {
     // Obtener los roles del usuario desde la base de datos
     List<String> roles = user.getAuthoritySet().stream()
         .map(authority -> authority.getName()) // Obtener el nombre del rol
         .collect(Collectors.toList());
 
     // Junta todos los roles en una cadena separada por comas
-    String rolesClaim = String.join(",", roles);
+    return String.join(",", roles);
+  }
 
+  /**
+   * Genera un token JWT a partir del nickname y de los roles ya conocidos, sin
+   * cargar el usuario.
+   *
+   * @param nickname   El nickname del usuario (subject del token).
+   * @param rolesClaim Los roles separados por comas.
+   * @return El token JWT generado.
+   */
+  public String generateJwtTokenFromRoles(String nickname, String rolesClaim) {
     // Construye y devuelve el token JWT
-    String token = Jwts.builder()
-        // Establece el nombre de usuario como el "subject" del token
-        .setSubject((user.getNickname()))
-        // Añade los roles del usuario como un "claim"
-        .claim("roles", rolesClaim)
-        // Establece la fecha de emisión del token
-        .setIssuedAt(new Date())
-        // Establece la fecha de expiración del token
-        .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
-        // Firma el token con la clave secreta usando el algoritmo HS512
-        .signWith(getSigningKey(), SignatureAlgorithm.HS512)
-        // Genera el token como una cadena compacta
-        .compact();
-
-    return token;
+    try (RequestTrace.Span span = RequestTrace.span("jwt")) {
+      return Jwts.builder()
+          // Establece el nombre de usuario como el "subject" del token
+          .setSubject(nickname)
+          // Añade los roles del usuario como un "claim"
+          .claim("roles", rolesClaim)
+          // Establece la fecha de emisión del token
+          .setIssuedAt(new Date())
+          // Establece la fecha de expiración del token
+          .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
+          // Firma el token con la clave secreta usando el algoritmo HS512
+          .signWith(getSigningKey(), SignatureAlgorithm.HS512)
+          // Genera el token como una cadena compacta
+          .compact();
+    }
   }
 
   /**
@@ -117,22 +140,23 @@ public class JwtUtils {
     if (authToken == null || authToken.isEmpty()) {
       return false;
     }
-    try {
+    try (RequestTrace.Span span = RequestTrace.span("jwt")) {
       // Construye el analizador de JWT con la clave de firma
       Jwts.parserBuilder().setSigningKey(getSigningKey()).build().parseClaimsJws(authToken);
       return true;
     } catch (io.jsonwebtoken.security.SecurityException e) {
-      appUtility.sendLog("503, Token JWT nulo o inválido", e.getMessage());
+      eventLogger.warn(JwtUtils.class, "503", "Token JWT nulo o inválido: {}", "detail", e.getMessage());
     } catch (io.jsonwebtoken.ExpiredJwtException e) {
-      appUtility.sendLog("509, Token JWT ha expirado", e.getMessage());
+      // Resultado esperado de un token vencido: no es un error de la aplicación
+      eventLogger.info(JwtUtils.class, "509", "Token JWT ha expirado: {}", "detail", e.getMessage());
     } catch (io.jsonwebtoken.MalformedJwtException e) {
-      appUtility.sendLog("510, Token JWT está mal formado", e.getMessage());
+      eventLogger.warn(JwtUtils.class, "510", "Token JWT está mal formado: {}", "detail", e.getMessage());
     } catch (io.jsonwebtoken.UnsupportedJwtException e) {
-      appUtility.sendLog("511, Token JWT no está soportado", e.getMessage());
+      eventLogger.warn(JwtUtils.class, "511", "Token JWT no está soportado: {}", "detail", e.getMessage());
     } catch (IllegalArgumentException e) {
-      appUtility.sendLog("512, Token JWT está vacío o tiene una cadena inválida", e.getMessage());
+      eventLogger.warn(JwtUtils.class, "512", "Token JWT está vacío o tiene una cadena inválida: {}", "detail", e.getMessage());
     } catch (Exception e) {
-      appUtility.sendLog("503, Token JWT nulo o inválido", e.getMessage());
+      appUtility.sendLog(JwtUtils.class, "503, Token JWT nulo o inválido", e.getMessage());
     }
     return false;
   }
@@ -144,12 +168,14 @@ public class JwtUtils {
    * @return El nickname del usuario (subject) del token.
    */
   public String getNicknameFromJwtToken(String token) {
-    return Jwts.parserBuilder()
-        .setSigningKey(getSigningKey())
-        .build()
-        .parseClaimsJws(token)
-        .getBody()
-        .getSubject();
+    try (RequestTrace.Span span = RequestTrace.span("jwt")) {
+      return Jwts.parserBuilder()
+          .setSigningKey(getSigningKey())
+          .build()
+          .parseClaimsJws(token)
+          .getBody()
+          .getSubject();
+    }
   }
 
   public String getRolesFromJwtToken(String token) {
@@ -161,6 +187,17 @@ public class JwtUtils {
         .get("roles", String.class); // Extrae los roles del token
   }
 
+  /**
+   * Genera un refresh token firmado para el usuario.
+   *
+   * El claim "jti" es un identificador aleatorio: dos tokens del mismo usuario
+   * emitidos en el mismo segundo son distintos, de modo que una rotación siempre
+   * invalida el token anterior.
+   *
+   * @param username   El nickname del usuario (subject del token).
+   * @param expiration La fecha de expiración del token.
+   * @return El refresh token generado.
+   */
   public String generateRefreshToken(String username, Instant expiration) {
 
     // Convierte Instant a Date
@@ -168,6 +205,8 @@ public class JwtUtils {
 
     return Jwts.builder()
         .setSubject(username)
+        // Identificador único del token
+        .setId(appUtility.getUUIDString())
         .setIssuedAt(new Date())
         .setExpiration(expirationDate)
         .signWith(getSigningKey(), SignatureAlgorithm.HS512)
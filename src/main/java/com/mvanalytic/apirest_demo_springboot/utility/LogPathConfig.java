@@ -46,7 +46,7 @@ public class LogPathConfig {
         // appUtility.sendLog("Archivo de log", "creado satisfactoriamente");
       }
     } catch (IOException e) {
-      appUtility.sendLog("513, Error creando directorio de logs", e.getMessage());
+      appUtility.sendLog(LogPathConfig.class, "513, Error creando directorio de logs", e.getMessage());
     }
     return finalPath;
   }
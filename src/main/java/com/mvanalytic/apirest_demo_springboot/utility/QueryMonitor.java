@@ -0,0 +1,255 @@
+package com.mvanalytic.apirest_demo_springboot.utility;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.regex.Pattern;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.stereotype.Component;
+
+/**
+ * Supervisa las sentencias SQL que ejecutan las unidades de persistencia.
+ *
+ * Los DataSource de los EntityManagerFactory se envuelven con
+ * {@link #wrap(String, DataSource)}: cada ejecución de una sentencia
+ * - se acumula en las {@link QueryStatistics} de la solicitud y en el tramo
+ * 'sql' de su {@link RequestTrace};
+ * - se registra con el evento 242 si dura al menos app.sql.slow-query-ms.
+ *
+ * Cada conexión acumula en las estadísticas de la solicitud el tiempo que se
+ * retuvo, desde que se obtiene del pool hasta que se cierra.
+ *
+ * Al finalizar la solicitud, {@link #report(String, String, QueryStatistics)}
+ * registra con el evento 243 los textos SQL ejecutados al menos
+ * app.sql.repeated-threshold veces (posible N+1) y con el evento 244 las
+ * solicitudes que retuvieron conexiones al menos app.sql.connection-hold-ms.
+ *
+ * Los valores de los parámetros nunca se registran; en el texto SQL los
+ * literales de cadena y numéricos se reemplazan por '?'.
+ */
+@Component
+public class QueryMonitor {
+
+  // Literales de cadena ('...') y numéricos aislados
+  private static final Pattern LITERALS = Pattern.compile("'(?:[^']|'')*'|\\b\\d+(?:\\.\\d+)?\\b");
+
+  @Value("${app.sql.monitor.enabled:true}")
+  private boolean enabled;
+
+  @Value("${app.sql.slow-query-ms:500}")
+  private long slowQueryMs;
+
+  @Value("${app.sql.repeated-threshold:5}")
+  private int repeatedThreshold;
+
+  @Value("${app.sql.connection-hold-ms:1000}")
+  private long connectionHoldMs;
+
+  @Autowired
+  private EventLogger eventLogger;
+
+  /**
+   * Envuelve un DataSource para supervisar sus sentencias.
+   *
+   * @param unit       El nombre de la unidad de persistencia.
+   * @param dataSource El DataSource a envolver.
+   * @return El DataSource supervisado o el original si la supervisión está
+   *         deshabilitada.
+   */
+  public DataSource wrap(String unit, DataSource dataSource) {
+    return enabled ? new MonitoredDataSource(unit, dataSource) : dataSource;
+  }
+
+  /**
+   * Registra los textos SQL repetidos de una solicitud.
+   *
+   * @param method     El método HTTP de la solicitud.
+   * @param uri        La URI de la solicitud.
+   * @param statistics Las estadísticas de la solicitud.
+   */
+  public void report(String method, String uri, QueryStatistics statistics) {
+    for (Map.Entry<String, Integer> entry : statistics.repeated(repeatedThreshold).entrySet()) {
+      eventLogger.warn(QueryMonitor.class, "243", "Sentencia ejecutada {} veces en {} {} (posible N+1): {}",
+          "executions", entry.getValue(),
+          "method", method,
+          "uri", uri,
+          "sql", redact(entry.getKey()));
+    }
+    double held = statistics.getConnectionHoldMillis();
+    if (held >= connectionHoldMs) {
+      eventLogger.warn(QueryMonitor.class, "244", "Conexiones retenidas {} ms en {} {} ({} conexiones)",
+          "connectionHoldMs", Math.round(held),
+          "method", method,
+          "uri", uri,
+          "connections", statistics.getConnectionCount());
+    }
+  }
+
+  /**
+   * Reemplaza los literales del texto SQL por '?'.
+   *
+   * @param sql El texto SQL.
+   * @return El texto SQL sin valores.
+   */
+  public static String redact(String sql) {
+    return sql == null ? null : LITERALS.matcher(sql).replaceAll("?");
+  }
+
+  /**
+   * Registra una ejecución en la solicitud actual y la informa si es lenta.
+   */
+  private void recorded(String unit, String sql, long nanos) {
+    QueryStatistics statistics = QueryStatistics.current();
+    if (statistics != null) {
+      statistics.record(sql, nanos);
+    }
+    long millis = nanos / 1_000_000;
+    if (millis >= slowQueryMs) {
+      eventLogger.warn(QueryMonitor.class, "242", "Sentencia lenta en {} ({} ms): {}",
+          "unit", unit,
+          "durationMs", millis,
+          "sql", redact(sql));
+    }
+  }
+
+  /**
+   * Invoca el método sobre el objeto JDBC original propagando su excepción.
+   * equals y hashCode se resuelven sobre el proxy.
+   */
+  private static Object invoke(Object target, Object proxy, Method method, Object[] args) throws Throwable {
+    // Igualdad por identidad del proxy: Hibernate registra las sentencias en mapas
+    if ("equals".equals(method.getName()) && args != null && args.length == 1) {
+      return proxy == args[0];
+    }
+    if ("hashCode".equals(method.getName()) && (args == null || args.length == 0)) {
+      return System.identityHashCode(proxy);
+    }
+    try {
+      return method.invoke(target, args);
+    } catch (InvocationTargetException e) {
+      throw e.getTargetException();
+    }
+  }
+
+  /**
+   * DataSource que entrega conexiones supervisadas.
+   */
+  private final class MonitoredDataSource extends DelegatingDataSource {
+
+    private final String unit;
+
+    MonitoredDataSource(String unit, DataSource target) {
+      super(target);
+      this.unit = unit;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+      return monitor(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+      return monitor(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    private Connection monitor(Connection connection) {
+      return (Connection) Proxy.newProxyInstance(QueryMonitor.class.getClassLoader(),
+          new Class<?>[] { Connection.class }, new ConnectionHandler(unit, connection));
+    }
+  }
+
+  /**
+   * Conexión que entrega sentencias supervisadas y mide el tiempo que se retiene.
+   */
+  private final class ConnectionHandler implements InvocationHandler {
+
+    private final String unit;
+
+    private final Connection target;
+
+    // Estadísticas de la solicitud que obtuvo la conexión
+    private final QueryStatistics statistics = QueryStatistics.current();
+
+    private final long acquiredNanos = System.nanoTime();
+
+    private boolean closed;
+
+    ConnectionHandler(String unit, Connection target) {
+      this.unit = unit;
+      this.target = target;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      if ("close".equals(method.getName()) && !closed) {
+        closed = true;
+        if (statistics != null) {
+          statistics.recordConnection(System.nanoTime() - acquiredNanos);
+        }
+      }
+      Object result = QueryMonitor.invoke(target, proxy, method, args);
+      if (!(result instanceof Statement statement)) {
+        return result;
+      }
+      // prepareStatement y prepareCall reciben el texto SQL como primer argumento
+      String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : null;
+      Class<?> type = statement instanceof CallableStatement ? CallableStatement.class
+          : statement instanceof PreparedStatement ? PreparedStatement.class
+              : Statement.class;
+      return Proxy.newProxyInstance(QueryMonitor.class.getClassLoader(),
+          new Class<?>[] { type }, new StatementHandler(unit, statement, sql, (Connection) proxy));
+    }
+  }
+
+  /**
+   * Sentencia que mide sus ejecuciones.
+   */
+  private final class StatementHandler implements InvocationHandler {
+
+    private final String unit;
+
+    private final Statement target;
+
+    private final String sql;
+
+    private final Connection connection;
+
+    StatementHandler(String unit, Statement target, String sql, Connection connection) {
+      this.unit = unit;
+      this.target = target;
+      this.sql = sql;
+      this.connection = connection;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      String name = method.getName();
+      if ("getConnection".equals(name)) {
+        return connection;
+      }
+      if (!name.startsWith("execute")) {
+        return QueryMonitor.invoke(target, proxy, method, args);
+      }
+      // Statement.execute*(sql) recibe el texto SQL; PreparedStatement lo recibió al crearse
+      String executed = args != null && args.length > 0 && args[0] instanceof String text ? text : sql;
+      long start = System.nanoTime();
+      try (RequestTrace.Span span = RequestTrace.span("sql")) {
+        return QueryMonitor.invoke(target, proxy, method, args);
+      } finally {
+        recorded(unit, executed == null ? name : executed, System.nanoTime() - start);
+      }
+    }
+  }
+
+}
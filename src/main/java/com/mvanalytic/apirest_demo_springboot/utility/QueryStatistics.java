@@ -0,0 +1,175 @@
+package com.mvanalytic.apirest_demo_springboot.utility;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Estadísticas de las sentencias SQL ejecutadas en el hilo actual durante una
+ * solicitud HTTP: número de sentencias, duración acumulada, número de
+ * ejecuciones de cada texto SQL y tiempo durante el que se retuvieron
+ * conexiones JDBC.
+ *
+ * Las registra {@link QueryMonitor} al envolver los DataSource de las unidades
+ * de persistencia. Un mismo texto SQL ejecutado muchas veces en una solicitud
+ * suele indicar un patrón N+1 (una consulta por cada fila de otra consulta).
+ *
+ * Uso:
+ * QueryStatistics statistics = QueryStatistics.begin();
+ * try {
+ * ...
+ * } finally {
+ * QueryStatistics.end();
+ * }
+ *
+ * Los ámbitos se anidan: si el hilo ya tiene estadísticas activas, begin()
+ * devuelve las mismas y solo el end() del ámbito exterior las descarta. Así una
+ * prueba puede contar las sentencias de varias solicitudes MockMvc.
+ */
+public final class QueryStatistics {
+
+  private static final ThreadLocal<QueryStatistics> CURRENT = new ThreadLocal<>();
+
+  // Ejecuciones por texto SQL en orden de primera ejecución
+  private final Map<String, Integer> executions = new LinkedHashMap<>();
+
+  private int statementCount;
+
+  private long totalNanos;
+
+  private int connectionCount;
+
+  // Desde que se obtiene cada conexión del pool hasta que se devuelve
+  private long connectionHoldNanos;
+
+  // Ámbitos abiertos sobre estas estadísticas
+  private int depth;
+
+  private QueryStatistics() {
+  }
+
+  /**
+   * Inicia un ámbito de estadísticas en el hilo actual.
+   *
+   * @return Las estadísticas activas del hilo.
+   */
+  public static QueryStatistics begin() {
+    QueryStatistics statistics = CURRENT.get();
+    if (statistics == null) {
+      statistics = new QueryStatistics();
+      CURRENT.set(statistics);
+    }
+    statistics.depth++;
+    return statistics;
+  }
+
+  /**
+   * Cierra el ámbito actual; al cerrar el exterior se descartan las
+   * estadísticas del hilo.
+   */
+  public static void end() {
+    QueryStatistics statistics = CURRENT.get();
+    if (statistics != null && --statistics.depth <= 0) {
+      CURRENT.remove();
+    }
+  }
+
+  /**
+   * Devuelve las estadísticas activas del hilo actual.
+   *
+   * @return Las estadísticas o null si no hay un ámbito abierto.
+   */
+  public static QueryStatistics current() {
+    return CURRENT.get();
+  }
+
+  /**
+   * Registra la ejecución de una sentencia.
+   *
+   * @param sql   El texto SQL de la sentencia.
+   * @param nanos La duración de la ejecución en nanosegundos.
+   */
+  public synchronized void record(String sql, long nanos) {
+    statementCount++;
+    totalNanos += nanos;
+    executions.merge(sql, 1, Integer::sum);
+  }
+
+  /**
+   * Registra una conexión devuelta al pool.
+   *
+   * @param nanos El tiempo que se retuvo la conexión en nanosegundos.
+   */
+  public synchronized void recordConnection(long nanos) {
+    connectionCount++;
+    connectionHoldNanos += nanos;
+  }
+
+  /**
+   * Devuelve el número de conexiones obtenidas y devueltas al pool.
+   *
+   * @return El número de conexiones.
+   */
+  public synchronized int getConnectionCount() {
+    return connectionCount;
+  }
+
+  /**
+   * Devuelve el tiempo acumulado durante el que se retuvieron conexiones.
+   *
+   * @return La duración en milisegundos.
+   */
+  public synchronized double getConnectionHoldMillis() {
+    return connectionHoldNanos / 1_000_000.0;
+  }
+
+  /**
+   * Devuelve el número de sentencias ejecutadas.
+   *
+   * @return El número de sentencias.
+   */
+  public synchronized int getStatementCount() {
+    return statementCount;
+  }
+
+  /**
+   * Devuelve la duración acumulada de las sentencias ejecutadas.
+   *
+   * @return La duración en milisegundos.
+   */
+  public synchronized double getTotalMillis() {
+    return totalNanos / 1_000_000.0;
+  }
+
+  /**
+   * Devuelve el número de ejecuciones de cada texto SQL.
+   *
+   * @return Una copia de las ejecuciones por texto SQL.
+   */
+  public synchronized Map<String, Integer> getExecutions() {
+    return new LinkedHashMap<>(executions);
+  }
+
+  /**
+   * Devuelve los textos SQL ejecutados al menos el número de veces indicado.
+   *
+   * @param threshold El número mínimo de ejecuciones.
+   * @return Las ejecuciones de los textos SQL repetidos.
+   */
+  public synchronized Map<String, Integer> repeated(int threshold) {
+    Map<String, Integer> repeated = new LinkedHashMap<>();
+    for (Map.Entry<String, Integer> entry : executions.entrySet()) {
+      if (entry.getValue() >= threshold) {
+        repeated.put(entry.getKey(), entry.getValue());
+      }
+    }
+    return repeated;
+  }
+
+  @Override
+  public synchronized String toString() {
+    return statementCount + " sentencias en " + Math.round(getTotalMillis()) + " ms, "
+        + connectionCount + " conexiones retenidas " + Math.round(getConnectionHoldMillis()) + " ms: "
+        + executions;
+  }
+
+}
@@ -0,0 +1,35 @@
+package com.mvanalytic.apirest_demo_springboot.utility;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+import com.mvanalytic.apirest_demo_springboot.repositories.procedure.StoredProcedure;
+
+/**
+ * Registra en la traza de la solicitud la duración de las llamadas a los
+ * repositorios.
+ *
+ * Las llamadas a procedimientos almacenados (StoredProcedureExecutor con una
+ * {@link StoredProcedure}) se registran en el tramo 'proc' con el nombre del
+ * procedimiento como descripción; el resto de las consultas se acumulan en el
+ * tramo 'db'.
+ */
+@Aspect
+@Component
+public class RepositoryTimingAspect {
+
+  @Around("execution(* com.mvanalytic.apirest_demo_springboot.repositories..*(..))")
+  public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+    if (RequestTrace.current() == null) {
+      return joinPoint.proceed();
+    }
+    Object[] args = joinPoint.getArgs();
+    try (RequestTrace.Span span = args.length > 0 && args[0] instanceof StoredProcedure procedure
+        ? RequestTrace.span("proc", procedure.getName())
+        : RequestTrace.span("db")) {
+      return joinPoint.proceed();
+    }
+  }
+
+}
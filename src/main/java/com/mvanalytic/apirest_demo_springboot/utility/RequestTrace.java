@@ -0,0 +1,179 @@
+package com.mvanalytic.apirest_demo_springboot.utility;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.slf4j.MDC;
+
+/**
+ * Trazado liviano en proceso de una solicitud HTTP.
+ *
+ * Cada solicitud tiene un identificador de correlación, registrado en el MDC
+ * con la clave {@link #CORRELATION_ID}, y acumula la duración de sus tramos
+ * (JWT, búsqueda del usuario, BCrypt, procedimientos almacenados, plantillas,
+ * etc.). Los tramos se exponen en el encabezado 'Server-Timing'.
+ *
+ * Uso:
+ * try (RequestTrace.Span span = RequestTrace.span("bcrypt")) {
+ * ...
+ * }
+ *
+ * Si el hilo no tiene una traza activa, los tramos no registran nada.
+ */
+public final class RequestTrace {
+
+  // Clave del identificador de correlación en el MDC
+  public static final String CORRELATION_ID = "correlationId";
+
+  private static final ThreadLocal<RequestTrace> CURRENT = new ThreadLocal<>();
+
+  // Tramo vacío utilizado cuando no hay una traza activa
+  private static final Span NOOP = () -> {
+  };
+
+  private final String correlationId;
+
+  private final long startNanos = System.nanoTime();
+
+  // Duración acumulada en nanosegundos por tramo ("nombre" o "nombre;desc")
+  private final Map<String, Long> spans = new LinkedHashMap<>();
+
+  private RequestTrace(String correlationId) {
+    this.correlationId = correlationId;
+  }
+
+  /**
+   * Inicia la traza de la solicitud en el hilo actual.
+   *
+   * @param correlationId El identificador de correlación de la solicitud.
+   * @return La traza iniciada.
+   */
+  public static RequestTrace begin(String correlationId) {
+    RequestTrace trace = new RequestTrace(correlationId);
+    CURRENT.set(trace);
+    MDC.put(CORRELATION_ID, correlationId);
+    return trace;
+  }
+
+  /**
+   * Finaliza la traza del hilo actual y limpia el MDC.
+   */
+  public static void end() {
+    CURRENT.remove();
+    MDC.remove(CORRELATION_ID);
+  }
+
+  /**
+   * Devuelve la traza activa del hilo actual.
+   *
+   * @return La traza activa o null si no hay una.
+   */
+  public static RequestTrace current() {
+    return CURRENT.get();
+  }
+
+  /**
+   * Abre un tramo que se registra al cerrarse.
+   *
+   * @param name Nombre del tramo (token de 'Server-Timing').
+   * @return El tramo abierto.
+   */
+  public static Span span(String name) {
+    return span(name, null);
+  }
+
+  /**
+   * Abre un tramo con una descripción, por ejemplo el nombre del procedimiento
+   * almacenado.
+   *
+   * @param name        Nombre del tramo (token de 'Server-Timing').
+   * @param description Descripción del tramo o null.
+   * @return El tramo abierto.
+   */
+  public static Span span(String name, String description) {
+    RequestTrace trace = CURRENT.get();
+    if (trace == null) {
+      return NOOP;
+    }
+    String key = description == null ? name : name + ";desc=\"" + description + "\"";
+    long start = System.nanoTime();
+    return () -> trace.record(key, System.nanoTime() - start);
+  }
+
+  /**
+   * Envuelve una tarea para que se ejecute en otro hilo con el MDC y la traza
+   * del hilo que la crea.
+   *
+   * @param task La tarea a ejecutar.
+   * @return La tarea envuelta.
+   */
+  public static Runnable wrap(Runnable task) {
+    Map<String, String> context = MDC.getCopyOfContextMap();
+    RequestTrace trace = CURRENT.get();
+    return () -> {
+      Map<String, String> previous = MDC.getCopyOfContextMap();
+      RequestTrace previousTrace = CURRENT.get();
+      if (context != null) {
+        MDC.setContextMap(context);
+      }
+      CURRENT.set(trace);
+      try {
+        task.run();
+      } finally {
+        if (previous != null) {
+          MDC.setContextMap(previous);
+        } else {
+          MDC.clear();
+        }
+        CURRENT.set(previousTrace);
+      }
+    };
+  }
+
+  public String getCorrelationId() {
+    return correlationId;
+  }
+
+  /**
+   * Devuelve la duración de la solicitud desde el inicio de la traza.
+   *
+   * @return La duración en milisegundos.
+   */
+  public double elapsedMillis() {
+    return (System.nanoTime() - startNanos) / 1_000_000.0;
+  }
+
+  /**
+   * Genera el valor del encabezado 'Server-Timing' con los tramos registrados y
+   * la duración total.
+   *
+   * @return El valor del encabezado, por ejemplo
+   *         'jwt;dur=0.4, bcrypt;dur=81.2, total;dur=95.0'.
+   */
+  public synchronized String serverTiming() {
+    StringBuilder header = new StringBuilder();
+    for (Map.Entry<String, Long> entry : spans.entrySet()) {
+      header.append(entry.getKey())
+          .append(";dur=").append(format(entry.getValue() / 1_000_000.0))
+          .append(", ");
+    }
+    return header.append("total;dur=").append(format(elapsedMillis())).toString();
+  }
+
+  private synchronized void record(String key, long nanos) {
+    spans.merge(key, nanos, Long::sum);
+  }
+
+  private static String format(double millis) {
+    return String.valueOf(Math.round(millis * 10) / 10.0);
+  }
+
+  /**
+   * Tramo abierto de una traza; se registra al cerrarse.
+   */
+  @FunctionalInterface
+  public interface Span extends AutoCloseable {
+    @Override
+    void close();
+  }
+
+}
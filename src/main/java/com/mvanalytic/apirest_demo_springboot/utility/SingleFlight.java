@@ -0,0 +1,89 @@
+package com.mvanalytic.apirest_demo_springboot.utility;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Agrupa las cargas concurrentes de una misma clave en una sola ejecución.
+ *
+ * El primer hilo que solicita una clave ejecuta la carga en su propio hilo
+ * (conservando su transacción, MDC y traza); los hilos que llegan mientras la
+ * carga está en curso esperan el mismo resultado o la misma excepción. Al
+ * terminar, la clave se libera: no se guarda ningún resultado, por lo que no
+ * es una caché.
+ *
+ * El valor se entrega a varios hilos, por lo que debe ser inmutable (un id o
+ * un DTO) y nunca una entidad JPA, que pertenece al contexto de persistencia
+ * del hilo que la cargó.
+ *
+ * @param <K> Tipo de la clave.
+ * @param <V> Tipo del valor cargado.
+ */
+public class SingleFlight<K, V> {
+
+  private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+  /**
+   * Carga el valor de la clave o se une a la carga en curso.
+   *
+   * @param key       La clave a cargar.
+   * @param loader    La carga a ejecutar si no hay una en curso.
+   * @param timeoutMs Tiempo máximo de espera de una carga en curso. No limita
+   *                  la carga que ejecuta este hilo: esa carga debe acotar su
+   *                  propia duración (por ejemplo, con un tiempo máximo de
+   *                  consulta).
+   * @return El valor cargado.
+   * @throws TimeoutException Si la carga en curso no termina en el tiempo
+   *                          indicado.
+   * @throws RuntimeException La excepción lanzada por la carga.
+   */
+  public V load(K key, Supplier<V> loader, long timeoutMs) throws TimeoutException {
+    CompletableFuture<V> created = new CompletableFuture<>();
+    CompletableFuture<V> existing = inFlight.putIfAbsent(key, created);
+
+    if (existing == null) {
+      // Este hilo ejecuta la carga y publica el resultado a los que esperan
+      try {
+        V value = loader.get();
+        created.complete(value);
+        return value;
+      } catch (RuntimeException | Error e) {
+        created.completeExceptionally(e);
+        throw e;
+      } finally {
+        inFlight.remove(key, created);
+      }
+    }
+
+    try {
+      return existing.get(timeoutMs, TimeUnit.MILLISECONDS);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      if (cause instanceof Error error) {
+        throw error;
+      }
+      throw new IllegalStateException(cause);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * Cantidad de claves con una carga en curso.
+   *
+   * @return El número de cargas en curso.
+   */
+  public int inFlightCount() {
+    return inFlight.size();
+  }
+
+}
@@ -0,0 +1,65 @@
+package com.mvanalytic.apirest_demo_springboot.utility;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Registra al estar disponible la aplicación el tiempo de inicio, las unidades
+ * de persistencia inicializadas y las conexiones abiertas de cada pool.
+ *
+ * Permite comparar los modos de la unidad 'business' (app.business.enabled y
+ * app.business.lazy): con la unidad perezosa o deshabilitada el pool de 'trade'
+ * no figura entre los iniciados y su EntityManagerFactory no se construye.
+ *
+ * Solo consulta los beans ya creados, por lo que no inicializa los declarados
+ * lazy-init.
+ */
+@Component
+public class StartupReport {
+
+  @Autowired
+  private ConfigurableListableBeanFactory beanFactory;
+
+  @Autowired
+  private EventLogger eventLogger;
+
+  /**
+   * Registra el evento 238 con las métricas del inicio.
+   *
+   * @param event El evento de aplicación disponible.
+   */
+  @EventListener
+  public void onApplicationReady(ApplicationReadyEvent event) {
+    List<String> units = new ArrayList<>();
+    for (String name : beanFactory.getBeanNamesForType(EntityManagerFactory.class, false, false)) {
+      if (beanFactory.containsSingleton(name)) {
+        units.add(name);
+      }
+    }
+
+    List<String> pools = new ArrayList<>();
+    for (String name : beanFactory.getBeanNamesForType(DataSource.class, false, false)) {
+      if (beanFactory.containsSingleton(name)
+          && beanFactory.getBean(name) instanceof HikariDataSource hikari) {
+        HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+        // El pool se inicia con la primera conexión solicitada
+        pools.add(name + "=" + (pool == null ? "not started" : pool.getTotalConnections()));
+      }
+    }
+
+    eventLogger.info(StartupReport.class, "238", "Aplicación disponible en {} ms; unidades de persistencia {}; conexiones {}",
+        "readyMs", event.getTimeTaken() == null ? null : event.getTimeTaken().toMillis(),
+        "persistenceUnits", units,
+        "connections", pools);
+  }
+
+}
@@ -0,0 +1,60 @@
+package com.mvanalytic.apirest_demo_springboot.utility;
+
+/**
+ * Errores de validación que devuelve {@link UserValidationService}.
+ *
+ * Cada error conserva el código y el mensaje documentados en
+ * docs/exceptions/README.md. {@link #toString()} devuelve el formato
+ * "código, mensaje" que utilizan las excepciones de la aplicación.
+ */
+public enum UserValidationError {
+
+  ID_NULL(120, "El id ingresado es nulo"),
+  FIRST_NAME_NULL(121, "El nombre ingresado es nulo"),
+  LAST_NAME_NULL(122, "El apellido ingresado es nulo"),
+  EMAIL_FORMAT(123, "El correo no cumple el formato definido"),
+  NICKNAME_FORMAT(124, "El nickname no cumple el formato definido"),
+  PASSWORD_FORMAT(125, "La contraseña no cumple el formato definido"),
+  LANGUAGE_NULL(126, "El idioma es nulo"),
+  ROLE_NULL(129, "El nombre del rol es nulo"),
+  ROLE_LENGTH(129, "El nombre del rol excede los 50 caracteres"),
+  FIRST_NAME_LENGTH(130, "El nombre excede los 50 caracteres"),
+  LAST_NAME_LENGTH(131, "El apellido excede los 50 caracteres"),
+  SECOND_LAST_NAME_LENGTH(132, "El segundo apellido excede los 50 caracteres"),
+  PROFILE_LANGUAGE_LENGTH(134, "El idioma debe ser de 2 caracteres"),
+  FIRST_NAME_FORMAT(135, "El nombre no cumple el formato definido"),
+  LAST_NAME_FORMAT(136, "El apellido no cumple el formato definido"),
+  SECOND_LAST_NAME_FORMAT(137, "El segundo apellido no cumple el formato definido"),
+  LANGUAGE_LENGTH(137, "El idioma debe ser de 2 caracteres"),
+  LANGUAGE_FORMAT(138, "El idioma no cumple el formato definido"),
+  ROLE_FORMAT(139, "El rol no cumple el formato definido"),
+  RESET_IDENTIFIER(144, "Debe proporcionar solo un identificador: correo o nickname"),
+  KEY_FORMAT(154, "La clave de restablecimiento no cumple el formato definido");
+
+  private final int code;
+  private final String message;
+
+  UserValidationError(int code, String message) {
+    this.code = code;
+    this.message = message;
+  }
+
+  public int getCode() {
+    return code;
+  }
+
+  public String getMessage() {
+    return message;
+  }
+
+  /**
+   * Devuelve el error con el formato "código, mensaje".
+   *
+   * @return El texto del error.
+   */
+  @Override
+  public String toString() {
+    return code + ", " + message;
+  }
+
+}
@@ -1,5 +1,6 @@
 package com.mvanalytic.apirest_demo_springboot.utility;
 
+import java.util.regex.Pattern;
 import org.springframework.stereotype.Service;
 import com.mvanalytic.apirest_demo_springboot.dto.user.ActivateAccountRequestDTO;
 import com.mvanalytic.apirest_demo_springboot.dto.user.AuthorityDTO;
@@ -13,67 +14,62 @@ import com.mvanalytic.apirest_demo_springboot.dto.user.UserRegistrationByAdminRe
 import com.mvanalytic.apirest_demo_springboot.dto.user.UserRegistrationRequestDTO;
 import com.mvanalytic.apirest_demo_springboot.dto.user.UserAuthorityRequestDTO;
 import com.mvanalytic.apirest_demo_springboot.dto.user.UserStatusRequestDTO;
+import com.mvanalytic.apirest_demo_springboot.exceptions.BusinessException;
 
 /**
  * Clase que realiza las validaciones de los diferentes objetos utilizados con
  * la administración del user.
+ *
+ * Cada validación tiene dos formas:
+ * - check*: devuelve el primer {@link UserValidationError} encontrado, o null
+ * si el objeto es válido, sin lanzar excepciones.
+ * - validate*: ejecuta el check* correspondiente y lanza una
+ * {@link BusinessException} con el formato "código, mensaje" si encontró un
+ * error.
  */
 @Service
 public class UserValidationService {
 
+  // Las expresiones regulares se compilan una sola vez
+  private static final Pattern EMAIL_PATTERN = Pattern.compile(
+      "^[A-Za-z0-9._%+-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,6}$");
+
+  private static final Pattern NICKNAME_PATTERN = Pattern.compile("^[_.@A-Za-z0-9-]*$");
+
+  private static final Pattern UUID_PATTERN = Pattern.compile(
+      "^[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}$");
+
+  // Caracteres especiales permitidos en la contraseña
+  private static final String PASSWORD_SPECIALS = "@$!%*?&.,/";
+
+  private static final int PASSWORD_MIN_LENGTH = 12;
+
   /**
    * Valida los parámetros de la clase UserRegistrationRequestDTO
-   * 
+   *
    * @param userRegistrationRequestDTO Objeto a validar
    */
   public void validateUserRegistrationRequestDTO(
       UserRegistrationRequestDTO userRegistrationRequestDTO) {
-    // Null
-    if (userRegistrationRequestDTO.getFirstName() == null) {
-      throw new IllegalArgumentException("121, El nombre ingresado es nulo");
-    }
-
-    if (userRegistrationRequestDTO.getLastName() == null) {
-      throw new IllegalArgumentException("122, El apellido ingresado es nulo");
-    }
-
-    if (userRegistrationRequestDTO.getLanguageKey() == null) {
-      throw new IllegalArgumentException("126, El idioma es nulo");
-    }
-    // espacios vacío
-    if (!isValidText(userRegistrationRequestDTO.getFirstName())) {
-      throw new IllegalArgumentException("135, El nombre no cumple el formato definido");
-    }
-
-    if (!isValidText(userRegistrationRequestDTO.getLastName())) {
-      throw new IllegalArgumentException("136, El apellido no cumple el formato definido");
-    }
-
-    if (userRegistrationRequestDTO.getSecondLastName() != null &&
-        !isValidText(userRegistrationRequestDTO.getSecondLastName())) {
-      throw new IllegalArgumentException("137, El segundo apellido no cumple el formato definido");
-    }
-
-    if (!isValidText(userRegistrationRequestDTO.getLanguageKey())) {
-      throw new IllegalArgumentException("138, El idioma no cumple el formato definido");
-    }
-
-    // Length
-    if (!isValidateMaxLength(userRegistrationRequestDTO.getFirstName(), 50)) {
-      throw new IllegalArgumentException("130, El nombre excede los 50 caracteres");
-    }
-
-    if (!isValidateMaxLength(userRegistrationRequestDTO.getLastName(), 50)) {
-      throw new IllegalArgumentException("131, El apellido excede los 50 caracteres");
-    }
-
-    if (userRegistrationRequestDTO.getSecondLastName() != null &&
-        !isValidateMaxLength(userRegistrationRequestDTO.getSecondLastName(), 50)) {
-      throw new IllegalArgumentException("132, El segundo apellido excede los 50 caracteres");
-    }
+    throwIfInvalid(checkUserRegistrationRequestDTO(userRegistrationRequestDTO));
+  }
 
-    if (userRegistrationRequestDTO.getLanguageKey().length() != 2) {
-      throw new IllegalArgumentException("137, El idioma debe ser de 2 caracteres");
+  /**
+   * Verifica los parámetros de la clase UserRegistrationRequestDTO sin lanzar
+   * excepciones.
+   *
+   * @param userRegistrationRequestDTO Objeto a validar
+   * @return El primer error encontrado o null si el objeto es válido.
+   */
+  public UserValidationError checkUserRegistrationRequestDTO(
+      UserRegistrationRequestDTO userRegistrationRequestDTO) {
+    UserValidationError error = checkNames(
+        userRegistrationRequestDTO.getFirstName(),
+        userRegistrationRequestDTO.getLastName(),
+        userRegistrationRequestDTO.getSecondLastName(),
+        userRegistrationRequestDTO.getLanguageKey());
+    if (error != null) {
+      return error;
     }
 
     // Formato
@@ -81,72 +77,46 @@ public class UserValidationService {
     // Longitud mínima: 1 (nombre de usuario) + 1 (@) + 1 (dominio de segundo nivel)
     // + 2 (TLD) = 5 caracteres
     if (!isValidEmail(userRegistrationRequestDTO.getEmail(), 5, 254)) {
-      throw new IllegalArgumentException("123, El correo no cumple el formato definido");
+      return UserValidationError.EMAIL_FORMAT;
     }
 
     if (!isValidNickname(userRegistrationRequestDTO.getNickname(), 1, 50)) {
-      throw new IllegalArgumentException("124, El nickname no cumple el formato definido");
+      return UserValidationError.NICKNAME_FORMAT;
     }
     // Longitud máxima de la contraseña: 72 caracteres (para compatibilidad completa
     // con BCrypt).
     if (!isValidPassword(userRegistrationRequestDTO.getPassword(), 72)) {
-      throw new IllegalArgumentException("125, La contraseña no cumple el formato definido");
+      return UserValidationError.PASSWORD_FORMAT;
     }
+    return null;
   }
 
   /**
    * Valida los parámetros de la clase UserRegistrationRequestDTO
-   * 
+   *
    * @param userRegistrationRequestDTO Objeto a validar
    */
   public void validateUserRegistrationByAdminRequestDTO(
       UserRegistrationByAdminRequestDTO userRegistrationByAdminRequestDTO) {
-    // Null
-    if (userRegistrationByAdminRequestDTO.getFirstName() == null) {
-      throw new IllegalArgumentException("121, El nombre ingresado es nulo");
-    }
-
-    if (userRegistrationByAdminRequestDTO.getLastName() == null) {
-      throw new IllegalArgumentException("122, El apellido ingresado es nulo");
-    }
-
-    if (userRegistrationByAdminRequestDTO.getLanguageKey() == null) {
-      throw new IllegalArgumentException("126, El idioma es nulo");
-    }
-    // espacios vacío
-    if (!isValidText(userRegistrationByAdminRequestDTO.getFirstName())) {
-      throw new IllegalArgumentException("135, El nombre no cumple el formato definido");
-    }
-
-    if (!isValidText(userRegistrationByAdminRequestDTO.getLastName())) {
-      throw new IllegalArgumentException("136, El apellido no cumple el formato definido");
-    }
-
-    if (userRegistrationByAdminRequestDTO.getSecondLastName() != null &&
-        !isValidText(userRegistrationByAdminRequestDTO.getSecondLastName())) {
-      throw new IllegalArgumentException("137, El segundo apellido no cumple el formato definido");
-    }
-
-    if (!isValidText(userRegistrationByAdminRequestDTO.getLanguageKey())) {
-      throw new IllegalArgumentException("138, El idioma no cumple el formato definido");
-    }
-
-    // Length
-    if (!isValidateMaxLength(userRegistrationByAdminRequestDTO.getFirstName(), 50)) {
-      throw new IllegalArgumentException("130, El nombre excede los 50 caracteres");
-    }
-
-    if (!isValidateMaxLength(userRegistrationByAdminRequestDTO.getLastName(), 50)) {
-      throw new IllegalArgumentException("131, El apellido excede los 50 caracteres");
-    }
-
-    if (userRegistrationByAdminRequestDTO.getSecondLastName() != null &&
-        !isValidateMaxLength(userRegistrationByAdminRequestDTO.getSecondLastName(), 50)) {
-      throw new IllegalArgumentException("132, El segundo apellido excede los 50 caracteres");
-    }
+    throwIfInvalid(checkUserRegistrationByAdminRequestDTO(userRegistrationByAdminRequestDTO));
+  }
 
-    if (userRegistrationByAdminRequestDTO.getLanguageKey().length() != 2) {
-      throw new IllegalArgumentException("137, El idioma debe ser de 2 caracteres");
+  /**
+   * Verifica los parámetros de la clase UserRegistrationByAdminRequestDTO sin
+   * lanzar excepciones.
+   *
+   * @param userRegistrationByAdminRequestDTO Objeto a validar
+   * @return El primer error encontrado o null si el objeto es válido.
+   */
+  public UserValidationError checkUserRegistrationByAdminRequestDTO(
+      UserRegistrationByAdminRequestDTO userRegistrationByAdminRequestDTO) {
+    UserValidationError error = checkNames(
+        userRegistrationByAdminRequestDTO.getFirstName(),
+        userRegistrationByAdminRequestDTO.getLastName(),
+        userRegistrationByAdminRequestDTO.getSecondLastName(),
+        userRegistrationByAdminRequestDTO.getLanguageKey());
+    if (error != null) {
+      return error;
     }
 
     // Formato
@@ -154,143 +124,210 @@ public class UserValidationService {
     // Longitud mínima: 1 (nombre de usuario) + 1 (@) + 1 (dominio de segundo nivel)
     // + 2 (TLD) = 5 caracteres
     if (!isValidEmail(userRegistrationByAdminRequestDTO.getEmail(), 5, 254)) {
-      throw new IllegalArgumentException("123, El correo no cumple el formato definido");
+      return UserValidationError.EMAIL_FORMAT;
     }
 
     if (!isValidNickname(userRegistrationByAdminRequestDTO.getNickname(), 1, 50)) {
-      throw new IllegalArgumentException("124, El nickname no cumple el formato definido");
+      return UserValidationError.NICKNAME_FORMAT;
     }
+    return null;
   }
 
   /**
    * Valida los parámetros de la clase UserProfileUpdateRequestDTO
-   * 
+   *
    * @param userProfileUpdateRequestDTO Objeto a validar
    */
   public void validateUserProfileUpdateRequestDTO(UserProfileRequestDTO userProfileUpdateRequestDTO) {
+    throwIfInvalid(checkUserProfileUpdateRequestDTO(userProfileUpdateRequestDTO));
+  }
+
+  /**
+   * Verifica los parámetros de la clase UserProfileRequestDTO sin lanzar
+   * excepciones. Los campos nulos no se modifican y por eso no se validan.
+   *
+   * @param userProfileUpdateRequestDTO Objeto a validar
+   * @return El primer error encontrado o null si el objeto es válido.
+   */
+  public UserValidationError checkUserProfileUpdateRequestDTO(UserProfileRequestDTO userProfileUpdateRequestDTO) {
 
     if (userProfileUpdateRequestDTO.getId() == null) {
-      throw new IllegalArgumentException("120, El id ingresado es nulo");
+      return UserValidationError.ID_NULL;
     }
 
-    // Espacios vacíos
+    String firstName = userProfileUpdateRequestDTO.getFirstName();
+    String lastName = userProfileUpdateRequestDTO.getLastName();
+    String secondLastName = userProfileUpdateRequestDTO.getSecondLastName();
+    String languageKey = userProfileUpdateRequestDTO.getLanguageKey();
 
-    if (userProfileUpdateRequestDTO.getFirstName() != null &&
-        !isValidText(userProfileUpdateRequestDTO.getFirstName())) {
-      throw new IllegalArgumentException("135, El nombre no cumple el formato definido");
+    // Espacios vacíos
+    if (firstName != null && !isValidText(firstName)) {
+      return UserValidationError.FIRST_NAME_FORMAT;
     }
 
-    if (userProfileUpdateRequestDTO.getLastName() != null &&
-        !isValidText(userProfileUpdateRequestDTO.getLastName())) {
-      throw new IllegalArgumentException("136, El apellido no cumple el formato definido");
+    if (lastName != null && !isValidText(lastName)) {
+      return UserValidationError.LAST_NAME_FORMAT;
     }
 
-    if (userProfileUpdateRequestDTO.getSecondLastName() != null &&
-        !isValidText(userProfileUpdateRequestDTO.getSecondLastName())) {
-      throw new IllegalArgumentException("137, El segundo apellido no cumple el formato definido");
+    if (secondLastName != null && !isValidText(secondLastName)) {
+      return UserValidationError.SECOND_LAST_NAME_FORMAT;
     }
 
-    if (userProfileUpdateRequestDTO.getLanguageKey() != null &&
-        !isValidText(userProfileUpdateRequestDTO.getLanguageKey())) {
-      throw new IllegalArgumentException("138, El idioma no cumple el formato definido");
+    if (languageKey != null && !isValidText(languageKey)) {
+      return UserValidationError.LANGUAGE_FORMAT;
     }
 
     // Length
-    if (userProfileUpdateRequestDTO.getFirstName() != null &&
-        !isValidateMaxLength(userProfileUpdateRequestDTO.getFirstName(), 50)) {
-      throw new IllegalArgumentException("130, El nombre excede los 50 caracteres");
+    if (firstName != null && firstName.length() > 50) {
+      return UserValidationError.FIRST_NAME_LENGTH;
     }
 
-    if (userProfileUpdateRequestDTO.getLastName() != null &&
-        !isValidateMaxLength(userProfileUpdateRequestDTO.getLastName(), 50)) {
-      throw new IllegalArgumentException("131, El apellido excede los 50 caracteres");
+    if (lastName != null && lastName.length() > 50) {
+      return UserValidationError.LAST_NAME_LENGTH;
     }
 
-    if (userProfileUpdateRequestDTO.getSecondLastName() != null &&
-        !isValidateMaxLength(userProfileUpdateRequestDTO.getSecondLastName(), 50)) {
-      throw new IllegalArgumentException("132, El segundo apellido excede los 50 caracteres");
+    if (secondLastName != null && secondLastName.length() > 50) {
+      return UserValidationError.SECOND_LAST_NAME_LENGTH;
     }
 
-    if (userProfileUpdateRequestDTO.getLanguageKey() != null &&
-        userProfileUpdateRequestDTO.getLanguageKey().length() != 2) {
-      throw new IllegalArgumentException("134, El idioma debe ser de 2 caracteres");
+    if (languageKey != null && languageKey.length() != 2) {
+      return UserValidationError.PROFILE_LANGUAGE_LENGTH;
     }
+    return null;
   }
 
   /**
    * Valida los parámetros de la clase UserEmailUpdateRequestDTO
-   * 
+   *
    * @param UserEmailRequestDTO Objeto a validar
    */
   public void validateUserMailRequestDTO(
       UserEmailRequestDTO userEmailUpdateRequestDTO) {
+    throwIfInvalid(checkUserMailRequestDTO(userEmailUpdateRequestDTO));
+  }
+
+  /**
+   * Verifica los parámetros de la clase UserEmailRequestDTO sin lanzar
+   * excepciones.
+   *
+   * @param userEmailUpdateRequestDTO Objeto a validar
+   * @return El primer error encontrado o null si el objeto es válido.
+   */
+  public UserValidationError checkUserMailRequestDTO(
+      UserEmailRequestDTO userEmailUpdateRequestDTO) {
 
     // Vericar si el id en null
     if (userEmailUpdateRequestDTO.getId() == null) {
-      throw new IllegalArgumentException("120, El id ingresado es nulo");
+      return UserValidationError.ID_NULL;
     }
     // Verificar si es null el email
 
     if (!isValidEmail(userEmailUpdateRequestDTO.getEmail(), 5, 254)) {
-      throw new IllegalArgumentException("123, El correo no cumple el formato definido");
+      return UserValidationError.EMAIL_FORMAT;
     }
-
+    return null;
   }
 
   /**
    * Valida los parámetros de la clase UserNicknameUpdateRequestDTO
-   * 
+   *
    * @param UserNicknameRequestDTO Objeto a validar
    */
   public void validateUserNicknameUpdateRequestDTO(UserNicknameRequestDTO userNicknameUpdateRequestDTO) {
+    throwIfInvalid(checkUserNicknameUpdateRequestDTO(userNicknameUpdateRequestDTO));
+  }
+
+  /**
+   * Verifica los parámetros de la clase UserNicknameRequestDTO sin lanzar
+   * excepciones.
+   *
+   * @param userNicknameUpdateRequestDTO Objeto a validar
+   * @return El primer error encontrado o null si el objeto es válido.
+   */
+  public UserValidationError checkUserNicknameUpdateRequestDTO(UserNicknameRequestDTO userNicknameUpdateRequestDTO) {
 
     if (userNicknameUpdateRequestDTO.getId() == null) {
-      throw new IllegalArgumentException("120, El id ingresado es nulo");
+      return UserValidationError.ID_NULL;
     }
 
     if (!isValidNickname(userNicknameUpdateRequestDTO.getNickname(), 1, 50)) {
-      throw new IllegalArgumentException("124, El nickname no cumple el formato definido");
+      return UserValidationError.NICKNAME_FORMAT;
     }
+    return null;
   }
 
   /**
    * Valida los parámetros de la clase UserStatusUpdateRequestDTO
-   * 
+   *
    * @param UserStatusRequestDTO Objeto a validar
    */
   public void validateUserStatusUpdateRequestDTO(UserStatusRequestDTO userStatusUpdateRequestDTO) {
+    throwIfInvalid(checkUserStatusUpdateRequestDTO(userStatusUpdateRequestDTO));
+  }
+
+  /**
+   * Verifica los parámetros de la clase UserStatusRequestDTO sin lanzar
+   * excepciones.
+   *
+   * @param userStatusUpdateRequestDTO Objeto a validar
+   * @return El primer error encontrado o null si el objeto es válido.
+   */
+  public UserValidationError checkUserStatusUpdateRequestDTO(UserStatusRequestDTO userStatusUpdateRequestDTO) {
 
     if (userStatusUpdateRequestDTO.getId() == null) {
-      throw new IllegalArgumentException("120, El id ingresado es nulo");
+      return UserValidationError.ID_NULL;
     }
-
+    return null;
   }
 
   /**
    * Valida los parámetros de la clase UserPasswordUpdateRequestDTO
-   * 
+   *
    * @param UserPasswordRequestDTO Objeto a validar
    */
   public void validateUserPasswordUpdateRequestDTO(UserPasswordRequestDTO userPasswordUpdateRequestDTO) {
+    throwIfInvalid(checkUserPasswordUpdateRequestDTO(userPasswordUpdateRequestDTO));
+  }
+
+  /**
+   * Verifica los parámetros de la clase UserPasswordRequestDTO sin lanzar
+   * excepciones.
+   *
+   * @param userPasswordUpdateRequestDTO Objeto a validar
+   * @return El primer error encontrado o null si el objeto es válido.
+   */
+  public UserValidationError checkUserPasswordUpdateRequestDTO(UserPasswordRequestDTO userPasswordUpdateRequestDTO) {
 
     if (userPasswordUpdateRequestDTO.getId() == null) {
-      throw new IllegalArgumentException("120, El id ingresado es nulo");
+      return UserValidationError.ID_NULL;
     }
 
     if (!isValidPassword(userPasswordUpdateRequestDTO.getNewPassword(), 72)) {
-      throw new IllegalArgumentException("125, La contraseña no cumple el formato definido");
+      return UserValidationError.PASSWORD_FORMAT;
     }
+    return null;
   }
 
   /**
    * Valida los parámetros de la clase UserRoleUpdateRequestDTO
-   * 
+   *
    * @param UserAuthorityRequestDTO Objeto a validar
    */
   public void validateUserRoleUpdateRequestDTO(UserAuthorityRequestDTO userAuthorityUpdateRequestDTO) {
+    throwIfInvalid(checkUserRoleUpdateRequestDTO(userAuthorityUpdateRequestDTO));
+  }
+
+  /**
+   * Verifica los parámetros de la clase UserAuthorityRequestDTO sin lanzar
+   * excepciones.
+   *
+   * @param userAuthorityUpdateRequestDTO Objeto a validar
+   * @return El primer error encontrado o null si el objeto es válido.
+   */
+  public UserValidationError checkUserRoleUpdateRequestDTO(UserAuthorityRequestDTO userAuthorityUpdateRequestDTO) {
 
     if (userAuthorityUpdateRequestDTO.getUserId() == null) {
-      throw new IllegalArgumentException("120, El id ingresado es nulo");
+      return UserValidationError.ID_NULL;
     }
 
     // Obtén el primer nombre de autoridad incluso carga null si este es su valor
@@ -300,148 +337,279 @@ public class UserValidationService {
         .findFirst() // Obtiene el primer elemento, si existe
         .orElse(null); // Devuelve null si el flujo está vacío
 
+    return checkRoleName(authorityName);
+  }
+
+  /**
+   * Verifica el nombre de un rol sin lanzar excepciones.
+   *
+   * @param authorityName El nombre del rol.
+   * @return El primer error encontrado o null si el nombre es válido.
+   */
+  public UserValidationError checkRoleName(String authorityName) {
     if (authorityName == null) {
-      throw new IllegalArgumentException("129, El nombre del rol es nulo");
+      return UserValidationError.ROLE_NULL;
     }
 
-    if (!isValidateMaxLength(authorityName, 50)) {
-      throw new IllegalArgumentException("129, El nombre del rol excede los 50 caracteres");
+    if (authorityName.length() > 50) {
+      return UserValidationError.ROLE_LENGTH;
     }
 
     if (!isValidText(authorityName)) {
-      throw new IllegalArgumentException("139, El rol no cumple el formato definido");
+      return UserValidationError.ROLE_FORMAT;
     }
+    return null;
   }
 
   /**
    * Servicio que valida los datos proporcionados en el DTO de solicitud de
    * restablecimiento de contraseña. Se asegura de que el usuario proporcione solo
    * el correo electrónico o el nickname, pero no ambos.
-   * 
+   *
    * @param passwordResetRequestDTO DTO que contiene los datos para la solicitud
    *                                de restablecimiento de contraseña.
-   * @throws IllegalArgumentException Si ambos campos son nulos o si ambos están
-   *                                  presentes.
+   * @throws BusinessException Si ambos campos son nulos o si alguno no tiene
+   *                           un formato válido.
    */
   public void validatePasswordResetRequestDTO(PasswordResetRequestDTO passwordResetRequestDTO) {
+    throwIfInvalid(checkPasswordResetRequestDTO(passwordResetRequestDTO));
+  }
+
+  /**
+   * Verifica los parámetros de la clase PasswordResetRequestDTO sin lanzar
+   * excepciones.
+   *
+   * @param passwordResetRequestDTO Objeto a validar
+   * @return El primer error encontrado o null si el objeto es válido.
+   */
+  public UserValidationError checkPasswordResetRequestDTO(PasswordResetRequestDTO passwordResetRequestDTO) {
 
     if (passwordResetRequestDTO.getEmail() == null && passwordResetRequestDTO.getNickname() == null) {
-      throw new IllegalArgumentException("144, Debe proporcionar solo un identificador: correo o nickname");
+      return UserValidationError.RESET_IDENTIFIER;
     }
 
     if (passwordResetRequestDTO.getEmail() != null &&
         !isValidEmail(passwordResetRequestDTO.getEmail(), 5, 254)) {
-      throw new IllegalArgumentException("123, El correo no cumple el formato definido");
+      return UserValidationError.EMAIL_FORMAT;
     }
 
     if (passwordResetRequestDTO.getNickname() != null &&
         !isValidNickname(passwordResetRequestDTO.getNickname(), 1, 50)) {
-      throw new IllegalArgumentException("124, El nickname no cumple el formato definido");
+      return UserValidationError.NICKNAME_FORMAT;
     }
+    return null;
   }
 
+  /**
+   * Valida el id y la clave de activación de una cuenta.
+   *
+   * @param id            El id del usuario.
+   * @param activationKey La clave de activación.
+   */
   public void validateActivationAccount(Long id, String activationKey) {
+    throwIfInvalid(checkActivationAccount(id, activationKey));
+  }
+
+  /**
+   * Verifica el id y la clave de activación de una cuenta sin lanzar
+   * excepciones.
+   *
+   * @param id            El id del usuario.
+   * @param activationKey La clave de activación.
+   * @return El primer error encontrado o null si los valores son válidos.
+   */
+  public UserValidationError checkActivationAccount(Long id, String activationKey) {
     if (id == null) {
-      throw new IllegalArgumentException("120, El id ingresado es nulo");
+      return UserValidationError.ID_NULL;
     }
 
     if (!isValidKeyValueFormat(activationKey)) {
-      throw new IllegalArgumentException("154, La clave de restablecimiento no cumple el formato definido");
+      return UserValidationError.KEY_FORMAT;
     }
+    return null;
   }
 
+  /**
+   * Valida los parámetros del cambio de contraseña por restablecimiento.
+   *
+   * @param changePasswordByResetRequestDTO Objeto a validar
+   * @param id                              El id del usuario.
+   * @param keyValue                        La clave de restablecimiento.
+   */
   public void validateResetPasswordDTO(ChangePasswordByResetRequestDTO changePasswordByResetRequestDTO, Long id,
       String keyValue) {
+    throwIfInvalid(checkPasswordAndKey(changePasswordByResetRequestDTO.getNewPassword(), id, keyValue));
+  }
 
+  /**
+   * Valida los parámetros de la clase ActivateAccountRequestDTO
+   *
+   * @param activateAccountRequestDTO Objeto a validar
+   */
+  public void validateActivateAccountRequestDTO(ActivateAccountRequestDTO activateAccountRequestDTO, Long id,
+      String keyValue) {
+    throwIfInvalid(checkPasswordAndKey(activateAccountRequestDTO.getNewPassword(), id, keyValue));
+  }
+
+  /**
+   * Verifica el id, la nueva contraseña y la clave comunes a la activación de
+   * la cuenta y al restablecimiento de contraseña, sin lanzar excepciones.
+   *
+   * @param newPassword La nueva contraseña.
+   * @param id          El id del usuario.
+   * @param keyValue    La clave recibida.
+   * @return El primer error encontrado o null si los valores son válidos.
+   */
+  public UserValidationError checkPasswordAndKey(String newPassword, Long id, String keyValue) {
     if (id == null) {
-      throw new IllegalArgumentException("120, El id ingresado es nulo");
+      return UserValidationError.ID_NULL;
     }
 
-    if (!isValidPassword(changePasswordByResetRequestDTO.getNewPassword(), 72)) {
-      throw new IllegalArgumentException("125, La contraseña no cumple el formato definido");
+    if (!isValidPassword(newPassword, 72)) {
+      return UserValidationError.PASSWORD_FORMAT;
     }
 
     if (!isValidKeyValueFormat(keyValue)) {
-      throw new IllegalArgumentException("154, La clave de restablecimiento no cumple el formato definido");
+      return UserValidationError.KEY_FORMAT;
     }
+    return null;
   }
 
   /**
-   * Valida los parámetros de la clase ActivateAccountRequestDTO
-   * 
-   * @param activateAccountRequestDTO Objeto a validar
+   * Lanza la excepción correspondiente al error, si existe.
+   *
+   * @param error El error de validación o null si no hay error.
+   * @throws BusinessException Con el formato "código, mensaje".
    */
-  public void validateActivateAccountRequestDTO(ActivateAccountRequestDTO activateAccountRequestDTO, Long id,
-      String keyValue) {
+  private void throwIfInvalid(UserValidationError error) {
+    if (error != null) {
+      throw new BusinessException(error.toString());
+    }
+  }
 
-    if (id == null) {
-      throw new IllegalArgumentException("120, El id ingresado es nulo");
+  /**
+   * Verifica los nombres y el idioma comunes al registro de usuarios, en el
+   * orden histórico: nulos, espacios vacíos y longitudes.
+   *
+   * @param firstName      El nombre.
+   * @param lastName       El apellido.
+   * @param secondLastName El segundo apellido (opcional).
+   * @param languageKey    El idioma.
+   * @return El primer error encontrado o null si los campos son válidos.
+   */
+  private UserValidationError checkNames(String firstName, String lastName, String secondLastName,
+      String languageKey) {
+    // Null
+    if (firstName == null) {
+      return UserValidationError.FIRST_NAME_NULL;
     }
 
-    if (!isValidPassword(activateAccountRequestDTO.getNewPassword(), 72)) {
-      throw new IllegalArgumentException("125, La contraseña no cumple el formato definido");
+    if (lastName == null) {
+      return UserValidationError.LAST_NAME_NULL;
     }
 
-    if (!isValidKeyValueFormat(keyValue)) {
-      throw new IllegalArgumentException("154, La clave de restablecimiento no cumple el formato definido");
+    if (languageKey == null) {
+      return UserValidationError.LANGUAGE_NULL;
+    }
+    // espacios vacío
+    if (!isValidText(firstName)) {
+      return UserValidationError.FIRST_NAME_FORMAT;
+    }
+
+    if (!isValidText(lastName)) {
+      return UserValidationError.LAST_NAME_FORMAT;
+    }
+
+    if (secondLastName != null && !isValidText(secondLastName)) {
+      return UserValidationError.SECOND_LAST_NAME_FORMAT;
+    }
+
+    if (!isValidText(languageKey)) {
+      return UserValidationError.LANGUAGE_FORMAT;
+    }
+
+    // Length
+    if (firstName.length() > 50) {
+      return UserValidationError.FIRST_NAME_LENGTH;
     }
+
+    if (lastName.length() > 50) {
+      return UserValidationError.LAST_NAME_LENGTH;
+    }
+
+    if (secondLastName != null && secondLastName.length() > 50) {
+      return UserValidationError.SECOND_LAST_NAME_LENGTH;
+    }
+
+    if (languageKey.length() != 2) {
+      return UserValidationError.LANGUAGE_LENGTH;
+    }
+    return null;
   }
 
   /**
    * Valida que el texto no contiene espacios vacíos
-   * 
+   *
    * @param text
    * @return true si no contiene, false lo contrario
    */
   private boolean isValidText(String text) {
-    return !text.contains(" ") &&
-        text.length() > 0;
-  }
-
-  /**
-   * Valida que un texto no sea mayor al valor pasado por parámetro (maxLength)
-   * 
-   * @param data      String a validar
-   * @param maxLength largo a evaluar
-   * @return true o false si es mayor o menor respectivamente
-   */
-  private boolean isValidateMaxLength(String data, int maxLength) {
-    return data.length() <= maxLength;
+    return text.length() > 0 && text.indexOf(' ') < 0;
   }
 
   /**
    * Verifica si una contraseña cumple con los requisitos de longitud mínima,
    * máxima caracteres y largo máximo, y no contenga espacios vacíos.
    * Las restricciones son:
-   * (?=.*[A-Z]): Asegura al menos una letra mayúscula
-   * (?=.*[a-z]): Asegura al menos una letra minúscula
-   * (?=.*\d): Asegura al menos un dígito.
-   * (?=.*[@$!%*?&.,/]) Asegura al menos un carácter especial
-   * [A-Za-z\\d@$!%*?&.,/]{12,} Asegura que la cadena tenga al menos 12 caracteres
-   * caracteres permitidos son:
+   * - Al menos una letra mayúscula (A-Z)
+   * - Al menos una letra minúscula (a-z)
+   * - Al menos un dígito (0-9)
+   * - Al menos un carácter especial
+   * - Solo letras, dígitos y caracteres especiales permitidos
    * Los caracteres especiales permitidos son:
    * @ (Arroba), $ (Símbolo de dólar), ! (Signo de exclamación), % (Signo de
    * porcentaje), * (Asterisco),
    * ? (Signo de interrogación), & (Ampersand), . (Punto), , (Coma) y / (Slash)
    * Adicionalmente valida que al menos sean 12 caracteres y máximo 72
-   * 
+   *
+   * Las reglas se evalúan en un solo recorrido de la cadena, sin expresiones
+   * regulares, y equivalen a la expresión
+   * ^(?=.*[A-Z])(?=.*[a-z])(?=.*\d)(?=.*[@$!%*?&.,/])[A-Za-z\d@$!%*?&.,/]{12,}$
+   *
    * @param password  La contraseña a validar.
    * @param maxLength La longitud máxima permitida
    * @return true si la contraseña cumple con los requisitos; de lo contrario,
    *         false.
    */
   public boolean isValidPassword(String password, int maxLength) {
-    // Expresión regular que requiere al menos 12 caracteres, incluyendo letras
-    // mayúsculas, letras minúsculas, dígitos,
-    // y caracteres especiales:
-    //
-    String regex = "^(?=.*[A-Z])(?=.*[a-z])(?=.*\\d)(?=.*[@$!%*?&.,/])[A-Za-z\\d@$!%*?&.,/]{12,}$";
-
-    // Verifica si la contraseña coincide con la expresión regular;
-    return password != null
-        && password.length() <= maxLength
-        && !password.contains(" ")
-        && password.matches(regex);
+    if (password == null) {
+      return false;
+    }
+    int length = password.length();
+    if (length < PASSWORD_MIN_LENGTH || length > maxLength) {
+      return false;
+    }
+
+    boolean upper = false;
+    boolean lower = false;
+    boolean digit = false;
+    boolean special = false;
+    for (int i = 0; i < length; i++) {
+      char c = password.charAt(i);
+      if (c >= 'A' && c <= 'Z') {
+        upper = true;
+      } else if (c >= 'a' && c <= 'z') {
+        lower = true;
+      } else if (c >= '0' && c <= '9') {
+        digit = true;
+      } else if (PASSWORD_SPECIALS.indexOf(c) >= 0) {
+        special = true;
+      } else {
+        // Carácter no permitido, incluido el espacio
+        return false;
+      }
+    }
+    return upper && lower && digit && special;
   }
 
   /**
@@ -452,7 +620,7 @@ public class UserValidationService {
    * alfanuméricos antes del símbolo '@', seguido por un dominio que también
    * contiene caracteres alfanuméricos y al menos un punto '.' seguido de una
    * extensión de dominio.
-   * 
+   *
    * Los parámetros son:
    * A-Za-z: Permite letras mayúsculas y minúsculas.
    * 0-9: Permite dígitos del 0 al 9.
@@ -462,9 +630,9 @@ public class UserValidationService {
    * (Signo de porcentaje) %
    * (Simbolo de suma) +
    * (Guion) -
-   * 
+   *
    * Ejemplo de formato válido: usuario@dominio.com
-   * 
+   *
    * @param email     El correo electrónico a validar.
    * @param minLength La longitud mínima permitida para el correo.
    * @param maxLength La longitud máxima permitida para el correo.
@@ -472,16 +640,12 @@ public class UserValidationService {
    *         lo contrario, false.
    */
   public boolean isValidEmail(String email, int minLength, int maxLength) {
-    // Expresión regular que verifica el formato del correo electrónico.
-    String regex = "^[A-Za-z0-9._%+-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,6}$";
-
-    // Verifica si el correo no es nulo, cumple con el formato de regex (ignorando
-    // mayúsculas/minúsculas), y tiene una longitud válida
+    // La expresión regular no admite espacios, por lo que no se recorre la cadena
+    // de nuevo para buscarlos
     return email != null &&
         email.length() >= minLength &&
         email.length() <= maxLength &&
-        !email.contains(" ") &&
-        email.matches(regex);
+        EMAIL_PATTERN.matcher(email).matches();
   }
 
   /**
@@ -495,15 +659,7 @@ public class UserValidationService {
    *         false en caso contrario.
    */
   public boolean isValidGeneralEmail(String email) {
-    // Expresión regular que verifica el formato del correo electrónico.
-    String regex = "^[A-Za-z0-9._%+-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,6}$";
-
-    // Verifica si el correo no es nulo, cumple con el formato de regex (ignorando
-    // mayúsculas/minúsculas)
-    // y no contiene espacios.
-    return email != null &&
-        !email.contains(" ") &&
-        email.matches(regex);
+    return email != null && EMAIL_PATTERN.matcher(email).matches();
   }
 
   /**
@@ -516,7 +672,7 @@ public class UserValidationService {
    * espacios en blanco.
    *
    * Ejemplo de nickname válido: "user_name-123"
-   * 
+   *
    * @param nickname  El nickname a validar.
    * @param minLength La longitud mínima permitida para el nickname.
    * @param maxLength La longitud máxima permitida para el nickname.
@@ -524,16 +680,10 @@ public class UserValidationService {
    *         espacios; de lo contrario, false.
    */
   public boolean isValidNickname(String nickname, int minLength, int maxLength) {
-    // Expresión regular que verifica el formato del nickname
-    String regex = "^[_.@A-Za-z0-9-]*$";
-
-    // Verifica si el nickname no es nulo, cumple con el formato de regex, tiene una
-    // longitud válida y no contiene espacios
     return nickname != null &&
         nickname.length() >= minLength &&
         nickname.length() <= maxLength &&
-        !nickname.contains(" ") &&
-        nickname.matches(regex);
+        NICKNAME_PATTERN.matcher(nickname).matches();
   }
 
   /**
@@ -546,11 +696,7 @@ public class UserValidationService {
    *         contrario.
    */
   private boolean isValidKeyValueFormat(String keyValue) {
-    // Expresión regular que valida el formato de un UUID estándar.
-    String uuidRegex = "^[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}$";
-
-    // Compara el keyValue con el patrón de UUID.
-    return keyValue != null && keyValue.matches(uuidRegex);
+    return keyValue != null && UUID_PATTERN.matcher(keyValue).matches();
   }
 
 }
@@ -0,0 +1,239 @@
+package com.mvanalytic.apirest_demo_springboot.utility;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.core.support.RepositoryFactoryInformation;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import com.mvanalytic.apirest_demo_springboot.repositories.user.RefreshTokenRepository;
+import com.mvanalytic.apirest_demo_springboot.repositories.user.UserRepository;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Fase de calentamiento que se ejecuta al iniciar la aplicación.
+ *
+ * Spring Boot informa la disponibilidad (readiness) después de ejecutar los
+ * ApplicationRunner, por lo que el balanceador no envía tráfico hasta que este
+ * calentamiento termina. Se ejecutan, en orden:
+ * - el llenado de los pools de conexiones de cada DataSource,
+ * - una búsqueda por id inexistente en cada repositorio y las búsquedas del
+ * inicio de sesión con valores que no coinciden con ninguna fila,
+ * - la firma y validación de JWT y el cifrado BCrypt,
+ * - el procesamiento de cada plantilla de correo.
+ *
+ * Los procedimientos almacenados no se ejecutan porque todos modifican datos.
+ * Los DataSource y repositorios declarados lazy-init (por ejemplo, la unidad
+ * 'business' con app.business.lazy=true) se omiten para no inicializarlos.
+ * Un error en cualquier paso se registra y no detiene el inicio.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+@ConditionalOnProperty(name = "app.warmup.enabled", havingValue = "true", matchIfMissing = true)
+public class WarmupRunner implements ApplicationRunner {
+
+  // Identificador que no coincide con ninguna fila
+  private static final String NO_MATCH = "";
+
+  @Value("${app.warmup.iterations:200}")
+  private int iterations;
+
+  @Value("${app.warmup.bcrypt-iterations:3}")
+  private int bcryptIterations;
+
+  @Autowired
+  private ConfigurableListableBeanFactory beanFactory;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private RefreshTokenRepository refreshTokenRepository;
+
+  @Autowired
+  private JwtUtils jwtUtils;
+
+  @Autowired
+  private PasswordEncoder passwordEncoder;
+
+  @Autowired
+  private SpringTemplateEngine templateEngine;
+
+  @Autowired
+  private EventLogger eventLogger;
+
+  @Override
+  public void run(ApplicationArguments args) {
+    long start = System.nanoTime();
+    step("pools", this::fillPools);
+    step("repositories", this::touchRepositories);
+    step("jwt", this::exerciseJwt);
+    step("bcrypt", this::exerciseBcrypt);
+    step("templates", this::renderTemplates);
+    eventLogger.info(WarmupRunner.class, "235", "Calentamiento completado en {} ms",
+        "durationMs", (System.nanoTime() - start) / 1_000_000);
+  }
+
+  /**
+   * Ejecuta un paso del calentamiento; los errores se registran sin detener el
+   * inicio de la aplicación.
+   *
+   * @param name Nombre del paso.
+   * @param task Paso a ejecutar.
+   */
+  private void step(String name, ThrowingRunnable task) {
+    long start = System.nanoTime();
+    try {
+      task.run();
+      eventLogger.info(WarmupRunner.class, "235", "Paso de calentamiento {} completado en {} ms",
+          "step", name, "durationMs", (System.nanoTime() - start) / 1_000_000);
+    } catch (Exception e) {
+      eventLogger.warn(WarmupRunner.class, "236", "Error en el paso de calentamiento {}: {}",
+          "step", name, "detail", e.getMessage());
+    }
+  }
+
+  /**
+   * Abre simultáneamente tantas conexiones como el mínimo de conexiones
+   * inactivas de cada pool y las devuelve, de modo que las primeras solicitudes
+   * no esperan el establecimiento de la conexión.
+   */
+  private void fillPools() throws Exception {
+    for (DataSource dataSource : eagerBeans(DataSource.class).values()) {
+      int size = 1;
+      if (dataSource instanceof HikariDataSource hikari) {
+        size = Math.max(1, hikari.getMinimumIdle());
+      }
+      List<Connection> connections = new ArrayList<>(size);
+      try {
+        for (int i = 0; i < size; i++) {
+          connections.add(dataSource.getConnection());
+        }
+      } finally {
+        for (Connection connection : connections) {
+          connection.close();
+        }
+      }
+    }
+  }
+
+  /**
+   * Ejecuta una búsqueda por un id inexistente en cada repositorio y las
+   * consultas derivadas del inicio de sesión y de la rotación del refresh
+   * token.
+   */
+  @SuppressWarnings({ "unchecked", "rawtypes" })
+  private void touchRepositories() {
+    for (Map.Entry<String, CrudRepository> entry : eagerBeans(CrudRepository.class).entrySet()) {
+      RepositoryFactoryInformation<?, ?> information = beanFactory.getBean(
+          BeanFactory.FACTORY_BEAN_PREFIX + entry.getKey(), RepositoryFactoryInformation.class);
+      Object id = noMatchId(information.getEntityInformation().getIdType());
+      if (id != null) {
+        ((CrudRepository<Object, Object>) entry.getValue()).findById(id);
+      }
+    }
+    userRepository.findByNickname(NO_MATCH);
+    userRepository.findByEmail(NO_MATCH);
+    refreshTokenRepository.findByToken(NO_MATCH);
+  }
+
+  /**
+   * Obtiene los beans del tipo indicado que no están declarados lazy-init, sin
+   * inicializar los que sí lo están.
+   *
+   * @param type El tipo de los beans.
+   * @return Los beans por nombre.
+   */
+  private <T> Map<String, T> eagerBeans(Class<T> type) {
+    Map<String, T> beans = new LinkedHashMap<>();
+    for (String name : beanFactory.getBeanNamesForType(type, false, false)) {
+      if (!beanFactory.containsBeanDefinition(name)
+          || !beanFactory.getBeanDefinition(name).isLazyInit()) {
+        beans.put(name, beanFactory.getBean(name, type));
+      }
+    }
+    return beans;
+  }
+
+  /**
+   * Devuelve un id que no corresponde a ninguna fila para el tipo indicado.
+   *
+   * @param idType El tipo del id de la entidad.
+   * @return El id o null si el tipo no es numérico (ids compuestos).
+   */
+  private static Object noMatchId(Class<?> idType) {
+    if (Long.class.equals(idType)) {
+      return -1L;
+    }
+    if (Integer.class.equals(idType)) {
+      return -1;
+    }
+    return null;
+  }
+
+  /**
+   * Firma, valida y lee JWT para que el compilador JIT optimice estas rutas.
+   */
+  private void exerciseJwt() {
+    for (int i = 0; i < iterations; i++) {
+      String token = jwtUtils.generateJwtTokenFromRoles("warmup", "ROLE_USER");
+      jwtUtils.validateJwtToken(token);
+      jwtUtils.getNicknameFromJwtToken(token);
+    }
+  }
+
+  /**
+   * Cifra y verifica una contraseña; cada iteración cuesta lo mismo que un
+   * inicio de sesión.
+   */
+  private void exerciseBcrypt() {
+    String hash = passwordEncoder.encode("warmup");
+    for (int i = 0; i < bcryptIterations; i++) {
+      passwordEncoder.matches("warmup", hash);
+    }
+  }
+
+  /**
+   * Procesa una vez cada plantilla de correo. Las plantillas que requieren
+   * variables pueden fallar al evaluarse, pero su análisis ya queda realizado.
+   */
+  private void renderTemplates() throws Exception {
+    Resource[] templates = new PathMatchingResourcePatternResolver()
+        .getResources("classpath:/templates/*.html");
+    for (Resource template : templates) {
+      String name = template.getFilename().replace(".html", "");
+      try {
+        templateEngine.process(name, new Context(Locale.getDefault()));
+      } catch (Exception e) {
+        // La plantilla necesita variables del correo: el análisis ya se realizó
+      }
+    }
+  }
+
+  /**
+   * Paso del calentamiento que puede lanzar excepciones comprobadas.
+   */
+  @FunctionalInterface
+  private interface ThrowingRunnable {
+    void run() throws Exception;
+  }
+
+}
@@ -0,0 +1,126 @@
+package com.mvanalytic.apirest_demo_springboot.controllers.files;
+
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import com.mvanalytic.apirest_demo_springboot.dto.files.FileMetadataDTO;
+import com.mvanalytic.apirest_demo_springboot.exceptions.GlobalExceptionHandler;
+import com.mvanalytic.apirest_demo_springboot.services.files.DownloadLimiter;
+import com.mvanalytic.apirest_demo_springboot.services.files.FileService;
+import com.mvanalytic.apirest_demo_springboot.services.files.FileTransferService;
+import com.mvanalytic.apirest_demo_springboot.utility.AppUtility;
+import com.mvanalytic.apirest_demo_springboot.utility.EventLogger;
+
+/**
+ * Pruebas de los encabezados de la descarga de archivos con el límite de
+ * descargas simultáneas de {@link DownloadLimiter}: una descarga por cliente.
+ */
+class FileControllerTests {
+
+  private static final String CLIENT = "127.0.0.1";
+
+  private static final String VERSION = "a1b2c3";
+
+  private final DownloadLimiter downloadLimiter = new DownloadLimiter();
+
+  private final FileTransferService fileTransferService = new FileTransferService();
+
+  private MockMvc mockMvc;
+
+  @BeforeEach
+  void setUp(@TempDir Path storage) throws Exception {
+    Path file = Files.write(storage.resolve("Resume_es.pdf"), "%PDF-1.4 prueba".getBytes());
+    FileMetadataDTO metadata = new FileMetadataDTO();
+    metadata.setName("Resume_es.pdf");
+    metadata.setSize(Files.size(file));
+    metadata.setLastModified(Instant.parse("2024-10-01T00:00:00Z"));
+    metadata.setEtag("\"" + VERSION + "\"");
+    metadata.setVersion(VERSION);
+    FileService fileService = mock(FileService.class);
+    when(fileService.loadFilePath("Resume_es.pdf")).thenReturn(file);
+    when(fileService.loadFileMetadata("Resume_es.pdf")).thenReturn(metadata);
+
+    ReflectionTestUtils.setField(downloadLimiter, "maxConcurrent", 1);
+    ReflectionTestUtils.setField(downloadLimiter, "maxPerClient", 1);
+    ReflectionTestUtils.setField(downloadLimiter, "retryAfterSeconds", 5L);
+    downloadLimiter.init();
+    ReflectionTestUtils.setField(fileTransferService, "downloadLimiter", downloadLimiter);
+    ReflectionTestUtils.setField(fileTransferService, "asyncEnabled", false);
+    fileTransferService.init();
+
+    FileController controller = new FileController();
+    ReflectionTestUtils.setField(controller, "fileService", fileService);
+    ReflectionTestUtils.setField(controller, "fileTransferService", fileTransferService);
+
+    EventLogger eventLogger = new EventLogger();
+    ReflectionTestUtils.setField(eventLogger, "eventsPerSecond", 20);
+    AppUtility appUtility = new AppUtility();
+    ReflectionTestUtils.setField(appUtility, "eventLogger", eventLogger);
+    ReflectionTestUtils.setField(appUtility, "mode", "dev");
+    GlobalExceptionHandler exceptionHandler = new GlobalExceptionHandler();
+    ReflectionTestUtils.setField(exceptionHandler, "appUtility", appUtility);
+    ReflectionTestUtils.setField(exceptionHandler, "eventLogger", eventLogger);
+
+    mockMvc = MockMvcBuilders.standaloneSetup(controller).setControllerAdvice(exceptionHandler).build();
+  }
+
+  @AfterEach
+  void tearDown() {
+    fileTransferService.shutdown();
+  }
+
+  @Test
+  void rejectedDownloadIsNotCacheableAndHasNoFileHeaders() throws Exception {
+    downloadLimiter.acquire(CLIENT);
+
+    mockMvc.perform(get("/api/public/files/download/Resume_es.pdf").param("v", VERSION))
+        .andExpect(status().isServiceUnavailable())
+        .andExpect(header().string(HttpHeaders.RETRY_AFTER, "5"))
+        .andExpect(header().stringValues(HttpHeaders.CACHE_CONTROL, "no-store"))
+        // Solo el inline;filename=f.txt que agrega Spring contra descargas reflejadas (RFD)
+        .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, not(startsWith("attachment"))))
+        .andExpect(header().doesNotExist(HttpHeaders.ETAG))
+        .andExpect(header().doesNotExist(HttpHeaders.LAST_MODIFIED))
+        .andExpect(header().doesNotExist(HttpHeaders.VARY));
+  }
+
+  @Test
+  void versionedDownloadIsImmutable() throws Exception {
+    mockMvc.perform(get("/api/public/files/download/Resume_es.pdf").param("v", VERSION))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "public, max-age=31536000, immutable"))
+        .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; fileName=\"Resume_es.pdf\" "))
+        .andExpect(header().string(HttpHeaders.ETAG, "\"" + VERSION + "\""));
+
+    // La descarga terminada liberó su lugar
+    downloadLimiter.acquire(CLIENT);
+  }
+
+  @Test
+  void notModifiedDoesNotNeedADownloadSlot() throws Exception {
+    downloadLimiter.acquire(CLIENT);
+
+    mockMvc.perform(get("/api/public/files/download/Resume_es.pdf")
+        .header(HttpHeaders.IF_NONE_MATCH, "\"" + VERSION + "\""))
+        .andExpect(status().isNotModified())
+        .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "public, no-cache"))
+        .andExpect(header().string(HttpHeaders.ETAG, "\"" + VERSION + "\""));
+  }
+
+}
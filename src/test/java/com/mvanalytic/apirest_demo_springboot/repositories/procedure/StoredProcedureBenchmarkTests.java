@@ -0,0 +1,119 @@
+package com.mvanalytic.apirest_demo_springboot.repositories.procedure;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.sql.SQLException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import com.mvanalytic.apirest_demo_springboot.exceptions.ProcedureException;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.ParameterMode;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceException;
+import jakarta.persistence.StoredProcedureQuery;
+
+/**
+ * Compara {@link StoredProcedureExecutor} con la llamada por
+ * EntityManager.createStoredProcedureQuery, la misma que Spring Data ejecutaba
+ * para los métodos @Procedure de los repositorios, sobre los mismos
+ * procedimientos.
+ *
+ * Requiere la base de datos 'customer' configurada, por lo que no forma parte
+ * de la ejecución por defecto de las pruebas y solo se ejecuta con:
+ * ./mvnw test -Dtest=StoredProcedureBenchmarkTests -Dbenchmark=true
+ *
+ * Las llamadas terminan en un RAISERROR de validación y no modifican datos:
+ * - sp_change_nickname con un nickname nulo (101), sin acceder a tablas;
+ * - sp_change_nickname con un usuario inexistente (102), tras buscarlo;
+ * - sp_activate_account con parámetros nulos (146).
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class StoredProcedureBenchmarkTests {
+
+  private static final int WARMUP = 500;
+
+  private static final int ITERATIONS = 2000;
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  @Autowired
+  private StoredProcedureExecutor procedureExecutor;
+
+  @Test
+  void nullNickname() {
+    compare("sp_change_nickname (101)", 101, CustomerProcedures.CHANGE_NICKNAME,
+        new Class<?>[] { Long.class, String.class }, 0L, null);
+  }
+
+  @Test
+  void missingUser() {
+    compare("sp_change_nickname (102)", 102, CustomerProcedures.CHANGE_NICKNAME,
+        new Class<?>[] { Long.class, String.class }, -1L, "benchmark");
+  }
+
+  @Test
+  void nullActivationKey() {
+    compare("sp_activate_account (146)", 146, CustomerProcedures.ACTIVATE_ACCOUNT,
+        new Class<?>[] { Long.class, String.class, Integer.class }, 0L, null, 24);
+  }
+
+  private void compare(String label, int expectedCode, StoredProcedure procedure, Class<?>[] types,
+      Object... args) {
+    Runnable query = () -> assertEquals(expectedCode, storedProcedureQueryCall(procedure, types, args));
+    Runnable executor = () -> assertEquals(expectedCode, executorCall(procedure, args));
+
+    run(WARMUP, query);
+    run(WARMUP, executor);
+    long queryNanos = run(ITERATIONS, query);
+    long executorNanos = run(ITERATIONS, executor);
+
+    System.out.printf("%s%n", label);
+    System.out.printf("  createStoredProcedureQuery: %d us/op%n", queryNanos / ITERATIONS / 1000);
+    System.out.printf("  StoredProcedureExecutor:    %d us/op%n", executorNanos / ITERATIONS / 1000);
+  }
+
+  /**
+   * Llama al procedimiento como lo hacía @Procedure y obtiene el código del
+   * RAISERROR de la SQLException envuelta en la PersistenceException.
+   */
+  private int storedProcedureQueryCall(StoredProcedure procedure, Class<?>[] types, Object[] args) {
+    StoredProcedureQuery query = entityManager.createStoredProcedureQuery("dbo." + procedure.getName());
+    for (int i = 0; i < types.length; i++) {
+      query.registerStoredProcedureParameter(i + 1, types[i], ParameterMode.IN);
+      query.setParameter(i + 1, args[i]);
+    }
+    try {
+      query.execute();
+      return 0;
+    } catch (PersistenceException e) {
+      for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+        if (cause instanceof SQLException sqlException) {
+          return StoredProcedureExecutor.code(sqlException.getMessage());
+        }
+      }
+      throw e;
+    }
+  }
+
+  private int executorCall(StoredProcedure procedure, Object[] args) {
+    try {
+      procedureExecutor.execute(procedure, args);
+      return 0;
+    } catch (ProcedureException e) {
+      return e.getCode();
+    }
+  }
+
+  private static long run(int iterations, Runnable call) {
+    long start = System.nanoTime();
+    for (int i = 0; i < iterations; i++) {
+      call.run();
+    }
+    return System.nanoTime() - start;
+  }
+
+}
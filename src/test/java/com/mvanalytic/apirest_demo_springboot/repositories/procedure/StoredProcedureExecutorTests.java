@@ -0,0 +1,114 @@
+package com.mvanalytic.apirest_demo_springboot.repositories.procedure;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Types;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import com.mvanalytic.apirest_demo_springboot.exceptions.ProcedureException;
+
+/**
+ * Pruebas de {@link StoredProcedureExecutor} sin base de datos: el DataSource,
+ * la conexión y la sentencia son dobles de prueba que reproducen los errores
+ * que entrega mssql-jdbc.
+ */
+class StoredProcedureExecutorTests {
+
+  private static final StoredProcedure CHANGE_NICKNAME = StoredProcedure.of(
+      "sp_change_nickname", Types.BIGINT, Types.NVARCHAR);
+
+  private final DataSource dataSource = mock(DataSource.class);
+
+  private final Connection connection = mock(Connection.class);
+
+  private final CallableStatement statement = mock(CallableStatement.class);
+
+  private final StoredProcedureExecutor executor = new StoredProcedureExecutor(dataSource);
+
+  @BeforeEach
+  void setUp() throws SQLException {
+    when(dataSource.getConnection()).thenReturn(connection);
+    when(connection.prepareCall(CHANGE_NICKNAME.getCall())).thenReturn(statement);
+  }
+
+  @Test
+  void rejectsAWrongNumberOfArgumentsBeforeConnecting() {
+    assertThatThrownBy(() -> executor.execute(CHANGE_NICKNAME, 1L))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("sp_change_nickname espera 2 parámetros y recibió 1");
+    verifyNoInteractions(dataSource);
+  }
+
+  @Test
+  void bindsArgumentsByPosition() throws SQLException {
+    when(statement.getUpdateCount()).thenReturn(-1);
+
+    executor.execute(CHANGE_NICKNAME, 7L, null);
+
+    verify(statement).setLong(1, 7L);
+    verify(statement).setNull(2, Types.NVARCHAR);
+    verify(connection).close();
+  }
+
+  @Test
+  void raiserrorBecomesProcedureExceptionWithItsCode() throws SQLException {
+    when(statement.execute()).thenThrow(new SQLException("105, El nickname ingresado ya existe", "S0001", 50000));
+
+    assertThatThrownBy(() -> executor.execute(CHANGE_NICKNAME, 7L, "ana"))
+        .isInstanceOfSatisfying(ProcedureException.class, e -> {
+          assertThat(e.getCode()).isEqualTo(105);
+          assertThat(e.getStatus()).isEqualTo(HttpStatus.BAD_REQUEST);
+          assertThat(e.getProcedure()).isEqualTo("sp_change_nickname");
+          assertThat(e.getMessage()).isEqualTo("105, El nickname ingresado ya existe");
+        });
+    verify(connection).close();
+  }
+
+  @Test
+  void userNotFoundRespondsNotFound() throws SQLException {
+    when(statement.execute()).thenThrow(new SQLException("102, El usuario no existe", "S0001", 50000));
+
+    assertThatThrownBy(() -> executor.execute(CHANGE_NICKNAME, 7L, "ana"))
+        .isInstanceOfSatisfying(ProcedureException.class,
+            e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.NOT_FOUND));
+  }
+
+  @Test
+  void raiserrorIsFoundAfterOtherErrorsInTheChain() throws SQLException {
+    SQLException trancount = new SQLException("Transaction count after EXECUTE ...", "25000", 266);
+    trancount.setNextException(new SQLException("101, El valor no puede ser nulo", "S0001", 50000));
+    when(statement.execute()).thenThrow(trancount);
+
+    assertThatThrownBy(() -> executor.execute(CHANGE_NICKNAME, 7L, null))
+        .isInstanceOfSatisfying(ProcedureException.class, e -> assertThat(e.getCode()).isEqualTo(101));
+  }
+
+  @Test
+  void otherSqlErrorsAreTranslatedToDataAccessException() throws SQLException {
+    when(statement.execute()).thenThrow(new SQLException("Deadlock", "40001", 1205));
+
+    assertThatThrownBy(() -> executor.execute(CHANGE_NICKNAME, 7L, "ana"))
+        .isInstanceOf(DataAccessException.class)
+        .isNotInstanceOf(ProcedureException.class);
+  }
+
+  @Test
+  void codeIsReadFromTheMessagePrefix() {
+    assertThat(StoredProcedureExecutor.code("233, Tiempo agotado")).isEqualTo(233);
+    assertThat(StoredProcedureExecutor.code("Sin código")).isEqualTo(-1);
+    assertThat(StoredProcedureExecutor.code("233")).isEqualTo(-1);
+    assertThat(StoredProcedureExecutor.code(null)).isEqualTo(-1);
+  }
+
+}
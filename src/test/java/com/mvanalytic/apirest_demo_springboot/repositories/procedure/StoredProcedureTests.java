@@ -0,0 +1,46 @@
+package com.mvanalytic.apirest_demo_springboot.repositories.procedure;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Types;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Pruebas del texto de llamada de {@link StoredProcedure} y de las plantillas
+ * de {@link CustomerProcedures}.
+ */
+class StoredProcedureTests {
+
+  @Test
+  void callTextHasOnePlaceholderPerParameter() {
+    StoredProcedure procedure = StoredProcedure.of("sp_change_nickname", Types.BIGINT, Types.NVARCHAR);
+
+    assertThat(procedure.getCall()).isEqualTo("{call dbo.sp_change_nickname(?,?)}");
+    assertThat(procedure.parameterCount()).isEqualTo(2);
+    assertThat(procedure.hasOutput()).isFalse();
+  }
+
+  @Test
+  void outputParameterIsTheLastPlaceholder() {
+    StoredProcedure procedure = StoredProcedure.withOutput("sp_update_password_and_insert_key",
+        Types.BIGINT, Types.BIGINT, Types.NVARCHAR, Types.NVARCHAR, Types.NVARCHAR, Types.TIMESTAMP);
+
+    assertThat(procedure.getCall()).isEqualTo("{call dbo.sp_update_password_and_insert_key(?,?,?,?,?,?)}");
+    assertThat(procedure.parameterCount()).isEqualTo(5);
+    assertThat(procedure.hasOutput()).isTrue();
+    assertThat(procedure.outputType()).isEqualTo(Types.BIGINT);
+  }
+
+  @Test
+  void procedureWithoutParameters() {
+    assertThat(StoredProcedure.of("sp_cleanup").getCall()).isEqualTo("{call dbo.sp_cleanup()}");
+  }
+
+  @Test
+  void customerProceduresDeclareTheirParameters() {
+    assertThat(CustomerProcedures.CREATE_USER_AND_KEY.getCall())
+        .isEqualTo("{call dbo.sp_create_user_and_key(?,?,?,?,?,?,?,?,?,?,?)}");
+    assertThat(CustomerProcedures.CHANGE_NICKNAME.parameterCount()).isEqualTo(2);
+  }
+
+}
@@ -0,0 +1,115 @@
+package com.mvanalytic.apirest_demo_springboot.repositories.user;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.support.TransactionTemplate;
+import com.mvanalytic.apirest_demo_springboot.domain.user.RefreshToken;
+import com.mvanalytic.apirest_demo_springboot.domain.user.User;
+import jakarta.persistence.EntityManager;
+
+/**
+ * Pruebas de la rotación de refresh tokens de {@link RefreshTokenRepository}
+ * con el esquema de las entidades de usuario generado en una base H2 en
+ * memoria.
+ */
+class RefreshTokenRepositoryTests {
+
+  private final DriverManagerDataSource h2 = new DriverManagerDataSource(
+      "jdbc:h2:mem:refresh-token;DB_CLOSE_DELAY=-1;INIT=CREATE SCHEMA IF NOT EXISTS dbo", "sa", "");
+
+  private LocalContainerEntityManagerFactoryBean factoryBean;
+
+  private TransactionTemplate transactionTemplate;
+
+  private EntityManager entityManager;
+
+  private RefreshTokenRepository repository;
+
+  @BeforeEach
+  void setUp() {
+    factoryBean = new LocalContainerEntityManagerFactoryBean();
+    factoryBean.setDataSource(h2);
+    factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+    factoryBean.setPackagesToScan(User.class.getPackageName());
+    factoryBean.setPersistenceUnitName("customer");
+    factoryBean.setJpaPropertyMap(Map.of(
+        "hibernate.hbm2ddl.auto", "create-drop",
+        "jakarta.persistence.validation.mode", "none"));
+    factoryBean.afterPropertiesSet();
+
+    transactionTemplate = new TransactionTemplate(new JpaTransactionManager(factoryBean.getObject()));
+    entityManager = SharedEntityManagerCreator.createSharedEntityManager(factoryBean.getObject());
+    repository = new JpaRepositoryFactory(entityManager).getRepository(RefreshTokenRepository.class);
+  }
+
+  @AfterEach
+  void tearDown() {
+    factoryBean.destroy();
+    new JdbcTemplate(h2).execute("DROP ALL OBJECTS");
+  }
+
+  @Test
+  void rotatesTheTokenOfAnEnabledUser() {
+    saveToken(user("ana", true, true), "token-ana");
+
+    assertThat(rotate("token-ana", "token-ana-2")).isEqualTo(1);
+    assertThat(rotate("token-ana", "token-ana-3")).isZero();
+  }
+
+  @Test
+  void deactivatedUserCannotRotate() {
+    saveToken(user("ana", true, false), "token-ana");
+
+    assertThat(rotate("token-ana", "token-ana-2")).isZero();
+  }
+
+  @Test
+  void disabledUserCannotRotate() {
+    saveToken(user("ana", false, true), "token-ana");
+
+    assertThat(rotate("token-ana", "token-ana-2")).isZero();
+  }
+
+  private int rotate(String currentToken, String newToken) {
+    Instant now = Instant.now();
+    return transactionTemplate.execute(
+        status -> repository.rotateToken(currentToken, newToken, now.plusSeconds(60), now));
+  }
+
+  private void saveToken(User user, String token) {
+    transactionTemplate.executeWithoutResult(status -> {
+      entityManager.persist(user);
+      RefreshToken refreshToken = new RefreshToken();
+      refreshToken.setUser(user);
+      refreshToken.setToken(token);
+      refreshToken.setExpiryDate(Instant.now().plusSeconds(60));
+      entityManager.persist(refreshToken);
+    });
+  }
+
+  private static User user(String nickname, boolean status, boolean activated) {
+    User user = new User();
+    user.setFirstName("Ana");
+    user.setLastName("Pérez");
+    user.setEmail(nickname + "@mail.com");
+    user.setNickname(nickname);
+    user.setPassword("hash");
+    user.setLanguageKey("es");
+    user.setStatus(status);
+    user.setActivated(activated);
+    return user;
+  }
+
+}
@@ -0,0 +1,112 @@
+package com.mvanalytic.apirest_demo_springboot.security.config.datasource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.support.TransactionTemplate;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Pruebas del DataSource de enrutamiento de 'customer' con dos bases H2 en
+ * memoria y el mismo administrador de transacciones JPA de la aplicación. Cada
+ * base guarda el nombre de su pool, de modo que la consulta indica qué
+ * DataSource atendió la transacción.
+ */
+class CustomerDataSourceConfigTests {
+
+  private final CustomerDataSourceConfig config = new CustomerDataSourceConfig();
+
+  private final DataSource writeDataSource = h2DataSource("customer");
+
+  private final DataSource readDataSource = h2DataSource("customer-read");
+
+  private LocalContainerEntityManagerFactoryBean factoryBean;
+
+  @AfterEach
+  void tearDown() {
+    factoryBean.destroy();
+    new JdbcTemplate(writeDataSource).execute("DROP ALL OBJECTS");
+    new JdbcTemplate(readDataSource).execute("DROP ALL OBJECTS");
+  }
+
+  @Test
+  void readOnlyTransactionsUseTheReadReplica() {
+    StaticListableBeanFactory beans = new StaticListableBeanFactory();
+    beans.addBean("customerReadDataSource", readDataSource);
+    JpaTransactionManager transactionManager = transactionManager(
+        config.customerRoutingDataSource(writeDataSource, beans.getBeanProvider(DataSource.class)));
+
+    assertThat(poolName(transactionManager, true)).isEqualTo("customer-read");
+    assertThat(poolName(transactionManager, false)).isEqualTo("customer");
+  }
+
+  @Test
+  void writesUseThePrimaryPool() {
+    StaticListableBeanFactory beans = new StaticListableBeanFactory();
+    beans.addBean("customerReadDataSource", readDataSource);
+    JpaTransactionManager transactionManager = transactionManager(
+        config.customerRoutingDataSource(writeDataSource, beans.getBeanProvider(DataSource.class)));
+
+    new TransactionTemplate(transactionManager).executeWithoutResult(status -> EntityManagerFactoryUtils
+        .getTransactionalEntityManager(transactionManager.getEntityManagerFactory())
+        .createNativeQuery("INSERT INTO pool_name (name) VALUES ('nueva')")
+        .executeUpdate());
+
+    assertThat(countRows(writeDataSource)).isEqualTo(2);
+    assertThat(countRows(readDataSource)).isEqualTo(1);
+  }
+
+  @Test
+  void withoutReplicaEveryTransactionUsesThePrimaryPool() {
+    JpaTransactionManager transactionManager = transactionManager(
+        config.customerRoutingDataSource(writeDataSource,
+            new StaticListableBeanFactory().getBeanProvider(DataSource.class)));
+
+    assertThat(poolName(transactionManager, true)).isEqualTo("customer");
+    assertThat(poolName(transactionManager, false)).isEqualTo("customer");
+  }
+
+  private JpaTransactionManager transactionManager(DataSource routingDataSource) {
+    factoryBean = new LocalContainerEntityManagerFactoryBean();
+    factoryBean.setDataSource(routingDataSource);
+    factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+    factoryBean.setPackagesToScan(CustomerDataSourceConfigTests.class.getPackageName());
+    factoryBean.setPersistenceUnitName("customer");
+    factoryBean.afterPropertiesSet();
+    EntityManagerFactory entityManagerFactory = factoryBean.getObject();
+    return new JpaTransactionManager(entityManagerFactory);
+  }
+
+  private static String poolName(JpaTransactionManager transactionManager, boolean readOnly) {
+    TransactionTemplate template = new TransactionTemplate(transactionManager);
+    template.setReadOnly(readOnly);
+    return template.execute(status -> (String) EntityManagerFactoryUtils
+        .getTransactionalEntityManager(transactionManager.getEntityManagerFactory())
+        .createNativeQuery("SELECT name FROM pool_name")
+        .getResultList()
+        .get(0));
+  }
+
+  private static Integer countRows(DataSource dataSource) {
+    return new JdbcTemplate(dataSource).queryForObject("SELECT COUNT(*) FROM pool_name", Integer.class);
+  }
+
+  private static DataSource h2DataSource(String poolName) {
+    DriverManagerDataSource dataSource = new DriverManagerDataSource(
+        "jdbc:h2:mem:" + poolName + ";DB_CLOSE_DELAY=-1", "sa", "");
+    JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+    jdbcTemplate.execute("CREATE TABLE pool_name (name VARCHAR(50))");
+    jdbcTemplate.update("INSERT INTO pool_name (name) VALUES (?)", poolName);
+    return dataSource;
+  }
+
+}
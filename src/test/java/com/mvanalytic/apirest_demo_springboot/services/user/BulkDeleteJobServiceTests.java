@@ -0,0 +1,61 @@
+package com.mvanalytic.apirest_demo_springboot.services.user;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import com.mvanalytic.apirest_demo_springboot.dto.user.BulkDeleteJobResponseDTO;
+
+/**
+ * Pruebas del estado de los procesos de {@link BulkDeleteJobService}, que se
+ * ejecutan de a uno en el hilo de eliminación.
+ */
+class BulkDeleteJobServiceTests {
+
+  private final BulkDeleteJobService service = new BulkDeleteJobService();
+
+  @AfterEach
+  void tearDown() {
+    service.shutdown();
+  }
+
+  @Test
+  void queuedJobIsPendingUntilTheWorkerStartsIt() throws Exception {
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    BulkDeleteJobResponseDTO first = service.submit("primero", progress -> {
+      started.countDown();
+      try {
+        release.await(5, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      progress.accept(3);
+      return 3L;
+    });
+    BulkDeleteJobResponseDTO second = service.submit("segundo", progress -> 0L);
+
+    assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+    assertThat(service.getJob(first.getJobId()).getStatus()).isEqualTo("RUNNING");
+    assertThat(service.getJob(first.getJobId()).getStartTime()).isNotNull();
+    assertThat(service.getJob(second.getJobId()).getStatus()).isEqualTo("PENDING");
+    assertThat(service.getJob(second.getJobId()).getStartTime()).isNull();
+
+    release.countDown();
+    assertThat(await(second).getStatus()).isEqualTo("COMPLETED");
+    assertThat(service.getJob(first.getJobId()).getDeletedRows()).isEqualTo(3);
+  }
+
+  private BulkDeleteJobResponseDTO await(BulkDeleteJobResponseDTO job) throws Exception {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (job.getEndTime() == null) {
+      assertThat(System.nanoTime()).as("fin del proceso %s", job.getJobId()).isLessThan(deadline);
+      Thread.sleep(10);
+      job = service.getJob(job.getJobId());
+    }
+    return job;
+  }
+
+}
@@ -0,0 +1,315 @@
+package com.mvanalytic.apirest_demo_springboot.services.user;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mvanalytic.apirest_demo_springboot.dto.user.BulkUserRegistrationJobResponseDTO;
+import com.mvanalytic.apirest_demo_springboot.dto.user.BulkUserRegistrationResponseDTO;
+import com.mvanalytic.apirest_demo_springboot.dto.user.BulkUserRegistrationRowDTO;
+import com.mvanalytic.apirest_demo_springboot.exceptions.BusinessException;
+import com.mvanalytic.apirest_demo_springboot.exceptions.ProcedureException;
+import com.mvanalytic.apirest_demo_springboot.repositories.procedure.StoredProcedureExecutor;
+import com.mvanalytic.apirest_demo_springboot.services.mail.MailService;
+import com.mvanalytic.apirest_demo_springboot.services.user.BulkUserRegistrationService.Format;
+import com.mvanalytic.apirest_demo_springboot.utility.AppUtility;
+import com.mvanalytic.apirest_demo_springboot.utility.EventLogger;
+import com.mvanalytic.apirest_demo_springboot.utility.UserValidationService;
+
+/**
+ * Pruebas de {@link BulkUserRegistrationService} sin base de datos. Cada
+ * registro se inicia como proceso y se consulta hasta que termina. El
+ * ejecutor de procedimientos simula sp_create_users_and_keys: asigna un id a
+ * cada fila del JSON recibido y revierte el lote completo si contiene el
+ * nickname {@value #FAILING_NICKNAME}.
+ */
+class BulkUserRegistrationServiceTests {
+
+  private static final String HEADER = "firstName,lastName,email,nickname";
+
+  private static final String FAILING_NICKNAME = "falla";
+
+  private final Logger logger = (Logger) LoggerFactory.getLogger(BulkUserRegistrationService.class);
+
+  private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  private final MailService mailService = mock(MailService.class);
+
+  private final StoredProcedureExecutor procedureExecutor = mock(StoredProcedureExecutor.class);
+
+  // Filas recibidas por el procedimiento en cada llamada
+  private final List<JsonNode> insertedBatches = new ArrayList<>();
+
+  private PasswordEncoder passwordEncoder;
+
+  private BulkUserRegistrationService service;
+
+  @BeforeEach
+  void setUp() {
+    appender.start();
+    logger.addAppender(appender);
+
+    doAnswer(invocation -> {
+      JsonNode users = objectMapper.readTree((String) invocation.getArgument(2));
+      insertedBatches.add(users);
+      for (JsonNode user : users) {
+        if (FAILING_NICKNAME.equals(user.get("nickname").asText())) {
+          throw new ProcedureException("sp_create_users_and_keys", 1205, "Deadlock");
+        }
+      }
+      ResultSetExtractor<?> extractor = invocation.getArgument(1);
+      return extractor.extractData(resultSet(users));
+    }).when(procedureExecutor).query(any(), any(), any(), any());
+
+    service = service(2, 1000);
+  }
+
+  @AfterEach
+  void tearDown() {
+    logger.detachAppender(appender);
+    service.shutdown();
+  }
+
+  @Test
+  void formatFollowsTheContentType() {
+    assertThat(Format.of(MediaType.parseMediaType("text/csv;charset=UTF-8"))).isEqualTo(Format.CSV);
+    assertThat(Format.of(MediaType.APPLICATION_NDJSON)).isEqualTo(Format.NDJSON);
+    assertThatThrownBy(() -> Format.of(MediaType.APPLICATION_JSON))
+        .isInstanceOf(BusinessException.class)
+        .hasMessageStartingWith("246,")
+        .satisfies(e -> assertThat(((BusinessException) e).getStatus())
+            .isEqualTo(HttpStatus.UNSUPPORTED_MEDIA_TYPE));
+  }
+
+  @Test
+  void csvValuesAcceptQuotesAndEscapedQuotes() throws Exception {
+    BulkUserRegistrationResponseDTO report = register(Format.CSV,
+        "\uFEFF" + HEADER,
+        "\"Ana, María\",\"Pérez \"\"La Flaca\"\"\",ana@mail.com,ana",
+        "\"Luis,Pérez,luis@mail.com,luis");
+
+    JsonNode inserted = insertedBatches.get(0).get(0);
+    assertThat(inserted.get("firstName").asText()).isEqualTo("Ana, María");
+    assertThat(inserted.get("lastName").asText()).isEqualTo("Pérez \"La Flaca\"");
+    assertThat(report.getRows()).extracting(BulkUserRegistrationRowDTO::getStatus)
+        .containsExactly("REGISTERED", "REJECTED");
+    assertThat(report.getRows().get(1).getErrorMessage()).startsWith("247,");
+  }
+
+  @Test
+  void missingHeaderColumnsFailTheJobAndReleaseTheLock() throws Exception {
+    BulkUserRegistrationJobResponseDTO job = run(Format.CSV, "firstName,lastName,email", "Ana,Pérez,ana@mail.com");
+
+    assertThat(job.getStatus()).isEqualTo("FAILED");
+    assertThat(job.getErrorMessage()).startsWith("247,");
+    assertThat(job.getReport()).isNull();
+
+    assertThat(register(Format.CSV, HEADER, "Ana,Pérez,ana@mail.com,ana").getRegistered()).isEqualTo(1);
+  }
+
+  @Test
+  void repeatedEmailsAndNicknamesInTheFileAreRejected() throws Exception {
+    ReflectionTestUtils.setField(service, "batchSize", 2);
+
+    BulkUserRegistrationResponseDTO report = register(Format.NDJSON,
+        json("Ana", "ana@mail.com", "ana"),
+        json("Luis", "luis@mail.com", "luis"),
+        json("Ana", "ANA@mail.com", "ana2"),
+        json("Luis", "luis2@mail.com", "Luis"));
+
+    assertThat(report.getRows()).extracting(BulkUserRegistrationRowDTO::getErrorMessage)
+        .satisfiesExactly(
+            message -> assertThat(message).isNull(),
+            message -> assertThat(message).isNull(),
+            message -> assertThat(message).startsWith("249,"),
+            message -> assertThat(message).startsWith("250,"));
+    assertThat(report.getBatches()).isEqualTo(1);
+    assertThat(insertedBatches).hasSize(1);
+  }
+
+  @Test
+  void rowsOfAFailedBatchCanBeRepeatedLater() throws Exception {
+    ReflectionTestUtils.setField(service, "batchSize", 2);
+
+    BulkUserRegistrationResponseDTO report = register(Format.CSV, HEADER,
+        "Eva,Mora,eva@mail.com," + FAILING_NICKNAME,
+        "Juan,Mora,juan@mail.com,juan",
+        "Juan,Mora,juan@mail.com,juan",
+        "Eva,Mora,eva@mail.com,eva");
+
+    assertThat(report.getRows()).extracting(BulkUserRegistrationRowDTO::getStatus)
+        .containsExactly("REJECTED", "REJECTED", "REGISTERED", "REGISTERED");
+    assertThat(report.getBatches()).isEqualTo(1);
+  }
+
+  @Test
+  void rowRejectedForItsNicknameDoesNotReserveItsEmail() throws Exception {
+    BulkUserRegistrationResponseDTO report = register(Format.NDJSON,
+        json("Ana", "ana@mail.com", "ana"),
+        json("Luis", "luis@mail.com", "ANA"),
+        json("Luis", "luis@mail.com", "luis"));
+
+    assertThat(report.getRows()).extracting(BulkUserRegistrationRowDTO::getStatus)
+        .containsExactly("REGISTERED", "REJECTED", "REGISTERED");
+  }
+
+  @Test
+  void onlyOneRegistrationRunsAtATime() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    when(passwordEncoder.encode(any())).thenAnswer(invocation -> {
+      release.await(5, TimeUnit.SECONDS);
+      return "hash";
+    });
+    BulkUserRegistrationJobResponseDTO job = submit(Format.CSV, HEADER, "Ana,Pérez,ana@mail.com,ana");
+
+    assertThatThrownBy(() -> submit(Format.CSV, HEADER, "Luis,Pérez,luis@mail.com,luis"))
+        .isInstanceOf(BusinessException.class)
+        .hasMessageStartingWith("245,");
+    assertThat(service.getJob(job.getJobId()).getStatus()).isIn("PENDING", "RUNNING");
+
+    release.countDown();
+    assertThat(await(job).getStatus()).isEqualTo("COMPLETED");
+    assertThatThrownBy(() -> service.getJob("desconocido")).hasMessageStartingWith("254,");
+  }
+
+  @Test
+  void failedBatchRejectsItsRowsAndIsNotCounted() throws Exception {
+    ReflectionTestUtils.setField(service, "batchSize", 2);
+
+    BulkUserRegistrationResponseDTO report = register(Format.CSV, HEADER,
+        "Ana,Pérez,ana@mail.com,ana",
+        "Luis,Pérez,luis@mail.com,luis",
+        "Eva,Mora,eva@mail.com," + FAILING_NICKNAME,
+        "Juan,Mora,juan@mail.com,juan");
+
+    assertThat(report.getRegistered()).isEqualTo(2);
+    assertThat(report.getRejected()).isEqualTo(2);
+    assertThat(report.getBatches()).isEqualTo(1);
+    assertThat(report.getRows().subList(2, 4)).extracting(BulkUserRegistrationRowDTO::getErrorMessage)
+        .allSatisfy(message -> assertThat(message).startsWith("251,"));
+    assertThat(appender.list).extracting(ILoggingEvent::getKeyValuePairs)
+        .anySatisfy(pairs -> assertThat(pairs).extracting(pair -> pair.key + "=" + pair.value)
+            .contains("event=251", "line=4"));
+    verify(mailService, timeout(1000).times(2))
+        .sendActivationAccountWithTemporaryPassword(any(), any(), any(), anyBoolean());
+  }
+
+  @Test
+  void fullMailQueueSendsFromTheRegistrationThread() throws Exception {
+    service.shutdown();
+    service = service(1, 1);
+    CountDownLatch release = new CountDownLatch(1);
+    List<String> senders = new CopyOnWriteArrayList<>();
+    doAnswer(invocation -> {
+      senders.add(Thread.currentThread().getName());
+      if (Thread.currentThread().getName().startsWith("bulk-register-mail-")) {
+        release.await(5, TimeUnit.SECONDS);
+      }
+      return null;
+    }).when(mailService).sendActivationAccountWithTemporaryPassword(any(), any(), any(), anyBoolean());
+
+    // Fila 1 en el hilo de envío (bloqueado), fila 2 en la cola y fila 3 sin lugar
+    register(Format.CSV, HEADER,
+        "Ana,Pérez,ana@mail.com,ana",
+        "Luis,Pérez,luis@mail.com,luis",
+        "Eva,Mora,eva@mail.com,eva");
+
+    assertThat(senders).contains("bulk-register-1");
+    release.countDown();
+    verify(mailService, timeout(1000).times(3))
+        .sendActivationAccountWithTemporaryPassword(any(), any(), any(), anyBoolean());
+  }
+
+  private BulkUserRegistrationService service(int mailThreads, int mailQueueCapacity) {
+    UserValidationService userValidationService = mock(UserValidationService.class);
+    passwordEncoder = mock(PasswordEncoder.class);
+    when(passwordEncoder.encode(any())).thenReturn("hash");
+    EventLogger eventLogger = new EventLogger();
+    ReflectionTestUtils.setField(eventLogger, "eventsPerSecond", 20);
+
+    BulkUserRegistrationService bulkService = new BulkUserRegistrationService(1, mailThreads, mailQueueCapacity);
+    ReflectionTestUtils.setField(bulkService, "batchSize", 500);
+    ReflectionTestUtils.setField(bulkService, "maxRows", 50000);
+    ReflectionTestUtils.setField(bulkService, "userValidationService", userValidationService);
+    ReflectionTestUtils.setField(bulkService, "passwordEncoder", passwordEncoder);
+    ReflectionTestUtils.setField(bulkService, "appUtility", new AppUtility());
+    ReflectionTestUtils.setField(bulkService, "mailService", mailService);
+    ReflectionTestUtils.setField(bulkService, "procedureExecutor", procedureExecutor);
+    ReflectionTestUtils.setField(bulkService, "objectMapper", objectMapper);
+    ReflectionTestUtils.setField(bulkService, "eventLogger", eventLogger);
+    return bulkService;
+  }
+
+  private BulkUserRegistrationResponseDTO register(Format format, String... lines) throws Exception {
+    BulkUserRegistrationJobResponseDTO job = run(format, lines);
+    assertThat(job.getStatus()).isEqualTo("COMPLETED");
+    return job.getReport();
+  }
+
+  private BulkUserRegistrationJobResponseDTO run(Format format, String... lines) throws Exception {
+    return await(submit(format, lines));
+  }
+
+  private BulkUserRegistrationJobResponseDTO submit(Format format, String... lines) throws Exception {
+    byte[] body = String.join("\n", lines).getBytes(StandardCharsets.UTF_8);
+    return service.submit(new ByteArrayInputStream(body), StandardCharsets.UTF_8, format);
+  }
+
+  private BulkUserRegistrationJobResponseDTO await(BulkUserRegistrationJobResponseDTO job) throws Exception {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (job.getEndTime() == null) {
+      assertThat(System.nanoTime()).as("fin del proceso %s", job.getJobId()).isLessThan(deadline);
+      Thread.sleep(10);
+      job = service.getJob(job.getJobId());
+    }
+    return job;
+  }
+
+  private static String json(String firstName, String email, String nickname) {
+    return "{\"firstName\":\"" + firstName + "\",\"lastName\":\"Pérez\",\"email\":\"" + email
+        + "\",\"nickname\":\"" + nickname + "\"}";
+  }
+
+  private static ResultSet resultSet(JsonNode users) throws Exception {
+    ResultSet resultSet = mock(ResultSet.class);
+    AtomicInteger index = new AtomicInteger(-1);
+    when(resultSet.next()).thenAnswer(invocation -> index.incrementAndGet() < users.size());
+    when(resultSet.getInt("row_index")).thenAnswer(invocation -> users.get(index.get()).get("row").asInt());
+    when(resultSet.wasNull()).thenReturn(true);
+    when(resultSet.getLong("id_user")).thenAnswer(invocation -> 100L + index.get());
+    when(resultSet.getLong("id_user_key")).thenAnswer(invocation -> 200L + index.get());
+    return resultSet;
+  }
+
+}
@@ -0,0 +1,154 @@
+package com.mvanalytic.apirest_demo_springboot.services.user;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import com.mvanalytic.apirest_demo_springboot.dto.user.UserLoginActivityResponseDTO;
+
+/**
+ * Pruebas de {@link LoginActivityStreamService}. La conexión de cada
+ * {@link SseEmitter} se simula con el manejador que el contenedor le asigna al
+ * iniciar la respuesta asíncrona.
+ */
+class LoginActivityStreamServiceTests {
+
+  private LoginActivityStreamService service;
+
+  @AfterEach
+  void tearDown() {
+    service.shutdown();
+  }
+
+  @Test
+  void stalledSendDoesNotDelayPublishing() throws Exception {
+    service = new LoginActivityStreamService(2, 60000, 50);
+    Connection stalled = Connection.stalled();
+    stalled.attach(service.subscribe());
+
+    service.publish(new UserLoginActivityResponseDTO());
+    assertThat(stalled.sending.await(5, TimeUnit.SECONDS)).isTrue();
+    Thread.sleep(100);
+
+    // El envío retiene el monitor del emisor más allá del tiempo máximo
+    assertTimeoutPreemptively(Duration.ofSeconds(1), () -> service.publish(new UserLoginActivityResponseDTO()));
+
+    // El lugar del suscriptor descartado queda libre
+    new Connection().attach(service.subscribe());
+    new Connection().attach(service.subscribe());
+    assertThatThrownBy(() -> service.subscribe()).hasMessageStartingWith("229,");
+
+    // La conexión se cierra desde el hilo de envío cuando la escritura termina
+    stalled.release.countDown();
+    assertThat(stalled.failed.await(5, TimeUnit.SECONDS)).isTrue();
+  }
+
+  @Test
+  void completedSubscriptionReleasesItsSlot() throws Exception {
+    service = new LoginActivityStreamService(1, 60000, 5000);
+    Connection connection = new Connection();
+    connection.attach(service.subscribe());
+    assertThatThrownBy(() -> service.subscribe()).hasMessageStartingWith("229,");
+
+    // El contenedor avisa dos veces (error y fin); el lugar se libera una vez
+    connection.onCompletion.get().run();
+    connection.onCompletion.get().run();
+
+    new Connection().attach(service.subscribe());
+    assertThatThrownBy(() -> service.subscribe()).hasMessageStartingWith("229,");
+  }
+
+  @Test
+  void concurrentSubscriptionsDoNotExceedTheMaximum() throws Exception {
+    int maxSubscribers = 5;
+    int threads = 20;
+    service = new LoginActivityStreamService(maxSubscribers, 60000, 5000);
+    CyclicBarrier barrier = new CyclicBarrier(threads);
+    AtomicInteger accepted = new AtomicInteger();
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      List<CompletableFuture<Void>> futures = IntStream.range(0, threads)
+          .mapToObj(i -> CompletableFuture.runAsync(() -> {
+            try {
+              barrier.await();
+              service.subscribe();
+              accepted.incrementAndGet();
+            } catch (IllegalArgumentException e) {
+              // Rechazada por el máximo de suscriptores
+            } catch (Exception e) {
+              throw new IllegalStateException(e);
+            }
+          }, executor))
+          .toList();
+      CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertThat(accepted).hasValue(maxSubscribers);
+  }
+
+  /**
+   * Conexión simulada de un administrador: registra los avisos del emisor y,
+   * si está detenida, retiene el primer envío hasta liberarla.
+   */
+  private static final class Connection {
+    private final boolean stall;
+    private final CountDownLatch sending = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch failed = new CountDownLatch(1);
+    private final AtomicReference<Runnable> onCompletion = new AtomicReference<>();
+
+    private Connection() {
+      this(false);
+    }
+
+    private Connection(boolean stall) {
+      this.stall = stall;
+    }
+
+    private static Connection stalled() {
+      return new Connection(true);
+    }
+
+    private void attach(SseEmitter emitter) throws ClassNotFoundException {
+      Class<?> handlerType = Class.forName(ResponseBodyEmitter.class.getName() + "$Handler");
+      Object handler = Proxy.newProxyInstance(handlerType.getClassLoader(), new Class<?>[] { handlerType },
+          (proxy, method, args) -> {
+            switch (method.getName()) {
+              case "send" -> {
+                sending.countDown();
+                if (stall) {
+                  release.await(5, TimeUnit.SECONDS);
+                }
+              }
+              case "completeWithError" -> failed.countDown();
+              case "onCompletion" -> onCompletion.set((Runnable) args[0]);
+              default -> {
+                // Sin efecto en la conexión simulada
+              }
+            }
+            return null;
+          });
+      ReflectionTestUtils.invokeMethod(emitter, "initialize", handler);
+    }
+  }
+
+}
@@ -0,0 +1,94 @@
+package com.mvanalytic.apirest_demo_springboot.services.user;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import com.mvanalytic.apirest_demo_springboot.domain.user.Authority;
+import com.mvanalytic.apirest_demo_springboot.domain.user.User;
+import com.mvanalytic.apirest_demo_springboot.dto.user.JwtResponseDTO;
+import com.mvanalytic.apirest_demo_springboot.exceptions.BusinessException;
+import com.mvanalytic.apirest_demo_springboot.repositories.user.RefreshTokenRepository;
+import com.mvanalytic.apirest_demo_springboot.utility.AppUtility;
+import com.mvanalytic.apirest_demo_springboot.utility.JwtUtils;
+
+/**
+ * Pruebas de la rotación de refresh tokens de {@link RefreshTokenService}. El
+ * repositorio simula la sentencia UPDATE condicionada al token vigente.
+ */
+class RefreshTokenServiceTests {
+
+  private static final String SECRET = "clave-de-pruebas-para-firmar-tokens-hs512-de-al-menos-64-bytes-0123456789";
+
+  private final RefreshTokenService service = new RefreshTokenService();
+
+  private final JwtUtils jwtUtils = new JwtUtils();
+
+  // Token vigente del usuario en la tabla refresh_token
+  private String storedToken;
+
+  @BeforeEach
+  void setUp() {
+    AppUtility appUtility = new AppUtility();
+    ReflectionTestUtils.setField(appUtility, "refreshTokenDurationMs", 86400000L);
+    ReflectionTestUtils.setField(jwtUtils, "appUtility", appUtility);
+    ReflectionTestUtils.setField(jwtUtils, "jwtSecret", SECRET);
+    ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 3600000);
+
+    RefreshTokenRepository repository = mock(RefreshTokenRepository.class);
+    when(repository.rotateToken(any(), any(), any(), any())).thenAnswer(invocation -> {
+      if (!invocation.getArgument(0).equals(storedToken)) {
+        return 0;
+      }
+      storedToken = invocation.getArgument(1);
+      return 1;
+    });
+
+    ReflectionTestUtils.setField(service, "appUtility", appUtility);
+    ReflectionTestUtils.setField(service, "jwtUtils", jwtUtils);
+    ReflectionTestUtils.setField(service, "refreshTokenRepository", repository);
+    ReflectionTestUtils.setField(service, "rolesCacheMaxSize", 100L);
+    ReflectionTestUtils.setField(service, "rolesCacheTtlMs", 60000L);
+    service.init();
+
+    Authority authority = new Authority();
+    authority.setName("ROLE_USER");
+    User user = new User();
+    user.setNickname("ana");
+    user.setAuthorities(Set.of(authority));
+    service.cacheRoles(user);
+  }
+
+  @Test
+  void tokensIssuedInTheSameSecondAreDistinct() {
+    Instant expiration = Instant.now().plusSeconds(60);
+
+    assertThat(jwtUtils.generateRefreshToken("ana", expiration))
+        .isNotEqualTo(jwtUtils.generateRefreshToken("ana", expiration));
+  }
+
+  @Test
+  void rotationInTheSameSecondRejectsThePreviousToken() {
+    storedToken = jwtUtils.generateRefreshToken("ana", Instant.now().plusSeconds(60));
+    String first = storedToken;
+
+    JwtResponseDTO rotated = service.rotateRefreshToken(first);
+    JwtResponseDTO rotatedAgain = service.rotateRefreshToken(rotated.getRefreshToken());
+
+    assertThat(rotatedAgain.getRefreshToken()).isNotEqualTo(rotated.getRefreshToken());
+    assertThatThrownBy(() -> service.rotateRefreshToken(first))
+        .isInstanceOf(BusinessException.class)
+        .satisfies(e -> assertThat(((BusinessException) e).getStatus()).isEqualTo(HttpStatus.UNAUTHORIZED));
+    assertThatThrownBy(() -> service.rotateRefreshToken(rotated.getRefreshToken()))
+        .isInstanceOf(BusinessException.class);
+  }
+
+}
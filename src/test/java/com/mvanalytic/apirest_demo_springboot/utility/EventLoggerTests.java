@@ -0,0 +1,64 @@
+package com.mvanalytic.apirest_demo_springboot.utility;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+
+/**
+ * Verifica que los eventos de {@link EventLogger} se emiten en el logger de la
+ * clase que los genera con la configuración de logback.xml de la aplicación.
+ */
+class EventLoggerTests {
+
+  private final Logger logger = (Logger) LoggerFactory.getLogger(EventLoggerTests.class);
+
+  private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+
+  private EventLogger eventLogger;
+
+  @BeforeEach
+  void setUp() {
+    appender.start();
+    logger.addAppender(appender);
+    eventLogger = new EventLogger();
+    ReflectionTestUtils.setField(eventLogger, "eventsPerSecond", 20);
+  }
+
+  @AfterEach
+  void tearDown() {
+    logger.detachAppender(appender);
+  }
+
+  @Test
+  void infoEventIsEmittedWithCodeAndFields() {
+    eventLogger.info(EventLoggerTests.class, "235", "Calentamiento completado en {} ms", "durationMs", 42L);
+
+    assertThat(appender.list).hasSize(1);
+    ILoggingEvent event = appender.list.get(0);
+    assertThat(event.getLevel()).isEqualTo(Level.INFO);
+    assertThat(event.getLoggerName()).isEqualTo(EventLoggerTests.class.getName());
+    assertThat(event.getFormattedMessage()).isEqualTo("Calentamiento completado en 42 ms");
+    assertThat(event.getKeyValuePairs())
+        .extracting(pair -> pair.key + "=" + pair.value)
+        .containsExactly("event=235", "durationMs=42");
+  }
+
+  @Test
+  void errorEventKeepsTheCause() {
+    IllegalStateException cause = new IllegalStateException("conexión cerrada");
+
+    eventLogger.error(EventLoggerTests.class, "172", cause, "{}", "message", "172, Error al intentar guardar sesión del usuario");
+
+    assertThat(appender.list).hasSize(1);
+    assertThat(appender.list.get(0).getThrowableProxy().getMessage()).isEqualTo("conexión cerrada");
+  }
+
+}
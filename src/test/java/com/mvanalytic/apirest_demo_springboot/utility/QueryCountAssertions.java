@@ -0,0 +1,87 @@
+package com.mvanalytic.apirest_demo_springboot.utility;
+
+import java.util.Map;
+
+/**
+ * Utilidad para que las pruebas de integración verifiquen el número de
+ * sentencias SQL que ejecuta un endpoint.
+ *
+ * Las sentencias se cuentan en el hilo actual, por lo que sirve con MockMvc,
+ * que ejecuta la solicitud en el hilo de la prueba:
+ *
+ * QueryStatistics queries = QueryCountAssertions.count(() ->
+ * mockMvc.perform(get("/api/admin/refresh-tokens/all")));
+ * QueryCountAssertions.assertStatementCount(queries, 2);
+ * QueryCountAssertions.assertNoRepeatedStatements(queries, 2);
+ */
+public final class QueryCountAssertions {
+
+  private QueryCountAssertions() {
+  }
+
+  /**
+   * Acción de la prueba que puede lanzar excepciones (por ejemplo
+   * MockMvc.perform).
+   */
+  @FunctionalInterface
+  public interface Action {
+    void run() throws Exception;
+  }
+
+  /**
+   * Ejecuta la acción y devuelve las sentencias SQL que ejecutó.
+   *
+   * @param action La acción de la prueba.
+   * @return Las estadísticas de las sentencias de la acción.
+   * @throws Exception Si la acción falla.
+   */
+  public static QueryStatistics count(Action action) throws Exception {
+    QueryStatistics statistics = QueryStatistics.begin();
+    try {
+      action.run();
+      return statistics;
+    } finally {
+      QueryStatistics.end();
+    }
+  }
+
+  /**
+   * Verifica el número exacto de sentencias ejecutadas.
+   *
+   * @param statistics Las estadísticas de la acción.
+   * @param expected   El número esperado de sentencias.
+   */
+  public static void assertStatementCount(QueryStatistics statistics, int expected) {
+    if (statistics.getStatementCount() != expected) {
+      throw new AssertionError("Se esperaban " + expected + " sentencias y se ejecutaron " + statistics);
+    }
+  }
+
+  /**
+   * Verifica que no se supere un número máximo de sentencias.
+   *
+   * @param statistics Las estadísticas de la acción.
+   * @param max        El número máximo de sentencias.
+   */
+  public static void assertMaxStatementCount(QueryStatistics statistics, int max) {
+    if (statistics.getStatementCount() > max) {
+      throw new AssertionError("Se esperaban como máximo " + max + " sentencias y se ejecutaron " + statistics);
+    }
+  }
+
+  /**
+   * Verifica que ningún texto SQL se ejecute el número de veces indicado o más
+   * (patrón N+1).
+   *
+   * @param statistics Las estadísticas de la acción.
+   * @param threshold  El número de ejecuciones a partir del cual se considera
+   *                   repetida una sentencia.
+   */
+  public static void assertNoRepeatedStatements(QueryStatistics statistics, int threshold) {
+    Map<String, Integer> repeated = statistics.repeated(threshold);
+    if (!repeated.isEmpty()) {
+      throw new AssertionError("Sentencias repetidas (posible N+1): " + repeated);
+    }
+  }
+
+}
@@ -0,0 +1,134 @@
+package com.mvanalytic.apirest_demo_springboot.utility;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Map;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+
+/**
+ * Pruebas de {@link QueryMonitor} y {@link QueryStatistics} con una base H2 en
+ * memoria envuelta como los DataSource de las unidades de persistencia.
+ */
+class QueryMonitorTests {
+
+  private static final String SELECT_BY_ID = "SELECT nickname FROM user_mva WHERE id = ?";
+
+  private final Logger logger = (Logger) LoggerFactory.getLogger(QueryMonitor.class);
+
+  private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+
+  private final QueryMonitor queryMonitor = new QueryMonitor();
+
+  private final DriverManagerDataSource h2 = new DriverManagerDataSource(
+      "jdbc:h2:mem:query-monitor;DB_CLOSE_DELAY=-1", "sa", "");
+
+  private JdbcTemplate jdbcTemplate;
+
+  @BeforeEach
+  void setUp() {
+    appender.start();
+    logger.addAppender(appender);
+    EventLogger eventLogger = new EventLogger();
+    ReflectionTestUtils.setField(eventLogger, "eventsPerSecond", 20);
+    ReflectionTestUtils.setField(queryMonitor, "eventLogger", eventLogger);
+    ReflectionTestUtils.setField(queryMonitor, "enabled", true);
+    ReflectionTestUtils.setField(queryMonitor, "slowQueryMs", 60000L);
+    ReflectionTestUtils.setField(queryMonitor, "repeatedThreshold", 3);
+    ReflectionTestUtils.setField(queryMonitor, "connectionHoldMs", 60000L);
+
+    new JdbcTemplate(h2).execute("CREATE TABLE user_mva (id BIGINT PRIMARY KEY, nickname VARCHAR(50))");
+    jdbcTemplate = new JdbcTemplate(queryMonitor.wrap("customer", h2));
+  }
+
+  @AfterEach
+  void tearDown() {
+    logger.detachAppender(appender);
+    new JdbcTemplate(h2).execute("DROP ALL OBJECTS");
+  }
+
+  @Test
+  void countsStatementsAndConnectionsOfTheCurrentThread() throws Exception {
+    QueryStatistics queries = QueryCountAssertions.count(() -> {
+      jdbcTemplate.update("INSERT INTO user_mva (id, nickname) VALUES (?, ?)", 1L, "ana");
+      jdbcTemplate.queryForObject(SELECT_BY_ID, String.class, 1L);
+    });
+
+    QueryCountAssertions.assertStatementCount(queries, 2);
+    QueryCountAssertions.assertMaxStatementCount(queries, 2);
+    assertThat(queries.getConnectionCount()).isEqualTo(2);
+    assertThat(QueryStatistics.current()).isNull();
+  }
+
+  @Test
+  void detectsRepeatedStatements() throws Exception {
+    jdbcTemplate.update("INSERT INTO user_mva (id, nickname) VALUES (?, ?)", 1L, "ana");
+
+    QueryStatistics queries = QueryCountAssertions.count(() -> {
+      for (int i = 0; i < 3; i++) {
+        jdbcTemplate.queryForObject(SELECT_BY_ID, String.class, 1L);
+      }
+    });
+
+    assertThat(queries.repeated(3)).containsExactly(Map.entry(SELECT_BY_ID, 3));
+    QueryCountAssertions.assertNoRepeatedStatements(queries, 4);
+    assertThatThrownBy(() -> QueryCountAssertions.assertNoRepeatedStatements(queries, 3))
+        .isInstanceOf(AssertionError.class)
+        .hasMessageContaining(SELECT_BY_ID);
+
+    queryMonitor.report("GET", "/api/user/1", queries);
+    assertThat(appender.list).singleElement()
+        .satisfies(event -> assertThat(event.getKeyValuePairs())
+            .extracting(pair -> pair.key + "=" + pair.value)
+            .contains("event=243", "executions=3", "sql=" + SELECT_BY_ID));
+  }
+
+  @Test
+  void nestedScopesShareTheStatistics() throws Exception {
+    QueryStatistics outer = QueryStatistics.begin();
+    try {
+      QueryStatistics inner = QueryCountAssertions.count(() -> jdbcTemplate.execute("SELECT 1"));
+      assertThat(inner).isSameAs(outer);
+      assertThat(QueryStatistics.current()).isSameAs(outer);
+      jdbcTemplate.execute("SELECT 2");
+    } finally {
+      QueryStatistics.end();
+    }
+
+    QueryCountAssertions.assertStatementCount(outer, 2);
+    assertThat(QueryStatistics.current()).isNull();
+  }
+
+  @Test
+  void slowStatementsAreLoggedWithoutValues() {
+    ReflectionTestUtils.setField(queryMonitor, "slowQueryMs", 0L);
+
+    jdbcTemplate.execute("INSERT INTO user_mva (id, nickname) VALUES (7, 'ana')");
+
+    assertThat(appender.list).singleElement()
+        .satisfies(event -> assertThat(event.getKeyValuePairs())
+            .extracting(pair -> pair.key + "=" + pair.value)
+            .contains("event=242", "unit=customer",
+                "sql=INSERT INTO user_mva (id, nickname) VALUES (?, ?)"));
+  }
+
+  @Test
+  void disabledMonitorReturnsTheOriginalDataSource() {
+    ReflectionTestUtils.setField(queryMonitor, "enabled", false);
+
+    DataSource wrapped = queryMonitor.wrap("customer", h2);
+
+    assertThat(wrapped).isSameAs(h2);
+  }
+
+}
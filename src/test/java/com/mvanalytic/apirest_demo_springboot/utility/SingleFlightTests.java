@@ -0,0 +1,125 @@
+package com.mvanalytic.apirest_demo_springboot.utility;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Pruebas de concurrencia de {@link SingleFlight}.
+ */
+class SingleFlightTests {
+
+  private static final int CALLERS = 16;
+
+  private final SingleFlight<String, Long> singleFlight = new SingleFlight<>();
+
+  private final ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  void concurrentLoadsOfTheSameKeyRunTheLoaderOnce() throws Exception {
+    AtomicInteger loads = new AtomicInteger();
+    CountDownLatch loaderStarted = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+
+    Future<Long> leader = executor.submit(() -> singleFlight.load("ana", () -> {
+      loads.incrementAndGet();
+      loaderStarted.countDown();
+      await(release);
+      return 42L;
+    }, 5000));
+    assertThat(loaderStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+    List<Future<Long>> joiners = new ArrayList<>();
+    for (int i = 1; i < CALLERS; i++) {
+      joiners.add(executor.submit(() -> singleFlight.load("ana", () -> {
+        loads.incrementAndGet();
+        return -1L;
+      }, 5000)));
+    }
+    // Todos los hilos se unen a la carga en curso antes de que termine
+    Thread.sleep(100);
+    release.countDown();
+
+    assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo(42L);
+    for (Future<Long> joiner : joiners) {
+      assertThat(joiner.get(5, TimeUnit.SECONDS)).isEqualTo(42L);
+    }
+    assertThat(loads).hasValue(1);
+    assertThat(singleFlight.inFlightCount()).isZero();
+  }
+
+  @Test
+  void joinersReceiveTheLoaderException() throws Exception {
+    CountDownLatch loaderStarted = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    IllegalStateException failure = new IllegalStateException("fallo de la consulta");
+
+    Future<Long> leader = executor.submit(() -> singleFlight.load("ana", () -> {
+      loaderStarted.countDown();
+      await(release);
+      throw failure;
+    }, 5000));
+    assertThat(loaderStarted.await(5, TimeUnit.SECONDS)).isTrue();
+    Future<Long> joiner = executor.submit(() -> singleFlight.load("ana", () -> 0L, 5000));
+    Thread.sleep(100);
+    release.countDown();
+
+    assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS)).hasCause(failure);
+    assertThatThrownBy(() -> joiner.get(5, TimeUnit.SECONDS)).hasCause(failure);
+    assertThat(singleFlight.inFlightCount()).isZero();
+  }
+
+  @Test
+  void joinerGivesUpAfterTheTimeout() throws Exception {
+    CountDownLatch loaderStarted = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+
+    Future<Long> leader = executor.submit(() -> singleFlight.load("ana", () -> {
+      loaderStarted.countDown();
+      await(release);
+      return 42L;
+    }, 5000));
+    assertThat(loaderStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+    assertThatThrownBy(() -> singleFlight.load("ana", () -> 0L, 50))
+        .isInstanceOf(TimeoutException.class);
+
+    release.countDown();
+    assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo(42L);
+  }
+
+  @Test
+  void differentKeysLoadIndependently() throws Exception {
+    AtomicInteger loads = new AtomicInteger();
+
+    assertThat(singleFlight.load("ana", () -> (long) loads.incrementAndGet(), 1000)).isEqualTo(1L);
+    assertThat(singleFlight.load("luis", () -> (long) loads.incrementAndGet(), 1000)).isEqualTo(2L);
+    // La clave se libera al terminar: no es una caché
+    assertThat(singleFlight.load("ana", () -> (long) loads.incrementAndGet(), 1000)).isEqualTo(3L);
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+}
@@ -0,0 +1,107 @@
+package com.mvanalytic.apirest_demo_springboot.utility;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import com.mvanalytic.apirest_demo_springboot.dto.user.UserRegistrationRequestDTO;
+import com.mvanalytic.apirest_demo_springboot.exceptions.BusinessException;
+
+/**
+ * Microbenchmark de {@link UserValidationService}: compara las validaciones
+ * actuales con las anteriores (expresiones regulares compiladas en cada
+ * llamada y excepción por cada error).
+ *
+ * No se ejecuta con mvn test. Para ejecutarlo:
+ * mvn -B test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt)
+ * org.openjdk.jmh.Main UserValidationServiceBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserValidationServiceBenchmark {
+
+  private static final String LEGACY_PASSWORD_REGEX = "^(?=.*[A-Z])(?=.*[a-z])(?=.*\\d)(?=.*[@$!%*?&.,/])[A-Za-z\\d@$!%*?&.,/]{12,}$";
+
+  private static final String LEGACY_EMAIL_REGEX = "^[A-Za-z0-9._%+-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,6}$";
+
+  private final UserValidationService service = new UserValidationService();
+
+  private final String password = "Contrasena.Segura2024";
+
+  private final String email = "usuario.prueba@mvanalytic.com";
+
+  private UserRegistrationRequestDTO invalidRegistration;
+
+  @Setup
+  public void setup() {
+    invalidRegistration = new UserRegistrationRequestDTO();
+    invalidRegistration.setFirstName("Ana");
+    invalidRegistration.setLastName("Solano");
+    invalidRegistration.setLanguageKey("es");
+    invalidRegistration.setEmail(email);
+    invalidRegistration.setNickname("ana.solano");
+    invalidRegistration.setPassword("corta");
+  }
+
+  @Benchmark
+  public boolean passwordScanner() {
+    return service.isValidPassword(password, 72);
+  }
+
+  @Benchmark
+  public boolean passwordLegacyRegex() {
+    return password.length() <= 72 && !password.contains(" ") && password.matches(LEGACY_PASSWORD_REGEX);
+  }
+
+  @Benchmark
+  public boolean emailPrecompiled() {
+    return service.isValidEmail(email, 5, 254);
+  }
+
+  @Benchmark
+  public boolean emailLegacyRegex() {
+    return email.length() >= 5 && email.length() <= 254 && !email.contains(" ") && email.matches(LEGACY_EMAIL_REGEX);
+  }
+
+  @Benchmark
+  public UserValidationError registrationCheck() {
+    return service.checkUserRegistrationRequestDTO(invalidRegistration);
+  }
+
+  @Benchmark
+  public String registrationLegacyThrow() {
+    // Error con traza de pila completa, como se lanzaba antes en cada error
+    try {
+      UserValidationError error = service.checkUserRegistrationRequestDTO(invalidRegistration);
+      if (error != null) {
+        throw new IllegalArgumentException(error.toString());
+      }
+      return null;
+    } catch (IllegalArgumentException e) {
+      return e.getMessage();
+    }
+  }
+
+  @Benchmark
+  public String registrationValidate() {
+    try {
+      service.validateUserRegistrationRequestDTO(invalidRegistration);
+      return null;
+    } catch (BusinessException e) {
+      return e.getMessage();
+    }
+  }
+
+}